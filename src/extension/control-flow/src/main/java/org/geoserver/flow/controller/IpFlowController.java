@@ -9,7 +9,6 @@
 import static org.geoserver.flow.ControlFlowCallback.X_CONCURRENT_LIMIT;
 import static org.geoserver.flow.ControlFlowCallback.X_CONCURRENT_REQUESTS;
 
-import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.servlet.http.HttpServletRequest;
@@ -42,8 +41,8 @@ public void requestComplete(Request request) {
         String queueId = QUEUE_ID.get();
         QUEUE_ID.remove();
         if (queueId != null) {
-            TimedBlockingQueue queue = queues.get(queueId);
-            if (queue != null) queue.remove(request);
+            RequestPermits permits = queues.get(queueId);
+            if (permits != null) permits.release(request);
         }
     }
 
@@ -65,32 +64,18 @@ public boolean requestIncoming(Request request, long timeout) {
             }
         }
 
-        // see if we have that queue already
-        TimedBlockingQueue queue = queues.get(incomingIp);
-
-        // generate a unique queue id for this client if none was found
-        if (queue == null) {
-            // beware of multiple concurrent requests...
-            synchronized (this) {
-                queue = queues.get(incomingIp);
-                if (queue == null) {
-                    if (LOGGER.isLoggable(Level.FINE)) {
-                        LOGGER.fine("IpFlowController(" + queueMaxSize + ")," + incomingIp + ", creating new queue");
-                    }
-                    queue = new TimedBlockingQueue(queueMaxSize, true);
-                    queues.put(incomingIp, queue);
-                }
+        // see if we have that queue already, otherwise generate it (beware of concurrent requests)
+        RequestPermits permits = queues.computeIfAbsent(incomingIp, ip -> {
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.fine("IpFlowController(" + queueMaxSize + ")," + ip + ", creating new queue");
             }
-        }
+            return new RequestPermits(queueMaxSize);
+        });
         QUEUE_ID.set(incomingIp);
 
         // queue token handling
         try {
-            if (timeout > 0) {
-                retval = queue.offer(request, timeout, TimeUnit.MILLISECONDS);
-            } else {
-                queue.put(request);
-            }
+            retval = permits.acquire(request, timeout);
 
             if (LOGGER.isLoggable(Level.FINE)) {
                 LOGGER.fine("IpFlowController("
@@ -98,10 +83,11 @@ public boolean requestIncoming(Request request, long timeout) {
                         + ") "
                         + incomingIp
                         + ", concurrent requests: "
-                        + queue.size());
+                        + permits.getRunningCount());
             }
             request.getHttpResponse().addHeader(X_CONCURRENT_LIMIT + "-ip", String.valueOf(queueMaxSize));
-            request.getHttpResponse().addHeader(X_CONCURRENT_REQUESTS + "-ip", String.valueOf(queue.size()));
+            request.getHttpResponse()
+                    .addHeader(X_CONCURRENT_REQUESTS + "-ip", String.valueOf(permits.getRunningCount()));
         } catch (InterruptedException e) {
             LOGGER.log(Level.WARNING, "Unexpected interruption while " + "blocking on the request queue");
         }
@@ -110,7 +96,12 @@ public boolean requestIncoming(Request request, long timeout) {
 
         // logs about queue size
         if (LOGGER.isLoggable(Level.FINE)) {
-            LOGGER.fine("IpFlowController(" + queueMaxSize + "," + incomingIp + ") queue size " + queue.size());
+            LOGGER.fine("IpFlowController("
+                    + queueMaxSize
+                    + ","
+                    + incomingIp
+                    + ") queue size "
+                    + permits.getRunningCount());
         }
 
         return retval;
@@ -7,7 +7,6 @@
 package org.geoserver.flow.controller;
 
 import java.util.Map;
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -16,7 +15,8 @@
 import org.geotools.util.logging.Logging;
 
 /**
- * Base class for flow controllers using a queue
+ * Base class for flow controllers using a queue, that is, a set of {@link RequestPermits} for each request key (the
+ * client ip, the user)
  *
  * @author Juan Marin, OpenGeo
  */
@@ -27,7 +27,7 @@ public abstract class QueueController implements FlowController {
     int queueMaxSize;
 
     /** The per request queue collection */
-    Map<String, TimedBlockingQueue> queues = new ConcurrentHashMap<>();
+    Map<String, RequestPermits> queues = new ConcurrentHashMap<>();
 
     /** Last time we've performed a queue cleanup */
     long lastCleanup = System.currentTimeMillis();
@@ -55,9 +55,9 @@ protected void cleanUpQueues(long now) {
             int cleanupCount = 0;
             synchronized (this) {
                 for (String key : queues.keySet()) {
-                    TimedBlockingQueue tbq = queues.get(key);
-                    if (now - tbq.lastModified > maxAge && tbq.isEmpty()) {
-                        queues.remove(key);
+                    RequestPermits permits = queues.get(key);
+                    if (permits != null && now - permits.getLastModified() > maxAge && permits.isIdle()) {
+                        queues.remove(key, permits);
                         cleanupCount++;
                     }
                 }
@@ -74,25 +74,4 @@ protected void cleanUpQueues(long now) {
             }
         }
     }
-
-    @SuppressWarnings("serial")
-    protected static class TimedBlockingQueue extends ArrayBlockingQueue<Request> {
-        long lastModified;
-
-        public TimedBlockingQueue(int capacity, boolean fair) {
-            super(capacity, fair);
-        }
-
-        @Override
-        public void put(Request o) throws InterruptedException {
-            super.put(o);
-            lastModified = System.currentTimeMillis();
-        }
-
-        @Override
-        public boolean remove(Object o) {
-            lastModified = System.currentTimeMillis();
-            return super.remove(o);
-        }
-    }
 }
@@ -0,0 +1,96 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.flow.controller;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.geoserver.ows.Request;
+
+/**
+ * Limits the number of requests running at the same time with a fair {@link Semaphore}.
+ *
+ * <p>The requests holding a permit are tracked, so that completing a request that never got one (e.g., because it timed
+ * out, or an earlier flow controller rejected it) does not release a permit. Waiting requests hold no lock, which makes
+ * the limit independent of the kind and number of threads serving the requests, virtual threads included.
+ */
+public class RequestPermits {
+
+    private final int permits;
+
+    private final Semaphore semaphore;
+
+    /** The permits held by each request, nested dispatches may get more than one */
+    private final Map<Request, Integer> running = new ConcurrentHashMap<>();
+
+    private final AtomicInteger runningCount = new AtomicInteger();
+
+    /** Last time a permit was acquired or released */
+    private volatile long lastModified = System.currentTimeMillis();
+
+    public RequestPermits(int permits) {
+        this.permits = permits;
+        this.semaphore = new Semaphore(permits, true);
+    }
+
+    /**
+     * Waits for a permit for the request.
+     *
+     * @param request the request
+     * @param timeout the maximum wait in milliseconds, if not positive, waits until a permit is available
+     * @return true if the permit was acquired, false if the wait timed out
+     */
+    public boolean acquire(Request request, long timeout) throws InterruptedException {
+        boolean acquired;
+        if (timeout > 0) {
+            acquired = semaphore.tryAcquire(timeout, TimeUnit.MILLISECONDS);
+        } else {
+            semaphore.acquire();
+            acquired = true;
+        }
+        if (acquired) {
+            running.merge(request, 1, Integer::sum);
+            runningCount.incrementAndGet();
+        }
+        lastModified = System.currentTimeMillis();
+        return acquired;
+    }
+
+    /** Releases a permit held by the request, if any */
+    public void release(Request request) {
+        boolean[] held = new boolean[1];
+        running.computeIfPresent(request, (r, count) -> {
+            held[0] = true;
+            return count > 1 ? count - 1 : null;
+        });
+        if (held[0]) {
+            runningCount.decrementAndGet();
+            semaphore.release();
+        }
+        lastModified = System.currentTimeMillis();
+    }
+
+    /** Returns the number of permits held by the running requests */
+    public int getRunningCount() {
+        return runningCount.get();
+    }
+
+    /** Returns true if no request is holding a permit */
+    public boolean isIdle() {
+        return running.isEmpty();
+    }
+
+    /** Returns the total number of permits */
+    public int getPermits() {
+        return permits;
+    }
+
+    /** Returns the last time a permit was acquired or released */
+    public long getLastModified() {
+        return lastModified;
+    }
+}
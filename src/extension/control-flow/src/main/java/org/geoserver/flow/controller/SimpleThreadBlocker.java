@@ -4,51 +4,40 @@
  */
 package org.geoserver.flow.controller;
 
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.TimeUnit;
 import org.geoserver.ows.Request;
 
 /**
- * Simple blocking queue based blocker, a request gets blocked if there are already <code>queueSize
- * </code> requests running
+ * Simple blocker, a request gets blocked if there are already <code>queueSize</code> requests running. The running
+ * requests are counted with {@link RequestPermits}, a fair semaphore, the waiting ones are served in arrival order.
  */
 public class SimpleThreadBlocker implements ThreadBlocker {
 
-    /**
-     * This queue contains the requests that are running. The ones waiting are not "visible", are all blocked on
-     * {@link BlockingQueue#offer(Object, long, TimeUnit)}} or {@link BlockingQueue#put(Object)}
-     */
-    BlockingQueue<Request> queue;
+    /** The permits of the running requests, the waiting ones are all blocked in {@link RequestPermits#acquire} */
+    RequestPermits permits;
 
     private final int queueSize;
 
     public SimpleThreadBlocker(int queueSize) {
         this.queueSize = queueSize;
-        queue = new ArrayBlockingQueue<>(queueSize, true);
+        permits = new RequestPermits(queueSize);
     }
 
     @Override
     public void requestComplete(Request request) {
-        // only removes requests that actually locked on the queue, when
+        // only releases requests that actually got a permit, when
         // a timeout happens some flow controllers won't have
         // requestIncoming called, but will have requestComplete called anyways
-        queue.remove(request);
+        permits.release(request);
     }
 
     @Override
     public int getRunningRequestsCount() {
-        return queue.size();
+        return permits.getRunningCount();
     }
 
     @Override
     public boolean requestIncoming(Request request, long timeout) throws InterruptedException {
-        if (timeout > 0) {
-            return queue.offer(request, timeout, TimeUnit.MILLISECONDS);
-        } else {
-            queue.put(request);
-            return true;
-        }
+        return permits.acquire(request, timeout);
     }
 
     @Override
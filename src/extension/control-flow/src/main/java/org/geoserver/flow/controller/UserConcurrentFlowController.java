@@ -8,8 +8,6 @@
 import static org.geoserver.flow.ControlFlowCallback.X_CONCURRENT_LIMIT;
 import static org.geoserver.flow.ControlFlowCallback.X_CONCURRENT_REQUESTS;
 
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.geoserver.flow.ControlFlowCallback;
@@ -61,8 +59,8 @@ public void requestComplete(Request request) {
         String queueId = QUEUE_ID.get();
         QUEUE_ID.remove();
         if (queueId != null) {
-            BlockingQueue<Request> queue = queues.get(queueId);
-            if (queue != null) queue.remove(request);
+            RequestPermits permits = queues.get(queueId);
+            if (permits != null) permits.release(request);
         }
     }
 
@@ -75,27 +73,25 @@ public boolean requestIncoming(Request request, long timeout) {
         QUEUE_ID.set(queueId);
 
         // see if we have that queue already, otherwise generate it
-        TimedBlockingQueue queue = queues.get(queueId);
-        if (queue == null) {
-            queue = new TimedBlockingQueue(queueMaxSize, true);
-            queues.put(queueId, queue);
-        }
+        RequestPermits permits = queues.computeIfAbsent(queueId, id -> new RequestPermits(queueMaxSize));
 
         // queue token handling
         try {
-            if (timeout > 0) {
-                retval = queue.offer(request, timeout, TimeUnit.MILLISECONDS);
-            } else {
-                queue.put(request);
-            }
+            retval = permits.acquire(request, timeout);
 
             request.getHttpResponse().addHeader(X_CONCURRENT_LIMIT + "-user", String.valueOf(queueMaxSize));
-            request.getHttpResponse().addHeader(X_CONCURRENT_REQUESTS + "-user", String.valueOf(queue.size()));
+            request.getHttpResponse()
+                    .addHeader(X_CONCURRENT_REQUESTS + "-user", String.valueOf(permits.getRunningCount()));
         } catch (InterruptedException e) {
             LOGGER.log(Level.WARNING, "Unexpected interruption while " + "blocking on the request queue");
         }
         if (LOGGER.isLoggable(Level.FINE)) {
-            LOGGER.fine("UserFlowController(" + queueMaxSize + "," + queueId + ") queue size " + queue.size());
+            LOGGER.fine("UserFlowController("
+                    + queueMaxSize
+                    + ","
+                    + queueId
+                    + ") queue size "
+                    + permits.getRunningCount());
         }
 
         // cleanup stale queues if necessary
@@ -0,0 +1,62 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.flow.controller;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.geoserver.ows.Request;
+import org.junit.Test;
+
+public class RequestPermitsTest {
+
+    @Test
+    public void testAcquireRelease() throws Exception {
+        RequestPermits permits = new RequestPermits(2);
+        Request r1 = new Request();
+        Request r2 = new Request();
+        Request r3 = new Request();
+
+        assertTrue(permits.isIdle());
+        assertTrue(permits.acquire(r1, 10));
+        assertTrue(permits.acquire(r2, 10));
+        assertEquals(2, permits.getRunningCount());
+        assertFalse(permits.acquire(r3, 10));
+        assertEquals(2, permits.getRunningCount());
+
+        // the timed out request did not get a permit, completing it does not release one
+        permits.release(r3);
+        assertFalse(permits.acquire(r3, 10));
+
+        permits.release(r1);
+        assertEquals(1, permits.getRunningCount());
+        assertTrue(permits.acquire(r3, 10));
+
+        permits.release(r2);
+        permits.release(r3);
+        assertTrue(permits.isIdle());
+        assertEquals(0, permits.getRunningCount());
+    }
+
+    @Test
+    public void testNestedRequests() throws Exception {
+        RequestPermits permits = new RequestPermits(2);
+        Request request = new Request();
+        Request copy = new Request(request);
+
+        // a copy of the request dispatched while the original is running gets its own permit
+        assertTrue(permits.acquire(request, 10));
+        assertTrue(permits.acquire(copy, 10));
+        assertEquals(2, permits.getRunningCount());
+        assertFalse(permits.acquire(new Request(), 10));
+
+        permits.release(copy);
+        assertEquals(1, permits.getRunningCount());
+        assertFalse(permits.isIdle());
+        permits.release(request);
+        assertTrue(permits.isIdle());
+    }
+}
@@ -0,0 +1,88 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.catalog;
+
+import java.beans.ConstructorProperties;
+import java.io.Serializable;
+
+/**
+ * Point in time statistics of one of the {@link ResourcePool} caches.
+ *
+ * @see ResourcePool#getCacheStatistics()
+ */
+public class ResourceCacheStatistics implements Serializable {
+
+    private static final long serialVersionUID = -4172209437367811462L;
+
+    private final String name;
+
+    private final long size;
+
+    private final long maximumSize;
+
+    private final long hitCount;
+
+    private final long missCount;
+
+    private final long evictionCount;
+
+    @ConstructorProperties({"name", "size", "maximumSize", "hitCount", "missCount", "evictionCount"})
+    public ResourceCacheStatistics(
+            String name, long size, long maximumSize, long hitCount, long missCount, long evictionCount) {
+        this.name = name;
+        this.size = size;
+        this.maximumSize = maximumSize;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+    }
+
+    /** The cache name, e.g., "dataStore" or "featureType" */
+    public String getName() {
+        return name;
+    }
+
+    /** The number of entries currently in the cache */
+    public long getSize() {
+        return size;
+    }
+
+    /** The maximum number of entries the cache holds before evicting the least recently used ones, -1 if unbounded */
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    /** Number of lookups that found an entry in the cache */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /** Number of lookups that did not find an entry in the cache */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /** Number of entries evicted because the cache was full, or the entry was idle for too long */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    @Override
+    public String toString() {
+        return "ResourceCacheStatistics [name="
+                + name
+                + ", size="
+                + size
+                + ", maximumSize="
+                + maximumSize
+                + ", hitCount="
+                + hitCount
+                + ", missCount="
+                + missCount
+                + ", evictionCount="
+                + evictionCount
+                + "]";
+    }
+}
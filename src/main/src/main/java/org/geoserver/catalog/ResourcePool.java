@@ -4,6 +4,13 @@
  */
 package org.geoserver.catalog;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.ForwardingConcurrentMap;
+import com.google.common.collect.Sets;
 import java.awt.RenderingHints;
 import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
@@ -34,9 +41,14 @@
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.measure.Unit;
@@ -144,6 +156,7 @@
 import org.geotools.xml.handlers.DocumentHandler;
 import org.geotools.xsd.Schemas;
 import org.springframework.context.ApplicationContext;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.vfny.geoserver.global.GeoServerFeatureLocking;
 import org.vfny.geoserver.global.GeoServerFeatureSource;
 import org.vfny.geoserver.global.GeoserverComplexFeatureSource;
@@ -167,6 +180,17 @@
  *   <li>{@link #hintCoverageReaderCache}
  *   <li>{@link #sldCache}
  *   <li>{@link #styleCache}
+ * </ul>
+ *
+ * <p>The caches of parsed definitions are bounded in size, and evict the least recently used entries when full. The
+ * caches of live resources, such as stores and readers, are unbounded by default, and dispose the entries they evict
+ * only after a delay, as they might still be in use. Each cache can be configured using the
+ * {@code geoserver.resourcePool.<cache>.maximumSize}, {@code geoserver.resourcePool.<cache>.expireAfterAccess} and
+ * {@code geoserver.resourcePool.<cache>.disposeDelay} properties (the latter two in seconds, entries idle for longer
+ * are evicted, evicted live resources are disposed once the delay elapsed), looked up as system properties, servlet
+ * context parameters or environment variables. The cache names are {@code crs}, {@code dataStore},
+ * {@code featureType}, {@code featureTypeAttribute}, {@code hintCoverageReader}, {@code wms}, {@code wmts},
+ * {@code sld} and {@code style}. Hit, miss and eviction counts are available through {@link #getCacheStatistics()}.
  *
  * @author Justin Deoliveira, Boundless
  */
@@ -193,6 +217,22 @@ public class ResourcePool {
     /** Default number of hard references */
     static int FEATURETYPE_CACHE_SIZE_DEFAULT = 100;
 
+    /**
+     * Default maximum size of the caches holding live resources, such as stores and readers, unbounded. Entries evicted
+     * by a configured bound are not disposed right away, as they might still be in use, see
+     * {@link CatalogResourceCache}
+     */
+    static int RESOURCE_CACHE_SIZE_DEFAULT = -1;
+
+    /** Default delay, in seconds, before the live resources evicted from a cache are disposed */
+    static int RESOURCE_DISPOSE_DELAY_DEFAULT = 60;
+
+    /** Default maximum size of the caches holding parsed definitions, such as CRSs and styles */
+    static int DEFINITION_CACHE_SIZE_DEFAULT = 10000;
+
+    /** Prefix of the properties used to configure the caches */
+    static final String CACHE_PROPERTY_PREFIX = "geoserver.resourcePool.";
+
     static String CRS_NOT_FOUND = "CRS_NOT_FOUND";
     static Map<CoordinateReferenceSystem, String> crsIdentifierCache = new SoftValueHashMap<>();
 
@@ -225,6 +265,12 @@ public class ResourcePool {
     /** Holds the key for the CoverageHintReaderCache. By ensuring identity allows to synchronize on the key. */
     private CanonicalSet<CoverageHintReaderKey> coverageCacheKeys;
 
+    /** The data stores being created */
+    private final SingleFlight<String, DataAccess> dataStoreLoads = new SingleFlight<>();
+
+    /** The coverage readers being created */
+    private final SingleFlight<CoverageHintReaderKey, GridCoverageReader> coverageReaderLoads = new SingleFlight<>();
+
     /** Creates a new instance of the resource pool explicitly supplying the application context. */
     public static ResourcePool create(Catalog catalog, ApplicationContext appContext) {
         // look for an implementation in spring context
@@ -290,7 +336,7 @@ public Map<String, CoordinateReferenceSystem> getCrsCache() {
     }
 
     protected Map<String, CoordinateReferenceSystem> createCrsCache() {
-        return new ConcurrentHashMap<>();
+        return new DefinitionCache<>("crs");
     }
 
     /**
@@ -371,7 +417,7 @@ public Map<String, StyledLayerDescriptor> getSldCache() {
     }
 
     protected Map<String, StyledLayerDescriptor> createSldCache() {
-        return new ConcurrentHashMap<>();
+        return new DefinitionCache<>("sld");
     }
 
     /**
@@ -384,7 +430,7 @@ public Map<String, Style> getStyleCache() {
     }
 
     protected Map<String, Style> createStyleCache() {
-        return new ConcurrentHashMap<>();
+        return new DefinitionCache<>("style");
     }
 
     /**
@@ -424,6 +470,102 @@ public void setFeatureTypeCacheSize(int featureTypeCacheSize) {
         }
     }
 
+    /**
+     * Returns the statistics of the resource caches, in no particular order. The coverage readers are cached, and
+     * reported, as {@code hintCoverageReader}. Caches that are not {@link CatalogResourceCache} instances (e.g.,
+     * replaced by a subclass) are not reported.
+     */
+    public List<ResourceCacheStatistics> getCacheStatistics() {
+        List<ResourceCacheStatistics> result = new ArrayList<>();
+        for (Map<?, ?> cache : Arrays.asList(
+                crsCache,
+                dataStoreCache,
+                featureTypeCache,
+                featureTypeAttributeCache,
+                hintCoverageReaderCache,
+                wmsCache,
+                wmtsCache,
+                sldCache,
+                styleCache)) {
+            if (cache instanceof CatalogResourceCache) {
+                result.add(((CatalogResourceCache<?, ?>) cache).getStatistics());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Opens the enabled data stores and coverage readers in background, so that the requests coming in after startup
+     * or reload do not have to wait for them. Stores that cannot be opened are logged and skipped. When the store or
+     * reader cache is bounded, only as many stores as the cache can hold are opened, the others would just evict the
+     * ones opened before them.
+     *
+     * @param threads the maximum number of stores opened in parallel
+     * @return a future completing once all stores have been tried
+     */
+    public CompletableFuture<Void> prewarm(int threads) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("ResourcePoolPrewarm-");
+        threadFactory.setDaemon(true);
+        ExecutorService executor = Executors.newFixedThreadPool(threads, threadFactory);
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        int skipped = 0;
+        try {
+            long dataStores = getPrewarmCapacity(dataStoreCache);
+            for (DataStoreInfo store : catalog.getDataStores()) {
+                if (!store.isEnabled()) {
+                    continue;
+                }
+                if (dataStores-- > 0) {
+                    tasks.add(CompletableFuture.runAsync(() -> prewarm(store, () -> getDataStore(store)), executor));
+                } else {
+                    skipped++;
+                }
+            }
+            long coverageStores = getPrewarmCapacity(hintCoverageReaderCache);
+            for (CoverageStoreInfo store : catalog.getCoverageStores()) {
+                if (!store.isEnabled()) {
+                    continue;
+                }
+                if (coverageStores-- > 0) {
+                    tasks.add(CompletableFuture.runAsync(
+                            () -> prewarm(store, () -> getGridCoverageReader(store, null)), executor));
+                } else {
+                    skipped++;
+                }
+            }
+        } finally {
+            // the tasks already submitted keep on running
+            executor.shutdown();
+        }
+        if (skipped > 0) {
+            LOGGER.config("Not pre-warming " + skipped + " stores, the resource caches cannot hold them all");
+        }
+        long start = System.currentTimeMillis();
+        LOGGER.config("Pre-warming " + tasks.size() + " stores using " + threads + " threads");
+        return CompletableFuture.allOf(tasks.toArray(new CompletableFuture[tasks.size()]))
+                .thenRun(() -> LOGGER.config(
+                        "Pre-warmed " + tasks.size() + " stores in " + (System.currentTimeMillis() - start) + "ms"));
+    }
+
+    /** Returns how many entries can be pre-warmed in the cache without evicting any */
+    private static long getPrewarmCapacity(Map<?, ?> cache) {
+        if (cache instanceof CatalogResourceCache) {
+            CatalogResourceCache<?, ?> resourceCache = (CatalogResourceCache<?, ?>) cache;
+            if (resourceCache.getMaximumSize() >= 0) {
+                return Math.max(0, resourceCache.getMaximumSize() - resourceCache.size());
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    private void prewarm(StoreInfo store, SingleFlight.Loader<?> loader) {
+        try {
+            loader.load();
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Failed to open store " + store.getName() + " while pre-warming", e);
+        }
+    }
+
     /**
      * Sets the coverage executor used for concurrent processing of files (e.g. in image mosaic, when multi-threaded
      * loading is enabled)
@@ -627,17 +769,8 @@ public DataAccessFactory getDataStoreFactory(DataStoreInfo info) throws IOExcept
             // harmful, NPE when trying to dispose of them)
             if (storeId == null) return createDataAccess(info, expandedStore);
 
-            String key = cacheKeys.unique(storeId);
-            dataStore = dataStoreCache.get(key);
-            if (dataStore == null) {
-                synchronized (key) {
-                    dataStore = dataStoreCache.get(key);
-                    if (dataStore == null) {
-                        dataStore = createDataAccess(info, expandedStore);
-                        dataStoreCache.put(key, dataStore);
-                    }
-                }
-            }
+            // concurrent requests for the same store wait for a single connection attempt
+            dataStore = dataStoreLoads.get(dataStoreCache, storeId, () -> createDataAccess(info, expandedStore));
 
             return dataStore;
         } catch (Exception e) {
@@ -1596,41 +1729,32 @@ private GridCoverageReader getGridCoverageReader(
         if (coverageExecutor != null) {
             hints.add(new RenderingHints(Hints.EXECUTOR_SERVICE, coverageExecutor));
         }
-        // look into the cache
-        CoverageHintReaderKey key = new CoverageHintReaderKey(info.getId(), hints);
-        key = coverageCacheKeys.unique(key);
-        GridCoverageReader reader = hintCoverageReaderCache.get(key);
-
-        // if not found in cache, create it
-        if (reader == null) {
-            synchronized (key) {
-                if (key != null) {
-                    reader = hintCoverageReaderCache.get(key);
-                }
-                if (reader == null) {
-                    try {
-                        /////////////////////////////////////////////////////////
-                        //
-                        // Getting coverage reader using the format and the real path.
-                        //
-                        // /////////////////////////////////////////////////////////
-                        final String urlString = expandedStore.getURL();
-                        Object readObject = getCoverageStoreSource(urlString, coverageInfo, expandedStore, hints);
-
-                        // readers might change the provided hints, pass down a defensive copy
-                        reader = gridFormat.getReader(readObject, hints);
-                        if (reader == null) {
-                            throw new IOException("Failed to create reader from " + urlString + " and hints " + hints);
-                        }
-                        if (key != null) {
-                            hintCoverageReaderCache.put(key, reader);
-                        }
-                    } catch (Exception e) {
-                        disableStoreInfoIfNeeded(info, CoverageStoreInfo.class, e);
-                        throw e;
-                    }
+        // look into the cache, if not found create it, concurrent requests for the same reader
+        // wait for a single creation attempt
+        CoverageHintReaderKey key = coverageCacheKeys.unique(new CoverageHintReaderKey(info.getId(), hints));
+        final Hints readerHints = hints;
+        final CoverageInfo readerCoverage = coverageInfo;
+        GridCoverageReader reader;
+        try {
+            reader = coverageReaderLoads.get(hintCoverageReaderCache, key, () -> {
+                /////////////////////////////////////////////////////////
+                //
+                // Getting coverage reader using the format and the real path.
+                //
+                // /////////////////////////////////////////////////////////
+                final String urlString = expandedStore.getURL();
+                Object readObject = getCoverageStoreSource(urlString, readerCoverage, expandedStore, readerHints);
+
+                // readers might change the provided hints, pass down a defensive copy
+                GridCoverageReader created = gridFormat.getReader(readObject, readerHints);
+                if (created == null) {
+                    throw new IOException("Failed to create reader from " + urlString + " and hints " + readerHints);
                 }
-            }
+                return created;
+            });
+        } catch (IOException | RuntimeException e) {
+            disableStoreInfoIfNeeded(info, CoverageStoreInfo.class, e);
+            throw e;
         }
 
         if (coverageInfo == null && coverageName != null) {
@@ -2306,53 +2430,248 @@ public void dispose() {
 
     /**
      * Base class for all the resource caches, ensures type safety and provides an easier way to handle with resource
-     * disposal
+     * disposal.
+     *
+     * <p>The cache can be bounded, once full the least recently used entries are evicted. Entries are disposed when
+     * removed, or when the cache is cleared, but not when replaced by a new value for the same key. Idle entries, if an
+     * idle time is configured, are evicted during the normal cache operations, there is no background thread performing
+     * evictions.
+     *
+     * <p>Caches holding live resources, like stores and readers, do not dispose the entries evicted by the size or idle
+     * time limits right away, as they might still be in use by running requests. They are held for a configurable delay
+     * instead, looking up the key again in the meantime brings the same resource back into the cache. Once the delay
+     * elapsed they are disposed, during the normal cache operations, as are the ones still held when the key is removed
+     * or the cache cleared.
      *
      * @author Andrea Aime
      * @param <K>
      * @param <V>
      */
-    abstract class CatalogResourceCache<K, V> extends SoftValueHashMap<K, V> {
+    abstract class CatalogResourceCache<K, V> extends ForwardingConcurrentMap<K, V> {
+
+        private final String name;
+
+        private final long maximumSize;
 
-        public CatalogResourceCache() {
-            this(100);
+        private final Cache<K, V> cache;
+
+        /** True if the entries are live resources, that cannot be disposed when evicted */
+        private final boolean live;
+
+        /** Delay, in nanoseconds, before the evicted live resources are disposed */
+        private final long disposeDelay;
+
+        /** The live resources evicted from the cache and not disposed yet, by key */
+        private final Map<K, EvictedEntry<V>> evicted = new ConcurrentHashMap<>();
+
+        /**
+         * Creates a new cache, whose entries are disposed when evicted
+         *
+         * @param name the cache name, used for configuration lookups and statistics
+         * @param maximumSize the default maximum size, can be overridden by configuration, negative for no limit
+         */
+        public CatalogResourceCache(String name, int maximumSize) {
+            this(name, maximumSize, false);
         }
 
-        public CatalogResourceCache(int hardReferences) {
-            super(hardReferences);
-            super.cleaner = (ValueCleaner<K, V>) (key, object) -> dispose(key, object);
+        /**
+         * Creates a new cache
+         *
+         * @param name the cache name, used for configuration lookups and statistics
+         * @param maximumSize the default maximum size, can be overridden by configuration, negative for no limit
+         * @param live true if the entries are live resources, that might still be in use when evicted
+         */
+        public CatalogResourceCache(String name, int maximumSize, boolean live) {
+            this.name = name;
+            this.live = live;
+            this.maximumSize = getCacheProperty(name, "maximumSize", maximumSize);
+            long expireAfterAccess = getCacheProperty(name, "expireAfterAccess", 0);
+            this.disposeDelay = TimeUnit.SECONDS.toNanos(
+                    Math.max(0, getCacheProperty(name, "disposeDelay", RESOURCE_DISPOSE_DELAY_DEFAULT)));
+
+            CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder().recordStats();
+            if (this.maximumSize >= 0) {
+                builder.maximumSize(this.maximumSize);
+            }
+            if (expireAfterAccess > 0) {
+                builder.expireAfterAccess(expireAfterAccess, TimeUnit.SECONDS);
+            }
+            this.cache = builder.<K, V>removalListener(this::onRemoval).build();
+        }
+
+        private void onRemoval(RemovalNotification<K, V> notification) {
+            // replaced values might still be in use by whoever looked them up, leave them alone
+            if (notification.getCause() == RemovalCause.REPLACED || notification.getValue() == null) {
+                return;
+            }
+            if (live && notification.wasEvicted()) {
+                // might still be in use, keep it around for a while before disposing it
+                K key = notification.getKey();
+                V value = notification.getValue();
+                EvictedEntry<V> previous = evicted.put(key, new EvictedEntry<>(value, System.nanoTime()));
+                if (previous != null && previous.value != value) {
+                    safeDispose(key, previous.value);
+                }
+                disposeExpired();
+                return;
+            }
+            safeDispose(notification.getKey(), notification.getValue());
+        }
+
+        private void safeDispose(K key, V value) {
+            try {
+                dispose(key, value);
+            } catch (Exception e) {
+                LOGGER.log(Level.WARNING, "Error disposing " + name + " cache entry: " + key, e);
+            }
+        }
+
+        /** Disposes the evicted entries held for longer than the dispose delay */
+        private void disposeExpired() {
+            long now = System.nanoTime();
+            for (Map.Entry<K, EvictedEntry<V>> entry : evicted.entrySet()) {
+                EvictedEntry<V> held = entry.getValue();
+                if (now - held.evictedAt >= disposeDelay && evicted.remove(entry.getKey(), held)) {
+                    safeDispose(entry.getKey(), held.value);
+                }
+            }
+        }
+
+        @Override
+        protected ConcurrentMap<K, V> delegate() {
+            return cache.asMap();
         }
 
         @Override
+        public V get(Object key) {
+            // the map view does not record hits and misses
+            V value = cache.getIfPresent(key);
+            if (!evicted.isEmpty()) {
+                disposeExpired();
+                if (value == null) {
+                    value = restore(key);
+                }
+            }
+            return value;
+        }
+
+        /** Puts an evicted, but not yet disposed, resource back in the cache */
         @SuppressWarnings("unchecked")
+        private V restore(Object key) {
+            EvictedEntry<V> held = evicted.remove(key);
+            if (held == null) {
+                return null;
+            }
+            V previous = cache.asMap().putIfAbsent((K) key, held.value);
+            if (previous != null && previous != held.value) {
+                // a new resource got cached in the meantime, the evicted one is no longer reachable
+                safeDispose((K) key, held.value);
+                return previous;
+            }
+            return held.value;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return delegate().containsKey(key) || evicted.containsKey(key);
+        }
+
+        /** The keys of the cached entries, and of the evicted resources not disposed yet */
+        @Override
+        public Set<K> keySet() {
+            return Sets.union(delegate().keySet(), evicted.keySet());
+        }
+
+        @Override
         public V remove(Object key) {
-            V object = super.remove(key);
-            if (object != null) {
-                dispose((K) key, object);
+            V value = delegate().remove(key);
+            EvictedEntry<V> held = evicted.remove(key);
+            if (held == null) {
+                return value;
             }
-            return object;
+            @SuppressWarnings("unchecked")
+            K heldKey = (K) key;
+            safeDispose(heldKey, held.value);
+            return value != null ? value : held.value;
         }
 
         @Override
-        @SuppressWarnings("unchecked")
         public void clear() {
-            for (Entry entry : entrySet()) {
-                try {
-                    dispose((K) entry.getKey(), (V) entry.getValue());
-                } catch (Exception e) {
-                    LOGGER.log(Level.WARNING, "Error dispoing entry: " + entry, e);
-                }
+            delegate().clear();
+            for (K key : new ArrayList<>(evicted.keySet())) {
+                remove(key);
             }
-            super.clear();
+        }
+
+        /** Returns the cache name */
+        public String getName() {
+            return name;
+        }
+
+        /** Returns the maximum number of entries in the cache, negative if unbounded */
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        /** Returns a snapshot of the cache statistics */
+        public ResourceCacheStatistics getStatistics() {
+            CacheStats stats = cache.stats();
+            return new ResourceCacheStatistics(
+                    name,
+                    cache.size(),
+                    maximumSize,
+                    stats.hitCount(),
+                    stats.missCount(),
+                    stats.evictionCount());
         }
 
         protected abstract void dispose(K key, V object);
     }
 
+    private static long getCacheProperty(String cache, String property, long defaultValue) {
+        String key = CACHE_PROPERTY_PREFIX + cache + "." + property;
+        String value = GeoServerExtensions.getProperty(key);
+        if (value != null) {
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid value for " + key + ", using the default " + defaultValue + ": " + value);
+            }
+        }
+        return defaultValue;
+    }
+
+    /** A live resource evicted from a {@link CatalogResourceCache}, waiting to be disposed */
+    private static class EvictedEntry<V> {
+
+        final V value;
+
+        /** The eviction time, as returned by {@link System#nanoTime()} */
+        final long evictedAt;
+
+        EvictedEntry(V value, long evictedAt) {
+            this.value = value;
+            this.evictedAt = evictedAt;
+        }
+    }
+
+    /** Cache for parsed definitions, that do not need any disposal */
+    class DefinitionCache<K, V> extends CatalogResourceCache<K, V> {
+
+        DefinitionCache(String name) {
+            super(name, DEFINITION_CACHE_SIZE_DEFAULT);
+        }
+
+        @Override
+        protected void dispose(K key, V object) {
+            // nothing to do
+        }
+    }
+
     class FeatureTypeCache extends CatalogResourceCache<String, FeatureType> {
 
         public FeatureTypeCache(int maxSize) {
-            super(maxSize);
+            super("featureType", maxSize);
         }
 
         @Override
@@ -2380,6 +2699,11 @@ protected void dispose(String key, FeatureType featureType) {
      * @see ResourcePool#dataStoreCache
      */
     class DataStoreCache extends CatalogResourceCache<String, DataAccess> {
+
+        public DataStoreCache() {
+            super("dataStore", RESOURCE_CACHE_SIZE_DEFAULT, true);
+        }
+
         /**
          * Ensure data access entry is removed from catalog, and ensure DataAccess dispose is called to return system
          * resources.
@@ -2412,27 +2736,11 @@ protected void dispose(String id, final DataAccess dataAccess) {
         }
     }
 
-    class CoverageReaderCache extends CatalogResourceCache<String, GridCoverageReader> {
-
-        @Override
-        protected void dispose(String id, GridCoverageReader reader) {
-            CoverageStoreInfo info = catalog.getCoverageStore(id);
-            if (info != null) {
-                String name = info.getName();
-                LOGGER.fine("Disposing coverage store '" + name + "'");
+    class CoverageHintReaderCache extends CatalogResourceCache<CoverageHintReaderKey, GridCoverageReader> {
 
-                fireDisposed(info, reader);
-            }
-            try {
-                reader.dispose();
-            } catch (Exception e) {
-                LOGGER.warning("Error occured disposing coverage reader '" + info.getName() + "'");
-                LOGGER.log(Level.FINE, "", e);
-            }
+        public CoverageHintReaderCache() {
+            super("hintCoverageReader", RESOURCE_CACHE_SIZE_DEFAULT, true);
         }
-    }
-
-    class CoverageHintReaderCache extends CatalogResourceCache<CoverageHintReaderKey, GridCoverageReader> {
 
         @Override
         protected void dispose(CoverageHintReaderKey key, GridCoverageReader reader) {
@@ -2494,7 +2802,7 @@ public boolean equals(Object obj) {
     class FeatureTypeAttributeCache extends CatalogResourceCache<String, List<AttributeTypeInfo>> {
 
         FeatureTypeAttributeCache(int size) {
-            super(size);
+            super("featureTypeAttribute", size);
         }
 
         @Override
@@ -2505,6 +2813,10 @@ protected void dispose(String key, List<AttributeTypeInfo> object) {
 
     class WMSCache extends CatalogResourceCache<String, WebMapServer> {
 
+        public WMSCache() {
+            super("wms", RESOURCE_CACHE_SIZE_DEFAULT, true);
+        }
+
         @Override
         protected void dispose(String key, WebMapServer server) {
             HTTPClient client = server.getHTTPClient();
@@ -2525,6 +2837,10 @@ protected void dispose(String key, WebMapServer server) {
 
     class WMTSCache extends CatalogResourceCache<String, WebMapTileServer> {
 
+        public WMTSCache() {
+            super("wmts", RESOURCE_CACHE_SIZE_DEFAULT, true);
+        }
+
         @Override
         protected void dispose(String key, WebMapTileServer server) {
             HTTPClient client = server.getHTTPClient();
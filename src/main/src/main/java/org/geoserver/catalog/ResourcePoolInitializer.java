@@ -6,11 +6,14 @@
 package org.geoserver.catalog;
 
 import java.util.List;
+import java.util.logging.Logger;
 import org.geoserver.config.ConfigurationListenerAdapter;
 import org.geoserver.config.GeoServer;
 import org.geoserver.config.GeoServerInfo;
 import org.geoserver.config.GeoServerReinitializer;
+import org.geoserver.platform.GeoServerExtensions;
 import org.geoserver.util.EntityResolverProvider;
+import org.geotools.util.logging.Logging;
 
 /**
  * Initializes parameters of the {@link ResourcePool} class from configuration.
@@ -19,6 +22,14 @@
  */
 public class ResourcePoolInitializer implements GeoServerReinitializer {
 
+    static final Logger LOGGER = Logging.getLogger(ResourcePoolInitializer.class);
+
+    /**
+     * Number of threads used to open the enabled stores in background after startup and reload, pre-warming is
+     * disabled if missing or not positive
+     */
+    public static final String PREWARM_THREADS = "geoserver.resourcePool.prewarmThreads";
+
     GeoServer gs;
     EntityResolverProvider resolverProvider;
 
@@ -52,5 +63,22 @@ public void handleGlobalChange(
         });
 
         gs.getCatalog().getResourcePool().setEntityResolverProvider(resolverProvider);
+
+        int prewarmThreads = getPrewarmThreads();
+        if (prewarmThreads > 0) {
+            gs.getCatalog().getResourcePool().prewarm(prewarmThreads);
+        }
+    }
+
+    static int getPrewarmThreads() {
+        String value = GeoServerExtensions.getProperty(PREWARM_THREADS);
+        if (value != null) {
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid value for " + PREWARM_THREADS + ", pre-warming disabled: " + value);
+            }
+        }
+        return 0;
     }
 }
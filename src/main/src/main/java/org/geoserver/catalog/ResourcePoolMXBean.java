@@ -0,0 +1,18 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.catalog;
+
+import java.util.List;
+
+/**
+ * JMX view of the {@link ResourcePool} caches, registered as {@value ResourcePoolMonitor#OBJECT_NAME}.
+ *
+ * @see ResourcePoolMonitor
+ */
+public interface ResourcePoolMXBean {
+
+    /** Returns the statistics of the resource pool caches */
+    List<ResourceCacheStatistics> getCacheStatistics();
+}
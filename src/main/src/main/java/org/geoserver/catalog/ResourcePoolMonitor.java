@@ -0,0 +1,71 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.catalog;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.geotools.util.logging.Logging;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+
+/**
+ * Publishes the {@link ResourcePool} cache statistics in the platform MBean server.
+ *
+ * <p>The statistics are always read from the current resource pool of the catalog, so they keep on being reported
+ * correctly if the pool is replaced.
+ */
+public class ResourcePoolMonitor implements ResourcePoolMXBean, InitializingBean, DisposableBean {
+
+    static final Logger LOGGER = Logging.getLogger(ResourcePoolMonitor.class);
+
+    /** The name the monitor is registered with */
+    public static final String OBJECT_NAME = "org.geoserver:type=ResourcePool";
+
+    private final Catalog catalog;
+
+    private ObjectName registered;
+
+    public ResourcePoolMonitor(Catalog catalog) {
+        this.catalog = catalog;
+    }
+
+    @Override
+    public List<ResourceCacheStatistics> getCacheStatistics() {
+        return catalog.getResourcePool().getCacheStatistics();
+    }
+
+    @Override
+    public void afterPropertiesSet() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        try {
+            server.registerMBean(this, name);
+            registered = name;
+        } catch (InstanceAlreadyExistsException e) {
+            // e.g., another GeoServer running in the same JVM
+            LOGGER.log(Level.INFO, "Resource pool statistics already registered, skipping JMX registration");
+        } catch (JMException | SecurityException e) {
+            LOGGER.log(Level.WARNING, "Failed to register the resource pool statistics in JMX", e);
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (registered != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(registered);
+            } catch (JMException e) {
+                LOGGER.log(Level.FINE, "Failed to unregister the resource pool statistics from JMX", e);
+            }
+            registered = null;
+        }
+    }
+}
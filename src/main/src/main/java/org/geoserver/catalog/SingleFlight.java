@@ -0,0 +1,95 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.catalog;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Loads cache entries once for all the concurrent callers asking for the same key.
+ *
+ * <p>The first caller missing the cache loads the value, the others wait for it, and get either the same value, or
+ * the same failure. This avoids both connecting to the same backend several times, and having each waiting caller try
+ * again when the backend is failing.
+ *
+ * @param <K> the cache key
+ * @param <V> the cache value
+ */
+class SingleFlight<K, V> {
+
+    /** Loads a value */
+    @FunctionalInterface
+    interface Loader<V> {
+        V load() throws IOException;
+    }
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the value from the cache, loading and caching it if missing
+     *
+     * @param cache the cache
+     * @param key the cache key
+     * @param loader loads the value, will be called by only one thread at a time for a given key. It must not return
+     *     null
+     */
+    V get(Map<K, V> cache, K key, Loader<? extends V> loader) throws IOException {
+        V value = cache.get(key);
+        if (value != null) {
+            return value;
+        }
+
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            // the load in flight before ours might have completed in the meantime
+            value = cache.get(key);
+            if (value == null) {
+                value = loader.load();
+                cache.put(key, value);
+            }
+            flight.complete(value);
+            return value;
+        } catch (IOException | RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private V await(CompletableFuture<V> flight) throws IOException {
+        try {
+            return flight.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the resource to be loaded");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                // wrap to keep track of the waiting thread stack trace too
+                throw new IOException(cause.getMessage(), cause);
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    /** Returns the number of loads currently in progress */
+    int size() {
+        return inFlight.size();
+    }
+}
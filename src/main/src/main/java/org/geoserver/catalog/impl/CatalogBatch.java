@@ -0,0 +1,492 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.catalog.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.geoserver.GeoServerConfigurationLock;
+import org.geoserver.GeoServerConfigurationLock.LockType;
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.CatalogException;
+import org.geoserver.catalog.CatalogInfo;
+import org.geoserver.catalog.LayerGroupInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.NamespaceInfo;
+import org.geoserver.catalog.ResourceInfo;
+import org.geoserver.catalog.StoreInfo;
+import org.geoserver.catalog.StyleInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.event.CatalogAddEvent;
+import org.geoserver.catalog.event.CatalogEvent;
+import org.geoserver.catalog.event.CatalogPostModifyEvent;
+import org.geoserver.catalog.event.CatalogRemoveEvent;
+import org.geoserver.catalog.event.impl.CatalogPostModifyEventImpl;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geotools.util.decorate.Wrapper;
+
+/**
+ * Groups several additions and modifications to the catalog, applying them in one go.
+ *
+ * <p>On {@link #commit()} the batch takes the configuration write lock, the same {@link GeoServerConfigurationLock}
+ * the REST API and the user interface take for their changes, and validates all the changes before applying any. Only
+ * the objects depending on others added by the same batch, like a layer whose resource is part of the batch, are
+ * validated as they get applied. Then the new objects are added in order, and the modified ones saved. If any of the
+ * changes fails, the modifications saved so far are reverted, the objects added so far are removed, and no listener
+ * hears about them. Should the revert fail too, listeners are notified of the changes left in the catalog, so that
+ * they can persist them and clear their caches. Nested objects modified in place, like the attribution of a layer,
+ * are not reverted. Listeners are notified only
+ * once the whole batch is applied, and the notifications are coalesced: an object added and then modified in the same
+ * batch results in a single add event, and an object saved several times in a single post modify event. This way
+ * listeners writing the configuration to disk, or invalidating caches, do their work once per object.
+ *
+ * <p>Before add and modify events are still dispatched right away, listeners use them to adjust the objects, or to
+ * veto the change, before it is applied.
+ *
+ * <p>The batch operates on the raw catalog, wrappers such as the secured catalog are bypassed. Catalogs other than
+ * {@link CatalogImpl} get the changes applied one by one, without holding back the events.
+ */
+public class CatalogBatch {
+
+    private final Catalog catalog;
+
+    /** The catalog holding back the events while the batch is applied, or null if not supported */
+    private final CatalogImpl catalogImpl;
+
+    GeoServerConfigurationLock configurationLock;
+
+    private final List<CatalogInfo> additions = new ArrayList<>();
+
+    private final List<CatalogInfo> modifications = new ArrayList<>();
+
+    public CatalogBatch(Catalog catalog) {
+        while (catalog instanceof Wrapper && ((Wrapper) catalog).isWrapperFor(Catalog.class)) {
+            catalog = ((Wrapper) catalog).unwrap(Catalog.class);
+        }
+        this.catalog = catalog;
+        this.catalogImpl = catalog instanceof CatalogImpl ? (CatalogImpl) catalog : null;
+        this.configurationLock = GeoServerExtensions.bean(GeoServerConfigurationLock.class);
+    }
+
+    /** Schedules the addition of a new object, objects are added in the order they are scheduled */
+    public CatalogBatch add(CatalogInfo info) {
+        additions.add(unwrap(info));
+        return this;
+    }
+
+    /** Schedules saving the changes made to an existing object, saves happen after all the additions */
+    public CatalogBatch save(CatalogInfo info) {
+        modifications.add(unwrap(info));
+        return this;
+    }
+
+    /** Returns the number of changes scheduled */
+    public int size() {
+        return additions.size() + modifications.size();
+    }
+
+    /** Applies the batch, see the class documentation */
+    public void commit() {
+        List<CatalogEvent> events = Collections.emptyList();
+        RuntimeException failure = null;
+        boolean reverted = true;
+        boolean locked = lock();
+        try {
+            validate();
+            if (catalogImpl != null) {
+                catalogImpl.holdEvents();
+            }
+            List<CatalogInfo> added = new ArrayList<>();
+            List<SavedChange> saved = new ArrayList<>();
+            try {
+                apply(added, saved);
+            } catch (RuntimeException e) {
+                failure = e;
+                reverted = rollback(added, saved, e);
+            } finally {
+                if (catalogImpl != null) {
+                    events = catalogImpl.releaseEvents();
+                }
+            }
+        } finally {
+            if (locked) {
+                configurationLock.unlock();
+            }
+        }
+        additions.clear();
+        modifications.clear();
+
+        if (failure == null) {
+            dispatch(coalesce(events));
+        } else {
+            if (!reverted) {
+                // part of the batch is still in the catalog, listeners must know about it
+                try {
+                    dispatch(coalesce(events));
+                } catch (CatalogException e) {
+                    failure.addSuppressed(e);
+                }
+            }
+            throw failure;
+        }
+    }
+
+    /**
+     * Takes the configuration write lock, unless the current thread owns it already, upgrading a read lock the same
+     * way the {@link org.geoserver.catalog.LockingCatalogFacade} does
+     *
+     * @return true if the lock was taken, and has to be released at the end of the batch
+     */
+    private boolean lock() {
+        if (configurationLock == null || !configurationLock.isEnabled()) {
+            return false;
+        }
+        LockType current = configurationLock.getCurrentLock();
+        if (current == LockType.WRITE) {
+            return false;
+        } else if (current == LockType.READ) {
+            // the owner of the read lock releases the upgraded one
+            configurationLock.tryUpgradeLock();
+            return false;
+        }
+        configurationLock.lock(LockType.WRITE);
+        return true;
+    }
+
+    /** Validates the changes not depending on the objects added by the batch, before any of them is applied */
+    private void validate() {
+        Set<String> batchIds = new HashSet<>();
+        Set<CatalogInfo> batchObjects = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (CatalogInfo info : additions) {
+            batchObjects.add(info);
+            if (info.getId() != null) {
+                batchIds.add(info.getId());
+            }
+        }
+        for (CatalogInfo info : additions) {
+            if (!dependsOn(info, batchObjects, batchIds)) {
+                prepare(info);
+                validate(info, true);
+            }
+        }
+        for (CatalogInfo info : modifications) {
+            if (!dependsOn(info, batchObjects, batchIds)) {
+                validate(info, false);
+            }
+        }
+    }
+
+    /**
+     * Adds the new objects, then validates and saves the modified ones, tracking the changes applied so far in the
+     * given lists
+     */
+    private void apply(List<CatalogInfo> added, List<SavedChange> saved) {
+        for (CatalogInfo info : additions) {
+            add(info);
+            added.add(info);
+        }
+        // validated again, now that the objects they might depend on are in the catalog
+        for (CatalogInfo info : modifications) {
+            validate(info, false);
+        }
+        for (CatalogInfo info : modifications) {
+            // the old values are gone once saved
+            SavedChange change = SavedChange.of(info);
+            save(info);
+            saved.add(change);
+        }
+    }
+
+    /** Returns true if the object references one of the objects added by the batch, the catalog cannot validate it */
+    private static boolean dependsOn(CatalogInfo info, Set<CatalogInfo> objects, Set<String> ids) {
+        if (info instanceof LayerInfo) {
+            return isPartOf(((LayerInfo) info).getResource(), objects, ids);
+        } else if (info instanceof LayerGroupInfo) {
+            LayerGroupInfo group = (LayerGroupInfo) info;
+            return isPartOf(group.getRootLayer(), objects, ids)
+                    || group.getLayers().stream().anyMatch(p -> isPartOf(p, objects, ids))
+                    || group.getStyles().stream().anyMatch(s -> isPartOf(s, objects, ids));
+        }
+        return false;
+    }
+
+    private static boolean isPartOf(CatalogInfo info, Set<CatalogInfo> objects, Set<String> ids) {
+        if (info == null) {
+            return false;
+        }
+        CatalogInfo unwrapped = ModificationProxy.unwrap(unwrap(info));
+        return objects.contains(info)
+                || objects.contains(unwrapped)
+                || (unwrapped.getId() != null && ids.contains(unwrapped.getId()));
+    }
+
+    /** Sets the same defaults the catalog sets on the objects being added, before validating them */
+    private void prepare(CatalogInfo info) {
+        if (info instanceof StoreInfo && ((StoreInfo) info).getWorkspace() == null) {
+            ((StoreInfo) info).setWorkspace(catalog.getDefaultWorkspace());
+        } else if (info instanceof ResourceInfo) {
+            ResourceInfo resource = (ResourceInfo) info;
+            if (resource.getNamespace() == null) {
+                resource.setNamespace(catalog.getDefaultNamespace());
+            }
+            if (resource.getNativeName() == null) {
+                resource.setNativeName(resource.getName());
+            }
+        }
+    }
+
+    /** Strips decorators, like the secured ones, the raw catalog expects the objects it handed out */
+    private static CatalogInfo unwrap(CatalogInfo info) {
+        while (info instanceof Wrapper && ((Wrapper) info).isWrapperFor(CatalogInfo.class)) {
+            info = ((Wrapper) info).unwrap(CatalogInfo.class);
+        }
+        return info;
+    }
+
+    /**
+     * Reverts the modifications saved so far, and removes the objects added so far. On a {@link CatalogImpl} the events
+     * are still held back, and will be discarded if the revert succeeds.
+     *
+     * @return true if all the changes were reverted
+     */
+    private boolean rollback(List<CatalogInfo> added, List<SavedChange> saved, RuntimeException cause) {
+        boolean reverted = true;
+        // the modifications might reference the added objects, revert them first
+        for (int i = saved.size() - 1; i >= 0; i--) {
+            SavedChange change = saved.get(i);
+            try {
+                if (change == null) {
+                    throw new IllegalStateException("Cannot revert the changes to " + modifications.get(i));
+                }
+                save(change.revert());
+            } catch (RuntimeException e) {
+                cause.addSuppressed(e);
+                reverted = false;
+            }
+        }
+        for (int i = added.size() - 1; i >= 0; i--) {
+            try {
+                remove(added.get(i));
+            } catch (RuntimeException e) {
+                cause.addSuppressed(e);
+                reverted = false;
+            }
+        }
+        return reverted;
+    }
+
+    /** The old values of the properties changed by a save, used to revert it */
+    private static final class SavedChange {
+
+        final CatalogInfo info;
+
+        final Map<String, Object> oldValues;
+
+        private SavedChange(CatalogInfo info, Map<String, Object> oldValues) {
+            this.info = info;
+            this.oldValues = oldValues;
+        }
+
+        /** Returns the old values of the object about to be saved, or null if they cannot be tracked */
+        static SavedChange of(CatalogInfo info) {
+            ModificationProxy handler = ModificationProxy.handler(info);
+            if (handler == null) {
+                return null;
+            }
+            List<String> names = handler.getDirtyProperties();
+            List<Object> values = handler.getOldValues();
+            Map<String, Object> oldValues = new HashMap<>();
+            for (int i = 0; i < names.size(); i++) {
+                oldValues.put(names.get(i), values.get(i));
+            }
+            return new SavedChange(ModificationProxy.unwrap(info), oldValues);
+        }
+
+        /** Returns a proxy setting back the old values, to be saved */
+        CatalogInfo revert() {
+            @SuppressWarnings("unchecked")
+            Class<CatalogInfo> type = (Class<CatalogInfo>) ClassMappings.fromImpl(info.getClass()).getInterface();
+            CatalogInfo proxy = ModificationProxy.create(info, type);
+            ModificationProxy.handler(proxy).getProperties().putAll(oldValues);
+            return proxy;
+        }
+    }
+
+    private void dispatch(List<CatalogEvent> events) {
+        CatalogException toThrow = null;
+        for (CatalogEvent event : events) {
+            try {
+                catalogImpl.dispatcher.dispatch(event);
+            } catch (CatalogException e) {
+                // keep on notifying, the batch is applied already
+                if (toThrow == null) {
+                    toThrow = e;
+                }
+            }
+        }
+        if (toThrow != null) {
+            throw toThrow;
+        }
+    }
+
+    /**
+     * Drops the post modify events of objects added in the same batch, as well as the events of objects both added
+     * and removed, and merges the post modify events of the same object
+     */
+    static List<CatalogEvent> coalesce(List<CatalogEvent> events) {
+        Set<String> added = new HashSet<>();
+        Set<String> removedAfterAdd = new HashSet<>();
+        for (CatalogEvent event : events) {
+            String id = id(event);
+            if (event instanceof CatalogAddEvent) {
+                added.add(id);
+            } else if (event instanceof CatalogRemoveEvent && added.contains(id)) {
+                removedAfterAdd.add(id);
+            }
+        }
+
+        List<CatalogEvent> result = new ArrayList<>();
+        Map<String, CatalogPostModifyEventImpl> modified = new HashMap<>();
+        for (CatalogEvent event : events) {
+            String id = id(event);
+            if (removedAfterAdd.contains(id)) {
+                continue;
+            }
+            if (event instanceof CatalogPostModifyEvent) {
+                if (added.contains(id)) {
+                    continue;
+                }
+                CatalogPostModifyEventImpl previous = modified.get(id);
+                if (previous != null) {
+                    merge(previous, (CatalogPostModifyEvent) event);
+                    continue;
+                }
+                CatalogPostModifyEventImpl copy = copy((CatalogPostModifyEvent) event);
+                modified.put(id, copy);
+                event = copy;
+            }
+            result.add(event);
+        }
+        return result;
+    }
+
+    private static String id(CatalogEvent event) {
+        return ModificationProxy.unwrap(event.getSource()).getId();
+    }
+
+    private static CatalogPostModifyEventImpl copy(CatalogPostModifyEvent event) {
+        CatalogPostModifyEventImpl copy = new CatalogPostModifyEventImpl();
+        copy.setSource(event.getSource());
+        copy.setPropertyNames(new ArrayList<>(event.getPropertyNames()));
+        copy.setOldValues(new ArrayList<>(event.getOldValues()));
+        copy.setNewValues(new ArrayList<>(event.getNewValues()));
+        return copy;
+    }
+
+    /** Merges the changes of a later event, keeping the oldest old value and the newest new value of each property */
+    private static void merge(CatalogPostModifyEventImpl target, CatalogPostModifyEvent event) {
+        List<String> names = event.getPropertyNames();
+        for (int i = 0; i < names.size(); i++) {
+            int idx = target.getPropertyNames().indexOf(names.get(i));
+            if (idx >= 0) {
+                target.getNewValues().set(idx, event.getNewValues().get(i));
+            } else {
+                target.getPropertyNames().add(names.get(i));
+                target.getOldValues().add(event.getOldValues().get(i));
+                target.getNewValues().add(event.getNewValues().get(i));
+            }
+        }
+    }
+
+    /** Returns true if the event notifies a change already applied, and can be delayed to the end of a batch */
+    static boolean isDeferred(CatalogEvent event) {
+        return event instanceof CatalogAddEvent
+                || event instanceof CatalogRemoveEvent
+                || event instanceof CatalogPostModifyEvent;
+    }
+
+    private void add(CatalogInfo info) {
+        if (info instanceof WorkspaceInfo) {
+            catalog.add((WorkspaceInfo) info);
+        } else if (info instanceof NamespaceInfo) {
+            catalog.add((NamespaceInfo) info);
+        } else if (info instanceof StyleInfo) {
+            catalog.add((StyleInfo) info);
+        } else if (info instanceof StoreInfo) {
+            catalog.add((StoreInfo) info);
+        } else if (info instanceof ResourceInfo) {
+            catalog.add((ResourceInfo) info);
+        } else if (info instanceof LayerInfo) {
+            catalog.add((LayerInfo) info);
+        } else if (info instanceof LayerGroupInfo) {
+            catalog.add((LayerGroupInfo) info);
+        } else {
+            throw new IllegalArgumentException("Unsupported catalog object " + info);
+        }
+    }
+
+    private void validate(CatalogInfo info, boolean isNew) {
+        if (info instanceof WorkspaceInfo) {
+            catalog.validate((WorkspaceInfo) info, isNew).throwIfInvalid();
+        } else if (info instanceof NamespaceInfo) {
+            catalog.validate((NamespaceInfo) info, isNew).throwIfInvalid();
+        } else if (info instanceof StyleInfo) {
+            catalog.validate((StyleInfo) info, isNew).throwIfInvalid();
+        } else if (info instanceof StoreInfo) {
+            catalog.validate((StoreInfo) info, isNew).throwIfInvalid();
+        } else if (info instanceof ResourceInfo) {
+            catalog.validate((ResourceInfo) info, isNew).throwIfInvalid();
+        } else if (info instanceof LayerInfo) {
+            catalog.validate((LayerInfo) info, isNew).throwIfInvalid();
+        } else if (info instanceof LayerGroupInfo) {
+            catalog.validate((LayerGroupInfo) info, isNew).throwIfInvalid();
+        } else {
+            throw new IllegalArgumentException("Unsupported catalog object " + info);
+        }
+    }
+
+    private void save(CatalogInfo info) {
+        if (info instanceof WorkspaceInfo) {
+            catalog.save((WorkspaceInfo) info);
+        } else if (info instanceof NamespaceInfo) {
+            catalog.save((NamespaceInfo) info);
+        } else if (info instanceof StyleInfo) {
+            catalog.save((StyleInfo) info);
+        } else if (info instanceof StoreInfo) {
+            catalog.save((StoreInfo) info);
+        } else if (info instanceof ResourceInfo) {
+            catalog.save((ResourceInfo) info);
+        } else if (info instanceof LayerInfo) {
+            catalog.save((LayerInfo) info);
+        } else if (info instanceof LayerGroupInfo) {
+            catalog.save((LayerGroupInfo) info);
+        } else {
+            throw new IllegalArgumentException("Unsupported catalog object " + info);
+        }
+    }
+
+    private void remove(CatalogInfo info) {
+        if (info instanceof WorkspaceInfo) {
+            catalog.remove((WorkspaceInfo) info);
+        } else if (info instanceof NamespaceInfo) {
+            catalog.remove((NamespaceInfo) info);
+        } else if (info instanceof StyleInfo) {
+            catalog.remove((StyleInfo) info);
+        } else if (info instanceof StoreInfo) {
+            catalog.remove((StoreInfo) info);
+        } else if (info instanceof ResourceInfo) {
+            catalog.remove((ResourceInfo) info);
+        } else if (info instanceof LayerInfo) {
+            catalog.remove((LayerInfo) info);
+        } else if (info instanceof LayerGroupInfo) {
+            catalog.remove((LayerGroupInfo) info);
+        }
+    }
+}
@@ -0,0 +1,323 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.catalog.impl;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.geoserver.catalog.CatalogInfo;
+import org.geoserver.catalog.NamespaceInfo;
+import org.geoserver.catalog.StoreInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geotools.api.feature.type.Name;
+import org.geotools.api.filter.And;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.Id;
+import org.geotools.api.filter.Or;
+import org.geotools.api.filter.PropertyIsEqualTo;
+import org.geotools.api.filter.PropertyIsLike;
+import org.geotools.api.filter.expression.Expression;
+import org.geotools.api.filter.expression.Function;
+import org.geotools.api.filter.expression.Literal;
+import org.geotools.api.filter.expression.PropertyName;
+import org.geotools.feature.NameImpl;
+
+/**
+ * Answers catalog queries out of the {@link CatalogInfoLookup} id, name and secondary {@link CatalogInfoIndex indexes},
+ * instead of scanning all the objects in the lookup.
+ *
+ * <p>The planner returns a <b>superset</b> of the objects matching the filter (possibly the exact set), the caller is
+ * still expected to evaluate the full filter against the candidates. This keeps the planner simple and safe, as it only
+ * needs to understand the parts of the filter that can narrow down the search:
+ *
+ * <ul>
+ *   <li>{@link Id} filters and equality on {@code id}, resolved against the id maps
+ *   <li>equality on {@code prefixedName}, workspace {@code name} and namespace {@code prefix}, resolved against the
+ *       name maps
+ *   <li>equality and {@code in} on indexed properties, e.g. {@code workspace.id}, {@code store.id}, {@code enabled}
+ *   <li>equality on {@code workspace.name} and {@code namespace.prefix}, translated into the corresponding id
+ *   <li>equality on {@code store.workspace.name}, as used by the security filters, resolved through the stores of the
+ *       workspace
+ *   <li>{@link PropertyIsLike} with a simple prefix pattern on indexed properties and {@code prefixedName}
+ *   <li>{@link And} (the smallest candidate set wins) and {@link Or} (union, if all branches can be planned)
+ * </ul>
+ *
+ * Anything else results in {@code null}, that is, a full scan.
+ */
+class CatalogFilterPlanner {
+
+    private final DefaultCatalogFacade facade;
+
+    CatalogFilterPlanner(DefaultCatalogFacade facade) {
+        this.facade = facade;
+    }
+
+    /**
+     * Returns the candidates for the given filter, or {@code null} if the filter cannot be answered out of the indexes
+     *
+     * @param lookup the lookup to query
+     * @param filter the filter to plan
+     * @return a superset of the objects matching the filter, or {@code null} if a full scan is needed
+     */
+    <T extends CatalogInfo> Collection<T> candidates(CatalogInfoLookup<T> lookup, Filter filter) {
+        if (filter == null || filter == Filter.INCLUDE) {
+            return null;
+        } else if (filter == Filter.EXCLUDE) {
+            return List.of();
+        } else if (filter instanceof Id) {
+            Map<String, T> result = new LinkedHashMap<>();
+            for (Object id : ((Id) filter).getIDs()) {
+                addById(lookup, String.valueOf(id), result);
+            }
+            return result.values();
+        } else if (filter instanceof And) {
+            Collection<T> best = null;
+            for (Filter child : ((And) filter).getChildren()) {
+                Collection<T> candidates = candidates(lookup, child);
+                if (candidates != null && (best == null || candidates.size() < best.size())) {
+                    best = candidates;
+                }
+            }
+            return best;
+        } else if (filter instanceof Or) {
+            Map<String, T> result = new LinkedHashMap<>();
+            for (Filter child : ((Or) filter).getChildren()) {
+                Collection<T> candidates = candidates(lookup, child);
+                if (candidates == null) {
+                    return null;
+                }
+                for (T c : candidates) {
+                    result.putIfAbsent(c.getId(), c);
+                }
+            }
+            return result.values();
+        } else if (filter instanceof PropertyIsEqualTo) {
+            return equalTo(lookup, (PropertyIsEqualTo) filter);
+        } else if (filter instanceof PropertyIsLike) {
+            return like(lookup, (PropertyIsLike) filter);
+        }
+        return null;
+    }
+
+    private <T extends CatalogInfo> Collection<T> equalTo(CatalogInfoLookup<T> lookup, PropertyIsEqualTo equal) {
+        Expression e1 = equal.getExpression1();
+        Expression e2 = equal.getExpression2();
+        if (e1 instanceof Literal) {
+            Expression tmp = e1;
+            e1 = e2;
+            e2 = tmp;
+        }
+        if (!(e2 instanceof Literal)) {
+            return null;
+        }
+        Object value = ((Literal) e2).getValue();
+        if (e1 instanceof Function && Boolean.TRUE.equals(e2.evaluate(null, Boolean.class))) {
+            return in(lookup, (Function) e1);
+        }
+        if (!(e1 instanceof PropertyName)
+                || !equal.isMatchingCase()
+                || value == null
+                || value instanceof Collection
+                || value.getClass().isArray()) {
+            return null;
+        }
+        return equalTo(lookup, ((PropertyName) e1).getPropertyName(), value);
+    }
+
+    /** Handles {@link org.geoserver.catalog.Predicates#in(String, List)} */
+    private <T extends CatalogInfo> Collection<T> in(CatalogInfoLookup<T> lookup, Function function) {
+        List<Expression> params = function.getParameters();
+        if (!"in".equals(function.getName()) || params.isEmpty() || !(params.get(0) instanceof PropertyName)) {
+            return null;
+        }
+        String property = ((PropertyName) params.get(0)).getPropertyName();
+        Map<String, T> result = new LinkedHashMap<>();
+        for (Expression param : params.subList(1, params.size())) {
+            Object value = param instanceof Literal ? ((Literal) param).getValue() : null;
+            Collection<T> candidates = value == null ? null : equalTo(lookup, property, value);
+            if (candidates == null) {
+                return null;
+            }
+            for (T c : candidates) {
+                result.putIfAbsent(c.getId(), c);
+            }
+        }
+        return result.values();
+    }
+
+    private <T extends CatalogInfo> Collection<T> equalTo(CatalogInfoLookup<T> lookup, String property, Object value) {
+        if ("id".equals(property)) {
+            Map<String, T> result = new LinkedHashMap<>();
+            addById(lookup, value.toString(), result);
+            return result.values();
+        } else if ("prefixedName".equals(property)) {
+            return byPrefixedName(lookup, value.toString());
+        } else if ((lookup == facade.workspaces && "name".equals(property))
+                || (lookup == facade.namespaces && "prefix".equals(property))) {
+            @SuppressWarnings("unchecked")
+            T found = (T) lookup.findByName(new NameImpl(value.toString()), CatalogInfo.class);
+            return found == null ? List.of() : List.of(found);
+        }
+
+        CatalogInfoIndex<T> index = lookup.getIndex(property);
+        if (index != null) {
+            return index.get(value.toString());
+        }
+        // comparison against a full object, e.g. equal("workspace", ws)
+        index = lookup.getIndex(property + ".id");
+        if (index != null && value instanceof CatalogInfo) {
+            return index.get(((CatalogInfo) value).getId());
+        }
+        // names are not indexed as they can change without the indexed object being saved
+        // (e.g., a workspace rename), but can be translated into the corresponding id
+        if (property.endsWith("workspace.name")) {
+            index = lookup.getIndex(property.substring(0, property.length() - "name".length()) + "id");
+            if (index != null) {
+                WorkspaceInfo ws = workspace(value.toString());
+                return ws == null ? List.of() : index.get(ws.getId());
+            }
+            if (property.endsWith("store.workspace.name")) {
+                return byStoreWorkspace(lookup, property, value.toString());
+            }
+        } else if (property.endsWith("namespace.prefix")) {
+            index = lookup.getIndex(property.substring(0, property.length() - "prefix".length()) + "id");
+            if (index != null) {
+                NamespaceInfo ns = namespace(value.toString());
+                return ns == null ? List.of() : index.get(ns.getId());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Resolves {@code store.workspace.name} and {@code resource.store.workspace.name}, the workspace property used by
+     * the security filters, through the stores of the workspace and the store index
+     */
+    private <T extends CatalogInfo> Collection<T> byStoreWorkspace(
+            CatalogInfoLookup<T> lookup, String property, String wsName) {
+        CatalogInfoIndex<T> index =
+                lookup.getIndex(property.substring(0, property.length() - "workspace.name".length()) + "id");
+        CatalogInfoIndex<StoreInfo> stores = facade.stores.getIndex("workspace.id");
+        if (index == null || stores == null) {
+            return null;
+        }
+        WorkspaceInfo ws = workspace(wsName);
+        if (ws == null) {
+            return List.of();
+        }
+        Map<String, T> result = new LinkedHashMap<>();
+        for (StoreInfo store : stores.get(ws.getId())) {
+            for (T c : index.get(store.getId())) {
+                result.putIfAbsent(c.getId(), c);
+            }
+        }
+        return result.values();
+    }
+
+    private <T extends CatalogInfo> Collection<T> like(CatalogInfoLookup<T> lookup, PropertyIsLike like) {
+        if (!(like.getExpression() instanceof PropertyName) || !like.isMatchingCase()) {
+            return null;
+        }
+        String prefix = likePrefix(like);
+        if (prefix == null) {
+            return null;
+        }
+        String property = ((PropertyName) like.getExpression()).getPropertyName();
+        if ("prefixedName".equals(property)) {
+            // the workspace/namespace part narrows down the search
+            int idx = prefix.indexOf(':');
+            if (idx < 0) {
+                return null;
+            }
+            String wsName = prefix.substring(0, idx);
+            if (lookup == facade.resources || lookup == facade.layers) {
+                String nsProperty = lookup == facade.resources ? "namespace.id" : "resource.namespace.id";
+                NamespaceInfo ns = namespace(wsName);
+                CatalogInfoIndex<T> index = lookup.getIndex(nsProperty);
+                if (ns == null || index == null) {
+                    return null;
+                }
+                return index.get(ns.getId());
+            } else {
+                CatalogInfoIndex<T> index = lookup.getIndex("workspace.id");
+                WorkspaceInfo ws = workspace(wsName);
+                if (ws == null || index == null) {
+                    return null;
+                }
+                return index.get(ws.getId());
+            }
+        }
+        CatalogInfoIndex<T> index = lookup.getIndex(property);
+        return index == null ? null : index.getByPrefix(prefix);
+    }
+
+    /**
+     * Returns the literal prefix of a pattern in the form {@code prefix<wildcard>}, or {@code null} if the pattern has
+     * any other form
+     */
+    static String likePrefix(PropertyIsLike like) {
+        String pattern = like.getLiteral();
+        String wildcard = like.getWildCard();
+        if (pattern == null || wildcard == null || !pattern.endsWith(wildcard)) {
+            return null;
+        }
+        String prefix = pattern.substring(0, pattern.length() - wildcard.length());
+        if (prefix.isEmpty()
+                || prefix.contains(wildcard)
+                || (like.getSingleChar() != null && prefix.contains(like.getSingleChar()))
+                || (like.getEscape() != null && prefix.contains(like.getEscape()))) {
+            return null;
+        }
+        return prefix;
+    }
+
+    private <T extends CatalogInfo> Collection<T> byPrefixedName(CatalogInfoLookup<T> lookup, String prefixedName) {
+        int idx = prefixedName.indexOf(':');
+        String prefix = idx < 0 ? null : prefixedName.substring(0, idx);
+        String localName = prefixedName.substring(idx + 1);
+        Name name;
+        if (lookup == facade.resources || lookup == facade.layers) {
+            // names are keyed by namespace id
+            NamespaceInfo ns = prefix == null ? null : namespace(prefix);
+            if (ns == null) {
+                return null;
+            }
+            name = new NameImpl(ns.getId(), localName);
+        } else if (lookup == facade.layerGroups || lookup == facade.styles) {
+            // names are keyed by workspace id, global objects have no prefix
+            if (prefix == null) {
+                name = new NameImpl(null, localName);
+            } else {
+                WorkspaceInfo ws = workspace(prefix);
+                if (ws == null) {
+                    return List.of();
+                }
+                name = new NameImpl(ws.getId(), localName);
+            }
+        } else {
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        T found = (T) lookup.findByName(name, CatalogInfo.class);
+        return found == null ? List.of() : List.of(found);
+    }
+
+    private <T extends CatalogInfo> void addById(CatalogInfoLookup<T> lookup, String id, Map<String, T> target) {
+        @SuppressWarnings("unchecked")
+        T found = (T) lookup.findById(id, CatalogInfo.class);
+        if (found != null) {
+            target.putIfAbsent(id, found);
+        }
+    }
+
+    private WorkspaceInfo workspace(String name) {
+        return facade.workspaces.findByName(new NameImpl(name), WorkspaceInfo.class);
+    }
+
+    private NamespaceInfo namespace(String prefix) {
+        return facade.namespaces.findByName(new NameImpl(prefix), NamespaceInfo.class);
+    }
+}
@@ -106,15 +106,23 @@ public class CatalogImpl implements Catalog {
     /** extended validation switch */
     protected boolean extendedValidation = true;
 
+    /**
+     * Events held back while the current thread is applying a {@link CatalogBatch}, created on demand as deserialized
+     * catalogs skip the constructors
+     */
+    private transient volatile ThreadLocal<List<CatalogEvent>> heldEvents;
+
     protected CatalogImpl(CatalogImpl catalog) {
         this.dispatcher = catalog.dispatcher;
         this.resourcePool = catalog.resourcePool;
+        this.heldEvents = catalog.heldEvents();
     }
 
     public CatalogImpl() {
         setFacade(new DefaultCatalogFacade(this));
         dispatcher = new CatalogEventDispatcher();
         resourcePool = ResourcePool.create(this);
+        heldEvents = new ThreadLocal<>();
     }
 
     @Override
@@ -1839,7 +1847,38 @@ public void fireRemoved(CatalogInfo object) {
     }
 
     protected void event(CatalogEvent event) {
-        dispatcher.dispatch(event);
+        List<CatalogEvent> held = heldEvents().get();
+        if (held != null && CatalogBatch.isDeferred(event)) {
+            held.add(event);
+        } else {
+            dispatcher.dispatch(event);
+        }
+    }
+
+    /** Starts holding back the add, remove and post modify events fired by the current thread */
+    void holdEvents() {
+        heldEvents().set(new ArrayList<>());
+    }
+
+    /** Stops holding back events for the current thread, and returns the ones held so far */
+    List<CatalogEvent> releaseEvents() {
+        ThreadLocal<List<CatalogEvent>> heldEvents = heldEvents();
+        List<CatalogEvent> held = heldEvents.get();
+        heldEvents.remove();
+        return held != null ? held : Collections.emptyList();
+    }
+
+    private ThreadLocal<List<CatalogEvent>> heldEvents() {
+        ThreadLocal<List<CatalogEvent>> result = heldEvents;
+        if (result == null) {
+            synchronized (this) {
+                result = heldEvents;
+                if (result == null) {
+                    result = heldEvents = new ThreadLocal<>();
+                }
+            }
+        }
+        return result;
     }
 
     public static Object unwrap(Object obj) {
@@ -1878,6 +1917,8 @@ public void resolve() {
         if (resourcePool == null) {
             resourcePool = ResourcePool.create(this);
         }
+
+        heldEvents();
     }
 
     protected WorkspaceInfo resolve(WorkspaceInfo workspace) {
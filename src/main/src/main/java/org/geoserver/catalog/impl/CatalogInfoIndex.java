@@ -0,0 +1,147 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.catalog.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import org.geoserver.catalog.CatalogInfo;
+import org.geotools.api.feature.type.Name;
+
+/**
+ * A secondary, single valued index for a {@link CatalogInfoLookup}, mapping the string representation of a property
+ * value (e.g. {@code workspace.id}) to the objects having it.
+ *
+ * <p>Index keys are kept sorted so that both exact and prefix lookups can be answered without scanning all the values.
+ * For each key, objects are sorted by the same {@link Name} used by the owning lookup. Objects of different classes
+ * are merged by name though, while a full scan lists them class by class, see
+ * {@link CatalogInfoLookup#sortInScanOrder(Collection)} to restore the full scan order.
+ *
+ * <p>The index is not thread safe on its own, mutating methods are meant to be called while holding the owning
+ * {@link CatalogInfoLookup#writeLock}. Lookups can be performed concurrently at any time, they work against concurrent
+ * maps.
+ *
+ * @param <T> the type of indexed objects
+ */
+class CatalogInfoIndex<T extends CatalogInfo> {
+
+    private final String property;
+
+    private final Function<T, Object> extractor;
+
+    private final ConcurrentSkipListMap<String, NavigableMap<Name, T>> entries = new ConcurrentSkipListMap<>();
+
+    /**
+     * @param property the property path as used in filters, e.g. {@code workspace.id}
+     * @param extractor the function extracting the indexed value, it may return {@code null}, and must work with
+     *     {@link ModificationProxy} wrapped objects too
+     */
+    CatalogInfoIndex(String property, Function<T, Object> extractor) {
+        this.property = property;
+        this.extractor = extractor;
+    }
+
+    /** The property path this index is built against, e.g. {@code workspace.id} */
+    public String getProperty() {
+        return property;
+    }
+
+    /** Computes the index key for the given value, or {@code null} if the value is not indexed */
+    String key(T value) {
+        return key(extractor, value);
+    }
+
+    /** Applies the extractor to the value and turns the result into an index key */
+    static <V> String key(Function<V, Object> extractor, V value) {
+        Object v;
+        try {
+            v = extractor.apply(value);
+        } catch (RuntimeException e) {
+            // dangling references (unresolved ResolvingProxy) cannot provide the value
+            return null;
+        }
+        return v == null ? null : v.toString();
+    }
+
+    /** Adds the (unwrapped) value to the index under the given name */
+    void add(T value, Name name) {
+        add(key(value), value, name);
+    }
+
+    private void add(String key, T value, Name name) {
+        if (key != null) {
+            entries.computeIfAbsent(key, k -> new ConcurrentSkipListMap<>()).put(name, value);
+        }
+    }
+
+    /** Removes the (unwrapped) value from the index */
+    void remove(T value, Name name) {
+        remove(key(value), value, name);
+    }
+
+    private void remove(String key, T value, Name name) {
+        if (key != null) {
+            NavigableMap<Name, T> values = entries.get(key);
+            if (values != null) {
+                values.remove(name, value);
+                if (values.isEmpty()) {
+                    entries.remove(key, values);
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the value to a different key and/or name if needed
+     *
+     * @param actualValue the unwrapped object, still holding the old property values
+     * @param proxiedValue the {@link ModificationProxy} wrapping {@code actualValue}, holding the new values
+     * @param oldName the name the object is currently indexed with
+     * @param newName the name the object will have after the proxy is committed
+     */
+    void update(T actualValue, T proxiedValue, Name oldName, Name newName) {
+        String oldKey = key(actualValue);
+        String newKey = key(proxiedValue);
+        if (!Objects.equals(oldKey, newKey) || !Objects.equals(oldName, newName)) {
+            remove(oldKey, actualValue, oldName);
+            add(newKey, actualValue, newName);
+        }
+    }
+
+    /**
+     * Moves the value to a different key and/or name, used when the key is derived from a related object being saved
+     * (e.g. the layer's resource)
+     */
+    void reindex(T value, String oldKey, String newKey, Name oldName, Name newName) {
+        if (!Objects.equals(oldKey, newKey) || !Objects.equals(oldName, newName)) {
+            remove(oldKey, value, oldName);
+            add(newKey, value, newName);
+        }
+    }
+
+    /** Returns the values indexed with the given key, or an empty collection if there are none */
+    Collection<T> get(String key) {
+        Map<Name, T> values = key == null ? null : entries.get(key);
+        return values == null ? List.of() : values.values();
+    }
+
+    /** Returns the values whose key starts with the given prefix */
+    List<T> getByPrefix(String prefix) {
+        List<T> result = new ArrayList<>();
+        for (Map<Name, T> values : entries.tailMap(prefix, true).headMap(prefix + Character.MAX_VALUE, true).values()) {
+            result.addAll(values.values());
+        }
+        return result;
+    }
+
+    void clear() {
+        entries.clear();
+    }
+}
@@ -4,10 +4,15 @@
  */
 package org.geoserver.catalog.impl;
 
+import com.google.common.collect.Iterators;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -33,6 +38,10 @@
  * <p>The lookups by predicate have been tested and optimized for performance, in particular the current for loops
  * turned out to be significantly faster than building and returning streams
  *
+ * <p>Secondary {@link CatalogInfoIndex indexes} on commonly filtered properties can be registered with
+ * {@link #addIndex(String, Function)}, they are kept up to date by the mutating methods and used by
+ * {@link CatalogFilterPlanner} to answer queries without scanning all the values.
+ *
  * @param <T>
  */
 class CatalogInfoLookup<T extends CatalogInfo> {
@@ -43,6 +52,9 @@
     Function<T, Name> nameMapper;
     static final Predicate<?> TRUE = x -> true;
 
+    /** Secondary indexes, keyed by property path. Only modified at construction time */
+    protected final Map<String, CatalogInfoIndex<T>> indexes = new LinkedHashMap<>();
+
     /**
      * Guards against mutating operations that affect multiple resources (e.g. {@link #idMultiMap} and
      * {@link #nameMultiMap})
@@ -66,6 +78,22 @@ public CatalogInfoLookup(Function<T, Name> nameMapper) {
         this.nameMapper = nameMapper;
     }
 
+    /**
+     * Registers a secondary index on the given property. Meant to be called before any value is added to the lookup.
+     *
+     * @param property the property path as used in filters, e.g. {@code workspace.id}
+     * @param extractor extracts the property value, must handle {@code null} intermediate properties
+     */
+    public CatalogInfoLookup<T> addIndex(String property, Function<T, Object> extractor) {
+        indexes.put(property, new CatalogInfoIndex<>(property, extractor));
+        return this;
+    }
+
+    /** Returns the secondary index for the given property path, or {@code null} if there is none */
+    public CatalogInfoIndex<T> getIndex(String property) {
+        return indexes.get(property);
+    }
+
     @SuppressWarnings("unchecked")
     <K> Map<K, T> getMapForValue(ConcurrentHashMap<Class<T>, Map<K, T>> maps, T value) {
         Class<T> vc;
@@ -107,7 +135,18 @@ public T add(T value) {
         writeLock.lock();
         try {
             nameMap.put(name, value);
-            return idMap.put(value.getId(), value);
+            T previous = idMap.put(value.getId(), value);
+            if (!indexes.isEmpty()) {
+                if (previous != null) {
+                    for (CatalogInfoIndex<T> index : indexes.values()) {
+                        index.remove(previous, nameMapper.apply(previous));
+                    }
+                }
+                for (CatalogInfoIndex<T> index : indexes.values()) {
+                    index.add(value, name);
+                }
+            }
+            return previous;
         } finally {
             writeLock.unlock();
         }
@@ -129,7 +168,13 @@ public T remove(T value) {
         writeLock.lock();
         try {
             nameMap.remove(name);
-            return idMap.remove(value.getId());
+            T removed = idMap.remove(value.getId());
+            if (removed != null) {
+                for (CatalogInfoIndex<T> index : indexes.values()) {
+                    index.remove(removed, nameMapper.apply(removed));
+                }
+            }
+            return removed;
         } finally {
             writeLock.unlock();
         }
@@ -153,6 +198,16 @@ public void update(T proxiedValue) {
                 writeLock.unlock();
             }
         }
+        if (!indexes.isEmpty()) {
+            writeLock.lock();
+            try {
+                for (CatalogInfoIndex<T> index : indexes.values()) {
+                    index.update(actualValue, proxiedValue, oldName, newName);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
     }
 
     public void clear() {
@@ -160,6 +215,7 @@ public void clear() {
         try {
             idMultiMap.clear();
             nameMultiMap.clear();
+            indexes.values().forEach(CatalogInfoIndex::clear);
         } finally {
             writeLock.unlock();
         }
@@ -194,6 +250,58 @@ <U extends CatalogInfo> List<U> list(Class<U> clazz, Predicate<U> predicate) {
         return result;
     }
 
+    /**
+     * Lazily iterates over the objects of the given class, in the same order as {@link #list(Class, Predicate)}, without
+     * copying them into a new collection. The iteration is weakly consistent, it reflects the state of the lookup at
+     * some point at or since the creation of the iterator.
+     */
+    <U extends CatalogInfo> Iterator<U> iterator(Class<U> clazz) {
+        List<Iterator<T>> iterators = new ArrayList<>();
+        for (Map.Entry<Class<T>, Map<Name, T>> entry : nameMultiMap.entrySet()) {
+            if (clazz.isAssignableFrom(entry.getKey())) {
+                iterators.add(entry.getValue().values().iterator());
+            }
+        }
+        return Iterators.filter(Iterators.concat(iterators.iterator()), clazz);
+    }
+
+    /**
+     * Sorts objects coming out of the secondary indexes, or out of several lookups by id or name, in the same order as a
+     * full scan would return them: grouped by class, in the same order as {@link #list(Class, Predicate)}, and sorted by
+     * name within each class
+     */
+    List<T> sortInScanOrder(Collection<T> candidates) {
+        List<T> result = new ArrayList<>(candidates.size());
+        if (candidates.size() < 2) {
+            result.addAll(candidates);
+            return result;
+        }
+        Map<Class<?>, List<T>> byClass = new HashMap<>();
+        for (T candidate : candidates) {
+            byClass.computeIfAbsent(candidate.getClass(), k -> new ArrayList<>()).add(candidate);
+        }
+        Comparator<T> byName = (t1, t2) -> compareNames(nameMapper.apply(t1), nameMapper.apply(t2));
+        for (Class<T> key : nameMultiMap.keySet()) {
+            List<T> values = byClass.remove(key);
+            if (values != null) {
+                values.sort(byName);
+                result.addAll(values);
+            }
+        }
+        // classes no longer in the lookup, removed while the candidates were collected
+        for (List<T> values : byClass.values()) {
+            values.sort(byName);
+            result.addAll(values);
+        }
+        return result;
+    }
+
+    /** Compares names the same way the name maps sort their keys */
+    @SuppressWarnings("unchecked")
+    private static int compareNames(Name n1, Name n2) {
+        return ((Comparable<Name>) n1).compareTo(n2);
+    }
+
     /** Looks up a CatalogInfo by class and identifier */
     public <U extends CatalogInfo> U findById(String id, Class<U> clazz) {
         for (Class<T> key : idMultiMap.keySet()) {
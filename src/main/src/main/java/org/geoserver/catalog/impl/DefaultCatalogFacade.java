@@ -5,15 +5,16 @@
  */
 package org.geoserver.catalog.impl;
 
-import com.google.common.collect.Iterables;
-import com.google.common.collect.Ordering;
+import com.google.common.collect.Iterators;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -79,8 +80,25 @@ public class DefaultCatalogFacade extends AbstractCatalogFacade implements Catal
 
     static final class LayerInfoLookup extends CatalogInfoLookup<LayerInfo> {
 
+        /** Layer index properties derived from the layer's resource, keyed by property path */
+        private final Map<String, Function<ResourceInfo, Object>> resourceIndexes = new LinkedHashMap<>();
+
         public LayerInfoLookup() {
             super(LAYER_NAME_MAPPER);
+            addResourceIndex("resource.id", r -> r.getId());
+            addResourceIndex("resource.store.id", r -> id(r.getStore()));
+            addResourceIndex("resource.namespace.id", r -> id(r.getNamespace()));
+            addResourceIndex("enabled", r -> r.isEnabled());
+            addResourceIndex("advertised", r -> r.isAdvertised());
+        }
+
+        /**
+         * Adds an index whose value is computed out of the layer's resource, and thus needs to be maintained when the
+         * resource is saved, see {@link #update(ResourceInfo)}
+         */
+        private void addResourceIndex(String property, Function<ResourceInfo, Object> extractor) {
+            resourceIndexes.put(property, extractor);
+            addIndex(property, l -> l.getResource() == null ? null : extractor.apply(l.getResource()));
         }
 
         public void update(ResourceInfo proxiedValue) {
@@ -89,19 +107,27 @@ public void update(ResourceInfo proxiedValue) {
 
             Name oldName = RESOURCE_NAME_MAPPER.apply(actualValue);
             Name newName = RESOURCE_NAME_MAPPER.apply(proxiedValue);
-            if (!oldName.equals(newName)) {
-                ConcurrentHashMap<Class<LayerInfo>, Map<Name, LayerInfo>> names = nameMultiMap;
-                Map<Name, LayerInfo> nameMap = getMapForValue(names, LayerInfoImpl.class);
-                writeLock.lock();
-                try {
-                    LayerInfo value = nameMap.remove(oldName);
-                    // handle case of feature type without a corresponding layer
-                    if (value != null) {
-                        nameMap.put(newName, value);
-                    }
-                } finally {
-                    writeLock.unlock();
+            ConcurrentHashMap<Class<LayerInfo>, Map<Name, LayerInfo>> names = nameMultiMap;
+            Map<Name, LayerInfo> nameMap = getMapForValue(names, LayerInfoImpl.class);
+            writeLock.lock();
+            try {
+                LayerInfo value = nameMap.get(oldName);
+                // handle case of feature type without a corresponding layer
+                if (value == null) {
+                    return;
                 }
+                if (!oldName.equals(newName)) {
+                    nameMap.remove(oldName);
+                    nameMap.put(newName, value);
+                }
+                for (Map.Entry<String, Function<ResourceInfo, Object>> entry : resourceIndexes.entrySet()) {
+                    Function<ResourceInfo, Object> extractor = entry.getValue();
+                    String oldKey = CatalogInfoIndex.key(extractor, actualValue);
+                    String newKey = CatalogInfoIndex.key(extractor, proxiedValue);
+                    getIndex(entry.getKey()).reindex(value, oldKey, newKey, oldName, newName);
+                }
+            } finally {
+                writeLock.unlock();
             }
         }
 
@@ -112,14 +138,40 @@ public LayerInfoLookup setCatalog(Catalog catalog) {
         }
     }
 
+    private static String id(CatalogInfo info) {
+        return info == null ? null : info.getId();
+    }
+
+    static CatalogInfoLookup<StoreInfo> newStoreLookup() {
+        return new CatalogInfoLookup<>(STORE_NAME_MAPPER)
+                .addIndex("workspace.id", s -> id(s.getWorkspace()))
+                .addIndex("enabled", s -> s.isEnabled());
+    }
+
+    static CatalogInfoLookup<ResourceInfo> newResourceLookup() {
+        return new CatalogInfoLookup<>(RESOURCE_NAME_MAPPER)
+                .addIndex("namespace.id", r -> id(r.getNamespace()))
+                .addIndex("store.id", r -> id(r.getStore()))
+                .addIndex("enabled", r -> r.isEnabled())
+                .addIndex("advertised", r -> r.isAdvertised());
+    }
+
+    static CatalogInfoLookup<LayerGroupInfo> newLayerGroupLookup() {
+        return new CatalogInfoLookup<>(LAYERGROUP_NAME_MAPPER).addIndex("workspace.id", lg -> id(lg.getWorkspace()));
+    }
+
+    static CatalogInfoLookup<StyleInfo> newStyleLookup() {
+        return new CatalogInfoLookup<>(STYLE_NAME_MAPPER).addIndex("workspace.id", s -> id(s.getWorkspace()));
+    }
+
     /** Contains the stores keyed by implementation class */
-    protected CatalogInfoLookup<StoreInfo> stores = new CatalogInfoLookup<>(STORE_NAME_MAPPER);
+    protected CatalogInfoLookup<StoreInfo> stores = newStoreLookup();
 
     /** The default store keyed by workspace id */
     protected Map<String, DataStoreInfo> defaultStores = new ConcurrentHashMap<>();
 
     /** resources */
-    protected CatalogInfoLookup<ResourceInfo> resources = new CatalogInfoLookup<>(RESOURCE_NAME_MAPPER);
+    protected CatalogInfoLookup<ResourceInfo> resources = newResourceLookup();
 
     /** The default namespace */
     protected volatile NamespaceInfo defaultNamespace;
@@ -140,14 +192,17 @@ public LayerInfoLookup setCatalog(Catalog catalog) {
     protected List<MapInfo> maps = new CopyOnWriteArrayList<>();
 
     /** layer groups */
-    protected CatalogInfoLookup<LayerGroupInfo> layerGroups = new CatalogInfoLookup<>(LAYERGROUP_NAME_MAPPER);
+    protected CatalogInfoLookup<LayerGroupInfo> layerGroups = newLayerGroupLookup();
 
     /** styles */
-    protected CatalogInfoLookup<StyleInfo> styles = new CatalogInfoLookup<>(STYLE_NAME_MAPPER);
+    protected CatalogInfoLookup<StyleInfo> styles = newStyleLookup();
 
     /** the catalog */
     private CatalogImpl catalog;
 
+    /** answers queries out of the lookup indexes */
+    private final CatalogFilterPlanner planner = new CatalogFilterPlanner(this);
+
     public DefaultCatalogFacade(Catalog catalog) {
         setCatalog(catalog);
     }
@@ -911,7 +966,7 @@ public void resolve() {
 
         // stores
         if (stores == null) {
-            stores = new CatalogInfoLookup<>(STORE_NAME_MAPPER);
+            stores = newStoreLookup();
         }
         for (Object o : stores.values()) {
             resolve((StoreInfoImpl) o);
@@ -919,7 +974,7 @@ public void resolve() {
 
         // styles
         if (styles == null) {
-            styles = new CatalogInfoLookup<>(STYLE_NAME_MAPPER);
+            styles = newStyleLookup();
         }
         for (StyleInfo s : styles.values()) {
             resolve(s);
@@ -927,7 +982,7 @@ public void resolve() {
 
         // resources
         if (resources == null) {
-            resources = new CatalogInfoLookup<>(RESOURCE_NAME_MAPPER);
+            resources = newResourceLookup();
         }
         for (Object o : resources.values()) {
             resolve((ResourceInfo) o);
@@ -943,7 +998,7 @@ public void resolve() {
 
         // layer groups
         if (layerGroups == null) {
-            layerGroups = new CatalogInfoLookup<>(LAYERGROUP_NAME_MAPPER);
+            layerGroups = newLayerGroupLookup();
         }
         for (LayerGroupInfo lg : layerGroups.values()) {
             resolve(lg);
@@ -984,7 +1039,8 @@ public void syncTo(CatalogFacade dao) {
 
     @Override
     public <T extends CatalogInfo> int count(final Class<T> of, final Filter filter) {
-        return Iterables.size(iterable(of, filter, null));
+        // no need to sort, collect or wrap the matches in modification proxies
+        return Iterators.size(iterator(of, filter));
     }
 
     /**
@@ -1035,62 +1091,136 @@ public <T extends CatalogInfo> CloseableIterator<T> list(
             }
         }
 
-        Iterable<T> iterable = iterable(of, filter, sortOrder);
-
-        if (offset != null && offset.intValue() > 0) {
-            iterable = Iterables.skip(iterable, offset.intValue());
+        final int skip = offset == null ? 0 : Math.max(0, offset.intValue());
+        final Integer limit = count != null && count.intValue() >= 0 ? count : null;
+        final Comparator<Object> comparator = comparator(sortOrder);
+
+        Iterator<T> iterator;
+        if (comparator == null) {
+            // fully lazy, objects are filtered and wrapped as the iterator is consumed
+            iterator = iterator(of, filter);
+            Iterators.advance(iterator, skip);
+            if (limit != null) {
+                iterator = Iterators.limit(iterator, limit.intValue());
+            }
+        } else if (limit != null) {
+            // top-k selection, only offset + count objects are retained and sorted
+            int k = (int) Math.min(Integer.MAX_VALUE, (long) skip + limit.intValue());
+            List<T> top = new TopKSelector<T>(comparator, k)
+                    .offerAll(iterator(of, filter))
+                    .result();
+            iterator = top.subList(Math.min(skip, top.size()), top.size()).iterator();
+        } else {
+            List<T> all = new ArrayList<>(query(of, filter));
+            all.sort(comparator);
+            iterator = all.subList(Math.min(skip, all.size()), all.size()).iterator();
         }
 
-        if (count != null && count.intValue() >= 0) {
-            iterable = Iterables.limit(iterable, count.intValue());
-        }
+        return new CloseableIteratorAdapter<>(Iterators.transform(iterator, i -> ModificationProxy.create(i, of)));
+    }
 
-        Iterator<T> iterator = iterable.iterator();
+    public <T extends CatalogInfo> Iterable<T> iterable(
+            final Class<T> of, final Filter filter, final SortBy[] sortByList) {
+        List<T> all = query(of, filter);
+
+        Comparator<Object> comparator = comparator(sortByList);
+        if (comparator != null) {
+            all = new ArrayList<>(all);
+            all.sort(comparator);
+        }
 
-        return new CloseableIteratorAdapter<>(iterator);
+        return ModificationProxy.createList(all, of);
     }
 
+    /** Lazily iterates over the unwrapped objects of the given type matching the filter */
     @SuppressWarnings("unchecked")
-    public <T extends CatalogInfo> Iterable<T> iterable(
-            final Class<T> of, final Filter filter, final SortBy[] sortByList) {
-        List<T> all;
+    private <T extends CatalogInfo> Iterator<T> iterator(final Class<T> of, final Filter filter) {
+        if (MapInfo.class.isAssignableFrom(of)) {
+            return (Iterator<T>) new ArrayList<>(maps).iterator();
+        } else if (PublishedInfo.class.isAssignableFrom(of)
+                && !LayerInfo.class.isAssignableFrom(of)
+                && !LayerGroupInfo.class.isAssignableFrom(of)) {
+            return Iterators.concat(
+                    (Iterator<T>) iterator(layers, LayerInfo.class, filter),
+                    (Iterator<T>) iterator(layerGroups, LayerGroupInfo.class, filter));
+        }
+        return iterator(lookup(of), of, filter);
+    }
+
+    /**
+     * Lazy version of {@link #query(CatalogInfoLookup, Class, Filter)}, iterates over the index candidates, or over the
+     * whole lookup, applying the filter on the fly
+     */
+    private <T extends CatalogInfo, L extends CatalogInfo> Iterator<T> iterator(
+            CatalogInfoLookup<L> lookup, Class<T> of, Filter filter) {
+        Predicate<T> predicate = toPredicate(filter);
+        Collection<L> candidates = planner.candidates(lookup, filter);
+        Iterator<T> source = candidates == null
+                ? lookup.iterator(of)
+                : Iterators.filter(lookup.sortInScanOrder(candidates).iterator(), of);
+        if (predicate == CatalogInfoLookup.TRUE) {
+            return source;
+        }
+        return Iterators.filter(source, predicate::test);
+    }
 
+    /** Returns the lookup containing objects of the given type, or {@code null} if the type has no own lookup */
+    private CatalogInfoLookup<? extends CatalogInfo> lookup(final Class<?> of) {
         if (NamespaceInfo.class.isAssignableFrom(of)) {
-            all = namespaces.list(of, toPredicate(filter));
+            return namespaces;
         } else if (WorkspaceInfo.class.isAssignableFrom(of)) {
-            all = workspaces.list(of, toPredicate(filter));
+            return workspaces;
         } else if (StoreInfo.class.isAssignableFrom(of)) {
-            all = stores.list(of, toPredicate(filter));
+            return stores;
         } else if (ResourceInfo.class.isAssignableFrom(of)) {
-            all = resources.list(of, toPredicate(filter));
+            return resources;
         } else if (LayerInfo.class.isAssignableFrom(of)) {
-            all = layers.list(of, toPredicate(filter));
+            return layers;
         } else if (LayerGroupInfo.class.isAssignableFrom(of)) {
-            all = layerGroups.list(of, toPredicate(filter));
-        } else if (PublishedInfo.class.isAssignableFrom(of)) {
-            all = new ArrayList<>();
-            all.addAll((List<T>) layers.list(LayerInfo.class, toPredicate(filter)));
-            all.addAll((List<T>) layerGroups.list(LayerGroupInfo.class, toPredicate(filter)));
+            return layerGroups;
         } else if (StyleInfo.class.isAssignableFrom(of)) {
-            all = styles.list(of, toPredicate(filter));
-        } else if (MapInfo.class.isAssignableFrom(of)) {
-            all = (List<T>) new ArrayList<>(maps);
-        } else {
-            throw new IllegalArgumentException("Unknown type: " + of);
+            return styles;
         }
+        throw new IllegalArgumentException("Unknown type: " + of);
+    }
 
-        if (null != sortByList) {
-            for (int i = sortByList.length - 1; i >= 0; i--) {
-                SortBy sortBy = sortByList[i];
-                Ordering<Object> ordering = Ordering.from(comparator(sortBy));
-                if (SortOrder.DESCENDING.equals(sortBy.getSortOrder())) {
-                    ordering = ordering.reverse();
+    /** Returns the unsorted, unwrapped, objects of the given type matching the filter */
+    @SuppressWarnings("unchecked")
+    private <T extends CatalogInfo> List<T> query(final Class<T> of, final Filter filter) {
+        if (MapInfo.class.isAssignableFrom(of)) {
+            return (List<T>) new ArrayList<>(maps);
+        } else if (PublishedInfo.class.isAssignableFrom(of)
+                && !LayerInfo.class.isAssignableFrom(of)
+                && !LayerGroupInfo.class.isAssignableFrom(of)) {
+            List<T> all = new ArrayList<>();
+            all.addAll((List<T>) query(layers, LayerInfo.class, filter));
+            all.addAll((List<T>) query(layerGroups, LayerGroupInfo.class, filter));
+            return all;
+        }
+        return query(lookup(of), of, filter);
+    }
+
+    /**
+     * Queries the lookup, using the {@link CatalogFilterPlanner} to narrow down the objects the filter is evaluated
+     * against, and falling back on a full scan when the filter cannot be answered by the indexes
+     */
+    private <T extends CatalogInfo, L extends CatalogInfo> List<T> query(
+            CatalogInfoLookup<L> lookup, Class<T> of, Filter filter) {
+        Predicate<T> predicate = toPredicate(filter);
+        Collection<L> candidates = planner.candidates(lookup, filter);
+        if (candidates == null) {
+            return lookup.list(of, predicate);
+        }
+        List<T> result = new ArrayList<>();
+        for (L candidate : lookup.sortInScanOrder(candidates)) {
+            if (of.isInstance(candidate)) {
+                T t = of.cast(candidate);
+                if (predicate.test(t)) {
+                    result.add(t);
                 }
-                all = ordering.sortedCopy(all);
             }
         }
-
-        return ModificationProxy.createList(all, of);
+        return result;
     }
 
     private <T> Predicate<T> toPredicate(Filter filter) {
@@ -1101,6 +1231,27 @@ private <T> Predicate<T> toPredicate(Filter filter) {
         }
     }
 
+    /**
+     * Builds a comparator out of the sort specification, equivalent to sorting with each {@link SortBy}, from the last
+     * to the first, using a stable sort. Returns {@code null} if there is nothing to sort by.
+     */
+    private Comparator<Object> comparator(final SortBy[] sortByList) {
+        Comparator<Object> result = null;
+        if (sortByList != null) {
+            for (SortBy sortBy : sortByList) {
+                if (sortBy == null) {
+                    continue;
+                }
+                Comparator<Object> c = comparator(sortBy);
+                if (SortOrder.DESCENDING.equals(sortBy.getSortOrder())) {
+                    c = c.reversed();
+                }
+                result = result == null ? c : result.thenComparing(c);
+            }
+        }
+        return result;
+    }
+
     @SuppressWarnings("unchecked")
     private Comparator<Object> comparator(final SortBy sortOrder) {
         return (o1, o2) -> {
@@ -8,7 +8,6 @@
 import java.io.ObjectStreamException;
 import java.io.Serializable;
 import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.ArrayList;
@@ -90,19 +89,19 @@ private ClassProperties cp() {
     @Override
     @SuppressWarnings("unchecked") // lots of generic behavior, cannot use params
     public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        ModificationProxyMethod pm = ModificationProxyMethod.of(method);
 
         String property = null;
-        if ((method.getName().startsWith("get") || method.getName().startsWith("is"))
-                && method.getParameterCount() == 0) {
+        if (pm.kind == ModificationProxyMethod.Kind.GETTER) {
             // intercept getter to check the dirty property set
-            property = method.getName().substring(method.getName().startsWith("get") ? 3 : 2);
+            property = pm.property;
             if (properties != null && properties().containsKey(property)) {
                 // return the previously set object
                 return properties().get(property);
             } else {
                 // if collection, create a wrapper
-                if (Collection.class.isAssignableFrom(method.getReturnType())) {
-                    Collection real = (Collection) method.invoke(proxyObject, null);
+                if (pm.returnsCollection) {
+                    Collection real = (Collection) pm.invoke(proxyObject, null);
                     if (real == null) {
                         // in this case there is nothing we can do
                         return null;
@@ -114,8 +113,8 @@ public Object invoke(Object proxy, Method method, Object[] args) throws Throwabl
                     Collection clone = ModificationProxyCloner.cloneCollection(real, false);
                     oldCollectionValues().put(property, clone);
                     return wrap;
-                } else if (Map.class.isAssignableFrom(method.getReturnType())) {
-                    Map real = (Map) method.invoke(proxyObject, null);
+                } else if (pm.returnsMap) {
+                    Map real = (Map) pm.invoke(proxyObject, null);
                     if (real == null) {
                         // in this case there is nothing we can do
                         return null;
@@ -130,52 +129,43 @@ public Object invoke(Object proxy, Method method, Object[] args) throws Throwabl
                 }
             }
         }
-        if (method.getName().startsWith("set") && args.length == 1) {
+        if (pm.kind == ModificationProxyMethod.Kind.SETTER) {
             // intercept setter and put new value in list
-            property = method.getName().substring(3);
-            properties().put(property, args[0]);
+            properties().put(pm.property, args[0]);
 
             return null;
         }
 
         // validation needs to run on top of the proxy, otherwise it won't see the updated values
-        if (proxyObject instanceof CatalogInfo
-                && method.getName().equals("accept")
-                && method.getParameters().length == 1
-                && method.getParameters()[0].getType().equals(CatalogVisitor.class)) {
+        if (pm.kind == ModificationProxyMethod.Kind.ACCEPT && proxyObject instanceof CatalogInfo) {
             CatalogVisitor visitor = (CatalogVisitor) args[0];
             accept((CatalogInfo) proxy, visitor);
             return null;
         }
 
-        try {
-            Object result = method.invoke(proxyObject, args);
-
-            // in case this is a live indirection, resolve it. Typically this means
-            // the reference is dangling, and we are going to avoid a wrapper around null
-            if (result instanceof Proxy && Proxy.getInvocationHandler(result) instanceof ResolvingProxy) {
-                ResolvingProxy rp = ProxyUtils.handler(result, ResolvingProxy.class);
-                // try to resolve, and return null if the reference is dangling
-                final Catalog catalog = (Catalog) GeoServerExtensions.bean("catalog");
-                result = rp.resolve(catalog, result);
-            }
+        Object result = pm.invoke(proxyObject, args);
+
+        // in case this is a live indirection, resolve it. Typically this means
+        // the reference is dangling, and we are going to avoid a wrapper around null
+        if (result instanceof Proxy && Proxy.getInvocationHandler(result) instanceof ResolvingProxy) {
+            ResolvingProxy rp = ProxyUtils.handler(result, ResolvingProxy.class);
+            // try to resolve, and return null if the reference is dangling
+            final Catalog catalog = (Catalog) GeoServerExtensions.bean("catalog");
+            result = rp.resolve(catalog, result);
+        }
 
-            // intercept result and wrap it in a proxy if it is another Info object
-            if (result != null && shouldProxyProperty(result.getClass())) {
-                // avoid double proxy
-                Object o = ModificationProxy.unwrap(result);
-                if (o == result) {
-                    result = ModificationProxy.create(result, method.getReturnType());
+        // intercept result and wrap it in a proxy if it is another Info object
+        if (result != null && shouldProxyProperty(result.getClass())) {
+            // avoid double proxy
+            Object o = ModificationProxy.unwrap(result);
+            if (o == result) {
+                result = ModificationProxy.create(result, pm.returnType);
 
-                    // cache the proxy, in case it is modified itself
-                    properties().put(property, result);
-                }
+                // cache the proxy, in case it is modified itself
+                properties().put(property, result);
             }
-            return result;
-        } catch (InvocationTargetException e) {
-            Throwable targetException = e.getTargetException();
-            throw targetException;
         }
+        return result;
     }
 
     private void accept(CatalogInfo proxy, CatalogVisitor visitor) {
@@ -55,11 +55,42 @@ class ModificationProxyCloner {
 
     private static final XStreamPersisterFactory XSTREAM_PERSISTER_FACTORY = new XStreamPersisterFactory();
 
+    /** Lazily created by {@link #xstream()} */
+    private static volatile XStream xstream;
+
     static final Logger LOGGER = Logging.getLogger(ModificationProxyCloner.class);
 
     static final Map<Class<? extends CatalogInfo>, Class<? extends CatalogInfo>> CATALOGINFO_INTERFACE_CACHE =
             new ConcurrentHashMap<>();
 
+    /** The public no argument clone methods, looked up once per class, null if not available */
+    static final ClassValue<Method> CLONE_METHODS = new ClassValue<>() {
+        @Override
+        protected Method computeValue(Class<?> type) {
+            try {
+                // methodutils does not seem to work against "clone()"...
+                Method method = type.getDeclaredMethod("clone");
+                if (Modifier.isPublic(method.getModifiers()) && method.getParameterTypes().length == 0) {
+                    return method;
+                }
+            } catch (Exception e) {
+                LOGGER.log(
+                        Level.FINE,
+                        "Source object is cloneable, yet it does not have a public no argument method 'clone'",
+                        e);
+            }
+            return null;
+        }
+    };
+
+    /** The accessible copy constructors, looked up once per class, null if not available */
+    static final ClassValue<Constructor<?>> COPY_CONSTRUCTORS = new ClassValue<>() {
+        @Override
+        protected Constructor<?> computeValue(Class<?> type) {
+            return ConstructorUtils.getAccessibleConstructor(type, type);
+        }
+    };
+
     /**
      * Best effort object cloning utility, tries different lightweight strategies, then falls back on copy by XStream
      * serialization (we use that one as we have a number of hooks to avoid deep copying the catalog, and re-attaching
@@ -115,25 +146,19 @@ static <T> T clone(T source)
         }
 
         // is it cloneable?
-        try {
-            if (source instanceof Cloneable) {
-                // methodutils does not seem to work against "clone()"...
-                // return (T) MethodUtils.invokeExactMethod(source, "clone", null, null);
-                Method method = source.getClass().getDeclaredMethod("clone");
-                if (Modifier.isPublic(method.getModifiers()) && method.getParameterTypes().length == 0) {
+        if (source instanceof Cloneable) {
+            Method method = CLONE_METHODS.get(source.getClass());
+            if (method != null) {
+                try {
                     return (T) method.invoke(source);
+                } catch (Exception e) {
+                    LOGGER.log(Level.FINE, "Source object clone method failed, skipping to copy constructor", e);
                 }
             }
-        } catch (Exception e) {
-            LOGGER.log(
-                    Level.FINE,
-                    "Source object is cloneable, yet it does not have a public no argument method 'clone'",
-                    e);
         }
 
         // does it have a copy constructor?
-        Constructor<?> copyConstructor =
-                ConstructorUtils.getAccessibleConstructor(source.getClass(), source.getClass());
+        Constructor<?> copyConstructor = COPY_CONSTRUCTORS.get(source.getClass());
         if (copyConstructor != null) {
             try {
                 return (T) copyConstructor.newInstance(source);
@@ -145,14 +170,31 @@ static <T> T clone(T source)
         if (source instanceof Serializable) {
             return (T) cloneSerializable((Serializable) source);
         } else {
-            XStreamPersister persister = XSTREAM_PERSISTER_FACTORY.createXMLPersister();
-            XStream xs = persister.getXStream();
+            XStream xs = xstream();
             String xml = xs.toXML(source);
             T copy = (T) xs.fromXML(xml);
             return copy;
         }
     }
 
+    /**
+     * Returns the XStream used to clone objects. Building a persister is expensive, and XStream is thread safe once
+     * configured, so a single instance is shared.
+     */
+    private static XStream xstream() {
+        XStream xs = xstream;
+        if (xs == null) {
+            synchronized (ModificationProxyCloner.class) {
+                xs = xstream;
+                if (xs == null) {
+                    XStreamPersister persister = XSTREAM_PERSISTER_FACTORY.createXMLPersister();
+                    xs = xstream = persister.getXStream();
+                }
+            }
+        }
+        return xs;
+    }
+
     static <T extends Serializable> T cloneSerializable(T source) {
         byte[] bytes = SerializationUtils.serialize(source);
         try (ObjectInputStream input = new ModProxyObjectInputStream(new ByteArrayInputStream(bytes))) {
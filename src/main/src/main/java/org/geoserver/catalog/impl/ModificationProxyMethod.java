@@ -0,0 +1,127 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.catalog.impl;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import org.geoserver.catalog.CatalogVisitor;
+
+/**
+ * Describes a method called through a {@link ModificationProxy}: what kind of method it is, which property it refers
+ * to, and how to invoke it on the proxied object.
+ *
+ * <p>Descriptors are computed once, and kept in a table for each interface declaring them. This way the proxy does not
+ * need to parse method names, build property names, or use reflection to invoke the method on every call.
+ */
+final class ModificationProxyMethod {
+
+    /** The kinds of method the proxy handles differently */
+    enum Kind {
+        GETTER,
+        SETTER,
+        ACCEPT,
+        OTHER
+    }
+
+    /** The generic type of the invokers, {@code (target, args) -> result} */
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    /** The method descriptors, for each declaring class */
+    private static final ClassValue<Map<Method, ModificationProxyMethod>> TABLES = new ClassValue<>() {
+        @Override
+        protected Map<Method, ModificationProxyMethod> computeValue(Class<?> type) {
+            Map<Method, ModificationProxyMethod> table = new HashMap<>();
+            for (Method method : type.getDeclaredMethods()) {
+                table.put(method, new ModificationProxyMethod(method));
+            }
+            return table;
+        }
+    };
+
+    /** Returns the descriptor for the given method */
+    static ModificationProxyMethod of(Method method) {
+        ModificationProxyMethod result = TABLES.get(method.getDeclaringClass()).get(method);
+        // should not happen, methods passed to the proxy are always declared by their class
+        return result != null ? result : new ModificationProxyMethod(method);
+    }
+
+    final Method method;
+
+    final Kind kind;
+
+    /** The property name, with the first letter capitalized, for getters and setters */
+    final String property;
+
+    final Class<?> returnType;
+
+    final boolean returnsCollection;
+
+    final boolean returnsMap;
+
+    /** The method invoker, or null if the method cannot be accessed through a method handle */
+    private final MethodHandle invoker;
+
+    private ModificationProxyMethod(Method method) {
+        this.method = method;
+        this.returnType = method.getReturnType();
+        this.returnsCollection = Collection.class.isAssignableFrom(returnType);
+        this.returnsMap = Map.class.isAssignableFrom(returnType);
+
+        String name = method.getName();
+        int count = method.getParameterCount();
+        if ((name.startsWith("get") || name.startsWith("is")) && count == 0) {
+            this.kind = Kind.GETTER;
+            this.property = name.substring(name.startsWith("get") ? 3 : 2);
+        } else if (name.startsWith("set") && count == 1) {
+            this.kind = Kind.SETTER;
+            this.property = name.substring(3);
+        } else if (name.equals("accept") && count == 1 && method.getParameterTypes()[0] == CatalogVisitor.class) {
+            this.kind = Kind.ACCEPT;
+            this.property = null;
+        } else {
+            this.kind = Kind.OTHER;
+            this.property = null;
+        }
+        this.invoker = invoker(method);
+    }
+
+    private static MethodHandle invoker(Method method) {
+        if (!Modifier.isPublic(method.getModifiers()) || Modifier.isStatic(method.getModifiers())) {
+            return null;
+        }
+        try {
+            return MethodHandles.publicLookup()
+                    .unreflect(method)
+                    .asSpreader(Object[].class, method.getParameterCount())
+                    .asType(INVOKER_TYPE);
+        } catch (IllegalAccessException | RuntimeException e) {
+            // e.g., public method declared in a non public class, fall back on reflection
+            return null;
+        }
+    }
+
+    /**
+     * Invokes the method on the target object. Exceptions thrown by the method are propagated as is, not wrapped.
+     *
+     * @param args the method arguments, may be null if the method has none
+     */
+    Object invoke(Object target, Object[] args) throws Throwable {
+        if (invoker != null) {
+            return (Object) invoker.invokeExact(target, args);
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.catalog.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Selects the first {@code k} elements of an iteration according to a comparator, keeping at most {@code k} elements
+ * in memory, in {@code O(n log k)} time.
+ *
+ * <p>Ties are resolved by iteration order, so the result is the same as the first {@code k} elements of a stable sort
+ * of the whole iteration. This is important for paging, as two consecutive pages must not return the same element
+ * twice, or skip one, when the sort keys are not unique.
+ *
+ * @param <T> the type of the elements
+ */
+class TopKSelector<T> {
+
+    /** An element along with its position in the iteration, used to break ties */
+    private static final class Entry<T> {
+        final T value;
+
+        final long position;
+
+        Entry(T value, long position) {
+            this.value = value;
+            this.position = position;
+        }
+    }
+
+    private final int k;
+
+    private final Comparator<Entry<T>> order;
+
+    /** A max-heap, the head is the greatest element selected so far */
+    private final PriorityQueue<Entry<T>> heap;
+
+    private long position;
+
+    /**
+     * @param comparator the order of the elements
+     * @param k the maximum number of elements to retain
+     */
+    TopKSelector(Comparator<? super T> comparator, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must be positive: " + k);
+        }
+        this.k = k;
+        Comparator<Entry<T>> byValue = (e1, e2) -> comparator.compare(e1.value, e2.value);
+        this.order = byValue.thenComparingLong(e -> e.position);
+        // initial capacity is bounded, k could be very large with high offsets
+        this.heap = new PriorityQueue<>(Math.max(1, Math.min(k, 1024)), order.reversed());
+    }
+
+    /** Offers an element to the selection */
+    public void offer(T value) {
+        if (k == 0) {
+            return;
+        }
+        Entry<T> entry = new Entry<>(value, position++);
+        if (heap.size() < k) {
+            heap.add(entry);
+        } else if (order.compare(entry, heap.peek()) < 0) {
+            heap.poll();
+            heap.add(entry);
+        }
+    }
+
+    /** Offers all the remaining elements of the iterator to the selection */
+    public TopKSelector<T> offerAll(Iterator<? extends T> values) {
+        while (values.hasNext()) {
+            offer(values.next());
+        }
+        return this;
+    }
+
+    /** Returns the selected elements, sorted */
+    public List<T> result() {
+        List<Entry<T>> entries = new ArrayList<>(heap);
+        entries.sort(order);
+        List<T> result = new ArrayList<>(entries.size());
+        for (Entry<T> e : entries) {
+            result.add(e.value);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,513 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.config;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geoserver.catalog.CatalogException;
+import org.geoserver.catalog.CatalogInfo;
+import org.geoserver.catalog.LayerGroupInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.NamespaceInfo;
+import org.geoserver.catalog.ResourceInfo;
+import org.geoserver.catalog.StoreInfo;
+import org.geoserver.catalog.StyleInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.event.CatalogAddEvent;
+import org.geoserver.catalog.event.CatalogListener;
+import org.geoserver.catalog.event.CatalogModifyEvent;
+import org.geoserver.catalog.event.CatalogPostModifyEvent;
+import org.geoserver.catalog.event.CatalogRemoveEvent;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geoserver.security.SecuredContentCacheSupport;
+import org.geoserver.security.impl.DataAccessRuleDAO;
+import org.geotools.util.logging.Logging;
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * Server side cache of the encoded capabilities documents, used by {@link CapabilitiesCacheCallback}.
+ *
+ * <p>Documents are cached by {@link Key}, which contains everything the document depends onto besides the
+ * configuration: service, version, virtual service, security roles (and user name, unless the access manager is known
+ * to decide on roles alone), proxy base URL and request parameters (format, language, sections, and so on). Catalog and
+ * configuration events invalidate the documents of the workspace the changed object belongs to, along with the global
+ * ones, objects moved to another workspace invalidate both the old and the new one. Changes to objects that can be
+ * shared among workspaces (e.g., global styles and layer groups, or the global settings) invalidate all documents. The
+ * increments of the update sequence alone do not invalidate the cache, the cached documents report the update sequence
+ * they were built with. Changes to the data access rules discard all documents.
+ *
+ * <p>In stale-while-revalidate mode invalidated and expired documents are kept, and returned while a new one is built
+ * in the background, otherwise they are removed and rebuilt by the next request. Documents are never served stale
+ * after a data access rules change. A time to live can be set to pick up changes that are not notified by events,
+ * like the dimension values read from the data, or changes to the rules of access managers other than the default one.
+ *
+ * <p>The cache is disabled by default, see the {@link #ENABLED} and related properties, which can be set as system,
+ * environment or servlet context variables.
+ */
+public class CapabilitiesCache implements CatalogListener, ConfigurationListener, DisposableBean {
+
+    static final Logger LOGGER = Logging.getLogger(CapabilitiesCache.class);
+
+    /** Property enabling the cache, false by default */
+    public static final String ENABLED = "CAPABILITIES_CACHE_ENABLED";
+
+    /** Property setting the maximum size of the cached documents, in bytes */
+    public static final String MAX_SIZE = "CAPABILITIES_CACHE_MAX_SIZE";
+
+    /** Property setting the documents time to live, in seconds, by default they live until invalidated */
+    public static final String TIME_TO_LIVE = "CAPABILITIES_CACHE_TTL";
+
+    /** Property enabling the stale-while-revalidate mode, false by default */
+    public static final String STALE_WHILE_REVALIDATE = "CAPABILITIES_CACHE_STALE_WHILE_REVALIDATE";
+
+    static final long DEFAULT_MAX_SIZE = 64 * 1024 * 1024;
+
+    /** Builds a capabilities document */
+    public interface Builder {
+        byte[] build() throws IOException;
+    }
+
+    /** Identifies a capabilities document */
+    public static final class Key {
+
+        final String service;
+
+        final String version;
+
+        /** The virtual service workspace, or null for the global service */
+        final String workspace;
+
+        /** The virtual service layer or layer group, or null */
+        final String layer;
+
+        final Set<String> roles;
+
+        /** The user name, or null if the roles alone determine the accessible content */
+        final String user;
+
+        final String baseURL;
+
+        final Map<String, String> parameters;
+
+        public Key(
+                String service,
+                String version,
+                String workspace,
+                String layer,
+                Set<String> roles,
+                String user,
+                String baseURL,
+                Map<String, String> parameters) {
+            this.service = service;
+            this.version = version;
+            this.workspace = workspace;
+            this.layer = layer;
+            this.roles = roles;
+            this.user = user;
+            this.baseURL = baseURL;
+            this.parameters = parameters;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(service, key.service)
+                    && Objects.equals(version, key.version)
+                    && Objects.equals(workspace, key.workspace)
+                    && Objects.equals(layer, key.layer)
+                    && Objects.equals(roles, key.roles)
+                    && Objects.equals(user, key.user)
+                    && Objects.equals(baseURL, key.baseURL)
+                    && Objects.equals(parameters, key.parameters);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(service, version, workspace, layer, roles, user, baseURL, parameters);
+        }
+
+        @Override
+        public String toString() {
+            return "Key{service=" + service + ", version=" + version + ", workspace=" + workspace + ", layer=" + layer
+                    + ", roles=" + roles + ", user=" + user + ", baseURL=" + baseURL + ", parameters=" + parameters
+                    + '}';
+        }
+    }
+
+    /** A cached document */
+    static final class Entry {
+
+        final byte[] document;
+
+        final long created = System.currentTimeMillis();
+
+        volatile boolean stale;
+
+        final AtomicBoolean refreshing = new AtomicBoolean();
+
+        Entry(byte[] document) {
+            this.document = document;
+        }
+    }
+
+    private final boolean enabled;
+
+    private final boolean staleWhileRevalidate;
+
+    /** Time to live in milliseconds, not positive for no expiration */
+    private final long timeToLive;
+
+    private final Cache<Key, Entry> cache;
+
+    /** The documents being built, so that concurrent requests for the same document wait instead of building it too */
+    private final Map<Key, CompletableFuture<byte[]>> building = new ConcurrentHashMap<>();
+
+    /** Incremented on each invalidation, documents built across one are not cached */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /** Set when a global configuration change, other than the update sequence, needs to invalidate the documents */
+    private volatile boolean globalChanged;
+
+    /** The workspaces of the objects being modified by the current thread, before the change, by object id */
+    private final ThreadLocal<Map<String, String>> previousWorkspaces = ThreadLocal.withInitial(HashMap::new);
+
+    private SecuredContentCacheSupport security = new SecuredContentCacheSupport(null);
+
+    private ExecutorService refreshExecutor;
+
+    public CapabilitiesCache(GeoServer geoServer) {
+        this(
+                geoServer,
+                Boolean.parseBoolean(GeoServerExtensions.getProperty(ENABLED)),
+                getLong(MAX_SIZE, DEFAULT_MAX_SIZE),
+                getLong(TIME_TO_LIVE, 0) * 1000,
+                Boolean.parseBoolean(GeoServerExtensions.getProperty(STALE_WHILE_REVALIDATE)));
+    }
+
+    public CapabilitiesCache(
+            GeoServer geoServer, boolean enabled, long maxSize, long timeToLive, boolean staleWhileRevalidate) {
+        this.enabled = enabled;
+        this.timeToLive = timeToLive;
+        this.staleWhileRevalidate = staleWhileRevalidate;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maxSize)
+                .weigher((Key k, Entry e) -> e.document.length)
+                .build();
+        if (enabled) {
+            if (staleWhileRevalidate) {
+                refreshExecutor = Executors.newSingleThreadExecutor(r -> {
+                    Thread thread = new Thread(r, "CapabilitiesCacheRefresher");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            }
+            geoServer.getCatalog().addListener(this);
+            geoServer.addListener(this);
+            LOGGER.config("Capabilities cache enabled, maximum size " + maxSize + " bytes, time to live " + timeToLive
+                    + " ms, stale-while-revalidate " + staleWhileRevalidate);
+        }
+    }
+
+    /** Sets the data access rules, the documents are discarded when they change */
+    public void setAccessRules(DataAccessRuleDAO accessRules) {
+        this.security = new SecuredContentCacheSupport(accessRules);
+    }
+
+    private static long getLong(String property, long defaultValue) {
+        String value = GeoServerExtensions.getProperty(property);
+        if (value != null) {
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid value for " + property + ": " + value + ", using " + defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+
+    /** Returns true if the cache is enabled */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Returns true if stale documents are returned while a new one is built */
+    public boolean isStaleWhileRevalidate() {
+        return staleWhileRevalidate;
+    }
+
+    /**
+     * Returns the document for the key, building it if missing.
+     *
+     * @param key the document key
+     * @param builder builds the document in the calling thread
+     * @param refresher provides the builder for the background refresh, when a stale document is returned in
+     *     stale-while-revalidate mode. It's called in the calling thread, the builder it returns must not depend on the
+     *     calling thread state.
+     */
+    public byte[] get(Key key, Builder builder, Supplier<Builder> refresher) throws IOException {
+        if (security.isRulesChanged()) {
+            // never serve stale documents that might advertise resources no longer accessible
+            invalidate(null, false);
+        }
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null) {
+            if (!isStale(entry)) {
+                return entry.document;
+            }
+            if (staleWhileRevalidate && refresher != null) {
+                refresh(key, entry, refresher);
+                return entry.document;
+            }
+        }
+        return build(key, builder);
+    }
+
+    private boolean isStale(Entry entry) {
+        return entry.stale || (timeToLive > 0 && System.currentTimeMillis() - entry.created > timeToLive);
+    }
+
+    private byte[] build(Key key, Builder builder) throws IOException {
+        CompletableFuture<byte[]> future = new CompletableFuture<>();
+        CompletableFuture<byte[]> running = building.putIfAbsent(key, future);
+        if (running != null) {
+            try {
+                return running.get();
+            } catch (ExecutionException e) {
+                // the other build failed, try again, reporting the failure to this caller, if any
+                return builder.build();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the capabilities document");
+            }
+        }
+
+        try {
+            long invalidation = invalidations.get();
+            byte[] document = builder.build();
+            if (invalidation == invalidations.get()) {
+                cache.put(key, new Entry(document));
+            }
+            future.complete(document);
+            return document;
+        } catch (IOException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            building.remove(key, future);
+        }
+    }
+
+    private void refresh(Key key, Entry entry, Supplier<Builder> refresher) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Builder builder = refresher.get();
+            refreshExecutor.execute(() -> {
+                try {
+                    build(key, builder);
+                } catch (Exception e) {
+                    LOGGER.log(Level.WARNING, "Failed to refresh the capabilities document " + key, e);
+                } finally {
+                    entry.refreshing.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            // e.g., RejectedExecutionException on shutdown
+            LOGGER.log(Level.FINE, "Failed to schedule the capabilities document refresh", e);
+            entry.refreshing.set(false);
+        }
+    }
+
+    /** Invalidates the global documents, and the ones of the given workspace, or all of them if null */
+    public void invalidate(String workspace) {
+        invalidate(workspace, staleWhileRevalidate);
+    }
+
+    private void invalidate(String workspace, boolean keepStale) {
+        invalidations.incrementAndGet();
+        for (Map.Entry<Key, Entry> e : cache.asMap().entrySet()) {
+            Key key = e.getKey();
+            if (workspace == null || key.workspace == null || workspace.equals(key.workspace)) {
+                if (keepStale) {
+                    e.getValue().stale = true;
+                } else {
+                    cache.invalidate(key);
+                }
+            }
+        }
+    }
+
+    /** Invalidates all documents */
+    public void invalidateAll() {
+        invalidate(null);
+    }
+
+    /** Returns the number of cached documents */
+    public long size() {
+        return cache.size();
+    }
+
+    /** Returns the name of the workspace the object belongs to, or null if it might affect any workspace */
+    static String getWorkspace(Object source) {
+        try {
+            if (source instanceof WorkspaceInfo) {
+                return ((WorkspaceInfo) source).getName();
+            } else if (source instanceof NamespaceInfo) {
+                return ((NamespaceInfo) source).getPrefix();
+            } else if (source instanceof StoreInfo) {
+                return ((StoreInfo) source).getWorkspace().getName();
+            } else if (source instanceof ResourceInfo) {
+                return ((ResourceInfo) source).getNamespace().getPrefix();
+            } else if (source instanceof LayerInfo) {
+                return ((LayerInfo) source).getResource().getNamespace().getPrefix();
+            } else if (source instanceof LayerGroupInfo) {
+                WorkspaceInfo workspace = ((LayerGroupInfo) source).getWorkspace();
+                return workspace != null ? workspace.getName() : null;
+            } else if (source instanceof StyleInfo) {
+                WorkspaceInfo workspace = ((StyleInfo) source).getWorkspace();
+                return workspace != null ? workspace.getName() : null;
+            } else if (source instanceof SettingsInfo) {
+                WorkspaceInfo workspace = ((SettingsInfo) source).getWorkspace();
+                return workspace != null ? workspace.getName() : null;
+            } else if (source instanceof ServiceInfo) {
+                WorkspaceInfo workspace = ((ServiceInfo) source).getWorkspace();
+                return workspace != null ? workspace.getName() : null;
+            }
+        } catch (NullPointerException e) {
+            // incomplete object, play it safe
+        }
+        return null;
+    }
+
+    @Override
+    public void handleAddEvent(CatalogAddEvent event) throws CatalogException {
+        invalidate(getWorkspace(event.getSource()));
+    }
+
+    @Override
+    public void handleRemoveEvent(CatalogRemoveEvent event) throws CatalogException {
+        invalidate(getWorkspace(event.getSource()));
+    }
+
+    @Override
+    public void handleModifyEvent(CatalogModifyEvent event) throws CatalogException {
+        // the object still has the old values, remember its workspace, in case it's moving to another one
+        CatalogInfo source = event.getSource();
+        if (source.getId() != null) {
+            previousWorkspaces.get().putIfAbsent(source.getId(), getWorkspace(source));
+        }
+    }
+
+    @Override
+    public void handlePostModifyEvent(CatalogPostModifyEvent event) throws CatalogException {
+        CatalogInfo source = event.getSource();
+        String workspace = getWorkspace(source);
+        Map<String, String> previous = previousWorkspaces.get();
+        if (source.getId() != null && previous.containsKey(source.getId())) {
+            String previousWorkspace = previous.remove(source.getId());
+            if (!Objects.equals(workspace, previousWorkspace)) {
+                invalidate(previousWorkspace);
+            }
+        }
+        invalidate(workspace);
+    }
+
+    @Override
+    public void reloaded() {
+        invalidateAll();
+    }
+
+    @Override
+    public void handleGlobalChange(
+            GeoServerInfo global, List<String> propertyNames, List<Object> oldValues, List<Object> newValues) {
+        // the update sequence is incremented on every change, the actual change has its own event
+        if (propertyNames.stream().anyMatch(p -> !"updateSequence".equalsIgnoreCase(p))) {
+            globalChanged = true;
+        }
+    }
+
+    @Override
+    public void handlePostGlobalChange(GeoServerInfo global) {
+        if (globalChanged) {
+            globalChanged = false;
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public void handleSettingsAdded(SettingsInfo settings) {
+        invalidate(getWorkspace(settings));
+    }
+
+    @Override
+    public void handleSettingsModified(
+            SettingsInfo settings, List<String> propertyNames, List<Object> oldValues, List<Object> newValues) {
+        // we use the post event
+    }
+
+    @Override
+    public void handleSettingsPostModified(SettingsInfo settings) {
+        invalidate(getWorkspace(settings));
+    }
+
+    @Override
+    public void handleSettingsRemoved(SettingsInfo settings) {
+        invalidate(getWorkspace(settings));
+    }
+
+    @Override
+    public void handleLoggingChange(
+            LoggingInfo logging, List<String> propertyNames, List<Object> oldValues, List<Object> newValues) {
+        // logging does not affect the capabilities
+    }
+
+    @Override
+    public void handlePostLoggingChange(LoggingInfo logging) {
+        // logging does not affect the capabilities
+    }
+
+    @Override
+    public void handleServiceChange(
+            ServiceInfo service, List<String> propertyNames, List<Object> oldValues, List<Object> newValues) {
+        // we use the post event
+    }
+
+    @Override
+    public void handlePostServiceChange(ServiceInfo service) {
+        invalidate(getWorkspace(service));
+    }
+
+    @Override
+    public void handleServiceRemove(ServiceInfo service) {
+        invalidate(getWorkspace(service));
+    }
+
+    @Override
+    public void destroy() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,330 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import org.geoserver.catalog.PublishedInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.ows.AbstractDispatcherCallback;
+import org.geoserver.ows.Dispatcher;
+import org.geoserver.ows.LocalPublished;
+import org.geoserver.ows.LocalWorkspace;
+import org.geoserver.ows.Request;
+import org.geoserver.ows.Response;
+import org.geoserver.ows.URLMangler.URLType;
+import org.geoserver.ows.util.ResponseUtils;
+import org.geoserver.platform.Operation;
+import org.geoserver.platform.ServiceException;
+import org.geoserver.security.SecuredContentCacheSupport;
+import org.geoserver.threadlocals.ThreadLocalsTransfer;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Serves the GetCapabilities documents from the {@link CapabilitiesCache}, encoding them only when missing or stale.
+ *
+ * <p>Only GET requests are cached, as the key is built out of the request parameters. The operation still runs on each
+ * request, validating it and handling the update sequence, only the encoding of the document, which walks the whole
+ * catalog, is skipped.
+ */
+public class CapabilitiesCacheCallback extends AbstractDispatcherCallback {
+
+    CapabilitiesCache cache;
+
+    public CapabilitiesCacheCallback(CapabilitiesCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public Response responseDispatched(Request request, Operation operation, Object result, Response response) {
+        if (cache.isEnabled()
+                && request.isGet()
+                && request.getRawKvp() != null
+                && "GetCapabilities".equalsIgnoreCase(request.getRequest())) {
+            return new CachingResponse(response, getKey(request));
+        }
+
+        return response;
+    }
+
+    /** Builds the cache key out of the request and the current thread state */
+    static CapabilitiesCache.Key getKey(Request request) {
+        WorkspaceInfo workspace = LocalWorkspace.get();
+        PublishedInfo published = LocalPublished.get();
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Set<String> roles = SecuredContentCacheSupport.getRoles(authentication);
+        String user = SecuredContentCacheSupport.getUserName(authentication);
+
+        // the URL manglers account for proxies, virtual services, authentication keys and the like
+        String baseURL = null;
+        if (request.getHttpRequest() != null) {
+            String base = ResponseUtils.baseURL(request.getHttpRequest());
+            baseURL = ResponseUtils.buildURL(base, null, null, URLType.SERVICE);
+        }
+
+        Map<String, String> parameters = new TreeMap<>();
+        for (Map.Entry<String, Object> entry : request.getRawKvp().entrySet()) {
+            Object value = entry.getValue();
+            String string = value instanceof Object[] ? Arrays.toString((Object[]) value) : String.valueOf(value);
+            parameters.put(entry.getKey().toUpperCase(Locale.ROOT), string);
+        }
+
+        return new CapabilitiesCache.Key(
+                request.getService(),
+                request.getVersion(),
+                workspace != null ? workspace.getName() : null,
+                published != null ? published.getName() : null,
+                roles,
+                user,
+                baseURL,
+                parameters);
+    }
+
+    /** A Response wrapper getting the document out of the cache */
+    private class CachingResponse extends Response {
+
+        Response delegate;
+
+        CapabilitiesCache.Key key;
+
+        public CachingResponse(Response delegate, CapabilitiesCache.Key key) {
+            super(delegate.getBinding());
+            this.delegate = delegate;
+            this.key = key;
+        }
+
+        @Override
+        public boolean canHandle(Operation operation) {
+            return delegate.canHandle(operation);
+        }
+
+        @Override
+        public String getMimeType(Object value, Operation operation) throws ServiceException {
+            return delegate.getMimeType(value, operation);
+        }
+
+        @Override
+        public String[][] getHeaders(Object value, Operation operation) throws ServiceException {
+            return delegate.getHeaders(value, operation);
+        }
+
+        @Override
+        public void write(Object value, OutputStream output, Operation operation) throws IOException, ServiceException {
+            byte[] document = cache.get(key, () -> encode(value, operation), () -> refresher(value, operation));
+            output.write(document);
+        }
+
+        private byte[] encode(Object value, Operation operation) throws IOException {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            delegate.write(value, bos, operation);
+            return bos.toByteArray();
+        }
+
+        /**
+         * Returns a builder encoding the document in a background thread. The thread locals are transferred, the
+         * request is detached from the servlet one, which the container recycles once the request is completed.
+         */
+        private CapabilitiesCache.Builder refresher(Object value, Operation operation) {
+            ThreadLocalsTransfer transfer = new ThreadLocalsTransfer();
+            Request request = Dispatcher.REQUEST.get();
+            Request detached = null;
+            if (request != null) {
+                detached = new Request(request);
+                if (request.getHttpRequest() != null) {
+                    detached.setHttpRequest(new DetachedHttpRequest(request.getHttpRequest()));
+                }
+                detached.setHttpResponse(null);
+            }
+            Request backgroundRequest = detached;
+            return () -> {
+                transfer.apply();
+                Dispatcher.REQUEST.set(backgroundRequest);
+                try {
+                    return encode(value, operation);
+                } finally {
+                    transfer.cleanup();
+                    Dispatcher.REQUEST.remove();
+                }
+            };
+        }
+
+        @Override
+        public String getPreferredDisposition(Object value, Operation operation) {
+            return delegate.getPreferredDisposition(value, operation);
+        }
+
+        @Override
+        public String getAttachmentFileName(Object value, Operation operation) {
+            return delegate.getAttachmentFileName(value, operation);
+        }
+
+        @Override
+        public String getCharset(Operation operation) {
+            return delegate.getCharset(operation);
+        }
+    }
+
+    /**
+     * Copy of the request location, headers and parameters, that can be used after the original request has been
+     * completed. Everything else is delegated to the original request.
+     */
+    static class DetachedHttpRequest extends HttpServletRequestWrapper {
+
+        final String method;
+        final String scheme;
+        final String serverName;
+        final int serverPort;
+        final String contextPath;
+        final String servletPath;
+        final String pathInfo;
+        final String requestURI;
+        final String requestURL;
+        final String queryString;
+        final String remoteAddr;
+        final String remoteHost;
+        final Locale locale;
+        final Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        final Map<String, String[]> parameters;
+
+        DetachedHttpRequest(HttpServletRequest request) {
+            super(request);
+            this.method = request.getMethod();
+            this.scheme = request.getScheme();
+            this.serverName = request.getServerName();
+            this.serverPort = request.getServerPort();
+            this.contextPath = request.getContextPath();
+            this.servletPath = request.getServletPath();
+            this.pathInfo = request.getPathInfo();
+            this.requestURI = request.getRequestURI();
+            this.requestURL = String.valueOf(request.getRequestURL());
+            this.queryString = request.getQueryString();
+            this.remoteAddr = request.getRemoteAddr();
+            this.remoteHost = request.getRemoteHost();
+            this.locale = request.getLocale();
+            Enumeration<String> names = request.getHeaderNames();
+            while (names != null && names.hasMoreElements()) {
+                String name = names.nextElement();
+                headers.put(name, Collections.list(request.getHeaders(name)));
+            }
+            this.parameters = new HashMap<>(request.getParameterMap());
+        }
+
+        @Override
+        public String getMethod() {
+            return method;
+        }
+
+        @Override
+        public String getScheme() {
+            return scheme;
+        }
+
+        @Override
+        public String getServerName() {
+            return serverName;
+        }
+
+        @Override
+        public int getServerPort() {
+            return serverPort;
+        }
+
+        @Override
+        public String getContextPath() {
+            return contextPath;
+        }
+
+        @Override
+        public String getServletPath() {
+            return servletPath;
+        }
+
+        @Override
+        public String getPathInfo() {
+            return pathInfo;
+        }
+
+        @Override
+        public String getRequestURI() {
+            return requestURI;
+        }
+
+        @Override
+        public StringBuffer getRequestURL() {
+            return new StringBuffer(requestURL);
+        }
+
+        @Override
+        public String getQueryString() {
+            return queryString;
+        }
+
+        @Override
+        public String getRemoteAddr() {
+            return remoteAddr;
+        }
+
+        @Override
+        public String getRemoteHost() {
+            return remoteHost;
+        }
+
+        @Override
+        public Locale getLocale() {
+            return locale;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            List<String> values = headers.get(name);
+            return values == null || values.isEmpty() ? null : values.get(0);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            return Collections.enumeration(headers.getOrDefault(name, Collections.emptyList()));
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            return Collections.enumeration(headers.keySet());
+        }
+
+        @Override
+        public String getParameter(String name) {
+            String[] values = parameters.get(name);
+            return values == null || values.length == 0 ? null : values[0];
+        }
+
+        @Override
+        public Map<String, String[]> getParameterMap() {
+            return Collections.unmodifiableMap(parameters);
+        }
+
+        @Override
+        public Enumeration<String> getParameterNames() {
+            return Collections.enumeration(parameters.keySet());
+        }
+
+        @Override
+        public String[] getParameterValues(String name) {
+            return parameters.get(name);
+        }
+    }
+}
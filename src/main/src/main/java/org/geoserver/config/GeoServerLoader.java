@@ -79,6 +79,13 @@ public abstract class GeoServerLoader {
 
     static Logger LOGGER = Logging.getLogger("org.geoserver.config");
 
+    /**
+     * Environment variable or System property enabling incremental reloads: instead of replacing the whole catalog,
+     * {@link #reload()} applies only the differences with the data directory, keeping the resources of the stores that
+     * did not change
+     */
+    public static final String GEOSERVER_INCREMENTAL_RELOAD = "GEOSERVER_INCREMENTAL_RELOAD";
+
     /** Workspace IO resources */
     static final class WorkspaceContents {
         Resource resource;
@@ -245,6 +252,9 @@ public void accept(LayerContents lc) {
     // this ugly hack can die
     static boolean legacy = false;
 
+    /** Set while an incremental reload is in progress */
+    private boolean incrementalReload;
+
     public GeoServerLoader(GeoServerResourceLoader resourceLoader) {
         this.resourceLoader = resourceLoader;
     }
@@ -259,6 +269,14 @@ public static void setLegacy(boolean legacy) {
         GeoServerLoader.legacy = legacy;
     }
 
+    /**
+     * Checks whether reloads are incremental, through the {@link #GEOSERVER_INCREMENTAL_RELOAD} environment variable
+     * or System property. Defaults to {@code false}.
+     */
+    public static boolean isIncrementalReload() {
+        return Boolean.parseBoolean(GeoServerExtensions.getProperty(GEOSERVER_INCREMENTAL_RELOAD));
+    }
+
     public final Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
         return bean;
     }
@@ -427,8 +445,21 @@ void initializeStyle(Catalog catalog, String styleName, String sld) throws IOExc
     }
 
     public void reload() throws Exception {
-        destroy();
+        incrementalReload = isIncrementalReload();
+        try {
+            if (incrementalReload) {
+                // keep the catalog, the changes will be applied to it
+                destroyConfiguration();
+            } else {
+                destroy();
+            }
+            doReload();
+        } finally {
+            incrementalReload = false;
+        }
+    }
 
+    private void doReload() throws Exception {
         beforeReloadInitializers(geoserver);
 
         // reload catalog, make sure we reload the underlying catalog, not any wrappers
@@ -447,9 +478,7 @@ public void reload() throws Exception {
     }
 
     protected void readCatalog(Catalog catalog, XStreamPersister xp) throws Exception {
-        // we are going to synch up the catalogs and need to preserve listeners,
-        // but these two fellas are attached to the new catalog as well
-        catalog.removeListeners(ResourcePool.CacheClearingListener.class);
+        // the persisters are attached back once loaded, and must not write back what is being read
         catalog.removeListeners(GeoServerConfigPersister.class);
         catalog.removeListeners(GeoServerResourcePersister.class);
         // look for catalog.xml, if it exists assume we are dealing with
@@ -466,6 +495,13 @@ protected void readCatalog(Catalog catalog, XStreamPersister xp) throws Exceptio
             // with a new version of the catalog
             catalog2 = (CatalogImpl) readLegacyCatalog(f, xp);
         }
+        if (incrementalReload && applyChanges(catalog, catalog2)) {
+            return;
+        }
+
+        // we are going to synch up the catalogs and need to preserve listeners,
+        // but the resource pool one is attached to the new catalog as well
+        catalog.removeListeners(ResourcePool.CacheClearingListener.class);
         List<CatalogListener> listeners = new ArrayList<>(catalog.getListeners());
         // make to remove the old resource pool catalog listener
         ((CatalogImpl) catalog).sync(catalog2);
@@ -476,6 +512,25 @@ protected void readCatalog(Catalog catalog, XStreamPersister xp) throws Exceptio
         }
     }
 
+    /**
+     * Applies the differences between the catalog read from disk and the live one
+     *
+     * @return {@code true} if successful, {@code false} if the live catalog needs to be replaced instead
+     */
+    private boolean applyChanges(Catalog catalog, CatalogImpl catalog2) {
+        Stopwatch sw = Stopwatch.createStarted();
+        try {
+            new IncrementalCatalogReload(catalog, xpf).apply(catalog2);
+            LOGGER.log(Level.INFO, "Applied catalog changes in {0}", sw.stop());
+            // the new catalog was only used for comparison, release what it might have opened while validating
+            catalog2.dispose();
+            return true;
+        } catch (Exception e) {
+            LOGGER.log(Level.WARNING, "Incremental catalog reload failed, replacing the whole catalog instead", e);
+            return false;
+        }
+    }
+
     protected boolean checkStoresOnStartup(XStreamPersister xp) {
         Resource f = resourceLoader.get("global.xml");
         if (Resources.exists(f)) {
@@ -1041,6 +1096,13 @@ public void destroy() {
         }
     }
 
+    /** Disposes the GeoServer configuration ahead of an incremental reload, the catalog is kept */
+    protected void destroyConfiguration() {
+        if (geoserver != null) {
+            geoserver.getFacade().dispose();
+        }
+    }
+
     protected Stopwatch logStart() {
         LOGGER.log(Level.CONFIG, "Loading catalog {0}", resourceLoader.getBaseDirectory());
         return Stopwatch.createStarted();
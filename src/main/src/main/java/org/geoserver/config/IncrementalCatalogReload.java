@@ -0,0 +1,305 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.config;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.logging.Logger;
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.CatalogInfo;
+import org.geoserver.catalog.DataStoreInfo;
+import org.geoserver.catalog.LayerGroupInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.NamespaceInfo;
+import org.geoserver.catalog.Predicates;
+import org.geoserver.catalog.ResourceInfo;
+import org.geoserver.catalog.ResourcePool;
+import org.geoserver.catalog.StoreInfo;
+import org.geoserver.catalog.StyleInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.impl.ClassMappings;
+import org.geoserver.catalog.impl.ModificationProxy;
+import org.geoserver.catalog.util.CloseableIterator;
+import org.geoserver.config.util.XStreamPersister;
+import org.geoserver.config.util.XStreamPersisterFactory;
+import org.geoserver.ows.util.ClassProperties;
+import org.geoserver.ows.util.OwsUtils;
+import org.geotools.util.logging.Logging;
+
+/**
+ * Applies the differences between a freshly read catalog and the live one, as regular add, modify and remove
+ * operations on the live catalog.
+ *
+ * <p>Objects are matched by id, and considered modified when their XML representation differs. Since the changes go
+ * through the live catalog, listeners are notified as usual, and the resource pool only drops the entries of the
+ * objects that actually changed, keeping the stores, readers and remote servers of everything else.
+ */
+class IncrementalCatalogReload {
+
+    static final Logger LOGGER = Logging.getLogger(IncrementalCatalogReload.class);
+
+    /** Catalog types, in dependency order */
+    static final List<Class<? extends CatalogInfo>> TYPES = Arrays.asList(
+            WorkspaceInfo.class,
+            NamespaceInfo.class,
+            StyleInfo.class,
+            StoreInfo.class,
+            ResourceInfo.class,
+            LayerInfo.class,
+            LayerGroupInfo.class);
+
+    /** Properties that are either identity or runtime state, never copied over */
+    static final Set<String> IGNORED_PROPERTIES = new HashSet<>(Arrays.asList("Id", "Catalog", "Error"));
+
+    private final Catalog catalog;
+
+    /** Encodes objects for comparison and copy, references are written by id */
+    private final XStreamPersister encoder;
+
+    /** Decodes copies of the new objects, resolving their references against the live catalog */
+    private final XStreamPersister decoder;
+
+    private int added;
+
+    private int modified;
+
+    private int removed;
+
+    IncrementalCatalogReload(Catalog catalog, XStreamPersisterFactory xpf) {
+        this.catalog = catalog;
+        this.encoder = xpf.createXMLPersister();
+        this.encoder.setEncryptPasswordFields(false);
+        this.decoder = xpf.createXMLPersister();
+        this.decoder.setEncryptPasswordFields(false);
+        this.decoder.setCatalog(catalog);
+        this.decoder.setUnwrapNulls(false);
+    }
+
+    /**
+     * Brings the live catalog in line with the given one
+     *
+     * @param source the catalog read from the data directory
+     * @throws IOException if any of the changes could not be applied, the live catalog is then left partially updated
+     */
+    public void apply(Catalog source) throws IOException {
+        List<CatalogInfo> removals = new ArrayList<>();
+        for (Class<? extends CatalogInfo> type : TYPES) {
+            Map<String, CatalogInfo> current = byId(catalog, type);
+            Map<String, CatalogInfo> updated = byId(source, type);
+
+            List<CatalogInfo> additions = new ArrayList<>();
+            List<CatalogInfo> modifications = new ArrayList<>();
+            for (CatalogInfo info : updated.values()) {
+                CatalogInfo live = current.remove(info.getId());
+                if (live == null) {
+                    additions.add(info);
+                } else if (!Arrays.equals(encode(live), encode(info))) {
+                    modifications.add(live);
+                }
+            }
+            // add first, modified objects might reference new ones of the same type
+            add(additions);
+            for (CatalogInfo live : modifications) {
+                modify(live, updated.get(live.getId()));
+            }
+            // removals happen once everything else is in place, so that nothing references them anymore
+            removals.addAll(0, current.values());
+        }
+        remove(removals);
+        syncDefaults(source);
+        clearDefinitionCaches();
+
+        LOGGER.config(String.format(
+                "Incremental catalog reload: %,d objects added, %,d modified, %,d removed", added, modified, removed));
+    }
+
+    /** Adds the objects, retrying the ones referencing others in the same batch (e.g. nested layer groups) */
+    private void add(List<CatalogInfo> additions) throws IOException {
+        List<CatalogInfo> pending = additions;
+        while (!pending.isEmpty()) {
+            List<CatalogInfo> failed = new ArrayList<>();
+            RuntimeException failure = null;
+            for (CatalogInfo info : pending) {
+                try {
+                    catalog.add(copy(info));
+                    added++;
+                } catch (RuntimeException e) {
+                    failed.add(info);
+                    failure = e;
+                }
+            }
+            if (failed.size() == pending.size()) {
+                throw new IOException("Failed to add " + failed.get(0), failure);
+            }
+            pending = failed;
+        }
+    }
+
+    private void remove(List<CatalogInfo> removals) throws IOException {
+        List<CatalogInfo> pending = removals;
+        while (!pending.isEmpty()) {
+            List<CatalogInfo> failed = new ArrayList<>();
+            RuntimeException failure = null;
+            for (CatalogInfo info : pending) {
+                try {
+                    catalog.remove(info);
+                    removed++;
+                } catch (RuntimeException e) {
+                    failed.add(info);
+                    failure = e;
+                }
+            }
+            if (failed.size() == pending.size()) {
+                throw new IOException("Failed to remove " + failed.get(0), failure);
+            }
+            pending = failed;
+        }
+    }
+
+    /** Copies the properties of the updated object onto the live one, and saves it */
+    private void modify(CatalogInfo live, CatalogInfo info) throws IOException {
+        CatalogInfo copy = copy(info);
+        ClassProperties properties = OwsUtils.getClassProperties(infoInterface(live));
+        try {
+            for (String property : properties.properties()) {
+                if (IGNORED_PROPERTIES.contains(property)) {
+                    continue;
+                }
+                Method getter = properties.getter(property, null);
+                Method setter = properties.setter(property, getter.getReturnType());
+                if (setter != null) {
+                    Object value = getter.invoke(copy);
+                    if (!Objects.equals(value, getter.invoke(live))) {
+                        setter.invoke(live, value);
+                    }
+                } else if (Collection.class.isAssignableFrom(getter.getReturnType())) {
+                    updateCollection((Collection<?>) getter.invoke(live), (Collection<?>) getter.invoke(copy));
+                } else if (Map.class.isAssignableFrom(getter.getReturnType())) {
+                    updateMap((Map<?, ?>) getter.invoke(live), (Map<?, ?>) getter.invoke(copy));
+                }
+            }
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IOException("Failed to update " + live, e);
+        }
+        try {
+            catalog.save(live);
+        } catch (RuntimeException e) {
+            throw new IOException("Failed to save " + live, e);
+        }
+        modified++;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void updateCollection(Collection<T> target, Collection<?> source) {
+        if (target != null && !Objects.equals(target, source)) {
+            target.clear();
+            if (source != null) {
+                target.addAll((Collection<T>) source);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> void updateMap(Map<K, V> target, Map<?, ?> source) {
+        if (target != null && !Objects.equals(target, source)) {
+            target.clear();
+            if (source != null) {
+                target.putAll((Map<K, V>) source);
+            }
+        }
+    }
+
+    private void syncDefaults(Catalog source) {
+        WorkspaceInfo ws = source.getDefaultWorkspace();
+        if (ws != null && !isSame(ws, catalog.getDefaultWorkspace())) {
+            catalog.setDefaultWorkspace(catalog.getWorkspace(ws.getId()));
+        }
+        NamespaceInfo ns = source.getDefaultNamespace();
+        if (ns != null && !isSame(ns, catalog.getDefaultNamespace())) {
+            catalog.setDefaultNamespace(catalog.getNamespace(ns.getId()));
+        }
+        for (WorkspaceInfo workspace : source.getWorkspaces()) {
+            DataStoreInfo store = source.getDefaultDataStore(workspace);
+            WorkspaceInfo liveWorkspace = catalog.getWorkspace(workspace.getId());
+            if (store != null && !isSame(store, catalog.getDefaultDataStore(liveWorkspace))) {
+                catalog.setDefaultDataStore(liveWorkspace, catalog.getDataStore(store.getId()));
+            }
+        }
+    }
+
+    private static boolean isSame(CatalogInfo info, CatalogInfo other) {
+        return other != null && info.getId().equals(other.getId());
+    }
+
+    /**
+     * Drops the parsed styles and feature types, the files backing them might have changed without their catalog
+     * entry changing. The stores and readers are kept.
+     */
+    private void clearDefinitionCaches() {
+        ResourcePool pool = catalog.getResourcePool();
+        pool.getCrsCache().clear();
+        pool.getSldCache().clear();
+        pool.getStyleCache().clear();
+        pool.getFeatureTypeCache().clear();
+        pool.getFeatureTypeAttributeCache().clear();
+    }
+
+    /** Round trips the object through XML, resolving its references against the live catalog */
+    private CatalogInfo copy(CatalogInfo info) throws IOException {
+        try (ByteArrayInputStream in = new ByteArrayInputStream(encode(info))) {
+            return decoder.load(in, infoInterface(info));
+        }
+    }
+
+    private byte[] encode(CatalogInfo info) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        encoder.save(info, out);
+        return out.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Class<? extends CatalogInfo> infoInterface(CatalogInfo info) {
+        ClassMappings mappings = ClassMappings.fromImpl(ModificationProxy.unwrap(info).getClass());
+        if (mappings == null) {
+            throw new IllegalArgumentException("Unknown catalog object type " + info);
+        }
+        return (Class<? extends CatalogInfo>) mappings.getInterface();
+    }
+
+    private static Map<String, CatalogInfo> byId(Catalog catalog, Class<? extends CatalogInfo> type) {
+        Map<String, CatalogInfo> result = new LinkedHashMap<>();
+        try (CloseableIterator<? extends CatalogInfo> it = catalog.list(type, Predicates.acceptAll())) {
+            while (it.hasNext()) {
+                CatalogInfo info = it.next();
+                result.put(info.getId(), info);
+            }
+        }
+        return result;
+    }
+
+    int getAdded() {
+        return added;
+    }
+
+    int getModified() {
+        return modified;
+    }
+
+    int getRemoved() {
+        return removed;
+    }
+}
@@ -5,6 +5,7 @@
 package org.geoserver.config.datadir;
 
 import com.google.common.base.Stopwatch;
+import java.io.IOException;
 import java.util.concurrent.Executor;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -86,6 +87,13 @@ public class DataDirectoryGeoServerLoader extends DefaultGeoServerLoader {
      */
     static final String GEOSERVER_DATA_DIR_LOADER_THREADS = "GEOSERVER_DATA_DIR_LOADER_THREADS";
 
+    /**
+     * Environment variable or System property to enable the {@link DataDirectorySnapshot binary snapshot} of the parsed
+     * data directory files, allowing to skip parsing the files that did not change since the last startup. Defaults to
+     * {@code false}.
+     */
+    static final String GEOSERVER_DATA_DIR_LOADER_SNAPSHOT = "GEOSERVER_DATA_DIR_LOADER_SNAPSHOT";
+
     private final GeoServerDataDirectory dataDirectory;
     private final GeoServerSecurityManager securityManager;
 
@@ -114,12 +122,26 @@ public static boolean isEnabled(@Nullable ApplicationContext context) {
         return value == null || Boolean.parseBoolean(value);
     }
 
+    /**
+     * Utility method to check if the binary snapshot of the data directory files is enabled, through the
+     * {@literal GEOSERVER_DATA_DIR_LOADER_SNAPSHOT} environment variable or System property. Defaults to {@code false}.
+     */
+    static boolean isSnapshotEnabled() {
+        return Boolean.parseBoolean(GeoServerExtensions.getProperty(GEOSERVER_DATA_DIR_LOADER_SNAPSHOT));
+    }
+
     @Override
     public void destroy() {
         this.fileWalk = null;
         super.destroy(); // calls geoserver.dispose()
     }
 
+    @Override
+    protected void destroyConfiguration() {
+        this.fileWalk = null;
+        super.destroyConfiguration();
+    }
+
     @Override
     protected void loadCatalog(Catalog catalog, XStreamPersister xp) throws Exception {
         initializeDependencies();
@@ -155,7 +177,12 @@ protected Catalog readCatalog(XStreamPersister xp) throws Exception {
 
         catalog.setResourceLoader(resourceLoader);
 
-        CatalogLoader catalogLoader = new CatalogLoader(catalog, fileWalker());
+        DataDirectoryWalker walker = fileWalker();
+        if (isSnapshotEnabled()) {
+            walker.getXStreamLoader().setSnapshot(DataDirectorySnapshot.open(walker.getRoot()));
+        }
+
+        CatalogLoader catalogLoader = new CatalogLoader(catalog, walker);
         catalogLoader.loadCatalog();
 
         decryptStorePasswords(catalog);
@@ -194,6 +221,27 @@ protected void readConfiguration(GeoServer geoServer, XStreamPersister xp) throw
 
             LOGGER.log(Level.CONFIG, "GeoServer config (settings and services) loaded in {0}", stopWatch.stop());
         }
+        saveSnapshot();
+    }
+
+    /**
+     * Writes the snapshot of the files parsed while loading the catalog and the configuration, if enabled, so that the
+     * next startup only needs to parse the files changed in the meantime
+     */
+    private void saveSnapshot() {
+        XStreamLoader loader = fileWalker().getXStreamLoader();
+        DataDirectorySnapshot snapshot = loader.getSnapshot();
+        if (snapshot != null) {
+            loader.setSnapshot(null);
+            LOGGER.log(Level.CONFIG, "{0} files read from the data directory snapshot, {1} parsed", new Object[] {
+                snapshot.getHits(), snapshot.getMisses()
+            });
+            try {
+                snapshot.save();
+            } catch (IOException | RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Error saving the data directory snapshot", e);
+            }
+        }
     }
 
     /** Looks for services.xml, if it exists assume we are dealing with an old data directory */
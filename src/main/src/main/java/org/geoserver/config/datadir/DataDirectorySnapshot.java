@@ -0,0 +1,281 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.config.datadir;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+import org.geotools.util.logging.Logging;
+
+/**
+ * Binary snapshot of the parsed data directory files, used by {@link XStreamLoader} to skip XML parsing for the files
+ * that did not change since the last successful load.
+ *
+ * <p>For each file, the snapshot stores the XStream token stream obtained parsing the XML (as encoded by XStream's
+ * binary driver), along with the file size, last modification time and CRC32 checksum. Tokens are the same events
+ * XStream gets out of the XML parser, so unmarshalling them produces the same objects as parsing the file, and the
+ * snapshot does not depend on the layout of the classes being loaded. A file is taken from the snapshot only if its
+ * size, modification time and checksum match, otherwise it's parsed again and its entry replaced. The checksum catches
+ * the edits keeping the file size on file systems with a coarse modification time granularity, reading the file to
+ * compute it is still much cheaper than parsing it.
+ *
+ * <p>The snapshot file is memory mapped on open, entries are read in place without copying them to the heap. A new
+ * snapshot, containing only the files loaded during the current run, is written by {@link #save()} once loading
+ * completed, to a temporary file that is then renamed over the previous one. The previous file is never written to, as
+ * it might still be mapped by this or another load.
+ *
+ * <p>Instances are safe to use concurrently from the loader threads.
+ *
+ * @see DataDirectoryGeoServerLoader#GEOSERVER_DATA_DIR_LOADER_SNAPSHOT
+ */
+class DataDirectorySnapshot {
+
+    private static final Logger LOGGER =
+            Logging.getLogger(DataDirectorySnapshot.class.getPackage().getName());
+
+    /** Name of the snapshot file, in the data directory root */
+    static final String FILE_NAME = ".datadir-loader.snapshot";
+
+    /** "GSDS" */
+    private static final int MAGIC = 0x47534453;
+
+    private static final int VERSION = 2;
+
+    /** A snapshot entry, the token stream of a file along with the attributes used to validate it */
+    private static final class Entry {
+        final long size;
+
+        final long lastModified;
+
+        final long checksum;
+
+        final ByteBuffer tokens;
+
+        Entry(long size, long lastModified, long checksum, ByteBuffer tokens) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.checksum = checksum;
+            this.tokens = tokens;
+        }
+
+        boolean matches(BasicFileAttributes attributes, byte[] contents) {
+            return size == attributes.size()
+                    && lastModified == attributes.lastModifiedTime().toMillis()
+                    && size == contents.length
+                    && checksum == checksum(contents);
+        }
+    }
+
+    private final Path root;
+
+    private final Path file;
+
+    /** The entries read from the previous snapshot, keyed by path relative to the data directory root */
+    private final Map<String, Entry> previous;
+
+    /** The entries of the files loaded so far, these will make the next snapshot */
+    private final Map<String, Entry> current = new ConcurrentHashMap<>();
+
+    private final AtomicInteger hits = new AtomicInteger();
+
+    private final AtomicInteger misses = new AtomicInteger();
+
+    private DataDirectorySnapshot(Path root, Path file, Map<String, Entry> previous) {
+        this.root = root;
+        this.file = file;
+        this.previous = previous;
+    }
+
+    /**
+     * Opens the snapshot for the given data directory. A missing, corrupted, or incompatible snapshot file results in
+     * an empty snapshot, that is, all files will be parsed.
+     */
+    public static DataDirectorySnapshot open(Path root) {
+        Path file = root.resolve(FILE_NAME);
+        Map<String, Entry> entries = new ConcurrentHashMap<>();
+        if (Files.isRegularFile(file)) {
+            try {
+                read(file, entries);
+                LOGGER.log(Level.CONFIG, "Read data directory snapshot with {0} entries", entries.size());
+            } catch (IOException | RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Ignoring invalid data directory snapshot " + file, e);
+                entries.clear();
+            }
+        }
+        return new DataDirectorySnapshot(root, file, entries);
+    }
+
+    private static void read(Path file, Map<String, Entry> entries) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            throw new IOException("Unrecognized snapshot format");
+        }
+        int count = buffer.getInt();
+        for (int i = 0; i < count; i++) {
+            byte[] name = new byte[buffer.getInt()];
+            buffer.get(name);
+            long size = buffer.getLong();
+            long lastModified = buffer.getLong();
+            long checksum = buffer.getLong();
+            int length = buffer.getInt();
+            ByteBuffer tokens = buffer.slice().limit(length);
+            buffer.position(buffer.position() + length);
+            entries.put(new String(name, StandardCharsets.UTF_8), new Entry(size, lastModified, checksum, tokens));
+        }
+    }
+
+    /**
+     * Returns the token stream for the file, or {@code null} if the file is not in the snapshot, or changed since the
+     * snapshot was taken. A returned entry is retained for the next snapshot.
+     *
+     * @param path the file
+     * @param attributes the file attributes
+     * @param contents the file contents
+     */
+    public InputStream get(Path path, BasicFileAttributes attributes, byte[] contents) {
+        String key = key(path);
+        Entry entry = previous.get(key);
+        if (entry == null || !entry.matches(attributes, contents)) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        current.put(key, entry);
+        return new ByteBufferInputStream(entry.tokens.duplicate());
+    }
+
+    /** Records the token stream of a file that has just been parsed, out of the given contents */
+    public void put(Path path, BasicFileAttributes attributes, byte[] contents, byte[] tokens) {
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        // the size of the contents actually parsed, the file might have changed after reading its attributes
+        Entry entry = new Entry(contents.length, lastModified, checksum(contents), ByteBuffer.wrap(tokens));
+        current.put(key(path), entry);
+    }
+
+    private static long checksum(byte[] contents) {
+        CRC32 crc = new CRC32();
+        crc.update(contents);
+        return crc.getValue();
+    }
+
+    private String key(Path path) {
+        return root.relativize(path).toString();
+    }
+
+    /** Number of files read from the snapshot */
+    public int getHits() {
+        return hits.get();
+    }
+
+    /** Number of files that had to be parsed */
+    public int getMisses() {
+        return misses.get();
+    }
+
+    /** Writes the files loaded so far as the new snapshot, replacing the previous one */
+    public void save() throws IOException {
+        Path temp = Files.createTempFile(root, FILE_NAME, ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp);
+                    DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out))) {
+                data.writeInt(MAGIC);
+                data.writeInt(VERSION);
+                data.writeInt(current.size());
+                for (Map.Entry<String, Entry> e : current.entrySet()) {
+                    byte[] name = e.getKey().getBytes(StandardCharsets.UTF_8);
+                    Entry entry = e.getValue();
+                    data.writeInt(name.length);
+                    data.write(name);
+                    data.writeLong(entry.size);
+                    data.writeLong(entry.lastModified);
+                    data.writeLong(entry.checksum);
+                    ByteBuffer tokens = entry.tokens.duplicate();
+                    data.writeInt(tokens.remaining());
+                    byte[] bytes = new byte[tokens.remaining()];
+                    tokens.get(bytes);
+                    data.write(bytes);
+                }
+            }
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            replace(temp);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        LOGGER.log(
+                Level.CONFIG,
+                "Saved data directory snapshot with {0} entries, {1} files read from the previous one",
+                new Object[] {current.size(), hits.get()});
+    }
+
+    /**
+     * Renames the new snapshot over the previous one. Readers mapping the previous file keep seeing its contents, while
+     * on file systems that do not allow replacing a mapped file (e.g., on Windows) the move fails, and the previous
+     * snapshot is kept.
+     */
+    private void replace(Path temp) throws IOException {
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            // still a rename within the same directory, never a copy over the previous file
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /** An input stream reading the remaining bytes of a buffer */
+    private static class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -5,6 +5,14 @@
 package org.geoserver.config.datadir;
 
 import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.io.HierarchicalStreamDriver;
+import com.thoughtworks.xstream.io.HierarchicalStreamReader;
+import com.thoughtworks.xstream.io.HierarchicalStreamWriter;
+import com.thoughtworks.xstream.io.binary.BinaryStreamDriver;
+import com.thoughtworks.xstream.io.copy.HierarchicalStreamCopier;
+import com.thoughtworks.xstream.io.xml.XppDriver;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -12,6 +20,7 @@
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Optional;
 import java.util.concurrent.ForkJoinPool;
 import java.util.logging.Level;
@@ -64,11 +73,31 @@ class XStreamLoader {
      */
     static final ThreadLocal<XStreamPersister> XP = new ThreadLocal<>();
 
+    /** Driver used to parse the XML files, the same one {@link XStreamPersisterFactory#createXMLPersister()} uses */
+    private static final HierarchicalStreamDriver XML_DRIVER = new XppDriver();
+
+    /** Driver used to encode and decode the {@link DataDirectorySnapshot} token streams */
+    private static final HierarchicalStreamDriver BINARY_DRIVER = new BinaryStreamDriver();
+
+    private DataDirectorySnapshot snapshot;
+
     /** @param xpfac {@link XStreamPersister} factory providing a new instance for each Thread */
     public XStreamLoader(XStreamPersisterFactory xpfac) {
         this.xpf = xpfac;
     }
 
+    /**
+     * Sets the snapshot used to skip parsing the files that did not change since it was taken, and to record the
+     * parsed ones, {@code null} to always parse the XML files.
+     */
+    void setSnapshot(DataDirectorySnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    DataDirectorySnapshot getSnapshot() {
+        return snapshot;
+    }
+
     /**
      * Returns the XStreamPersisterFactory used by this loader.
      *
@@ -110,6 +139,9 @@ XStreamPersisterFactory getPersisterFactory() {
      * @return an Optional containing the deserialized object, or empty if loading or parsing failed
      */
     public <C extends Info> Optional<C> depersist(Path file) {
+        if (snapshot != null) {
+            return depersist(file, snapshot);
+        }
         try (InputStream contents = Files.newInputStream(file, StandardOpenOption.READ)) {
             return Optional.of(parse(contents));
         } catch (IOException | RuntimeException e) {
@@ -118,6 +150,54 @@ public <C extends Info> Optional<C> depersist(Path file) {
         return Optional.empty();
     }
 
+    /**
+     * Deserializes the file out of its token stream in the {@link DataDirectorySnapshot}, if still valid, or parses the
+     * XML file and records its token stream in the snapshot otherwise.
+     */
+    private <C extends Info> Optional<C> depersist(Path file, DataDirectorySnapshot snapshot) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            // read once, to validate the snapshot entry, and parse it if not valid
+            byte[] contents = Files.readAllBytes(file);
+            InputStream tokens = snapshot.get(file, attributes, contents);
+            if (tokens == null) {
+                byte[] parsed = tokenize(new ByteArrayInputStream(contents));
+                snapshot.put(file, attributes, contents, parsed);
+                tokens = new ByteArrayInputStream(parsed);
+            }
+            return Optional.of(unmarshal(tokens));
+        } catch (IOException | RuntimeException e) {
+            logParseError(file, e);
+        }
+        return Optional.empty();
+    }
+
+    /** Parses the XML contents, returning them as a binary XStream token stream */
+    private static byte[] tokenize(InputStream contents) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        HierarchicalStreamReader reader = XML_DRIVER.createReader(contents);
+        HierarchicalStreamWriter writer = BINARY_DRIVER.createWriter(out);
+        try {
+            new HierarchicalStreamCopier().copy(reader, writer);
+        } finally {
+            writer.close();
+            reader.close();
+        }
+        return out.toByteArray();
+    }
+
+    /** Unmarshals a binary XStream token stream, the equivalent of {@link #parse(InputStream)} for XML contents */
+    @SuppressWarnings("unchecked")
+    private <C extends Info> C unmarshal(InputStream tokens) {
+        XStreamPersister xp = getXStream();
+        HierarchicalStreamReader reader = BINARY_DRIVER.createReader(tokens);
+        try {
+            return (C) Info.class.cast(xp.getXStream().unmarshal(reader));
+        } finally {
+            reader.close();
+        }
+    }
+
     public void persist(CatalogInfo info, Path path) throws IOException {
         XStreamPersister persister = getXStream();
         try (OutputStream out = Files.newOutputStream(path)) {
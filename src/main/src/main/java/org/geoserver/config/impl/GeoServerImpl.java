@@ -22,6 +22,7 @@
 import org.geoserver.config.GeoServerFacade;
 import org.geoserver.config.GeoServerFactory;
 import org.geoserver.config.GeoServerInfo;
+import org.geoserver.config.GeoServerLoader;
 import org.geoserver.config.GeoServerLoaderProxy;
 import org.geoserver.config.LoggingInfo;
 import org.geoserver.config.ServiceInfo;
@@ -460,13 +461,22 @@ public void reload(Catalog newCatalog) throws Exception {
 
         // perform the reload
         try {
+            // an incremental reload keeps the resource pool, dropping only what changed
+            boolean incremental = newCatalog == null && GeoServerLoader.isIncrementalReload();
+
             // flush caches
-            reset();
+            if (incremental) {
+                resetReferencing();
+            } else {
+                reset();
+            }
 
             // reload configuration
             GeoServerLoaderProxy loader = GeoServerExtensions.bean(GeoServerLoaderProxy.class);
             synchronized (org.geoserver.config.GeoServer.CONFIGURATION_LOCK) {
-                getCatalog().getResourcePool().dispose();
+                if (!incremental) {
+                    getCatalog().getResourcePool().dispose();
+                }
 
                 if (newCatalog != null) {
                     dispose();
@@ -494,6 +504,11 @@ public void reset() {
         // drop all the catalog store/feature types/raster caches
         catalog.getResourcePool().dispose();
 
+        resetReferencing();
+    }
+
+    /** Resets the referencing subsystem and the pluggable handlers, leaving the resource pool alone */
+    private void resetReferencing() {
         // reset the referencing subsystem
         CRS.reset("all");
 
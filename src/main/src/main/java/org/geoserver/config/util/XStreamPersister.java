@@ -37,6 +37,7 @@
 import com.thoughtworks.xstream.mapper.Mapper;
 import com.thoughtworks.xstream.mapper.PackageAliasingMapper;
 import java.awt.geom.AffineTransform;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -54,6 +55,7 @@
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
@@ -627,7 +629,8 @@ void log(Level level, String msg) {
     public void save(Object obj, OutputStream out) throws IOException {
         // unwrap dynamic proxies
         Object unwrapped = unwrapProxies(obj);
-        xs.toXML(unwrapped, new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        // the pretty print writer issues lots of tiny writes, buffer them before they get encoded, toXML flushes
+        xs.toXML(unwrapped, new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
     }
 
     /**
@@ -1129,8 +1132,8 @@ public void marshal(Object source, HierarchicalStreamWriter writer, MarshallingC
             // could be a proxy, unwrap it
             source = CatalogImpl.unwrap(source);
 
-            // gets its id
-            String id = (String) OwsUtils.get(source, "id");
+            // gets its id, avoiding reflection for the common case
+            String id = source instanceof Info ? ((Info) source).getId() : (String) OwsUtils.get(source, "id");
             if (id != null && !referenceByName) {
                 writer.startNode("id");
                 writer.setValue(id);
@@ -1225,6 +1228,11 @@ class ReferenceCollectionConverter extends LaxCollectionConverter {
         Class<?> clazz;
         Class<?>[] subclasses;
 
+        /** Reference converters for the collection items, reused across items and calls */
+        private final Map<Class<?>, ReferenceConverter> references = new ConcurrentHashMap<>();
+
+        private ClassAliasingMapper aliasingMapper;
+
         public ReferenceCollectionConverter(Class<?> clazz) {
             super(getXStream().getMapper());
             this.clazz = clazz;
@@ -1238,7 +1246,7 @@ public ReferenceCollectionConverter(Class<?> clazz, Class<?>... subclasses) {
 
         @Override
         protected void writeCompleteItem(Object item, MarshallingContext context, HierarchicalStreamWriter writer) {
-            ClassAliasingMapper cam = (ClassAliasingMapper) mapper().lookupMapperOfType(ClassAliasingMapper.class);
+            ClassAliasingMapper cam = aliasingMapper();
 
             String elementName = cam.serializedClass(clazz);
             if (elementName == null) {
@@ -1261,7 +1269,7 @@ protected void writeCompleteItem(Object item, MarshallingContext context, Hierar
                     String typeName = cam.serializedClass(theClass);
                     writer.addAttribute("type", typeName);
                 }
-                context.convertAnother(item, new ReferenceConverter(clazz));
+                context.convertAnother(item, reference(clazz));
             } else if (writer instanceof JettisonStaxWriter) {
                 /*
                  * GEOS-7771 / GEOS-7873
@@ -1294,7 +1302,19 @@ protected Object readBareItem(HierarchicalStreamReader reader, UnmarshallingCont
                     theClass = mapper().realClass(attribute);
                 }
             }
-            return context.convertAnother(current, theClass, new ReferenceConverter(theClass));
+            return context.convertAnother(current, theClass, reference(theClass));
+        }
+
+        private ReferenceConverter reference(Class<?> type) {
+            return references.computeIfAbsent(type, ReferenceConverter::new);
+        }
+
+        private ClassAliasingMapper aliasingMapper() {
+            // the mapper chain does not change once built, no need to walk it for each item
+            if (aliasingMapper == null) {
+                aliasingMapper = (ClassAliasingMapper) mapper().lookupMapperOfType(ClassAliasingMapper.class);
+            }
+            return aliasingMapper;
         }
     }
 
@@ -169,9 +169,18 @@ void createFilterChain() {
         //        Map<RequestMatcher,List<Filter>> filterChainMap =
         //                new LinkedHashMap<RequestMatcher,List<Filter>>();
 
+        // the chain matchers are consulted in order, but the selector picks the matching chain in a single pass
+        List<RequestFilterChain> requestChains = filterChain.getRequestChains();
+        List<GeoServerRequestMatcher> matchers = new ArrayList<>();
+        for (RequestFilterChain chain : requestChains) {
+            matchers.add(matcherForChain(chain));
+        }
+        RequestChainSelector selector = new RequestChainSelector(requestChains, matchers);
+
         List<SecurityFilterChain> filterChains = new ArrayList<>();
-        for (RequestFilterChain chain : filterChain.getRequestChains()) {
-            RequestMatcher matcher = matcherForChain(chain);
+        for (int i = 0; i < requestChains.size(); i++) {
+            RequestFilterChain chain = requestChains.get(i);
+            RequestMatcher matcher = selector.matcher(i);
             List<Filter> filters = new ArrayList<>();
             for (String filterName : chain.getCompiledFilterNames()) {
                 try {
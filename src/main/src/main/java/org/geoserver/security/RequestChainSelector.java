@@ -0,0 +1,333 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.security;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import javax.servlet.http.HttpServletRequest;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+/**
+ * Picks the {@link RequestFilterChain} handling a request in a single pass, instead of trying the chain matchers one
+ * after the other.
+ *
+ * <p>The chain patterns are compiled into a trie of path segments, and the HTTP methods accepted by each chain into a
+ * table by method. The patterns handled by the trie are the ones {@link IncludeQueryStringAntPathRequestMatcher}
+ * already treats as plain strings: the match all pattern, the sub path patterns ending with <code>/**</code> and the
+ * patterns without wildcards. The others, such as <code>/rest.*</code> or patterns with a query string, are checked
+ * with their own matcher, but only if the request path starts with their literal prefix. Requests the trie cannot
+ * decide on, e.g. paths with empty segments (ant matching ignores them) or unknown HTTP methods, go through the chain
+ * matchers in order, as before.
+ *
+ * <p>The selection is cached as a request attribute, so that the matchers of the chains, which all ask the same
+ * question, compute it once per request.
+ */
+class RequestChainSelector {
+
+    /** Request attribute holding the last selection */
+    static final String SELECTION_ATTRIBUTE = RequestChainSelector.class.getName() + ".selection";
+
+    /** Returned when no chain matches the request */
+    static final int NO_MATCH = -1;
+
+    private static final String MATCH_ALL = "/**";
+
+    private static final int[] EMPTY = new int[0];
+
+    private static final HTTPMethod[] HTTP_METHODS = HTTPMethod.values();
+
+    /** The original chain matchers, used when the trie cannot decide */
+    private final List<GeoServerRequestMatcher> matchers;
+
+    /** The chains accepting each {@link HTTPMethod}, by ordinal */
+    private final BitSet[] methods = new BitSet[HTTP_METHODS.length];
+
+    private final Node root = new Node();
+
+    /** The patterns not handled by the trie, sorted by chain */
+    private final List<Complex> complex = new ArrayList<>();
+
+    RequestChainSelector(List<RequestFilterChain> chains, List<GeoServerRequestMatcher> matchers) {
+        this.matchers = matchers;
+        for (int i = 0; i < methods.length; i++) {
+            methods[i] = new BitSet();
+        }
+        for (int i = 0; i < chains.size(); i++) {
+            RequestFilterChain chain = chains.get(i);
+            Set<HTTPMethod> accepted = chain.isMatchHTTPMethod() ? chain.getHttpMethods() : null;
+            for (HTTPMethod method : HTTP_METHODS) {
+                if (accepted == null || accepted.contains(method)) {
+                    methods[method.ordinal()].set(i);
+                }
+            }
+            if (chain.getPatterns() != null) {
+                for (String patterns : chain.getPatterns()) {
+                    for (String pattern : patterns.split(",")) {
+                        add(i, pattern);
+                    }
+                }
+            }
+        }
+    }
+
+    private void add(int chain, String pattern) {
+        String lowerCase = pattern.toLowerCase();
+        if (MATCH_ALL.equals(pattern)) {
+            root.prefix = insert(root.prefix, chain);
+        } else if (isSubpath(lowerCase)) {
+            Node node = root.add(lowerCase.substring(0, lowerCase.length() - MATCH_ALL.length()));
+            node.prefix = insert(node.prefix, chain);
+        } else if (isLiteral(lowerCase)) {
+            Node node = root.add(lowerCase);
+            node.exact = insert(node.exact, chain);
+        } else {
+            RequestMatcher matcher = new IncludeQueryStringAntPathRequestMatcher(pattern);
+            Complex entry = new Complex(chain, literalPrefix(lowerCase), matcher);
+            int idx = complex.size();
+            while (idx > 0 && complex.get(idx - 1).chain > chain) {
+                idx--;
+            }
+            complex.add(idx, entry);
+        }
+    }
+
+    /** Same condition used by {@link IncludeQueryStringAntPathRequestMatcher} to pick its sub path matcher */
+    private static boolean isSubpath(String pattern) {
+        return pattern.endsWith(MATCH_ALL)
+                && pattern.length() > MATCH_ALL.length()
+                && isLiteral(pattern.substring(0, pattern.length() - MATCH_ALL.length()))
+                && pattern.indexOf('|') == -1;
+    }
+
+    /** Patterns ant matching compares as plain strings */
+    private static boolean isLiteral(String pattern) {
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '*' || c == '?' || c == '{' || c == '|') {
+                return false;
+            }
+        }
+        return !pattern.contains("//");
+    }
+
+    /**
+     * Returns the part of the pattern any matching path must start with, up to the first wildcard. A trailing
+     * <code>**</code> segment can match nothing, including the separator before it, which is left out in that case.
+     */
+    static String literalPrefix(String pattern) {
+        int end = pattern.length();
+        for (int i = 0; i < pattern.length(); i++) {
+            char c = pattern.charAt(i);
+            if (c == '*' || c == '?' || c == '{' || c == '|') {
+                end = i;
+                break;
+            }
+        }
+        String prefix = pattern.substring(0, end);
+        if (prefix.contains("//")) {
+            // ant matching ignores empty segments
+            return "";
+        }
+        if (prefix.endsWith("/") && pattern.startsWith("**", end)) {
+            prefix = prefix.substring(0, prefix.length() - 1);
+        }
+        return prefix;
+    }
+
+    /** Returns the index of the first chain matching the request, or {@link #NO_MATCH} */
+    int select(HttpServletRequest request) {
+        Object cached = request.getAttribute(SELECTION_ATTRIBUTE);
+        if (cached instanceof Selection && ((Selection) cached).isFor(request)) {
+            return ((Selection) cached).chain;
+        }
+        Selection selection = new Selection(request);
+        selection.chain = doSelect(request);
+        request.setAttribute(SELECTION_ATTRIBUTE, selection);
+        return selection.chain;
+    }
+
+    /** Returns a matcher for the given chain, matching the requests the chain is selected for */
+    RequestMatcher matcher(int chain) {
+        return new SelectedChainMatcher(chain);
+    }
+
+    private int doSelect(HttpServletRequest request) {
+        String path = request.getServletPath();
+        if (request.getPathInfo() != null) {
+            path += request.getPathInfo();
+        }
+        path = path.toLowerCase();
+        BitSet accepted = accepted(request.getMethod());
+        if (accepted == null || path.contains("//")) {
+            return selectSequentially(request);
+        }
+
+        // walk the trie, one segment at a time
+        int best = first(root.prefix, accepted, Integer.MAX_VALUE);
+        Node node = root;
+        int start = 0;
+        while (node != null && start <= path.length()) {
+            int end = path.indexOf('/', start);
+            if (end == -1) {
+                end = path.length();
+            }
+            node = node.children.get(path.substring(start, end));
+            if (node != null) {
+                best = first(node.prefix, accepted, best);
+                if (end == path.length()) {
+                    best = first(node.exact, accepted, best);
+                }
+            }
+            start = end + 1;
+        }
+
+        // then the patterns the trie cannot handle, of the chains before the best so far
+        for (Complex entry : complex) {
+            if (entry.chain >= best) {
+                break;
+            }
+            if (accepted.get(entry.chain) && path.startsWith(entry.prefix) && entry.matcher.matches(request)) {
+                best = entry.chain;
+            }
+        }
+        return best == Integer.MAX_VALUE ? NO_MATCH : best;
+    }
+
+    private BitSet accepted(String method) {
+        for (HTTPMethod m : HTTP_METHODS) {
+            if (m.toString().equals(method)) {
+                return methods[m.ordinal()];
+            }
+        }
+        return null;
+    }
+
+    private int selectSequentially(HttpServletRequest request) {
+        for (int i = 0; i < matchers.size(); i++) {
+            if (matchers.get(i).matches(request)) {
+                return i;
+            }
+        }
+        return NO_MATCH;
+    }
+
+    /** Returns the first of the sorted chains accepted and lower than the current best, or the best itself */
+    private static int first(int[] chains, BitSet accepted, int best) {
+        for (int chain : chains) {
+            if (chain >= best) {
+                break;
+            }
+            if (accepted.get(chain)) {
+                return chain;
+            }
+        }
+        return best;
+    }
+
+    private static int[] insert(int[] values, int value) {
+        int idx = Arrays.binarySearch(values, value);
+        if (idx >= 0) {
+            return values;
+        }
+        int pos = -idx - 1;
+        int[] result = new int[values.length + 1];
+        System.arraycopy(values, 0, result, 0, pos);
+        result[pos] = value;
+        System.arraycopy(values, pos, result, pos + 1, values.length - pos);
+        return result;
+    }
+
+    /** Matches the requests for which a given chain is selected */
+    private class SelectedChainMatcher implements RequestMatcher {
+
+        final int chain;
+
+        SelectedChainMatcher(int chain) {
+            this.chain = chain;
+        }
+
+        @Override
+        public boolean matches(HttpServletRequest request) {
+            return select(request) == chain;
+        }
+
+        @Override
+        public String toString() {
+            return "Selected chain " + chain + " " + matchers.get(chain);
+        }
+    }
+
+    /** Trie node, one per path segment */
+    private static class Node {
+
+        final Map<String, Node> children = new HashMap<>();
+
+        /** Chains matching any path at or below this node */
+        int[] prefix = EMPTY;
+
+        /** Chains matching the path ending at this node */
+        int[] exact = EMPTY;
+
+        /** Returns the node of the given path, creating the missing ones */
+        Node add(String path) {
+            Node node = this;
+            for (String segment : path.split("/", -1)) {
+                node = node.children.computeIfAbsent(segment, s -> new Node());
+            }
+            return node;
+        }
+    }
+
+    /** A pattern checked with its own matcher */
+    private static class Complex {
+
+        final int chain;
+
+        final String prefix;
+
+        final RequestMatcher matcher;
+
+        Complex(int chain, String prefix, RequestMatcher matcher) {
+            this.chain = chain;
+            this.prefix = prefix;
+            this.matcher = matcher;
+        }
+    }
+
+    /** The chain selected for a request, along with the request parts it was selected on */
+    private static class Selection {
+
+        final String method;
+
+        final String servletPath;
+
+        final String pathInfo;
+
+        final String queryString;
+
+        int chain;
+
+        Selection(HttpServletRequest request) {
+            this.method = request.getMethod();
+            this.servletPath = request.getServletPath();
+            this.pathInfo = request.getPathInfo();
+            this.queryString = request.getQueryString();
+        }
+
+        /** Checks the request was not forwarded, or otherwise changed, since the selection */
+        boolean isFor(HttpServletRequest request) {
+            return Objects.equals(method, request.getMethod())
+                    && Objects.equals(servletPath, request.getServletPath())
+                    && Objects.equals(pathInfo, request.getPathInfo())
+                    && Objects.equals(queryString, request.getQueryString());
+        }
+    }
+}
@@ -1559,17 +1559,15 @@ private <T extends CatalogInfo> Function<T, T> securityWrapper(
     }
 
     /**
-     * Returns a predicate that checks whether the current user has access to a given object of type {@code infoType}.
+     * Returns a predicate that checks whether the current user has access to a given object of type {@code infoType},
+     * combined with the caller's filter.
      *
-     * <p>IMPLEMENTATION NOTE: the predicate returned evaluates in-process and hence can't be encoded to the catalog's
-     * native query language, if any. It calls {@link #buildWrapperPolicy(Authentication, CatalogInfo)} to check if the
-     * returned access level is not "hidden" on a case by case basis. Perhaps, the check for whether a given resource is
-     * accessible to the current user can be encoded as a "well known" predicate that uses one or a combination of the
-     * property equals/isnull/contains/exists verbs in the {@link Predicates} utility. I (GR), at the time of writing,
-     * don't know how to do that, so any help would be much appreciated. Nonetheless, this predicate is meant to be
-     * "and'ed" with any other predicate this catalog wrapper is called with, giving the Catalog backend a chance to at
-     * least encode the "well known" part of the resulting filter, and separate out the in-process evaluation of access
-     * credentials from the construction of the security wrapper for each object.
+     * <p>The security part comes from {@link ResourceAccessManager#getSecurityFilter(Authentication, Class)}, which for
+     * the default manager is made of plain property comparisons (workspace names, prefixed names, ids) the catalog
+     * facade can answer out of its indexes. The combined filter is pushed down to the catalog, so that paged listings
+     * are computed over the visible objects only, and never load the ones the user cannot see. If the manager does not
+     * provide a filter, an in-process {@link InMemorySecurityFilter} is used instead, the catalog still evaluates it
+     * before paging, but has to check each object.
      *
      * @return a catalog Predicate that evaluates if an object of the required type is accessible to the given user
      */
@@ -1587,7 +1585,15 @@ private <T extends CatalogInfo> Filter securityFilter(final Class<T> infoType, f
         }
 
         Filter securityFilter = this.accessManager.getSecurityFilter(user, infoType);
-        if (Filter.INCLUDE.equals(filter)) {
+        if (securityFilter == null) {
+            // the manager leaves it to us, check the objects one by one
+            securityFilter = InMemorySecurityFilter.buildUserAccessFilter(accessManager, user);
+        }
+        // keep the combined filter as simple as possible, so that the catalog can answer it out of its indexes
+        if (securityFilter == Filter.INCLUDE) {
+            return filter;
+        }
+        if (Filter.INCLUDE.equals(filter) || securityFilter == Filter.EXCLUDE) {
             return securityFilter;
         }
         // create a filter combined with the security credentials check
@@ -0,0 +1,84 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.security;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geoserver.security.impl.DataAccessRuleDAO;
+import org.geoserver.security.impl.DefaultResourceAccessManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Helps caches of content filtered by the data security, like the capabilities documents, to key their entries on
+ * what the filtering depends on, and to find out when the data access rules changed.
+ *
+ * <p>The {@link DefaultResourceAccessManager} decides on the user roles alone, so users sharing the same roles can
+ * share the cached content. Other access managers might decide on the user identity too, in that case the user name is
+ * part of the key as well.
+ */
+public class SecuredContentCacheSupport {
+
+    private final DataAccessRuleDAO accessRules;
+
+    private final AtomicLong rulesLastModified = new AtomicLong(Long.MIN_VALUE);
+
+    /** @param accessRules the data access rules, or null if they are not available */
+    public SecuredContentCacheSupport(DataAccessRuleDAO accessRules) {
+        this.accessRules = accessRules;
+    }
+
+    /**
+     * Returns true if the data access rules changed since the last call, reloading them first if their file changed.
+     * The content cached until now might expose resources no longer accessible, and must be discarded.
+     */
+    public boolean isRulesChanged() {
+        if (accessRules == null) {
+            return false;
+        }
+        // reloads the rules if the file changed
+        accessRules.getMode();
+        long lastModified = accessRules.getLastModified();
+        long previous = rulesLastModified.getAndSet(lastModified);
+        return previous != Long.MIN_VALUE && previous != lastModified;
+    }
+
+    /** Returns the roles of the user, sorted, empty if not authenticated */
+    public static Set<String> getRoles(Authentication authentication) {
+        Set<String> roles = new TreeSet<>();
+        if (authentication != null) {
+            for (GrantedAuthority authority : authentication.getAuthorities()) {
+                roles.add(authority.getAuthority());
+            }
+        }
+        return roles;
+    }
+
+    /**
+     * Returns the user name when the access manager in use might decide on it, null if the roles alone determine what
+     * the user can access
+     */
+    public static String getUserName(Authentication authentication) {
+        if (authentication == null || isRoleBased(getResourceAccessManager())) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private static ResourceAccessManager getResourceAccessManager() {
+        Object catalog = GeoServerExtensions.bean("secureCatalog");
+        return catalog instanceof SecureCatalogImpl ? ((SecureCatalogImpl) catalog).getResourceAccessManager() : null;
+    }
+
+    /** Returns true if the access manager, and the wrappers around it, are known to decide on the roles alone */
+    static boolean isRoleBased(ResourceAccessManager manager) {
+        while (manager instanceof CatalogFilterAccessManager) {
+            manager = ((ResourceAccessManagerWrapper) manager).delegate;
+        }
+        return manager != null && manager.getClass() == DefaultResourceAccessManager.class;
+    }
+}
@@ -22,8 +22,8 @@ public class AuthenticationCacheEntry {
     /** Time in seconds, The entry expires if (creation time + live time) < current time */
     private int timeToLiveSeconds;
 
-    /** Time stamp of last access in milliseconds */
-    private long lastAccessed;
+    /** Time stamp of last access in milliseconds, updated by concurrent lookups */
+    private volatile long lastAccessed;
     /** Time stamp of creation in milliseconds */
     private long created;
 
@@ -14,6 +14,7 @@
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import org.geoserver.config.impl.GeoServerLifecycleHandler;
@@ -25,6 +26,15 @@
 /**
  * Implementation of GeoServer AuthenticationCache based on Guava Cache.
  *
+ * <p>The cache is split in {@code concurrencyLevel} segments, each with its own lock, so that concurrent lookups
+ * (e.g., many tile requests using basic authentication) do not contend on a single lock. Entries expire according to
+ * the idle and live times they were put with, which can be set per filter (see
+ * {@link #put(String, String, Authentication, Integer, Integer)}), the cache wide times are used only as defaults.
+ * Expired entries are never returned, and are removed by a periodic clean up task.
+ *
+ * <p>Hits, misses and expirations are counted, see {@link #getHitCount()}, {@link #getMissCount()},
+ * {@link #getExpiredCount()} and {@link #getHitRatio()}.
+ *
  * @author Mauro Bartolomeoli (mauro.bartolomeoli at geo-solutions.it)
  */
 public class GuavaAuthenticationCacheImpl implements AuthenticationCache, GeoServerLifecycleHandler, DisposableBean {
@@ -34,9 +44,9 @@ public class GuavaAuthenticationCacheImpl implements AuthenticationCache, GeoSer
 
     /**
      * Default concurrency level (allows guava cache to optimize internal size to serve the given # of threads at the
-     * same time).
+     * same time), at least 4, or the number of available processors.
      */
-    public static final int DEFAULT_CONCURRENCY_LEVEL = 3;
+    public static final int DEFAULT_CONCURRENCY_LEVEL = Math.max(4, Runtime.getRuntime().availableProcessors());
 
     private int timeToIdleSeconds, timeToLiveSeconds;
 
@@ -44,6 +54,12 @@ public class GuavaAuthenticationCacheImpl implements AuthenticationCache, GeoSer
 
     private Cache<AuthenticationCacheKey, AuthenticationCacheEntry> cache;
 
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder expirations = new LongAdder();
+
     static Logger LOGGER = Logging.getLogger("org.geoserver.security");
 
     /** Eviction thread code. Delegates to guava Cache cleanUp. */
@@ -54,10 +70,15 @@ public void run() {
                 LOGGER.fine("AuthenticationCache Eviction task running");
                 LOGGER.fine("Cache entries #: " + cache.size());
             }
+            long now = System.currentTimeMillis();
+            cache.asMap().values().removeIf(entry -> entry.hasExpired(now));
             cache.cleanUp();
             if (LOGGER.isLoggable(Level.FINE)) {
                 LOGGER.fine("AuthenticationCache Eviction task completed");
                 LOGGER.fine("Cache entries #: " + cache.size());
+                LOGGER.fine(String.format(
+                        "AuthenticationCache hits: %d, misses: %d, expired: %d, hit ratio: %.2f",
+                        getHitCount(), getMissCount(), getExpiredCount(), getHitRatio()));
             }
         }
     };
@@ -83,10 +104,10 @@ public GuavaAuthenticationCacheImpl(
 
         scheduler = Executors.newScheduledThreadPool(1, getThreadFactory());
 
+        // no cache wide expiration, it would cut short the entries put with longer times,
+        // the entries expiration is checked on access and by the eviction task instead
         cache = CacheBuilder.newBuilder()
                 .maximumSize(maxEntries)
-                .expireAfterAccess(timeToIdleSeconds, TimeUnit.SECONDS)
-                .expireAfterWrite(timeToLiveSeconds, TimeUnit.SECONDS)
                 .concurrencyLevel(concurrencyLevel)
                 .build();
         if (LOGGER.isLoggable(Level.CONFIG)) {
@@ -158,6 +179,7 @@ public Authentication get(String filterName, String cacheKey) {
         final AuthenticationCacheKey key = new AuthenticationCacheKey(filterName, cacheKey);
         AuthenticationCacheEntry entry = cache.getIfPresent(key);
         if (entry == null) {
+            misses.increment();
             if (LOGGER.isLoggable(Level.FINE)) {
                 LOGGER.fine("AuthenticationCache has no entry for " + filterName + ", " + cacheKey);
             }
@@ -165,13 +187,16 @@ public Authentication get(String filterName, String cacheKey) {
         }
         long currentTime = System.currentTimeMillis();
         if (entry.hasExpired(currentTime)) {
+            misses.increment();
+            expirations.increment();
             if (LOGGER.isLoggable(Level.FINE)) {
                 LOGGER.fine("Entry has expired");
             }
-            cache.invalidate(key);
+            cache.asMap().remove(key, entry);
             return null;
         }
-        entry.setLastAccessed(System.currentTimeMillis());
+        hits.increment();
+        entry.setLastAccessed(currentTime);
         if (LOGGER.isLoggable(Level.FINE)) {
             LOGGER.fine("AuthenticationCache found an entry for " + filterName + ", " + cacheKey);
         }
@@ -218,6 +243,33 @@ public boolean isEmpty() {
         return cache.size() == 0;
     }
 
+    /** Number of entries in the cache, including the expired ones not yet cleaned up */
+    public long size() {
+        return cache.size();
+    }
+
+    /** Number of lookups that found a valid entry */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /** Number of lookups that found no entry, or an expired one */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /** Number of lookups that found an expired entry */
+    public long getExpiredCount() {
+        return expirations.sum();
+    }
+
+    /** Ratio of lookups that found a valid entry, 1 if there were no lookups */
+    public double getHitRatio() {
+        long hits = getHitCount();
+        long total = hits + getMissCount();
+        return total == 0 ? 1.0 : (double) hits / total;
+    }
+
     @Override
     public void destroy() {
         scheduler.shutdown();
@@ -20,7 +20,9 @@
  *
  * <p>For an explanation of the time parameters, see {@link AuthenticationCacheEntry}
  *
- * <p>The class uses a {@link ReentrantReadWriteLock} object to synchronize access from multiple threads
+ * <p>The class uses a {@link ReentrantReadWriteLock} object to synchronize access from multiple threads. As lookups
+ * update the access order, this implementation serializes all accesses, {@link GuavaAuthenticationCacheImpl} is
+ * better suited for highly concurrent loads.
  *
  * <p>Additionally, a {@link TimerTask} is started to remove expired entries.
  *
@@ -100,7 +102,8 @@ public void remove(String filterName, String cacheKey) {
 
     @Override
     public Authentication get(String filterName, String cacheKey) {
-        readLock.lock();
+        // the LRU cache keeps the entries in access order, a lookup modifies it
+        writeLock.lock();
         boolean hasTobeRemoved = false;
         try {
             long currentTime = System.currentTimeMillis();
@@ -114,7 +117,7 @@ public Authentication get(String filterName, String cacheKey) {
             return entry.getAuthentication();
 
         } finally {
-            readLock.unlock();
+            writeLock.unlock();
             if (hasTobeRemoved) remove(filterName, cacheKey);
         }
     }
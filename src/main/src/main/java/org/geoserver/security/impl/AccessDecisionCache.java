@@ -0,0 +1,105 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.security.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import org.geoserver.security.AccessMode;
+import org.geoserver.security.GeoServerSecurityFilterChainProxy;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Caches the access decisions taken on a {@link SecureTreeNode} tree, by set of roles.
+ *
+ * <p>Decisions depend only on the rules and on the role names of the user, so users sharing the same roles share the
+ * same decisions. For each role set the cache keeps a bitmask per secured path (workspace, layer, group), with two
+ * bits per {@link AccessMode}: whether the decision is known, and whether access is granted. A cache instance is bound
+ * to the tree it was built for, reloading the rules replaces both at once.
+ */
+class AccessDecisionCache {
+
+    static final int ROLE_SETS_SIZE = 1000;
+
+    static final int ROLE_SETS_EXPIRY_TIME = 60;
+
+    private final SecureTreeNode root;
+
+    private final Cache<Set<String>, Map<String, Integer>> decisions = CacheBuilder.newBuilder()
+            .maximumSize(ROLE_SETS_SIZE)
+            .expireAfterAccess(ROLE_SETS_EXPIRY_TIME, TimeUnit.MINUTES)
+            .build();
+
+    AccessDecisionCache(SecureTreeNode root) {
+        this.root = root;
+    }
+
+    /** The tree the decisions are taken on */
+    SecureTreeNode getRoot() {
+        return root;
+    }
+
+    /**
+     * Returns the cached access decision for the given path, computing it if missing
+     *
+     * @param user the user accessing the resource
+     * @param mode the access mode
+     * @param path the secured path, e.g., the workspace name or the prefixed layer name
+     * @param decision computes the decision on the tree, if not cached already
+     */
+    boolean canAccess(Authentication user, AccessMode mode, String path, Predicate<SecureTreeNode> decision) {
+        if (!GeoServerSecurityFilterChainProxy.isSecurityEnabledForCurrentRequest()) {
+            // not a decision on the rules, don't cache it
+            return decision.test(root);
+        }
+
+        Map<String, Integer> paths = getPaths(user);
+        int known = 1 << (mode.ordinal() * 2);
+        int allowed = known << 1;
+        Integer bits = paths.get(path);
+        if (bits != null && (bits & known) != 0) {
+            return (bits & allowed) != 0;
+        }
+
+        boolean access = decision.test(root);
+        paths.merge(path, access ? known | allowed : known, (a, b) -> a | b);
+        return access;
+    }
+
+    private Map<String, Integer> getPaths(Authentication user) {
+        try {
+            return decisions.get(roles(user), ConcurrentHashMap::new);
+        } catch (ExecutionException e) {
+            // cannot happen, the loader does not throw
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static Set<String> roles(Authentication user) {
+        Collection<? extends GrantedAuthority> authorities = user != null ? user.getAuthorities() : null;
+        if (authorities == null || authorities.isEmpty()) {
+            return Collections.emptySet();
+        }
+        Set<String> roles = new HashSet<>();
+        for (GrantedAuthority authority : authorities) {
+            roles.add(authority.getAuthority());
+        }
+        return roles;
+    }
+
+    /** Number of role sets having cached decisions */
+    long size() {
+        return decisions.size();
+    }
+}
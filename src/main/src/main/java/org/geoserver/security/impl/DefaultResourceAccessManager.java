@@ -115,7 +115,11 @@ public SecureTreeNode getNode() {
         }
     }
 
-    SecureTreeNode root;
+    /**
+     * The rules tree, and the access decisions taken on it by role set, published together so that readers never pair
+     * a tree with the decisions of another one
+     */
+    volatile AccessDecisionCache decisions;
 
     DataAccessRuleDAO dao;
 
@@ -137,7 +141,12 @@ public SecureTreeNode getNode() {
     public DefaultResourceAccessManager(DataAccessRuleDAO dao, Catalog rawCatalog) {
         this.dao = dao;
         this.rawCatalog = rawCatalog;
-        this.root = buildAuthorizationTree(dao);
+        this.decisions = new AccessDecisionCache(buildAuthorizationTree(dao));
+    }
+
+    /** Returns the current rules tree */
+    SecureTreeNode getRoot() {
+        return decisions.getRoot();
     }
 
     /**
@@ -155,7 +164,12 @@ public CatalogMode getMode() {
 
     public boolean canAccess(Authentication user, WorkspaceInfo workspace, AccessMode mode) {
         checkPropertyFile();
-        SecureTreeNode node = root.getDeepestNode(new String[] {workspace.getName()});
+        String name = workspace.getName();
+        return decisions.canAccess(user, mode, "workspace:" + name, tree -> canAccess(tree, name, user, mode));
+    }
+
+    private boolean canAccess(SecureTreeNode tree, String workspace, Authentication user, AccessMode mode) {
+        SecureTreeNode node = tree.getDeepestNode(new String[] {workspace});
         if (node.canAccess(user, mode)) {
             return true;
         }
@@ -214,12 +228,19 @@ public boolean canAccess(Authentication user, ResourceInfo resource, AccessMode
             return true;
         }
 
+        // if we do not need to check layer groups at all, only the rules matter
+        AccessDecisionCache decisions = this.decisions;
+        String[] path = {workspace, resourceName};
+        boolean rulesAllowAccess = canAccessPath(decisions, user, mode, path);
+        if (!layerGroupContainmentCheckRequired()) {
+            return rulesAllowAccess;
+        }
+
         // if we have a catalog rule that is at resource level, it's the most specific type,
-        // it wins. Or it could be that we do not need to check layer groups at all
-        SecureTreeNode securityNode = root.getDeepestNode(new String[] {workspace, resourceName});
+        // it wins
+        SecureTreeNode securityNode = decisions.getRoot().getDeepestNode(path);
         int catalogNodeDepth = securityNode.getDepth();
-        boolean rulesAllowAccess = securityNode.canAccess(user, mode);
-        if (catalogNodeDepth == SecureTreeNode.RESOURCE_DEPTH || !layerGroupContainmentCheckRequired()) {
+        if (catalogNodeDepth == SecureTreeNode.RESOURCE_DEPTH) {
             return rulesAllowAccess;
         }
 
@@ -277,6 +298,12 @@ && canAccess(user, gi, directAccess)
         });
     }
 
+    /** Checks the rules for the given layer or group path, through the decisions cache */
+    private boolean canAccessPath(AccessDecisionCache decisions, Authentication user, AccessMode mode, String... path) {
+        String key = "published:" + String.join(":", path);
+        return decisions.canAccess(user, mode, key, tree -> tree.getDeepestNode(path).canAccess(user, mode));
+    }
+
     /** Returns true if there is a path from the group to the resource that does not involve crossing a opaque group */
     private boolean allowsAccessViaNonOpaqueGroup(LayerGroupInfo gi, ResourceInfo resource) {
         for (PublishedInfo pi : gi.getLayers()) {
@@ -297,6 +324,7 @@ && allowsAccessViaNonOpaqueGroup(lg, resource)) {
     }
 
     private SecureTreeNode getNodeForGroup(LayerGroupInfo lg) {
+        SecureTreeNode root = getRoot();
         SecureTreeNode node;
         if (lg.getWorkspace() == null) {
             node = root.getNode(lg.getName());
@@ -334,7 +362,7 @@ public void reload() {
     private void rebuildAuthorizationTree(boolean force) {
         long daoLastModified = dao.getLastModified();
         if (lastLoaded < daoLastModified || force) {
-            root = buildAuthorizationTree(dao);
+            decisions = new AccessDecisionCache(buildAuthorizationTree(dao));
             lastLoaded = daoLastModified;
             // The filter cache must be invalidated, since the security rules have changed!!!
             filterCache.invalidateAll();
@@ -469,8 +497,9 @@ public LayerGroupAccessLimits getAccessLimits(
 
     private boolean canAccess(Authentication user, LayerGroupInfo layerGroup, boolean directAccess) {
         String[] path = getLayerGroupPath(layerGroup);
-        SecureTreeNode node = root.getDeepestNode(path);
-        boolean catalogNodeAllowsAccess = node.canAccess(user, AccessMode.READ);
+        AccessDecisionCache decisions = this.decisions;
+        SecureTreeNode node = decisions.getRoot().getDeepestNode(path);
+        boolean catalogNodeAllowsAccess = canAccessPath(decisions, user, AccessMode.READ, path);
         boolean allowAccess;
         if (node != null && !catalogNodeAllowsAccess) {
             allowAccess = false;
@@ -539,6 +568,7 @@ protected boolean supportsPrefilter(Authentication user, Class<? extends Catalog
     protected Filter buildSecurityPrefilter(Authentication user, Class<? extends CatalogInfo> clazz) {
         if (WorkspaceInfo.class.isAssignableFrom(clazz)) {
             // base access
+            SecureTreeNode root = getRoot();
             boolean rootAccess = canAccess(user, root);
             List<Filter> exceptions = new ArrayList<>();
             // exceptions
@@ -569,6 +599,7 @@ protected Filter buildSecurityPrefilter(Authentication user, Class<? extends Cat
             }
         } else if (StyleInfo.class.isAssignableFrom(clazz) || LayerGroupInfo.class.isAssignableFrom(clazz)) {
             // we just check for workspace containment
+            SecureTreeNode root = getRoot();
             boolean rootAccess = canAccess(user, root);
             List<Filter> exceptions = new ArrayList<>();
             // exceptions
@@ -598,6 +629,7 @@ protected Filter buildSecurityPrefilter(Authentication user, Class<? extends Cat
 
     private Filter buildEqualityResourceFilter(Authentication user, Class<? extends CatalogInfo> clazz) {
         // base access
+        SecureTreeNode root = getRoot();
         boolean rootAccess = canAccess(user, root);
         List<Filter> exceptions = new ArrayList<>();
 
@@ -679,6 +711,7 @@ private Filter buildEqualityResourceFilter(Authentication user, Class<? extends
 
     protected Filter buildInFunctionResourceFilter(Authentication user, Class<? extends CatalogInfo> clazz) {
         // base access
+        SecureTreeNode root = getRoot();
         boolean rootAccess = canAccess(user, root);
 
         List<Filter> filters = new ArrayList<>();
@@ -8,11 +8,8 @@
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.Function;
 import java.util.function.Predicate;
 import org.geoserver.catalog.Catalog;
 import org.geoserver.catalog.CatalogException;
@@ -36,14 +33,14 @@
  * A cache for layer group containment, it speeds up looking up layer groups containing a particular layer
  * (recursively). * The class is thread safe.
  *
+ * <p>The containment is kept in a compact {@link LayerGroupContainmentGraph}, updated incrementally as groups are
+ * added, modified and removed. A full rebuild happens only on context refresh and catalog reload, and builds a new
+ * graph before replacing the current one, so lookups are never answered out of a half built graph.
+ *
  * @author Andrea Aime - GeoSolutions
  */
 public class LayerGroupContainmentCache implements ApplicationListener<ContextRefreshedEvent> {
 
-    /** Builds a concurrent set wrapping a {@link ConcurrentHashMap} */
-    static final Function<? super String, ? extends Set<LayerGroupSummary>> CONCURRENT_SET_BUILDER =
-            k -> Collections.newSetFromMap(new ConcurrentHashMap<>());
-
     /** Verifies a certain {@link PublishedInfo} is actually a {@link LayerInfo} */
     static final Predicate<PublishedInfo> IS_LAYER =
             p -> p != null && p.getId() != null && p instanceof LayerInfo && ((LayerInfo) p).getResource() != null;
@@ -51,14 +48,8 @@ public class LayerGroupContainmentCache implements ApplicationListener<ContextRe
     /** Verifies a certain {@link PublishedInfo} is actually a {@link LayerGroupInfo} */
     static final Predicate<PublishedInfo> IS_GROUP = p -> p != null && p.getId() != null && p instanceof LayerGroupInfo;
 
-    /** Lookup from layer group id to group parent information */
-    Map<String, LayerGroupSummary> groupCache = new ConcurrentHashMap<>();
-
-    /**
-     * Lookup from {@link ResourceInfo} id to groups directly containing its associated layers (the transitive
-     * containment is computed by suing {@link LayerGroupSummary}
-     */
-    Map<String, Set<LayerGroupSummary>> resourceContainmentCache = new ConcurrentHashMap<>();
+    /** Containment between groups, and between groups and the resources of their layers */
+    volatile LayerGroupContainmentGraph graph = new LayerGroupContainmentGraph();
 
     private Catalog catalog;
 
@@ -70,74 +61,49 @@ public LayerGroupContainmentCache(Catalog catalog) {
     }
 
     private void buildLayerGroupCaches() {
-        groupCache.clear();
-        resourceContainmentCache.clear();
+        LayerGroupContainmentGraph graph = new LayerGroupContainmentGraph();
         List<LayerGroupInfo> groups = catalog.getLayerGroups();
 
         // first populate the basic structure
         for (LayerGroupInfo lg : groups) {
-            addGroupInfo(lg);
+            addGroupInfo(graph, lg);
         }
 
         // now populate the containment structure
         for (LayerGroupInfo lg : groups) {
-            registerContainedGroups(lg);
+            registerContainedGroups(graph, lg);
         }
+        this.graph = graph;
     }
 
-    private void registerContainedGroups(LayerGroupInfo lg) {
-        lg.getLayers().stream().filter(IS_GROUP).forEach(p -> {
-            String containerId = lg.getId();
-            String containedId = p.getId();
-            LayerGroupSummary container = groupCache.get(containerId);
-            LayerGroupSummary contained = groupCache.get(containedId);
-            if (container != null && contained != null) {
-                contained.containerGroups.add(container);
-            }
-        });
+    private void registerContainedGroups(LayerGroupContainmentGraph graph, LayerGroupInfo lg) {
+        lg.getLayers().stream().filter(IS_GROUP).forEach(p -> graph.addEdge(lg.getId(), p.getId(), true));
     }
 
-    private void addGroupInfo(LayerGroupInfo lg) {
-        LayerGroupSummary groupData = new LayerGroupSummary(lg);
-        groupCache.put(lg.getId(), groupData);
-        lg.getLayers().stream().filter(IS_LAYER).forEach(p -> {
-            String id = ((LayerInfo) p).getResource().getId();
-            Set<LayerGroupSummary> containers = resourceContainmentCache.computeIfAbsent(id, CONCURRENT_SET_BUILDER);
-            containers.add(groupData);
-        });
+    private void addGroupInfo(LayerGroupContainmentGraph graph, LayerGroupInfo lg) {
+        graph.addGroup(new LayerGroupSummary(lg, graph));
+        lg.getLayers().stream()
+                .filter(IS_LAYER)
+                .forEach(p -> graph.addEdge(lg.getId(), ((LayerInfo) p).getResource().getId(), false));
     }
 
-    private void clearGroupInfo(LayerGroupInfo lg) {
-        LayerGroupSummary data = groupCache.remove(lg.getId());
-        // clear the resource containment cache
-        lg.getLayers().stream().filter(IS_LAYER).forEach(p -> {
-            String rid = ((LayerInfo) p).getResource().getId();
-            synchronized (rid) {
-                Set<LayerGroupSummary> containers = resourceContainmentCache.get(rid);
-                if (containers != null) {
-                    containers.remove(data);
-                }
-            }
-        });
-        // this group does not contain anything anymore, remove from containment
-        for (LayerGroupSummary d : groupCache.values()) {
-            // will be removed by equality
-            d.containerGroups.remove(new LayerGroupSummary(lg));
-        }
+    /** Returns the summary of the given group, or {@code null} if not found */
+    LayerGroupSummary getGroupSummary(String id) {
+        return graph.getGroup(id);
+    }
+
+    /** Returns the number of groups in the cache */
+    int getGroupCount() {
+        return graph.getGroupCount();
     }
 
     /** Returns all groups containing directly or indirectly containing the resource */
     public Collection<LayerGroupSummary> getContainerGroupsFor(ResourceInfo resource) {
         String id = resource.getId();
-        Set<LayerGroupSummary> groups = resourceContainmentCache.get(id);
-        if (groups == null) {
+        if (id == null) {
             return Collections.emptyList();
         }
-        Set<LayerGroupSummary> result = new HashSet<>();
-        for (LayerGroupSummary lg : groups) {
-            collectContainers(lg, result);
-        }
-        return result;
+        return graph.getContainers(id);
     }
 
     /**
@@ -149,28 +115,7 @@ public Collection<LayerGroupSummary> getContainerGroupsFor(LayerGroupInfo lg) {
         if (id == null) {
             return Collections.emptyList();
         }
-        LayerGroupSummary summary = groupCache.get(id);
-        if (summary == null) {
-            return Collections.emptyList();
-        }
-
-        Set<LayerGroupSummary> result = new HashSet<>();
-        for (LayerGroupSummary container : summary.getContainerGroups()) {
-            collectContainers(container, result);
-        }
-        return result;
-    }
-
-    /** Recursively collects the group and all its containers in the <data>groups</data> collection */
-    private void collectContainers(LayerGroupSummary lg, Set<LayerGroupSummary> groups) {
-        if (!groups.contains(lg)) {
-            if (lg.getMode() != LayerGroupInfo.Mode.SINGLE) {
-                groups.add(lg);
-            }
-            for (LayerGroupSummary container : lg.containerGroups) {
-                collectContainers(container, groups);
-            }
-        }
+        return graph.getContainers(id);
     }
 
     @Override
@@ -191,14 +136,19 @@ public static class LayerGroupSummary {
 
         LayerGroupInfo.Mode mode;
 
-        Set<LayerGroupSummary> containerGroups;
+        /** The graph the summary belongs to, used to look up the containers */
+        LayerGroupContainmentGraph graph;
 
         LayerGroupSummary(LayerGroupInfo lg) {
+            this(lg, null);
+        }
+
+        LayerGroupSummary(LayerGroupInfo lg, LayerGroupContainmentGraph graph) {
             this.id = lg.getId();
             this.workspace = lg.getWorkspace() != null ? lg.getWorkspace().getName() : null;
             this.name = lg.getName();
             this.mode = lg.getMode();
-            containerGroups = CONCURRENT_SET_BUILDER.apply(null);
+            this.graph = graph;
         }
 
         LayerGroupSummary(LayerGroupSummary other) {
@@ -206,7 +156,7 @@ public static class LayerGroupSummary {
             this.workspace = other.workspace;
             this.name = other.name;
             this.mode = other.mode;
-            containerGroups = other.containerGroups;
+            this.graph = other.graph;
         }
 
         public String getId() {
@@ -225,8 +175,9 @@ public LayerGroupInfo.Mode getMode() {
             return mode;
         }
 
+        /** Returns the groups directly containing this one */
         public Set<LayerGroupSummary> getContainerGroups() {
-            return containerGroups;
+            return graph == null ? Collections.emptySet() : graph.getDirectContainers(id);
         }
 
         @Override
@@ -266,7 +217,7 @@ public String toString() {
                     + ", mode="
                     + mode
                     + ", containerGroups="
-                    + containerGroups
+                    + getContainerGroups()
                     + "]";
         }
 
@@ -289,8 +240,9 @@ final class CatalogChangeListener implements CatalogListener {
         public void handleAddEvent(CatalogAddEvent event) throws CatalogException {
             if (event.getSource() instanceof LayerGroupInfo) {
                 LayerGroupInfo lg = (LayerGroupInfo) event.getSource();
-                addGroupInfo(lg);
-                registerContainedGroups(lg);
+                LayerGroupContainmentGraph graph = LayerGroupContainmentCache.this.graph;
+                addGroupInfo(graph, lg);
+                registerContainedGroups(graph, lg);
             }
         }
 
@@ -298,7 +250,7 @@ public void handleAddEvent(CatalogAddEvent event) throws CatalogException {
         public void handleRemoveEvent(CatalogRemoveEvent event) throws CatalogException {
             if (event.getSource() instanceof LayerGroupInfo) {
                 LayerGroupInfo lg = (LayerGroupInfo) event.getSource();
-                clearGroupInfo(lg);
+                graph.removeGroup(lg.getId());
             }
             // no need to listen to workspace or layer removal, these will cascade to
             // layer groups
@@ -329,7 +281,7 @@ public void handleModifyEvent(CatalogModifyEvent event) throws CatalogException
                     @SuppressWarnings("unchecked")
                     List<PublishedInfo> newLayers =
                             (List<PublishedInfo>) event.getNewValues().get(layerIdx);
-                    updateContainedLayers(groupCache.get(lg.getId()), oldLayers, newLayers);
+                    updateContainedLayers(lg.getId(), oldLayers, newLayers);
                 }
                 int modeIdx = event.getPropertyNames().indexOf("mode");
                 if (modeIdx != -1) {
@@ -347,34 +299,24 @@ public void handleModifyEvent(CatalogModifyEvent event) throws CatalogException
         }
 
         private void updateGroupMode(String id, Mode newMode) {
-            LayerGroupSummary summary = groupCache.get(id);
-            summary.mode = newMode;
+            LayerGroupSummary summary = graph.getGroup(id);
+            if (summary != null) {
+                summary.mode = newMode;
+            }
         }
 
         private void updateContainedLayers(
-                LayerGroupSummary groupSummary, List<PublishedInfo> oldLayers, List<PublishedInfo> newLayers) {
+                String groupId, List<PublishedInfo> oldLayers, List<PublishedInfo> newLayers) {
+            LayerGroupContainmentGraph graph = LayerGroupContainmentCache.this.graph;
 
             // process layers that are no more contained
             final HashSet<PublishedInfo> removedLayers = new HashSet<>(oldLayers);
             removedLayers.removeAll(newLayers);
             for (PublishedInfo removed : removedLayers) {
-                if (removed instanceof LayerInfo) {
-                    String resourceId = ((LayerInfo) removed).getResource().getId();
-                    Set<LayerGroupSummary> containers = resourceContainmentCache.get(resourceId);
-                    if (containers != null) {
-                        synchronized (resourceId) {
-                            containers.remove(groupSummary);
-                            if (containers.isEmpty()) {
-                                resourceContainmentCache.remove(resourceId, containers);
-                            }
-                        }
-                    }
-                } else {
-                    LayerGroupInfo child = (LayerGroupInfo) removed;
-                    LayerGroupSummary summary = groupCache.get(child.getId());
-                    if (summary != null) {
-                        summary.containerGroups.remove(groupSummary);
-                    }
+                if (IS_LAYER.test(removed)) {
+                    graph.removeEdge(groupId, ((LayerInfo) removed).getResource().getId());
+                } else if (IS_GROUP.test(removed)) {
+                    graph.removeEdge(groupId, removed.getId());
                 }
             }
 
@@ -382,41 +324,34 @@ private void updateContainedLayers(
             final HashSet<PublishedInfo> addedLayers = new HashSet<>(newLayers);
             addedLayers.removeAll(oldLayers);
             for (PublishedInfo added : addedLayers) {
-                if (added instanceof LayerInfo) {
-                    String resourceId = ((LayerInfo) added).getResource().getId();
-                    synchronized (resourceId) {
-                        Set<LayerGroupSummary> containers =
-                                resourceContainmentCache.computeIfAbsent(resourceId, CONCURRENT_SET_BUILDER);
-                        containers.add(groupSummary);
-                    }
-                } else {
-                    LayerGroupInfo child = (LayerGroupInfo) added;
-                    LayerGroupSummary summary = groupCache.get(child.getId());
-                    if (summary != null) {
-                        summary.containerGroups.add(groupSummary);
-                    }
+                if (IS_LAYER.test(added)) {
+                    graph.addEdge(groupId, ((LayerInfo) added).getResource().getId(), false);
+                } else if (IS_GROUP.test(added)) {
+                    graph.addEdge(groupId, added.getId(), true);
                 }
             }
         }
 
         private void updateGroupWorkspace(String id, WorkspaceInfo newWorkspace) {
-            LayerGroupSummary summary = groupCache.get(id);
+            LayerGroupSummary summary = graph.getGroup(id);
             if (summary != null) {
                 summary.workspace = newWorkspace == null ? null : newWorkspace.getName();
             }
         }
 
         private void updateGroupName(String id, String newName) {
-            LayerGroupSummary summary = groupCache.get(id);
+            LayerGroupSummary summary = graph.getGroup(id);
             if (summary != null) {
                 summary.name = newName;
             }
         }
 
         private void updateWorkspaceNames(String oldName, String newName) {
-            groupCache.values().stream()
-                    .filter(lg -> Objects.equals(lg.workspace, oldName))
-                    .forEach(lg -> lg.workspace = newName);
+            graph.updateGroups(lg -> {
+                if (Objects.equals(lg.workspace, oldName)) {
+                    lg.workspace = newName;
+                }
+            });
         }
 
         @Override
@@ -0,0 +1,307 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.security.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import org.geoserver.catalog.LayerGroupInfo;
+import org.geoserver.security.impl.LayerGroupContainmentCache.LayerGroupSummary;
+
+/**
+ * Containment graph between layer groups and the resources/groups they contain, used by
+ * {@link LayerGroupContainmentCache}.
+ *
+ * <p>Each group and each contained resource is mapped to an int node, the edges are kept as sorted int arrays, both
+ * upwards (the direct containers of a node) and downwards (the direct contents of a group), so that changes touch only
+ * the nodes involved. Resource nodes are released as soon as no group contains them anymore, released node ids are
+ * reused. The class is thread safe, reads share a lock, updates are exclusive.
+ */
+class LayerGroupContainmentGraph {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** From catalog id (group or resource) to node */
+    private final Map<String, Integer> nodes = new HashMap<>();
+
+    /** From node to catalog id */
+    private String[] ids = new String[16];
+
+    /** Group summaries by node, {@code null} for resources */
+    private LayerGroupSummary[] groups = new LayerGroupSummary[16];
+
+    /** The groups directly containing each node, sorted */
+    private int[][] containers = new int[16][];
+
+    /** The nodes directly contained in each group, sorted */
+    private int[][] contents = new int[16][];
+
+    /** Released nodes, available for reuse */
+    private int[] free = new int[16];
+
+    private int freeCount;
+
+    /** Highest node allocated so far, plus one */
+    private int size;
+
+    private int groupCount;
+
+    /** Registers a group, its contents are added separately with {@link #addEdge(String, String, boolean)} */
+    void addGroup(LayerGroupSummary summary) {
+        lock.writeLock().lock();
+        try {
+            Integer node = nodes.get(summary.getId());
+            if (node == null) {
+                node = allocate(summary.getId());
+            }
+            if (groups[node] == null) {
+                groupCount++;
+            }
+            groups[node] = summary;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Removes a group along with all its edges, up and down */
+    void removeGroup(String groupId) {
+        lock.writeLock().lock();
+        try {
+            Integer node = nodes.get(groupId);
+            if (node == null || groups[node] == null) {
+                return;
+            }
+            for (int child : contents[node]) {
+                unlinkContainer(child, node);
+            }
+            for (int container : containers[node]) {
+                contents[container] = remove(contents[container], node);
+            }
+            groupCount--;
+            release(node);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Records that the group contains the given resource or group. Groups need to be registered first, otherwise the
+     * edge is ignored, resources are registered on demand.
+     *
+     * @param groupId the container group id
+     * @param childId the contained resource or group id
+     * @param childIsGroup whether the child is a group
+     */
+    void addEdge(String groupId, String childId, boolean childIsGroup) {
+        lock.writeLock().lock();
+        try {
+            Integer container = nodes.get(groupId);
+            if (container == null || groups[container] == null) {
+                return;
+            }
+            Integer child = nodes.get(childId);
+            if (child == null) {
+                if (childIsGroup) {
+                    return;
+                }
+                child = allocate(childId);
+            }
+            containers[child] = insert(containers[child], container);
+            contents[container] = insert(contents[container], child);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Removes the containment between the group and the given resource or group */
+    void removeEdge(String groupId, String childId) {
+        lock.writeLock().lock();
+        try {
+            Integer container = nodes.get(groupId);
+            Integer child = nodes.get(childId);
+            if (container == null || child == null) {
+                return;
+            }
+            contents[container] = remove(contents[container], child);
+            unlinkContainer(child, container);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Returns the summary of the given group, or {@code null} if not found */
+    LayerGroupSummary getGroup(String groupId) {
+        lock.readLock().lock();
+        try {
+            Integer node = nodes.get(groupId);
+            return node == null ? null : groups[node];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Number of registered groups */
+    int getGroupCount() {
+        lock.readLock().lock();
+        try {
+            return groupCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Returns the groups directly containing the given resource or group */
+    Set<LayerGroupSummary> getDirectContainers(String id) {
+        lock.readLock().lock();
+        try {
+            Integer node = nodes.get(id);
+            if (node == null || containers[node].length == 0) {
+                return Collections.emptySet();
+            }
+            Set<LayerGroupSummary> result = new LinkedHashSet<>();
+            for (int container : containers[node]) {
+                result.add(groups[container]);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the groups containing, directly or indirectly, the given resource or group, skipping the
+     * {@link LayerGroupInfo.Mode#SINGLE} ones (their containers are still visited)
+     */
+    List<LayerGroupSummary> getContainers(String id) {
+        lock.readLock().lock();
+        try {
+            Integer node = nodes.get(id);
+            if (node == null || containers[node].length == 0) {
+                return Collections.emptyList();
+            }
+            List<LayerGroupSummary> result = new ArrayList<>();
+            BitSet visited = new BitSet(size);
+            int[] stack = new int[16];
+            int top = 0;
+            for (int container : containers[node]) {
+                stack = push(stack, top++, container);
+            }
+            while (top > 0) {
+                int current = stack[--top];
+                if (visited.get(current)) {
+                    continue;
+                }
+                visited.set(current);
+                LayerGroupSummary summary = groups[current];
+                if (summary.getMode() != LayerGroupInfo.Mode.SINGLE) {
+                    result.add(summary);
+                }
+                for (int container : containers[current]) {
+                    if (!visited.get(container)) {
+                        stack = push(stack, top++, container);
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Applies the action to all the group summaries, under the write lock */
+    void updateGroups(Consumer<LayerGroupSummary> action) {
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < size; i++) {
+                if (groups[i] != null) {
+                    action.accept(groups[i]);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Drops the container from the child's containers, releasing the child if it's a resource no longer contained */
+    private void unlinkContainer(int child, int container) {
+        containers[child] = remove(containers[child], container);
+        if (containers[child].length == 0 && groups[child] == null) {
+            release(child);
+        }
+    }
+
+    private int allocate(String id) {
+        int node = freeCount > 0 ? free[--freeCount] : size++;
+        if (node >= ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            groups = Arrays.copyOf(groups, capacity);
+            containers = Arrays.copyOf(containers, capacity);
+            contents = Arrays.copyOf(contents, capacity);
+        }
+        ids[node] = id;
+        containers[node] = EMPTY;
+        contents[node] = EMPTY;
+        nodes.put(id, node);
+        return node;
+    }
+
+    private void release(int node) {
+        nodes.remove(ids[node]);
+        ids[node] = null;
+        groups[node] = null;
+        containers[node] = EMPTY;
+        contents[node] = EMPTY;
+        free = push(free, freeCount++, node);
+    }
+
+    private static int[] push(int[] stack, int top, int value) {
+        if (top == stack.length) {
+            stack = Arrays.copyOf(stack, stack.length * 2);
+        }
+        stack[top] = value;
+        return stack;
+    }
+
+    /** Returns a copy of the sorted array with the value added, or the array itself if already there */
+    static int[] insert(int[] values, int value) {
+        int idx = Arrays.binarySearch(values, value);
+        if (idx >= 0) {
+            return values;
+        }
+        int pos = -idx - 1;
+        int[] result = new int[values.length + 1];
+        System.arraycopy(values, 0, result, 0, pos);
+        result[pos] = value;
+        System.arraycopy(values, pos, result, pos + 1, values.length - pos);
+        return result;
+    }
+
+    /** Returns a copy of the sorted array without the value, or the array itself if not there */
+    static int[] remove(int[] values, int value) {
+        int idx = Arrays.binarySearch(values, value);
+        if (idx < 0) {
+            return values;
+        }
+        if (values.length == 1) {
+            return EMPTY;
+        }
+        int[] result = new int[values.length - 1];
+        System.arraycopy(values, 0, result, 0, idx);
+        System.arraycopy(values, idx + 1, result, idx, values.length - idx - 1);
+        return result;
+    }
+}
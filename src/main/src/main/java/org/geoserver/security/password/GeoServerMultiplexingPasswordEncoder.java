@@ -6,10 +6,27 @@
 
 package org.geoserver.security.password;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
 import org.geoserver.security.GeoServerSecurityManager;
 import org.geoserver.security.GeoServerUserGroupService;
 import org.geotools.util.logging.Logging;
@@ -27,14 +44,51 @@
  * <p>This class can also encode (although not typically used to do so). Encoding simply returns the first avaialble and
  * successful encoder.
  *
+ * <p>Password verification is the expensive part of a basic authentication request missing the authentication cache,
+ * digests run many hashing iterations by design. To contain its cost:
+ *
+ * <ul>
+ *   <li>the delegate encoder is looked up by the prefix of the encoded password, without asking each encoder in turn
+ *   <li>digest and encryption based verifications are limited to {@link #MAX_CONCURRENT_VERIFICATIONS} at a time,
+ *       across all the instances, so that a burst of logins cannot take all the processors
+ *   <li>successful verifications are remembered for {@link #VERIFICATION_CACHE_TIME} seconds, the cache is keyed by an
+ *       HMAC of the credentials, computed with a random key held in memory only, so it never holds the passwords
+ * </ul>
+ *
  * @author christian
  */
 public class GeoServerMultiplexingPasswordEncoder implements PasswordEncoder {
 
     static Logger LOG = Logging.getLogger(GeoServerMultiplexingPasswordEncoder.class);
 
+    /** Maximum number of expensive verifications running at the same time */
+    static final int MAX_CONCURRENT_VERIFICATIONS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    /** Seconds a successful verification is remembered */
+    static final int VERIFICATION_CACHE_TIME = 60;
+
+    static final int VERIFICATION_CACHE_SIZE = 1000;
+
+    static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    static final Semaphore VERIFICATION_PERMITS = new Semaphore(MAX_CONCURRENT_VERIFICATIONS, true);
+
     protected Set<GeoServerPasswordEncoder> encoders;
 
+    /** The encoders by prefix */
+    Map<String, GeoServerPasswordEncoder> prefixes = new HashMap<>();
+
+    /**
+     * The HMACs of the credentials recently verified. The encoded password is part of the key, a password change makes
+     * the old entry unreachable.
+     */
+    Cache<String, Boolean> verified = CacheBuilder.newBuilder()
+            .maximumSize(VERIFICATION_CACHE_SIZE)
+            .expireAfterWrite(VERIFICATION_CACHE_TIME, TimeUnit.SECONDS)
+            .build();
+
+    private final SecretKeySpec hmacKey;
+
     public GeoServerMultiplexingPasswordEncoder(GeoServerSecurityManager secMgr) {
         this(secMgr, null);
     }
@@ -56,11 +110,25 @@ public GeoServerMultiplexingPasswordEncoder(GeoServerSecurityManager secMgr, Geo
                     }
                 }
                 encoders.add(enc);
+                prefixes.putIfAbsent(enc.getPrefix(), enc);
             }
         }
+
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        hmacKey = new SecretKeySpec(key, HMAC_ALGORITHM);
     }
 
     GeoServerPasswordEncoder lookupEncoderForEncodedPassword(String encPass) throws UnsupportedOperationException {
+        if (encPass != null) {
+            int idx = encPass.indexOf(GeoServerPasswordEncoder.PREFIX_DELIMTER);
+            if (idx > 0) {
+                GeoServerPasswordEncoder enc = prefixes.get(encPass.substring(0, idx));
+                if (enc != null && enc.isResponsibleForEncoding(encPass)) {
+                    return enc;
+                }
+            }
+        }
         for (GeoServerPasswordEncoder enc : encoders) {
             if (enc.isResponsibleForEncoding(encPass)) {
                 return enc;
@@ -82,12 +150,70 @@ public String encodePassword(String rawPass, Object salt) throws UnsupportedOper
 
     public boolean isPasswordValid(String encPass, String rawPass, Object salt) throws UnsupportedOperationException {
         GeoServerPasswordEncoder enc = lookupEncoderForEncodedPassword(encPass);
-        return enc.isPasswordValid(encPass, rawPass, salt);
+        if (!isExpensive(enc) || rawPass == null) {
+            return enc.isPasswordValid(encPass, rawPass, salt);
+        }
+        return verify(enc, encPass, rawPass.toCharArray(), () -> enc.isPasswordValid(encPass, rawPass, salt));
     }
 
     public boolean isPasswordValid(String encPass, char[] rawPass, Object salt) throws UnsupportedOperationException {
         GeoServerPasswordEncoder enc = lookupEncoderForEncodedPassword(encPass);
-        return enc.isPasswordValid(encPass, rawPass, salt);
+        if (!isExpensive(enc) || rawPass == null) {
+            return enc.isPasswordValid(encPass, rawPass, salt);
+        }
+        return verify(enc, encPass, rawPass, () -> enc.isPasswordValid(encPass, rawPass, salt));
+    }
+
+    /** Digests and encryptions are worth caching and throttling, plain text comparisons are not */
+    private static boolean isExpensive(GeoServerPasswordEncoder enc) {
+        PasswordEncodingType type = enc.getEncodingType();
+        return type == PasswordEncodingType.DIGEST || type == PasswordEncodingType.ENCRYPT;
+    }
+
+    /** Runs the verification, unless already successful recently, with a bound on the concurrent verifications */
+    private boolean verify(GeoServerPasswordEncoder enc, String encPass, char[] rawPass, BooleanSupplier verification) {
+        String key = credentialsKey(enc, encPass, rawPass);
+        if (key != null && verified.getIfPresent(key) != null) {
+            return true;
+        }
+
+        boolean valid;
+        VERIFICATION_PERMITS.acquireUninterruptibly();
+        try {
+            valid = verification.getAsBoolean();
+        } finally {
+            VERIFICATION_PERMITS.release();
+        }
+
+        if (valid && key != null) {
+            verified.put(key, Boolean.TRUE);
+        }
+        return valid;
+    }
+
+    /** HMAC of encoder, encoded and raw password, or {@code null} if it cannot be computed */
+    String credentialsKey(GeoServerPasswordEncoder enc, String encPass, char[] rawPass) {
+        byte[] raw = null;
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(hmacKey);
+            mac.update(String.valueOf(enc.getName()).getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            mac.update(encPass.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            ByteBuffer buffer = StandardCharsets.UTF_8.encode(CharBuffer.wrap(rawPass));
+            raw = new byte[buffer.remaining()];
+            buffer.get(raw);
+            Arrays.fill(buffer.array(), (byte) 0);
+            return Base64.getEncoder().encodeToString(mac.doFinal(raw));
+        } catch (GeneralSecurityException e) {
+            LOG.log(Level.FINE, "Cannot compute the credentials HMAC, verification will not be cached", e);
+            return null;
+        } finally {
+            if (raw != null) {
+                Arrays.fill(raw, (byte) 0);
+            }
+        }
     }
 
     public String decode(String encPass) throws UnsupportedOperationException {
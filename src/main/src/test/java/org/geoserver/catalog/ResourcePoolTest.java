@@ -41,9 +41,11 @@
 import java.net.URI;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -124,7 +126,6 @@
 import org.geotools.ows.ServiceException;
 import org.geotools.referencing.CRS;
 import org.geotools.styling.AbstractStyleVisitor;
-import org.geotools.util.SoftValueHashMap;
 import org.geotools.util.URLs;
 import org.geotools.util.Version;
 import org.geotools.util.factory.FactoryRegistry;
@@ -373,7 +374,201 @@ public void testConfigureFeatureTypeCacheSize() {
         // we actually keep two versions of the feature type in the cache, so we need it
         // twice as big
         assertEquals(
-                400, ((SoftValueHashMap) catalog.getResourcePool().getFeatureTypeCache()).getHardReferencesCount());
+                400,
+                ((ResourcePool.CatalogResourceCache<?, ?>) catalog.getResourcePool().getFeatureTypeCache())
+                        .getMaximumSize());
+    }
+
+    @Test
+    public void testPrewarm() throws Exception {
+        Catalog catalog = getCatalog();
+        ResourcePool pool = catalog.getResourcePool();
+        DataStoreInfo store = catalog.getStoreByName(MockData.CITE_PREFIX, MockData.CITE_PREFIX, DataStoreInfo.class);
+        pool.clear(store);
+        assertFalse(pool.getDataStoreCache().containsKey(store.getId()));
+
+        pool.prewarm(2).get();
+        assertTrue(pool.getDataStoreCache().containsKey(store.getId()));
+    }
+
+    @Test
+    public void testPrewarmBoundedCache() throws Exception {
+        Catalog catalog = getCatalog();
+        long enabled = catalog.getDataStores().stream().filter(DataStoreInfo::isEnabled).count();
+        assertTrue(enabled > 2);
+        System.setProperty(ResourcePool.CACHE_PROPERTY_PREFIX + "dataStore.maximumSize", "2");
+        ResourcePool pool = null;
+        try {
+            List<String> disposed = new ArrayList<>();
+            pool = new ResourcePool(catalog) {
+                {
+                    dataStoreCache = new DataStoreCache() {
+                        @Override
+                        protected void dispose(String id, DataAccess dataAccess) {
+                            disposed.add(id);
+                            super.dispose(id, dataAccess);
+                        }
+                    };
+                }
+            };
+            pool.prewarm(2).get();
+
+            // only as many stores as the cache can hold got opened, none evicted
+            ResourceCacheStatistics stats = pool.getCacheStatistics().stream()
+                    .filter(s -> "dataStore".equals(s.getName()))
+                    .findFirst()
+                    .orElseThrow();
+            assertEquals(2, stats.getSize());
+            assertEquals(0, stats.getEvictionCount());
+            assertTrue(disposed.isEmpty());
+        } finally {
+            System.clearProperty(ResourcePool.CACHE_PROPERTY_PREFIX + "dataStore.maximumSize");
+            if (pool != null) {
+                pool.dispose();
+            }
+        }
+    }
+
+    @Test
+    public void testCacheEviction() {
+        System.setProperty(ResourcePool.CACHE_PROPERTY_PREFIX + "dataStore.maximumSize", "2");
+        try {
+            List<String> disposed = new ArrayList<>();
+            ResourcePool pool = new ResourcePool() {
+                {
+                    dataStoreCache = new DataStoreCache() {
+                        @Override
+                        protected void dispose(String id, DataAccess dataAccess) {
+                            disposed.add(id);
+                        }
+                    };
+                }
+            };
+            DataAccess<?, ?> dataAccess = createNiceMock(DataAccess.class);
+            replay(dataAccess);
+
+            Map<String, DataAccess> cache = pool.getDataStoreCache();
+            cache.put("a", dataAccess);
+            cache.put("b", dataAccess);
+            // hit on "a", makes "b" the least recently used
+            assertSame(dataAccess, cache.get("a"));
+            assertNull(cache.get("c"));
+            cache.put("c", dataAccess);
+            // evicted, but might still be in use, not disposed
+            assertEquals(List.of(), disposed);
+
+            ResourceCacheStatistics stats = pool.getCacheStatistics().stream()
+                    .filter(s -> "dataStore".equals(s.getName()))
+                    .findFirst()
+                    .orElseThrow();
+            assertEquals(2, stats.getSize());
+            assertEquals(2, stats.getMaximumSize());
+            assertEquals(1, stats.getHitCount());
+            assertEquals(1, stats.getMissCount());
+            assertEquals(1, stats.getEvictionCount());
+
+            // explicit removals dispose
+            cache.remove("a");
+            assertEquals(List.of("a"), disposed);
+            // clearing disposes the evicted ones too
+            pool.dispose();
+            assertEquals(Set.of("a", "b", "c"), new HashSet<>(disposed));
+            assertEquals(3, disposed.size());
+        } finally {
+            System.clearProperty(ResourcePool.CACHE_PROPERTY_PREFIX + "dataStore.maximumSize");
+        }
+    }
+
+    @Test
+    public void testEvictedStoreRestored() {
+        System.setProperty(ResourcePool.CACHE_PROPERTY_PREFIX + "dataStore.maximumSize", "1");
+        try {
+            List<String> disposed = new ArrayList<>();
+            ResourcePool pool = new ResourcePool() {
+                {
+                    dataStoreCache = new DataStoreCache() {
+                        @Override
+                        protected void dispose(String id, DataAccess dataAccess) {
+                            disposed.add(id);
+                        }
+                    };
+                }
+            };
+            DataAccess<?, ?> first = createNiceMock(DataAccess.class);
+            DataAccess<?, ?> second = createNiceMock(DataAccess.class);
+            replay(first, second);
+
+            Map<String, DataAccess> cache = pool.getDataStoreCache();
+            cache.put("a", first);
+            cache.put("b", second);
+            assertTrue(disposed.isEmpty());
+
+            // the evicted store is still in use, looking it up returns the same instance
+            assertTrue(cache.containsKey("a"));
+            assertTrue(cache.keySet().contains("a"));
+            assertSame(first, cache.get("a"));
+            assertSame(second, cache.get("b"));
+            assertTrue(disposed.isEmpty());
+
+            // removing an evicted store disposes it
+            cache.remove("a");
+            assertEquals(List.of("a"), disposed);
+            assertFalse(cache.containsKey("a"));
+            assertNull(cache.get("a"));
+        } finally {
+            System.clearProperty(ResourcePool.CACHE_PROPERTY_PREFIX + "dataStore.maximumSize");
+        }
+    }
+
+    @Test
+    public void testEvictedStoreDisposedAfterDelay() {
+        System.setProperty(ResourcePool.CACHE_PROPERTY_PREFIX + "dataStore.maximumSize", "1");
+        System.setProperty(ResourcePool.CACHE_PROPERTY_PREFIX + "dataStore.disposeDelay", "0");
+        try {
+            List<String> disposed = new ArrayList<>();
+            ResourcePool pool = new ResourcePool() {
+                {
+                    dataStoreCache = new DataStoreCache() {
+                        @Override
+                        protected void dispose(String id, DataAccess dataAccess) {
+                            disposed.add(id);
+                        }
+                    };
+                }
+            };
+            DataAccess<?, ?> first = createNiceMock(DataAccess.class);
+            DataAccess<?, ?> second = createNiceMock(DataAccess.class);
+            replay(first, second);
+
+            // no delay, the evicted store is disposed right away, and cannot be looked up anymore
+            Map<String, DataAccess> cache = pool.getDataStoreCache();
+            cache.put("a", first);
+            cache.put("b", second);
+            assertEquals(List.of("a"), disposed);
+            assertFalse(cache.containsKey("a"));
+            assertNull(cache.get("a"));
+            assertSame(second, cache.get("b"));
+
+            pool.dispose();
+            assertEquals(List.of("a", "b"), disposed);
+        } finally {
+            System.clearProperty(ResourcePool.CACHE_PROPERTY_PREFIX + "dataStore.maximumSize");
+            System.clearProperty(ResourcePool.CACHE_PROPERTY_PREFIX + "dataStore.disposeDelay");
+        }
+    }
+
+    @Test
+    public void testResourceCachesUnboundedByDefault() {
+        Set<String> live = Set.of("dataStore", "hintCoverageReader", "wms", "wmts");
+        Set<String> reported = new HashSet<>();
+        for (ResourceCacheStatistics stats : new ResourcePool().getCacheStatistics()) {
+            reported.add(stats.getName());
+            if (live.contains(stats.getName())) {
+                assertEquals(stats.getName(), -1, stats.getMaximumSize());
+            }
+        }
+        // all the live resource caches are reported, coverage readers included
+        assertTrue(reported.containsAll(live));
     }
 
     @Test
@@ -0,0 +1,106 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.catalog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.After;
+import org.junit.Test;
+
+public class SingleFlightTest {
+
+    private static final int THREADS = 8;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+    private final SingleFlight<String, Object> loads = new SingleFlight<>();
+
+    private final Map<String, Object> cache = new ConcurrentHashMap<>();
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** Runs the loader from all threads at the same time */
+    private List<Future<Object>> loadConcurrently(SingleFlight.Loader<Object> loader) {
+        List<Future<Object>> results = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            results.add(executor.submit(() -> loads.get(cache, "key", loader)));
+        }
+        return results;
+    }
+
+    @Test
+    public void testLoadOnce() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Object value = new Object();
+        List<Future<Object>> results = loadConcurrently(() -> {
+            calls.incrementAndGet();
+            await(release);
+            return value;
+        });
+        // give the other threads a chance to start waiting
+        Thread.sleep(100);
+        release.countDown();
+
+        for (Future<Object> result : results) {
+            assertSame(value, result.get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, calls.get());
+        assertSame(value, cache.get("key"));
+        assertEquals(0, loads.size());
+    }
+
+    @Test
+    public void testFailureShared() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<Object>> results = loadConcurrently(() -> {
+            await(release);
+            throw new IOException("Connection refused");
+        });
+        // give the other threads a chance to start waiting
+        Thread.sleep(100);
+        release.countDown();
+
+        for (Future<Object> result : results) {
+            try {
+                result.get(10, TimeUnit.SECONDS);
+                fail("Should have failed");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                assertEquals(IOException.class, cause.getClass());
+                assertEquals("Connection refused", cause.getMessage());
+            }
+        }
+        // the failure is not cached, the next call tries again
+        Object value = new Object();
+        assertSame(value, loads.get(cache, "key", () -> value));
+        assertEquals(0, loads.size());
+    }
+
+    private static void await(CountDownLatch latch) throws IOException {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            throw new IOException(e);
+        }
+    }
+}
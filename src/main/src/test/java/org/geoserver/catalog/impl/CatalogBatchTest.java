@@ -0,0 +1,279 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.catalog.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.geoserver.GeoServerConfigurationLock;
+import org.geoserver.GeoServerConfigurationLock.LockType;
+import org.geoserver.catalog.CatalogException;
+import org.geoserver.catalog.CatalogFactory;
+import org.geoserver.catalog.DataStoreInfo;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.NamespaceInfo;
+import org.geoserver.catalog.StyleInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.event.CatalogAddEvent;
+import org.geoserver.catalog.event.CatalogModifyEvent;
+import org.geoserver.platform.GeoServerExtensionsHelper;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Test suite for {@link CatalogBatch} */
+public class CatalogBatchTest {
+
+    CatalogImpl catalog;
+
+    DataStoreInfo ds;
+
+    StyleInfo style;
+
+    CatalogImplTest.TestListener listener;
+
+    /** Number of layers in the catalog when each add event was received */
+    List<Integer> layersOnAdd = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        GeoServerExtensionsHelper.setIsSpringContext(false);
+        catalog = new CatalogImpl();
+        CatalogFactory factory = catalog.getFactory();
+
+        WorkspaceInfo ws = factory.createWorkspace();
+        ws.setName("ws");
+        catalog.add(ws);
+        NamespaceInfo ns = factory.createNamespace();
+        ns.setPrefix("ws");
+        ns.setURI("http://ws");
+        catalog.add(ns);
+
+        ds = factory.createDataStore();
+        ds.setName("ds");
+        ds.setWorkspace(ws);
+        catalog.add(ds);
+
+        style = factory.createStyle();
+        style.setName("point");
+        style.setFilename("point.sld");
+        catalog.add(style);
+
+        listener = new CatalogImplTest.TestListener() {
+            @Override
+            public void handleAddEvent(CatalogAddEvent event) {
+                layersOnAdd.add(catalog.getLayers().size());
+                super.handleAddEvent(event);
+            }
+        };
+        catalog.addListener(listener);
+    }
+
+    private FeatureTypeInfo featureType(String name) {
+        FeatureTypeInfo ft = catalog.getFactory().createFeatureType();
+        ft.setName(name);
+        ft.setNativeName(name);
+        ft.setStore(catalog.getDataStoreByName("ds"));
+        ft.setNamespace(catalog.getNamespaceByPrefix("ws"));
+        return ft;
+    }
+
+    private LayerInfo layer(FeatureTypeInfo ft) {
+        LayerInfo layer = catalog.getFactory().createLayer();
+        layer.setResource(ft);
+        layer.setDefaultStyle(style);
+        return layer;
+    }
+
+    @Test
+    public void testAddAndSave() {
+        FeatureTypeInfo ft1 = featureType("ft1");
+        FeatureTypeInfo ft2 = featureType("ft2");
+        DataStoreInfo store = catalog.getDataStoreByName("ds");
+        store.setDescription("Two layers");
+
+        CatalogBatch batch = new CatalogBatch(catalog);
+        batch.add(ft1).add(layer(ft1)).add(ft2).add(layer(ft2));
+        batch.save(store).save(store);
+        // nothing happens until commit
+        assertNull(catalog.getFeatureTypeByName("ws", "ft1"));
+        batch.commit();
+
+        assertNotNull(catalog.getLayerByName("ws:ft1"));
+        assertNotNull(catalog.getLayerByName("ws:ft2"));
+        assertEquals("Two layers", catalog.getDataStoreByName("ds").getDescription());
+
+        // listeners heard about the additions only once all of them were applied
+        assertEquals(4, listener.added.size());
+        for (Integer layers : layersOnAdd) {
+            assertEquals(2, layers.intValue());
+        }
+        // the two saves resulted in a single notification
+        assertEquals(1, listener.postModified.size());
+        assertTrue(listener.postModified.get(0).getPropertyNames().contains("description"));
+    }
+
+    @Test
+    public void testRollback() {
+        FeatureTypeInfo ft1 = featureType("ft1");
+        CatalogBatch batch = new CatalogBatch(catalog);
+        batch.add(ft1).add(layer(ft1)).add(featureType("ft1"));
+        assertThrows(IllegalArgumentException.class, batch::commit);
+
+        assertNull(catalog.getFeatureTypeByName("ws", "ft1"));
+        assertTrue(catalog.getLayers().isEmpty());
+        assertTrue(listener.added.isEmpty());
+        assertTrue(listener.removed.isEmpty());
+
+        // the catalog is back to dispatching events right away
+        catalog.add(featureType("ft2"));
+        assertEquals(1, listener.added.size());
+    }
+
+    @Test
+    public void testSaveFailureReverted() {
+        DataStoreInfo other = catalog.getFactory().createDataStore();
+        other.setName("other");
+        other.setWorkspace(catalog.getWorkspaceByName("ws"));
+        catalog.add(other);
+        listener.added.clear();
+        // vetoes the changes to the other store, the second save of the batch
+        catalog.addListener(new CatalogImplTest.TestListener() {
+            @Override
+            public void handleModifyEvent(CatalogModifyEvent event) {
+                if (other.getId().equals(event.getSource().getId())) {
+                    throw new CatalogException("vetoed");
+                }
+            }
+        });
+
+        FeatureTypeInfo ft1 = featureType("ft1");
+        DataStoreInfo store = catalog.getDataStoreByName("ds");
+        store.setDescription("changed");
+        store.getConnectionParameters().put("foo", "bar");
+        DataStoreInfo otherStore = catalog.getDataStoreByName("other");
+        otherStore.setDescription("changed");
+        CatalogBatch batch = new CatalogBatch(catalog);
+        batch.add(ft1).add(layer(ft1)).save(store).save(otherStore);
+        assertThrows(CatalogException.class, batch::commit);
+
+        // all the changes applied before the failure got reverted
+        assertNull(catalog.getFeatureTypeByName("ws", "ft1"));
+        assertTrue(catalog.getLayers().isEmpty());
+        DataStoreInfo reverted = catalog.getDataStoreByName("ds");
+        assertNull(reverted.getDescription());
+        assertFalse(reverted.getConnectionParameters().containsKey("foo"));
+        assertNull(catalog.getDataStoreByName("other").getDescription());
+        assertTrue(listener.added.isEmpty());
+        assertTrue(listener.postModified.isEmpty());
+    }
+
+    @Test
+    public void testSaveFailureNotReverted() {
+        // vetoes the second change to the store, that is, the revert of the batch save
+        AtomicInteger changes = new AtomicInteger();
+        String id = ds.getId();
+        catalog.addListener(new CatalogImplTest.TestListener() {
+            @Override
+            public void handleModifyEvent(CatalogModifyEvent event) {
+                if (id.equals(event.getSource().getId()) && changes.incrementAndGet() > 1) {
+                    throw new CatalogException("vetoed");
+                }
+            }
+        });
+
+        FeatureTypeInfo ft1 = featureType("ft1");
+        DataStoreInfo store = catalog.getDataStoreByName("ds");
+        store.setDescription("changed");
+        CatalogBatch batch = new CatalogBatch(catalog);
+        batch.add(ft1).add(layer(ft1)).save(store);
+        StyleInfo renamed = catalog.getStyleByName("point");
+        renamed.setName("renamed");
+        batch.save(renamed);
+        catalog.addListener(new CatalogImplTest.TestListener() {
+            @Override
+            public void handleModifyEvent(CatalogModifyEvent event) {
+                if (event.getSource() instanceof StyleInfo) {
+                    throw new CatalogException("vetoed");
+                }
+            }
+        });
+        assertThrows(CatalogException.class, batch::commit);
+
+        // the store change could not be reverted, listeners heard about it
+        assertNull(catalog.getFeatureTypeByName("ws", "ft1"));
+        assertEquals("changed", catalog.getDataStoreByName("ds").getDescription());
+        assertTrue(listener.added.isEmpty());
+        assertEquals(1, listener.postModified.size());
+        assertEquals(id, listener.postModified.get(0).getSource().getId());
+    }
+
+    @Test
+    public void testValidatedUpFront() {
+        catalog.add(featureType("ft0"));
+        listener.added.clear();
+
+        FeatureTypeInfo ft1 = featureType("ft1");
+        DataStoreInfo store = catalog.getDataStoreByName("ds");
+        store.setName("ds2");
+        FeatureTypeInfo duplicate = featureType("ft0");
+        CatalogBatch batch = new CatalogBatch(catalog);
+        batch.add(ft1).add(layer(ft1)).add(duplicate).save(store);
+        assertThrows(IllegalArgumentException.class, batch::commit);
+
+        // nothing got applied, not even temporarily
+        assertNull(ft1.getId());
+        assertNull(catalog.getFeatureTypeByName("ws", "ft1"));
+        assertNotNull(catalog.getDataStoreByName("ws", "ds"));
+        assertTrue(listener.added.isEmpty());
+        assertTrue(listener.removed.isEmpty());
+    }
+
+    @Test
+    public void testConfigurationLock() throws Exception {
+        GeoServerConfigurationLock lock = new GeoServerConfigurationLock();
+        FeatureTypeInfo ft1 = featureType("ft1");
+        CatalogBatch batch = new CatalogBatch(catalog);
+        batch.configurationLock = lock;
+        batch.add(ft1).add(layer(ft1));
+
+        // another writer is busy, the batch waits for it
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread writer = new Thread(() -> {
+            lock.lock(LockType.WRITE);
+            try {
+                locked.countDown();
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.unlock();
+            }
+        });
+        writer.start();
+        assertTrue(locked.await(10, TimeUnit.SECONDS));
+        CompletableFuture<Void> commit = CompletableFuture.runAsync(batch::commit);
+        Thread.sleep(100);
+        assertFalse(commit.isDone());
+        assertNull(catalog.getFeatureTypeByName("ws", "ft1"));
+
+        release.countDown();
+        commit.get(10, TimeUnit.SECONDS);
+        writer.join();
+        assertNotNull(catalog.getLayerByName("ws:ft1"));
+        assertFalse(lock.isWriteLocked());
+    }
+}
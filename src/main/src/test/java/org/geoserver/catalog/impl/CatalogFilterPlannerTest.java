@@ -0,0 +1,329 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.catalog.impl;
+
+import static org.geoserver.catalog.Predicates.and;
+import static org.geoserver.catalog.Predicates.contains;
+import static org.geoserver.catalog.Predicates.equal;
+import static org.geoserver.catalog.Predicates.in;
+import static org.geoserver.catalog.Predicates.or;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.geoserver.catalog.CatalogFactory;
+import org.geoserver.catalog.CatalogInfo;
+import org.geoserver.catalog.CoverageInfo;
+import org.geoserver.catalog.CoverageStoreInfo;
+import org.geoserver.catalog.DataStoreInfo;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.NamespaceInfo;
+import org.geoserver.catalog.Predicates;
+import org.geoserver.catalog.ResourceInfo;
+import org.geoserver.catalog.StoreInfo;
+import org.geoserver.catalog.StyleInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.util.CloseableIterator;
+import org.geoserver.platform.GeoServerExtensionsHelper;
+import org.geotools.api.filter.Filter;
+import org.geotools.api.filter.FilterFactory;
+import org.geotools.factory.CommonFactoryFinder;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Tests the index backed query planning in {@link DefaultCatalogFacade} */
+public class CatalogFilterPlannerTest {
+
+    static final FilterFactory FF = CommonFactoryFinder.getFilterFactory();
+
+    CatalogImpl catalog;
+
+    DefaultCatalogFacade facade;
+
+    CatalogFilterPlanner planner;
+
+    WorkspaceInfo ws1, ws2;
+
+    NamespaceInfo ns1, ns2;
+
+    DataStoreInfo ds1, ds2;
+
+    StyleInfo point;
+
+    @Before
+    public void setUp() {
+        GeoServerExtensionsHelper.setIsSpringContext(false);
+        catalog = new CatalogImpl();
+        facade = new DefaultCatalogFacade(catalog);
+        catalog.setFacade(facade);
+        planner = new CatalogFilterPlanner(facade);
+
+        ws1 = addWorkspace("ws1");
+        ws2 = addWorkspace("ws2");
+        ns1 = catalog.getNamespaceByPrefix("ws1");
+        ns2 = catalog.getNamespaceByPrefix("ws2");
+        ds1 = addStore(ws1, "ds1");
+        ds2 = addStore(ws2, "ds2");
+        point = addStyle(null, "point");
+        addStyle(ws1, "wsStyle");
+        for (int i = 0; i < 10; i++) {
+            addLayer(ds1, ns1, "ft" + i);
+            addLayer(ds2, ns2, "ft" + i);
+        }
+    }
+
+    private StyleInfo addStyle(WorkspaceInfo ws, String name) {
+        StyleInfo style = catalog.getFactory().createStyle();
+        style.setName(name);
+        style.setFilename(name + ".sld");
+        style.setWorkspace(ws);
+        catalog.add(style);
+        return ws == null ? catalog.getStyleByName(name) : catalog.getStyleByName(ws, name);
+    }
+
+    private WorkspaceInfo addWorkspace(String name) {
+        CatalogFactory factory = catalog.getFactory();
+        WorkspaceInfo ws = factory.createWorkspace();
+        ws.setName(name);
+        catalog.add(ws);
+        NamespaceInfo ns = factory.createNamespace();
+        ns.setPrefix(name);
+        ns.setURI("http://" + name);
+        catalog.add(ns);
+        return catalog.getWorkspaceByName(name);
+    }
+
+    private DataStoreInfo addStore(WorkspaceInfo ws, String name) {
+        DataStoreInfo ds = catalog.getFactory().createDataStore();
+        ds.setName(name);
+        ds.setWorkspace(ws);
+        ds.setEnabled(true);
+        catalog.add(ds);
+        return catalog.getDataStoreByName(ws, name);
+    }
+
+    private void addLayer(DataStoreInfo ds, NamespaceInfo ns, String name) {
+        FeatureTypeInfo ft = catalog.getFactory().createFeatureType();
+        ft.setName(name);
+        ft.setNativeName(name);
+        ft.setStore(ds);
+        ft.setNamespace(ns);
+        ft.setEnabled(true);
+        catalog.add(ft);
+        LayerInfo layer = catalog.getFactory().createLayer();
+        layer.setResource(catalog.getFeatureTypeByName(ns, name));
+        layer.setDefaultStyle(point);
+        catalog.add(layer);
+    }
+
+    private <T extends CatalogInfo> Set<String> ids(Collection<T> infos) {
+        return infos.stream().map(CatalogInfo::getId).collect(Collectors.toSet());
+    }
+
+    private <T extends CatalogInfo> Set<String> list(Class<T> type, Filter filter) {
+        Set<String> result = new HashSet<>();
+        try (CloseableIterator<T> it = catalog.list(type, filter)) {
+            it.forEachRemaining(i -> result.add(i.getId()));
+        }
+        return result;
+    }
+
+    /** Full scan, used as reference result */
+    private <T extends CatalogInfo> Set<String> scan(List<T> all, Filter filter) {
+        return all.stream().filter(filter::evaluate).map(CatalogInfo::getId).collect(Collectors.toSet());
+    }
+
+    @Test
+    public void testWorkspaceNameTranslatedToIndex() {
+        Filter filter = equal("workspace.name", "ws1");
+        Collection<StoreInfo> candidates = planner.candidates(facade.stores, filter);
+        assertNotNull(candidates);
+        assertEquals(Set.of(ds1.getId()), ids(candidates));
+        assertEquals(Set.of(ds1.getId()), list(StoreInfo.class, filter));
+
+        assertEquals(Set.of(), ids(planner.candidates(facade.stores, equal("workspace.name", "notThere"))));
+    }
+
+    @Test
+    public void testResourcesByStoreAndNamespace() {
+        List<ResourceInfo> all = catalog.getResources(ResourceInfo.class);
+        for (Filter filter : List.of(
+                equal("store.id", ds1.getId()),
+                equal("namespace.prefix", "ws2"),
+                equal("namespace", ns1),
+                and(equal("namespace.id", ns1.getId()), equal("name", "ft3")),
+                in("store.id", List.of(ds1.getId(), ds2.getId())),
+                equal("prefixedName", "ws2:ft7"))) {
+            assertNotNull(filter.toString(), planner.candidates(facade.resources, filter));
+            assertEquals(filter.toString(), scan(all, filter), list(ResourceInfo.class, filter));
+        }
+        assertEquals(1, list(FeatureTypeInfo.class, equal("prefixedName", "ws2:ft7")).size());
+        assertEquals(10, catalog.count(FeatureTypeInfo.class, equal("namespace.prefix", "ws2")));
+    }
+
+    @Test
+    public void testSecurityFilters() {
+        // shaped like the filters built by DefaultResourceAccessManager, ws1 visible, plus one layer in ws2
+        Filter resources = or(
+                equal("store.workspace.name", "ws1"),
+                and(Predicates.isInstanceOf(FeatureTypeInfo.class), equal("prefixedName", "ws2:ft3")));
+        assertEquals(11, planner.candidates(facade.resources, resources).size());
+        assertEquals(scan(catalog.getResources(ResourceInfo.class), resources), list(ResourceInfo.class, resources));
+
+        Filter layers = or(
+                equal("resource.store.workspace.name", "ws1"),
+                and(Predicates.isInstanceOf(LayerInfo.class), equal("prefixedName", "ws2:ft3")));
+        assertEquals(11, planner.candidates(facade.layers, layers).size());
+        assertEquals(scan(catalog.getLayers(), layers), list(LayerInfo.class, layers));
+        assertEquals(Set.of(), ids(planner.candidates(facade.layers, equal("resource.store.workspace.name", "none"))));
+
+        // combined with the caller's filter, pages are computed over the visible layers only
+        Filter combined = and(equal("enabled", true), layers);
+        try (CloseableIterator<LayerInfo> it = catalog.list(LayerInfo.class, combined, 10, 5, null)) {
+            List<LayerInfo> page = new ArrayList<>();
+            it.forEachRemaining(page::add);
+            assertEquals(1, page.size());
+        }
+    }
+
+    @Test
+    public void testUnplannableFilter() {
+        Filter filter = contains("name", "ft");
+        assertNull(planner.candidates(facade.resources, filter));
+        assertEquals(20, list(ResourceInfo.class, filter).size());
+        // one branch cannot be planned, full scan
+        assertNull(planner.candidates(facade.resources, or(equal("store.id", ds1.getId()), filter)));
+    }
+
+    @Test
+    public void testLikePrefix() {
+        Filter filter = FF.like(FF.property("prefixedName"), "ws1:ft*", "*", "?", "\\", true);
+        Collection<LayerInfo> candidates = planner.candidates(facade.layers, filter);
+        assertEquals(10, candidates.size());
+        assertEquals(10, list(LayerInfo.class, filter).size());
+    }
+
+    @Test
+    public void testLayerIndexFollowsResourceChanges() {
+        FeatureTypeInfo ft = catalog.getFeatureTypeByName(ns1, "ft0");
+        assertEquals(20, catalog.count(LayerInfo.class, equal("enabled", true)));
+
+        ft.setEnabled(false);
+        catalog.save(ft);
+        assertEquals(19, catalog.count(LayerInfo.class, equal("enabled", true)));
+        assertEquals(
+                Set.of(catalog.getLayerByName("ws1:ft0").getId()), list(LayerInfo.class, equal("enabled", false)));
+
+        // renaming the resource renames the layer, must still be found
+        ft = catalog.getFeatureTypeByName(ns1, "ft0");
+        ft.setName("renamed");
+        catalog.save(ft);
+        assertEquals(1, list(LayerInfo.class, equal("enabled", false)).size());
+        assertEquals(1, list(LayerInfo.class, equal("prefixedName", "ws1:renamed")).size());
+    }
+
+    @Test
+    public void testStoreMovedToOtherWorkspace() {
+        DataStoreInfo ds = catalog.getDataStoreByName(ws1, "ds1");
+        ds.setWorkspace(ws2);
+        catalog.save(ds);
+        assertEquals(Set.of(), list(StoreInfo.class, equal("workspace.id", ws1.getId())));
+        assertEquals(Set.of(ds1.getId(), ds2.getId()), list(StoreInfo.class, equal("workspace.id", ws2.getId())));
+    }
+
+    @Test
+    public void testRemove() {
+        List<LayerInfo> layers = new ArrayList<>(catalog.getLayers());
+        for (LayerInfo l : layers) {
+            if (l.getResource().getStore().getId().equals(ds1.getId())) catalog.remove(l);
+        }
+        for (FeatureTypeInfo ft : catalog.getFeatureTypesByDataStore(ds1)) {
+            catalog.remove(ft);
+        }
+        assertEquals(0, catalog.count(ResourceInfo.class, equal("store.id", ds1.getId())));
+        assertEquals(0, catalog.count(LayerInfo.class, equal("resource.store.id", ds1.getId())));
+        assertEquals(10, catalog.count(LayerInfo.class, equal("resource.store.id", ds2.getId())));
+    }
+
+    @Test
+    public void testSortedPaging() {
+        // names are not unique across namespaces, pages must still be consistent
+        List<String> all = new ArrayList<>();
+        try (CloseableIterator<ResourceInfo> it =
+                catalog.list(ResourceInfo.class, Filter.INCLUDE, null, null, Predicates.desc("name"))) {
+            it.forEachRemaining(r -> all.add(r.getId()));
+        }
+        assertEquals(20, all.size());
+
+        List<String> paged = new ArrayList<>();
+        for (int offset = 0; offset < 20; offset += 3) {
+            try (CloseableIterator<ResourceInfo> it =
+                    catalog.list(ResourceInfo.class, Filter.INCLUDE, offset, 3, Predicates.desc("name"))) {
+                it.forEachRemaining(r -> paged.add(r.getId()));
+            }
+        }
+        assertEquals(all, paged);
+    }
+
+    @Test
+    public void testUnsortedPaging() {
+        Filter filter = equal("namespace.prefix", "ws1");
+        try (CloseableIterator<ResourceInfo> it = catalog.list(ResourceInfo.class, filter, 8, 5, null)) {
+            List<ResourceInfo> page = new ArrayList<>();
+            it.forEachRemaining(page::add);
+            assertEquals(2, page.size());
+            assertEquals("ft8", page.get(0).getName());
+            assertEquals("ft9", page.get(1).getName());
+        }
+    }
+
+    @Test
+    public void testUnsortedOrderMatchesScan() {
+        // coverages share the namespace with the feature types, their names sort in between them
+        CoverageStoreInfo cs = catalog.getFactory().createCoverageStore();
+        cs.setName("cs1");
+        cs.setWorkspace(ws1);
+        catalog.add(cs);
+        cs = catalog.getCoverageStoreByName(ws1, "cs1");
+        for (String name : List.of("a", "ft45", "zz")) {
+            CoverageInfo coverage = catalog.getFactory().createCoverage();
+            coverage.setName(name);
+            coverage.setNativeName(name);
+            coverage.setStore(cs);
+            coverage.setNamespace(ns1);
+            catalog.add(coverage);
+        }
+
+        for (Filter filter : List.of(
+                equal("namespace.prefix", "ws1"),
+                or(equal("store.id", ds2.getId()), equal("namespace.id", ns1.getId())),
+                in("store.id", List.of(cs.getId(), ds1.getId())))) {
+            List<String> scan = new ArrayList<>();
+            facade.resources.list(ResourceInfo.class, filter::evaluate).forEach(r -> scan.add(r.getId()));
+            List<String> listed = new ArrayList<>();
+            try (CloseableIterator<ResourceInfo> it = catalog.list(ResourceInfo.class, filter)) {
+                it.forEachRemaining(r -> listed.add(r.getId()));
+            }
+            assertEquals(filter.toString(), scan, listed);
+            List<String> queried = new ArrayList<>();
+            facade.iterable(ResourceInfo.class, filter, null).forEach(r -> queried.add(r.getId()));
+            assertEquals(filter.toString(), scan, queried);
+        }
+    }
+
+    @Test
+    public void testStylesByWorkspace() {
+        Filter filter = equal("workspace.name", "ws1");
+        assertEquals(1, planner.candidates(facade.styles, filter).size());
+        assertEquals(1, list(StyleInfo.class, filter).size());
+    }
+}
@@ -0,0 +1,189 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.catalog.impl;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.catalog.Info;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.StyleInfo;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the cost of reading {@link LayerInfo} and {@link FeatureTypeInfo} properties, the ones used by GetMap,
+ * directly, through a {@link ModificationProxy}, and through a proxy using plain reflection as
+ * {@link ModificationProxy} used to do.
+ */
+@Ignore
+public class ModificationProxyBenchmarkTest {
+
+    /**
+     * Runs the JMH benchmark. This isn't a really test so it includes the @Ignore annotation; by integrating JMH with
+     * Junit it just provides us an easy way to run the benchmark (typically through the IDE).
+     */
+    @Test
+    public void runBenchmark() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(ModificationProxyBenchmark.class.getSimpleName() + ".*")
+                .result("./target/modification-proxy-benchmark.json")
+                .resultFormat(ResultFormatType.JSON)
+                .build();
+        new Runner(options).run();
+    }
+
+    /** The getter path of the reflection based proxy, used as a baseline */
+    static class ReflectiveProxy implements InvocationHandler {
+
+        final Object proxyObject;
+
+        HashMap<String, Object> properties;
+
+        ReflectiveProxy(Object proxyObject) {
+            this.proxyObject = proxyObject;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String property = null;
+            if ((method.getName().startsWith("get") || method.getName().startsWith("is"))
+                    && method.getParameterCount() == 0) {
+                property = method.getName().substring(method.getName().startsWith("get") ? 3 : 2);
+                if (properties != null && properties.containsKey(property)) {
+                    return properties.get(property);
+                }
+            }
+            try {
+                Object result = method.invoke(proxyObject, args);
+                if (result instanceof Info && !(result instanceof Proxy)) {
+                    result = create(result, method.getReturnType());
+                    if (properties == null) {
+                        properties = new HashMap<>();
+                    }
+                    properties.put(property, result);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        static <T> T create(Object object, Class<T> type) {
+            return (T) Proxy.newProxyInstance(
+                    type.getClassLoader(), new Class[] {type}, new ReflectiveProxy(object));
+        }
+    }
+
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Fork(1)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public static class ModificationProxyBenchmark {
+
+        @State(Scope.Thread)
+        public static class LayerState {
+
+            LayerInfo layer;
+
+            @Setup
+            public void setup() {
+                NamespaceInfoImpl ns = new NamespaceInfoImpl();
+                ns.setPrefix("topp");
+                ns.setURI("http://www.openplans.org/topp");
+                DataStoreInfoImpl store = new DataStoreInfoImpl(null);
+                store.setName("states");
+                FeatureTypeInfoImpl ft = new FeatureTypeInfoImpl(null);
+                ft.setName("states");
+                ft.setNativeName("states");
+                ft.setNamespace(ns);
+                ft.setStore(store);
+                ft.setEnabled(true);
+                ft.setSRS("EPSG:4326");
+                ft.setNativeCRS(DefaultGeographicCRS.WGS84);
+                ft.setLatLonBoundingBox(new ReferencedEnvelope(-180, 180, -90, 90, DefaultGeographicCRS.WGS84));
+                StyleInfoImpl style = new StyleInfoImpl(null);
+                style.setName("polygon");
+                LayerInfoImpl l = new LayerInfoImpl();
+                l.setResource(ft);
+                l.setDefaultStyle(style);
+                l.setEnabled(true);
+                layer = wrap(l);
+            }
+
+            protected LayerInfo wrap(LayerInfo layer) {
+                return layer;
+            }
+        }
+
+        public static class ModificationProxyState extends LayerState {
+            @Override
+            protected LayerInfo wrap(LayerInfo layer) {
+                return ModificationProxy.create(layer, LayerInfo.class);
+            }
+        }
+
+        public static class ReflectiveProxyState extends LayerState {
+            @Override
+            protected LayerInfo wrap(LayerInfo layer) {
+                return ReflectiveProxy.create(layer, LayerInfo.class);
+            }
+        }
+
+        /** The properties a GetMap request typically reads out of a layer */
+        private static void readLayer(LayerInfo layer, Blackhole bh) {
+            bh.consume(layer.enabled());
+            bh.consume(layer.getName());
+            bh.consume(layer.isAdvertised());
+            StyleInfo style = layer.getDefaultStyle();
+            bh.consume(style.getName());
+            bh.consume(layer.getStyles());
+            FeatureTypeInfo ft = (FeatureTypeInfo) layer.getResource();
+            bh.consume(ft.getPrefixedName());
+            bh.consume(ft.getNativeCRS());
+            bh.consume(ft.getLatLonBoundingBox());
+            bh.consume(ft.getStore().getName());
+            bh.consume(ft.getNamespace().getURI());
+        }
+
+        @Benchmark
+        public void direct(LayerState state, Blackhole bh) {
+            readLayer(state.layer, bh);
+        }
+
+        @Benchmark
+        public void modificationProxy(ModificationProxyState state, Blackhole bh) {
+            readLayer(state.layer, bh);
+        }
+
+        @Benchmark
+        public void reflectiveProxy(ReflectiveProxyState state, Blackhole bh) {
+            readLayer(state.layer, bh);
+        }
+    }
+}
@@ -10,6 +10,7 @@
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThrows;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -26,6 +27,8 @@
 import org.geoserver.catalog.LayerGroupInfo;
 import org.geoserver.catalog.LayerInfo;
 import org.geoserver.catalog.NamespaceInfo;
+import org.geoserver.catalog.PublishedInfo;
+import org.geoserver.catalog.ResourceInfo;
 import org.geoserver.catalog.StyleInfo;
 import org.geoserver.catalog.WMSLayerInfo;
 import org.geoserver.catalog.WMSStoreInfo;
@@ -169,6 +172,49 @@ public void testRewrapCommitToNew() throws Exception {
         assertThat(newBean.getListValue(), contains("Cunning", "Plan"));
     }
 
+    @Test
+    public void testPrimitiveGetter() {
+        WorkspaceInfoImpl ws = new WorkspaceInfoImpl();
+        ws.setName("ws");
+        WorkspaceInfo proxy = ModificationProxy.create(ws, WorkspaceInfo.class);
+
+        assertThat(proxy.isIsolated(), equalTo(false));
+        proxy.setIsolated(true);
+        assertThat(proxy.isIsolated(), equalTo(true));
+        assertThat(ws.isIsolated(), equalTo(false));
+
+        ModificationProxy.handler(proxy).commit();
+        assertThat(ws.isIsolated(), equalTo(true));
+    }
+
+    @Test
+    public void testExceptionNotWrapped() {
+        TestBean proxy = ModificationProxy.create(new TestBeanImpl("Mr. Bean"), TestBean.class);
+        IllegalStateException e = assertThrows(IllegalStateException.class, proxy::validate);
+        assertThat(e.getMessage(), equalTo("Mr. Bean"));
+    }
+
+    @Test
+    public void testMethodTable() throws Exception {
+        ModificationProxyMethod getter = ModificationProxyMethod.of(LayerInfo.class.getMethod("getResource"));
+        assertThat(getter.kind, equalTo(ModificationProxyMethod.Kind.GETTER));
+        assertThat(getter.property, equalTo("Resource"));
+        assertThat(ModificationProxyMethod.of(LayerInfo.class.getMethod("getResource")), sameInstance(getter));
+
+        ModificationProxyMethod is = ModificationProxyMethod.of(PublishedInfo.class.getMethod("isAdvertised"));
+        assertThat(is.kind, equalTo(ModificationProxyMethod.Kind.GETTER));
+        assertThat(is.property, equalTo("Advertised"));
+
+        ModificationProxyMethod setter =
+                ModificationProxyMethod.of(LayerInfo.class.getMethod("setResource", ResourceInfo.class));
+        assertThat(setter.kind, equalTo(ModificationProxyMethod.Kind.SETTER));
+        assertThat(setter.property, equalTo("Resource"));
+
+        ModificationProxyMethod accept =
+                ModificationProxyMethod.of(CatalogInfo.class.getMethod("accept", CatalogVisitor.class));
+        assertThat(accept.kind, equalTo(ModificationProxyMethod.Kind.ACCEPT));
+    }
+
     @Test
     public void testCatalogVisitorCalledWithProxyObject() {
         CatalogFactory factory = new CatalogImpl().getFactory();
@@ -299,6 +345,8 @@ static interface TestBean {
         public List<String> getListValue();
 
         public void setListValue(List<String> listValue);
+
+        public void validate();
     }
 
     static class TestBeanImpl implements TestBean {
@@ -334,5 +382,10 @@ public List<String> getListValue() {
         public void setListValue(List<String> listValue) {
             this.listValue = listValue;
         }
+
+        @Override
+        public void validate() {
+            throw new IllegalStateException(value);
+        }
     }
 }
@@ -0,0 +1,66 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.catalog.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+/** Test suite for {@link TopKSelector} */
+public class TopKSelectorTest {
+
+    /** Sorts on the first character only, to have plenty of ties */
+    static final Comparator<String> FIRST_CHAR = Comparator.comparing(s -> s.charAt(0));
+
+    private List<String> randomValues(int count) {
+        Random random = new Random(42);
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            values.add((char) ('a' + random.nextInt(5)) + "-" + i);
+        }
+        return values;
+    }
+
+    @Test
+    public void testSameAsStableSort() {
+        List<String> values = randomValues(1000);
+        List<String> sorted = new ArrayList<>(values);
+        sorted.sort(FIRST_CHAR);
+
+        for (int k : new int[] {0, 1, 7, 100, 999, 1000, 2000}) {
+            List<String> top = new TopKSelector<String>(FIRST_CHAR, k)
+                    .offerAll(values.iterator())
+                    .result();
+            assertEquals(sorted.subList(0, Math.min(k, sorted.size())), top);
+        }
+    }
+
+    @Test
+    public void testPagesAreConsistent() {
+        List<String> values = randomValues(100);
+        List<String> sorted = new ArrayList<>(values);
+        sorted.sort(FIRST_CHAR.reversed());
+
+        List<String> paged = new ArrayList<>();
+        int pageSize = 7;
+        for (int offset = 0; offset < values.size(); offset += pageSize) {
+            List<String> top = new TopKSelector<String>(FIRST_CHAR.reversed(), offset + pageSize)
+                    .offerAll(values.iterator())
+                    .result();
+            paged.addAll(top.subList(offset, top.size()));
+        }
+        assertEquals(sorted, paged);
+    }
+
+    @Test
+    public void testEmpty() {
+        assertTrue(new TopKSelector<String>(FIRST_CHAR, 10).result().isEmpty());
+    }
+}
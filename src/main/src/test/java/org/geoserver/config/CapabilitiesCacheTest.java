@@ -0,0 +1,249 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.DataStoreInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.impl.CatalogImpl;
+import org.geoserver.config.impl.GeoServerImpl;
+import org.geoserver.platform.GeoServerExtensionsHelper;
+import org.geoserver.security.CatalogMode;
+import org.geoserver.security.impl.DataAccessRuleDAO;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class CapabilitiesCacheTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    GeoServerImpl geoServer;
+
+    CapabilitiesCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        GeoServerExtensionsHelper.setIsSpringContext(false);
+        geoServer = new GeoServerImpl();
+        geoServer.setCatalog(new CatalogImpl());
+        geoServer.setGlobal(geoServer.getFactory().createGlobal());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        if (cache != null) {
+            cache.destroy();
+        }
+    }
+
+    @Test
+    public void testInvalidateWorkspace() throws Exception {
+        // the first workspace becomes the default one, a change affecting all documents
+        Catalog catalog = geoServer.getCatalog();
+        catalog.add(workspace("default"));
+
+        cache = new CapabilitiesCache(geoServer, true, 1024 * 1024, 0, false);
+        CountingBuilder builder = new CountingBuilder();
+        CapabilitiesCache.Key global = key(null);
+        CapabilitiesCache.Key a = key("a");
+        CapabilitiesCache.Key b = key("b");
+
+        cache.get(global, builder, null);
+        cache.get(a, builder, null);
+        cache.get(b, builder, null);
+        assertEquals(3, builder.count.get());
+        cache.get(global, builder, null);
+        cache.get(a, builder, null);
+        cache.get(b, builder, null);
+        assertEquals(3, builder.count.get());
+
+        // adding a workspace invalidates the global documents and the ones of that workspace
+        catalog.add(workspace("a"));
+
+        cache.get(global, builder, null);
+        cache.get(a, builder, null);
+        cache.get(b, builder, null);
+        assertEquals(5, builder.count.get());
+    }
+
+    @Test
+    public void testGlobalChanges() throws Exception {
+        cache = new CapabilitiesCache(geoServer, true, 1024 * 1024, 0, false);
+        CountingBuilder builder = new CountingBuilder();
+        CapabilitiesCache.Key key = key("a");
+        cache.get(key, builder, null);
+
+        // the update sequence alone does not invalidate
+        GeoServerInfo global = geoServer.getGlobal();
+        global.setUpdateSequence(global.getUpdateSequence() + 1);
+        geoServer.save(global);
+        cache.get(key, builder, null);
+        assertEquals(1, builder.count.get());
+
+        global = geoServer.getGlobal();
+        global.setFeatureTypeCacheSize(global.getFeatureTypeCacheSize() + 1);
+        geoServer.save(global);
+        cache.get(key, builder, null);
+        assertEquals(2, builder.count.get());
+    }
+
+    @Test
+    public void testTimeToLive() throws Exception {
+        cache = new CapabilitiesCache(geoServer, true, 1024 * 1024, 1, false);
+        CountingBuilder builder = new CountingBuilder();
+        CapabilitiesCache.Key key = key(null);
+        cache.get(key, builder, null);
+        Thread.sleep(10);
+        cache.get(key, builder, null);
+        assertEquals(2, builder.count.get());
+    }
+
+    @Test
+    public void testMaxSize() throws Exception {
+        cache = new CapabilitiesCache(geoServer, true, 10, 0, false);
+        cache.get(key(null), () -> new byte[100], null);
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testStaleWhileRevalidate() throws Exception {
+        cache = new CapabilitiesCache(geoServer, true, 1024 * 1024, 0, true);
+        CountingBuilder builder = new CountingBuilder();
+        CapabilitiesCache.Key key = key(null);
+        assertEquals("1", document(cache.get(key, builder, null)));
+
+        cache.invalidateAll();
+        CountDownLatch refreshed = new CountDownLatch(1);
+        byte[] stale = cache.get(key, builder, () -> () -> {
+            refreshed.countDown();
+            return "refreshed".getBytes(StandardCharsets.UTF_8);
+        });
+        assertEquals("1", document(stale));
+        assertEquals(1, builder.count.get());
+
+        refreshed.await(10, TimeUnit.SECONDS);
+        // the refreshed document replaces the stale one once built
+        for (int i = 0; i < 100 && "1".equals(document(cache.get(key, builder, () -> builder))); i++) {
+            Thread.sleep(10);
+        }
+        assertEquals("refreshed", document(cache.get(key, builder, () -> builder)));
+        assertEquals(1, builder.count.get());
+    }
+
+    @Test
+    public void testMoveToAnotherWorkspace() throws Exception {
+        Catalog catalog = geoServer.getCatalog();
+        catalog.add(workspace("default"));
+        catalog.add(workspace("a"));
+        catalog.add(workspace("b"));
+        DataStoreInfo store = catalog.getFactory().createDataStore();
+        store.setName("store");
+        store.setWorkspace(catalog.getWorkspaceByName("a"));
+        catalog.add(store);
+
+        cache = new CapabilitiesCache(geoServer, true, 1024 * 1024, 0, false);
+        CountingBuilder builder = new CountingBuilder();
+        CapabilitiesCache.Key a = key("a");
+        CapabilitiesCache.Key b = key("b");
+        CapabilitiesCache.Key c = key("c");
+        cache.get(a, builder, null);
+        cache.get(b, builder, null);
+        cache.get(c, builder, null);
+        assertEquals(3, builder.count.get());
+
+        // moving the store invalidates both the workspace it left and the one it moved to
+        store = catalog.getDataStoreByName("a", "store");
+        store.setWorkspace(catalog.getWorkspaceByName("b"));
+        catalog.save(store);
+
+        cache.get(a, builder, null);
+        cache.get(b, builder, null);
+        cache.get(c, builder, null);
+        assertEquals(5, builder.count.get());
+    }
+
+    @Test
+    public void testAccessRulesChange() throws Exception {
+        AtomicLong rulesModified = new AtomicLong(1);
+        DataAccessRuleDAO rules =
+                new DataAccessRuleDAO(new GeoServerDataDirectory(tempFolder.getRoot()), geoServer.getCatalog()) {
+                    @Override
+                    public CatalogMode getMode() {
+                        return CatalogMode.HIDE;
+                    }
+
+                    @Override
+                    public long getLastModified() {
+                        return rulesModified.get();
+                    }
+                };
+        // even in stale-while-revalidate mode, documents built with the old rules are not returned
+        cache = new CapabilitiesCache(geoServer, true, 1024 * 1024, 0, true);
+        cache.setAccessRules(rules);
+        CountingBuilder builder = new CountingBuilder();
+        CapabilitiesCache.Key key = key("a");
+        assertEquals("1", document(cache.get(key, builder, () -> builder)));
+        assertEquals("1", document(cache.get(key, builder, () -> builder)));
+
+        rulesModified.incrementAndGet();
+        assertEquals("2", document(cache.get(key, builder, () -> builder)));
+        assertEquals(2, builder.count.get());
+    }
+
+    @Test
+    public void testKeyUser() {
+        CapabilitiesCache.Key alice = new CapabilitiesCache.Key(
+                "WMS", "1.3.0", null, null, Collections.singleton("ROLE_A"), "alice", null, Collections.emptyMap());
+        CapabilitiesCache.Key bob = new CapabilitiesCache.Key(
+                "WMS", "1.3.0", null, null, Collections.singleton("ROLE_A"), "bob", null, Collections.emptyMap());
+        assertNotEquals(alice, bob);
+    }
+
+    private WorkspaceInfo workspace(String name) {
+        WorkspaceInfo workspace = geoServer.getCatalog().getFactory().createWorkspace();
+        workspace.setName(name);
+        return workspace;
+    }
+
+    private static CapabilitiesCache.Key key(String workspace) {
+        return new CapabilitiesCache.Key(
+                "WMS",
+                "1.3.0",
+                workspace,
+                null,
+                Collections.emptySet(),
+                null,
+                "http://localhost:8080/geoserver/",
+                Collections.singletonMap("REQUEST", "GetCapabilities"));
+    }
+
+    private static String document(byte[] document) {
+        return new String(document, StandardCharsets.UTF_8);
+    }
+
+    /** Builds documents containing the number of builds so far */
+    static class CountingBuilder implements CapabilitiesCache.Builder {
+
+        AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public byte[] build() {
+            return String.valueOf(count.incrementAndGet()).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+}
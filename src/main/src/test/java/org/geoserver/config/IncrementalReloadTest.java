@@ -0,0 +1,129 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.config;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.nio.charset.StandardCharsets;
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.DataStoreInfo;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.event.CatalogAddEvent;
+import org.geoserver.catalog.event.CatalogListener;
+import org.geoserver.catalog.event.CatalogModifyEvent;
+import org.geoserver.catalog.event.CatalogPostModifyEvent;
+import org.geoserver.catalog.event.CatalogRemoveEvent;
+import org.geoserver.data.test.MockData;
+import org.geoserver.platform.resource.Resource;
+import org.geoserver.test.GeoServerSystemTestSupport;
+import org.geotools.api.data.DataAccess;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class IncrementalReloadTest extends GeoServerSystemTestSupport {
+
+    @Before
+    public void enableIncrementalReload() {
+        System.setProperty(GeoServerLoader.GEOSERVER_INCREMENTAL_RELOAD, "true");
+    }
+
+    @After
+    public void disableIncrementalReload() {
+        System.clearProperty(GeoServerLoader.GEOSERVER_INCREMENTAL_RELOAD);
+    }
+
+    @Test
+    public void testModifiedResource() throws Exception {
+        Catalog catalog = getCatalog();
+        FeatureTypeInfo ft = catalog.getFeatureTypeByName(getLayerId(MockData.BUILDINGS));
+        DataAccess<?, ?> dataStore = ft.getStore().getDataStore(null);
+
+        // change the title behind the catalog's back
+        Resource config = getDataDirectory().config(ft);
+        String xml = new String(config.getContents(), StandardCharsets.UTF_8);
+        config.setContents(xml.replaceFirst("<title>[^<]*</title>", "<title>Reloaded</title>")
+                .getBytes(StandardCharsets.UTF_8));
+
+        CountingListener listener = new CountingListener();
+        catalog.addListener(listener);
+        try {
+            getGeoServer().reload();
+        } finally {
+            catalog.removeListener(listener);
+        }
+
+        FeatureTypeInfo reloaded = catalog.getFeatureTypeByName(getLayerId(MockData.BUILDINGS));
+        assertEquals(ft.getId(), reloaded.getId());
+        assertEquals("Reloaded", reloaded.getTitle());
+        assertEquals(1, listener.modified);
+        assertEquals(0, listener.added);
+        assertEquals(0, listener.removed);
+
+        // the store did not change, and its connection survived the reload
+        DataStoreInfo store = catalog.getDataStore(ft.getStore().getId());
+        assertSame(dataStore, store.getDataStore(null));
+    }
+
+    @Test
+    public void testRemovedAndAddedLayer() throws Exception {
+        Catalog catalog = getCatalog();
+        LayerInfo layer = catalog.getLayerByName(getLayerId(MockData.BRIDGES));
+        Resource layerConfig = getDataDirectory().config(layer);
+        Resource resourceConfig = getDataDirectory().config((FeatureTypeInfo) layer.getResource());
+        byte[] layerXml = layerConfig.getContents();
+        byte[] resourceXml = resourceConfig.getContents();
+
+        // remove the files, the layer and its resource go away
+        layerConfig.delete();
+        resourceConfig.delete();
+        getGeoServer().reload();
+        assertNull(catalog.getLayerByName(getLayerId(MockData.BRIDGES)));
+        assertNull(catalog.getFeatureTypeByName(getLayerId(MockData.BRIDGES)));
+
+        // put them back, they are added again with the same identifiers
+        resourceConfig.setContents(resourceXml);
+        layerConfig.setContents(layerXml);
+        getGeoServer().reload();
+        LayerInfo reloaded = catalog.getLayerByName(getLayerId(MockData.BRIDGES));
+        assertNotNull(reloaded);
+        assertEquals(layer.getId(), reloaded.getId());
+        assertEquals(layer.getResource().getId(), reloaded.getResource().getId());
+    }
+
+    static class CountingListener implements CatalogListener {
+
+        int added;
+
+        int modified;
+
+        int removed;
+
+        @Override
+        public void handleAddEvent(CatalogAddEvent event) {
+            added++;
+        }
+
+        @Override
+        public void handleRemoveEvent(CatalogRemoveEvent event) {
+            removed++;
+        }
+
+        @Override
+        public void handleModifyEvent(CatalogModifyEvent event) {}
+
+        @Override
+        public void handlePostModifyEvent(CatalogPostModifyEvent event) {
+            modified++;
+        }
+
+        @Override
+        public void reloaded() {}
+    }
+}
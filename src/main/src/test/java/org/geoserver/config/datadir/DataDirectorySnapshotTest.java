@@ -0,0 +1,167 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.config.datadir;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.geoserver.catalog.NamespaceInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.impl.NamespaceInfoImpl;
+import org.geoserver.catalog.impl.WorkspaceInfoImpl;
+import org.geoserver.config.util.XStreamPersisterFactory;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class DataDirectorySnapshotTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path root;
+
+    private XStreamLoader loader;
+
+    private Path workspaceFile;
+
+    private Path namespaceFile;
+
+    @Before
+    public void setUp() throws IOException {
+        root = folder.getRoot().toPath();
+        loader = new XStreamLoader(new XStreamPersisterFactory());
+
+        Path wsdir = Files.createDirectories(root.resolve("workspaces").resolve("ws"));
+        WorkspaceInfoImpl ws = new WorkspaceInfoImpl();
+        ws.setId("ws-id");
+        ws.setName("ws");
+        workspaceFile = wsdir.resolve("workspace.xml");
+        loader.persist(ws, workspaceFile);
+
+        NamespaceInfoImpl ns = new NamespaceInfoImpl();
+        ns.setId("ns-id");
+        ns.setPrefix("ws");
+        ns.setURI("http://ws");
+        namespaceFile = wsdir.resolve("namespace.xml");
+        loader.persist(ns, namespaceFile);
+    }
+
+    private DataDirectorySnapshot load() {
+        DataDirectorySnapshot snapshot = DataDirectorySnapshot.open(root);
+        loader.setSnapshot(snapshot);
+        try {
+            WorkspaceInfo ws = loader.<WorkspaceInfo>depersist(workspaceFile).orElseThrow();
+            assertEquals("ws-id", ws.getId());
+            NamespaceInfo ns = loader.<NamespaceInfo>depersist(namespaceFile).orElseThrow();
+            assertEquals("ns-id", ns.getId());
+            assertEquals("http://ws", ns.getURI());
+            return snapshot;
+        } finally {
+            loader.setSnapshot(null);
+        }
+    }
+
+    @Test
+    public void testReuseUnchangedFiles() throws IOException {
+        DataDirectorySnapshot first = load();
+        assertEquals(0, first.getHits());
+        assertEquals(2, first.getMisses());
+        first.save();
+        assertTrue(Files.isRegularFile(root.resolve(DataDirectorySnapshot.FILE_NAME)));
+
+        DataDirectorySnapshot second = load();
+        assertEquals(2, second.getHits());
+        assertEquals(0, second.getMisses());
+        second.save();
+
+        // entries read out of the mapped file are written back correctly
+        DataDirectorySnapshot third = load();
+        assertEquals(2, third.getHits());
+    }
+
+    @Test
+    public void testSaveWhileMapped() throws IOException {
+        load().save();
+
+        // keep reading an entry out of the mapped file while new snapshots replace it
+        DataDirectorySnapshot snapshot = load();
+        BasicFileAttributes attributes = Files.readAttributes(workspaceFile, BasicFileAttributes.class);
+        byte[] contents = Files.readAllBytes(workspaceFile);
+        byte[] expected = snapshot.get(workspaceFile, attributes, contents).readAllBytes();
+        InputStream tokens = snapshot.get(workspaceFile, attributes, contents);
+        snapshot.save();
+        load().save();
+        assertArrayEquals(expected, tokens.readAllBytes());
+
+        // the new snapshot is complete, and no temporary file is left behind
+        assertEquals(2, load().getHits());
+        try (Stream<Path> files = Files.list(root)) {
+            assertEquals(List.of(), files.filter(p -> p.toString().endsWith(".tmp")).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void testChangedFileIsParsed() throws IOException {
+        load().save();
+
+        String xml = Files.readString(namespaceFile, StandardCharsets.UTF_8);
+        Files.writeString(namespaceFile, xml.replace("http://ws", "http://ws2"), StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(
+                namespaceFile, FileTime.fromMillis(Files.getLastModifiedTime(namespaceFile).toMillis() + 2000));
+
+        DataDirectorySnapshot snapshot = DataDirectorySnapshot.open(root);
+        loader.setSnapshot(snapshot);
+        NamespaceInfo ns = loader.<NamespaceInfo>depersist(namespaceFile).orElseThrow();
+        assertEquals("http://ws2", ns.getURI());
+        assertEquals(1, snapshot.getMisses());
+        assertTrue(loader.depersist(workspaceFile).isPresent());
+        assertEquals(1, snapshot.getHits());
+    }
+
+    @Test
+    public void testSameSizeAndTimeChangeIsParsed() throws IOException {
+        load().save();
+
+        // same length edit, within the modification time granularity of the file system
+        FileTime lastModified = Files.getLastModifiedTime(namespaceFile);
+        String xml = Files.readString(namespaceFile, StandardCharsets.UTF_8);
+        Files.writeString(namespaceFile, xml.replace("http://ws", "http://xy"), StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(namespaceFile, lastModified);
+
+        DataDirectorySnapshot snapshot = DataDirectorySnapshot.open(root);
+        loader.setSnapshot(snapshot);
+        NamespaceInfo ns = loader.<NamespaceInfo>depersist(namespaceFile).orElseThrow();
+        assertEquals("http://xy", ns.getURI());
+        assertEquals(1, snapshot.getMisses());
+    }
+
+    @Test
+    public void testInvalidSnapshotIgnored() throws IOException {
+        Files.writeString(root.resolve(DataDirectorySnapshot.FILE_NAME), "not a snapshot");
+        DataDirectorySnapshot snapshot = load();
+        assertEquals(2, snapshot.getMisses());
+    }
+
+    @Test
+    public void testBrokenFile() throws IOException {
+        Files.writeString(workspaceFile, "<workspace><name>broken");
+        loader.setSnapshot(DataDirectorySnapshot.open(root));
+        assertFalse(loader.depersist(workspaceFile).isPresent());
+    }
+}
@@ -0,0 +1,180 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.config.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.catalog.Info;
+import org.geoserver.catalog.Keyword;
+import org.geoserver.catalog.LayerGroupInfo;
+import org.geoserver.catalog.PublishedType;
+import org.geoserver.catalog.impl.AttributeTypeInfoImpl;
+import org.geoserver.catalog.impl.DataStoreInfoImpl;
+import org.geoserver.catalog.impl.FeatureTypeInfoImpl;
+import org.geoserver.catalog.impl.LayerGroupInfoImpl;
+import org.geoserver.catalog.impl.LayerInfoImpl;
+import org.geoserver.catalog.impl.NamespaceInfoImpl;
+import org.geoserver.catalog.impl.StyleInfoImpl;
+import org.geoserver.catalog.impl.WorkspaceInfoImpl;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/** Measures {@link XStreamPersister} load and save throughput on typical feature type and layer group documents. */
+@Ignore
+public class XStreamPersisterBenchmarkTest {
+
+    /**
+     * Runs the JMH benchmark. This isn't a really test so it includes the @Ignore annotation; by integrating JMH with
+     * Junit it just provides us an easy way to run the benchmark (typically through the IDE).
+     */
+    @Test
+    public void runBenchmark() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(XStreamPersisterBenchmark.class.getSimpleName() + ".*")
+                .result("./target/xstream-persister-benchmark.json")
+                .resultFormat(ResultFormatType.JSON)
+                .build();
+        new Runner(options).run();
+    }
+
+    static FeatureTypeInfo featureType() {
+        NamespaceInfoImpl ns = new NamespaceInfoImpl();
+        ns.setId("NamespaceInfoImpl-topp");
+        DataStoreInfoImpl store = new DataStoreInfoImpl(null, "DataStoreInfoImpl-states");
+
+        FeatureTypeInfoImpl ft = new FeatureTypeInfoImpl(null, "FeatureTypeInfoImpl-states");
+        ft.setName("states");
+        ft.setNativeName("states");
+        ft.setTitle("USA Population");
+        ft.setAbstract("This is some census data on the states.");
+        ft.setNamespace(ns);
+        ft.setStore(store);
+        ft.setEnabled(true);
+        ft.setSRS("EPSG:4326");
+        ft.setNativeCRS(DefaultGeographicCRS.WGS84);
+        ReferencedEnvelope bounds = new ReferencedEnvelope(-124.73, -66.97, 24.96, 49.37, DefaultGeographicCRS.WGS84);
+        ft.setNativeBoundingBox(bounds);
+        ft.setLatLonBoundingBox(bounds);
+        for (String keyword : new String[] {"census", "united", "boundaries", "state", "states"}) {
+            ft.getKeywords().add(new Keyword(keyword));
+        }
+        for (int i = 0; i < 20; i++) {
+            AttributeTypeInfoImpl att = new AttributeTypeInfoImpl();
+            att.setName("attribute" + i);
+            att.setMinOccurs(0);
+            att.setMaxOccurs(1);
+            att.setNillable(true);
+            att.setBinding(i % 2 == 0 ? String.class : Double.class);
+            ft.getAttributes().add(att);
+        }
+        ft.getMetadata().put("cachingEnabled", false);
+        ft.getMetadata().put("time", "none");
+        return ft;
+    }
+
+    static LayerGroupInfo layerGroup() {
+        WorkspaceInfoImpl ws = new WorkspaceInfoImpl();
+        ws.setId("WorkspaceInfoImpl-topp");
+        LayerGroupInfoImpl group = new LayerGroupInfoImpl();
+        group.setId("LayerGroupInfoImpl-tasmania");
+        group.setName("tasmania");
+        group.setTitle("Tasmania");
+        group.setAbstract("Tasmania state boundaries, roads, cities and water bodies");
+        group.setWorkspace(ws);
+        group.setMode(LayerGroupInfo.Mode.SINGLE);
+        group.setBounds(new ReferencedEnvelope(143.83, 148.47, -43.64, -39.57, DefaultGeographicCRS.WGS84));
+        for (int i = 0; i < 30; i++) {
+            LayerInfoImpl layer = new LayerInfoImpl();
+            layer.setId("LayerInfoImpl-" + i);
+            layer.setType(PublishedType.VECTOR);
+            group.getLayers().add(layer);
+            StyleInfoImpl style = new StyleInfoImpl(null);
+            style.setId("StyleInfoImpl-" + i);
+            group.getStyles().add(style);
+        }
+        return group;
+    }
+
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Fork(1)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public static class XStreamPersisterBenchmark {
+
+        @State(Scope.Thread)
+        public static class PersisterState {
+
+            XStreamPersister persister;
+
+            FeatureTypeInfo featureType;
+
+            LayerGroupInfo layerGroup;
+
+            byte[] featureTypeXml;
+
+            byte[] layerGroupXml;
+
+            @Setup
+            public void setup() throws IOException {
+                persister = new XStreamPersisterFactory().createXMLPersister();
+                featureType = featureType();
+                layerGroup = layerGroup();
+                featureTypeXml = save(persister, featureType);
+                layerGroupXml = save(persister, layerGroup);
+            }
+        }
+
+        static byte[] save(XStreamPersister persister, Info info) throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            persister.save(info, out);
+            return out.toByteArray();
+        }
+
+        @Benchmark
+        public byte[] saveFeatureType(PersisterState state) throws IOException {
+            return save(state.persister, state.featureType);
+        }
+
+        @Benchmark
+        public byte[] saveLayerGroup(PersisterState state) throws IOException {
+            return save(state.persister, state.layerGroup);
+        }
+
+        @Benchmark
+        public FeatureTypeInfo loadFeatureType(PersisterState state) throws IOException {
+            return state.persister.load(new ByteArrayInputStream(state.featureTypeXml), FeatureTypeInfo.class);
+        }
+
+        @Benchmark
+        public LayerGroupInfo loadLayerGroup(PersisterState state) throws IOException {
+            return state.persister.load(new ByteArrayInputStream(state.layerGroupXml), LayerGroupInfo.class);
+        }
+
+        @Benchmark
+        public XStreamPersister createPersister() {
+            return new XStreamPersisterFactory().createXMLPersister();
+        }
+    }
+}
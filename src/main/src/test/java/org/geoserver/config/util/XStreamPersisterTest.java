@@ -68,7 +68,9 @@
 import org.geoserver.catalog.impl.CoverageDimensionImpl;
 import org.geoserver.catalog.impl.CoverageStoreInfoImpl;
 import org.geoserver.catalog.impl.DataStoreInfoImpl;
+import org.geoserver.catalog.impl.LayerInfoImpl;
 import org.geoserver.catalog.impl.MetadataLinkInfoImpl;
+import org.geoserver.catalog.impl.StyleInfoImpl;
 import org.geoserver.catalog.impl.WMSStoreInfoImpl;
 import org.geoserver.config.ContactInfo;
 import org.geoserver.config.GeoServerFactory;
@@ -971,6 +973,40 @@ private void testSerializationWithMode(Mode mode) throws Exception {
         assertEquals("layerGroup", dom.getDocumentElement().getNodeName());
     }
 
+    @Test
+    public void testLayerGroupReferences() throws Exception {
+        Catalog catalog = new CatalogImpl();
+        CatalogFactory cFactory = catalog.getFactory();
+
+        LayerGroupInfo group1 = cFactory.createLayerGroup();
+        group1.setName("foo");
+        for (int i = 0; i < 50; i++) {
+            LayerInfo layer = cFactory.createLayer();
+            ((LayerInfoImpl) layer).setId("layer-" + i);
+            group1.getLayers().add(layer);
+            StyleInfo style = cFactory.createStyle();
+            ((StyleInfoImpl) style).setId("style-" + i);
+            group1.getStyles().add(style);
+        }
+
+        // the stream is not closed, save must flush all the output
+        ByteArrayOutputStream out = out();
+        persister.save(group1, out);
+
+        Document dom = dom(in(out));
+        assertEquals("layerGroup", dom.getDocumentElement().getNodeName());
+        assertEquals(50, dom.getElementsByTagName("published").getLength());
+
+        // references are written the same way for every item of the collection
+        LayerGroupInfo group2 = persister.load(in(out), LayerGroupInfo.class);
+        assertEquals(50, group2.getLayers().size());
+        assertEquals(50, group2.getStyles().size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals("layer-" + i, group2.getLayers().get(i).getId());
+            assertEquals("style-" + i, group2.getStyles().get(i).getId());
+        }
+    }
+
     @Test
     public void testLegacyLayerGroupWithoutMode() throws Exception {
         String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
@@ -0,0 +1,76 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.ows;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.zip.GZIPInputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.geoserver.filters.GZIPFilter;
+import org.junit.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockFilterConfig;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+
+/** Checks the {@link AsyncResponseWriter} does not break the responses post-processed by the {@link GZIPFilter} */
+public class AsyncResponseWriterGZIPTest {
+
+    @Test
+    public void testGZIPResponseWrittenSynchronously() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "http://www.geoserver.org/ows");
+        request.addHeader("accept-encoding", "gzip");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        GZIPFilter filter = new GZIPFilter();
+        MockFilterConfig config = new MockFilterConfig(new MockServletContext());
+        config.addInitParameter("compressed-types", "text/xml");
+        filter.init(config);
+
+        byte[] data = new byte[100000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i % 64 + 32);
+        }
+        // does what the dispatcher does with the response
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest req, ServletResponse res) {
+                try {
+                    HttpServletResponse httpResponse = (HttpServletResponse) res;
+                    httpResponse.setContentType("text/xml");
+                    AsyncResponseWriter.BufferedResponse buffered = new AsyncResponseWriter.BufferedResponse(
+                            data.length * 2, httpResponse::getOutputStream);
+                    buffered.write(data);
+                    if (AsyncResponseWriter.canWrite((HttpServletRequest) req, httpResponse)) {
+                        AsyncResponseWriter.write((HttpServletRequest) req, httpResponse, buffered);
+                    } else {
+                        httpResponse.getOutputStream().write(buffered.buffer, 0, buffered.count);
+                    }
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        filter.doFilter(request, response, chain);
+
+        // written synchronously, and compressed in full
+        assertFalse(request.isAsyncStarted());
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        ByteArrayOutputStream uncompressed = new ByteArrayOutputStream();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            in.transferTo(uncompressed);
+        }
+        assertArrayEquals(data, uncompressed.toByteArray());
+    }
+}
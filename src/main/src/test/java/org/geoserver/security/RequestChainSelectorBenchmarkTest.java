@@ -0,0 +1,118 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.security;
+
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/**
+ * Compares the cost of picking the security filter chain of typical OGC, tile and REST requests by trying the chain
+ * matchers in order, as {@link GeoServerSecurityFilterChainProxy} used to do, and with the {@link RequestChainSelector}
+ * trie.
+ */
+@Ignore
+public class RequestChainSelectorBenchmarkTest {
+
+    /**
+     * Runs the JMH benchmark. This isn't a really test so it includes the @Ignore annotation; by integrating JMH with
+     * Junit it just provides us an easy way to run the benchmark (typically through the IDE).
+     */
+    @Test
+    public void runBenchmark() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(RequestChainSelectorBenchmark.class.getSimpleName() + ".*")
+                .result("./target/request-chain-selector-benchmark.json")
+                .resultFormat(ResultFormatType.JSON)
+                .build();
+        new Runner(options).run();
+    }
+
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Fork(1)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public static class RequestChainSelectorBenchmark {
+
+        @State(Scope.Thread)
+        public static class ChainState {
+
+            @Param({
+                "/wms?service=WMS&request=GetMap&layers=topp:states",
+                "/gwc/service/wmts?layer=topp:states&request=GetTile",
+                "/rest/workspaces/topp/datastores.json"
+            })
+            String url;
+
+            MockHttpServletRequest request;
+
+            List<GeoServerRequestMatcher> matchers = new ArrayList<>();
+
+            RequestChainSelector selector;
+
+            @Setup
+            public void setup() {
+                // the initial chains, plus a few custom ones as found in secured installations
+                List<RequestFilterChain> chains = new ArrayList<>();
+                ServiceLoginFilterChain capabilities = new ServiceLoginFilterChain(
+                        "/wms/**|.*request=getcapabilities.*", "/wfs/**|.*request=getcapabilities.*");
+                chains.add(capabilities);
+                ServiceLoginFilterChain transactions = new ServiceLoginFilterChain("/wfs/**", "/*/wfs/**");
+                transactions.getHttpMethods().add(HTTPMethod.POST);
+                transactions.setMatchHTTPMethod(true);
+                chains.add(transactions);
+                chains.add(new ServiceLoginFilterChain("/geofence/**", "/ows/**"));
+                chains.addAll(GeoServerSecurityFilterChain.createInitialChain().getRequestChains());
+
+                GeoServerSecurityFilterChainProxy proxy =
+                        new GeoServerSecurityFilterChainProxy(mock(GeoServerSecurityManager.class));
+                for (RequestFilterChain chain : chains) {
+                    matchers.add(proxy.matcherForChain(chain));
+                }
+                selector = new RequestChainSelector(chains, matchers);
+                request = RequestChainSelectorTest.request("GET", url);
+            }
+        }
+
+        @Benchmark
+        public int sequential(ChainState state) {
+            List<GeoServerRequestMatcher> matchers = state.matchers;
+            for (int i = 0; i < matchers.size(); i++) {
+                if (matchers.get(i).matches(state.request)) {
+                    return i;
+                }
+            }
+            return RequestChainSelector.NO_MATCH;
+        }
+
+        @Benchmark
+        public int selector(ChainState state) {
+            // drop the cached selection, each invocation stands for a new request
+            state.request.removeAttribute(RequestChainSelector.SELECTION_ATTRIBUTE);
+            return state.selector.select(state.request);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.security;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/** Test suite for {@link RequestChainSelector}, checking it agrees with the chain matchers tried in order */
+public class RequestChainSelectorTest {
+
+    static final String[] PATHS = {
+        "",
+        "/",
+        "/web",
+        "/web/",
+        "/web/wicket/bookmarkable/org.geoserver.web.demo.MapPreviewPage",
+        "/WEB/index.html",
+        "/webx",
+        "/login",
+        "/login/",
+        "/logout",
+        "/j_spring_security_check",
+        "/j_spring_security_check/",
+        "/j_spring_security_logout/",
+        "/rest",
+        "/rest.json",
+        "/REST.xml",
+        "/rest/workspaces/topp/datastores.xml",
+        "/restx",
+        "/gwc/rest",
+        "/gwc/rest.xml",
+        "/gwc/rest/layers",
+        "/gwc/rest/web/geowebcache.css",
+        "/gwc/service/wmts?layer=topp:states&tilematrix=EPSG:4326:3&request=GetTile",
+        "/wms?service=WMS&request=GetMap&layers=topp:states&format=image/png",
+        "/wms?service=WMS&request=GetCapabilities",
+        "/wms/reflect",
+        "/wfs",
+        "/topp/wms",
+        "/topp/states/wms?request=GetCapabilities",
+        "//rest/workspaces",
+        "/web//index.html",
+        "/secure/area",
+        "/secure/areas/a",
+        "/public/x.png",
+        "/public/x.jpg",
+    };
+
+    GeoServerSecurityFilterChainProxy proxy;
+
+    @Before
+    public void setUp() {
+        proxy = new GeoServerSecurityFilterChainProxy(mock(GeoServerSecurityManager.class));
+    }
+
+    @Test
+    public void testInitialChains() {
+        List<RequestFilterChain> chains = GeoServerSecurityFilterChain.createInitialChain().getRequestChains();
+        RequestChainSelector selector = selector(chains);
+
+        assertEquals(0, selector.select(request("GET", "/web/")));
+        assertEquals(1, selector.select(request("POST", "/j_spring_security_check")));
+        assertEquals(3, selector.select(request("GET", "/rest.json")));
+        assertEquals(3, selector.select(request("GET", "/rest/workspaces")));
+        assertEquals(0, selector.select(request("GET", "/gwc/rest/web/geowebcache.css")));
+        assertEquals(4, selector.select(request("GET", "/gwc/rest/layers")));
+        assertEquals(5, selector.select(request("GET", "/wms")));
+
+        assertSameSelection(chains, selector);
+    }
+
+    @Test
+    public void testCustomChains() {
+        List<RequestFilterChain> chains = new ArrayList<>();
+        // method specific chain
+        ServiceLoginFilterChain post = new ServiceLoginFilterChain("/wms/**,/gwc/service/**");
+        post.getHttpMethods().add(HTTPMethod.POST);
+        post.setMatchHTTPMethod(true);
+        chains.add(post);
+        // query string chain
+        chains.add(new ServiceLoginFilterChain("/wms/**|.*request=getcapabilities.*"));
+        // ant wildcards
+        chains.add(new ServiceLoginFilterChain("/*/wms,/secure/area?/**,/public/*.png"));
+        // no patterns at all
+        ServiceLoginFilterChain empty = new ServiceLoginFilterChain();
+        empty.setPatterns(null);
+        chains.add(empty);
+        chains.addAll(GeoServerSecurityFilterChain.createInitialChain().getRequestChains());
+        RequestChainSelector selector = selector(chains);
+
+        assertEquals(0, selector.select(request("POST", "/wms")));
+        assertEquals(1, selector.select(request("GET", "/wms?request=GetCapabilities")));
+        assertEquals(2, selector.select(request("GET", "/topp/wms")));
+        assertEquals(2, selector.select(request("GET", "/secure/areas/a")));
+        assertEquals(9, selector.select(request("GET", "/public/x.jpg")));
+
+        assertSameSelection(chains, selector);
+    }
+
+    @Test
+    public void testNoMatch() {
+        List<RequestFilterChain> chains = new ArrayList<>();
+        chains.add(new ServiceLoginFilterChain("/rest/**"));
+        RequestChainSelector selector = selector(chains);
+
+        assertEquals(RequestChainSelector.NO_MATCH, selector.select(request("GET", "/wms")));
+        assertEquals(0, selector.select(request("GET", "/rest")));
+    }
+
+    @Test
+    public void testSelectionFollowsForwards() {
+        RequestChainSelector selector = selector(GeoServerSecurityFilterChain.createInitialChain().getRequestChains());
+        MockHttpServletRequest request = request("GET", "/rest/workspaces");
+        assertEquals(3, selector.select(request));
+        request.setPathInfo("/web/");
+        assertEquals(0, selector.select(request));
+    }
+
+    @Test
+    public void testLiteralPrefix() {
+        assertEquals("/rest.", RequestChainSelector.literalPrefix("/rest.*"));
+        assertEquals("/wms", RequestChainSelector.literalPrefix("/wms/**|.*request=getmap.*"));
+        assertEquals("/a", RequestChainSelector.literalPrefix("/a/**/b"));
+        assertEquals("/a/", RequestChainSelector.literalPrefix("/a/*"));
+        assertEquals("", RequestChainSelector.literalPrefix("/**|.*"));
+        assertEquals("", RequestChainSelector.literalPrefix("/a//b*"));
+    }
+
+    private RequestChainSelector selector(List<RequestFilterChain> chains) {
+        List<GeoServerRequestMatcher> matchers = new ArrayList<>();
+        for (RequestFilterChain chain : chains) {
+            matchers.add(proxy.matcherForChain(chain));
+        }
+        return new RequestChainSelector(chains, matchers);
+    }
+
+    /** Checks the selector picks the same chain as the chain matchers, tried in order, for all methods and paths */
+    private void assertSameSelection(List<RequestFilterChain> chains, RequestChainSelector selector) {
+        for (HTTPMethod method : HTTPMethod.values()) {
+            for (String path : PATHS) {
+                int expected = RequestChainSelector.NO_MATCH;
+                for (int i = 0; i < chains.size(); i++) {
+                    if (proxy.matcherForChain(chains.get(i)).matches(request(method.toString(), path))) {
+                        expected = i;
+                        break;
+                    }
+                }
+                assertEquals(method + " " + path, expected, selector.select(request(method.toString(), path)));
+            }
+        }
+    }
+
+    static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setServletPath("");
+        int idx = path.indexOf('?');
+        if (idx != -1) {
+            request.setQueryString(path.substring(idx + 1));
+            path = path.substring(0, idx);
+        }
+        request.setPathInfo(path);
+        request.setMethod(method);
+        return request;
+    }
+}
@@ -0,0 +1,78 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.security;
+
+import static org.easymock.EasyMock.createNiceMock;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import org.geoserver.catalog.Catalog;
+import org.geoserver.platform.GeoServerExtensionsHelper;
+import org.geoserver.security.impl.DataAccessRuleDAO;
+import org.geoserver.security.impl.DefaultResourceAccessManager;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+public class SecuredContentCacheSupportTest {
+
+    DataAccessRuleDAO dao;
+
+    @Before
+    public void setUp() {
+        GeoServerExtensionsHelper.setIsSpringContext(false);
+        dao = createNiceMock(DataAccessRuleDAO.class);
+        expect(dao.getRules()).andReturn(Collections.emptyList()).anyTimes();
+        replay(dao);
+    }
+
+    @Test
+    public void testRoleBased() {
+        DefaultResourceAccessManager manager = new DefaultResourceAccessManager(dao, createNiceMock(Catalog.class));
+        assertTrue(SecuredContentCacheSupport.isRoleBased(manager));
+
+        CatalogFilterAccessManager wrapper = new CatalogFilterAccessManager();
+        wrapper.setDelegate(manager);
+        assertTrue(SecuredContentCacheSupport.isRoleBased(wrapper));
+
+        // might decide on the user name
+        wrapper.setDelegate(new TestResourceAccessManager());
+        assertFalse(SecuredContentCacheSupport.isRoleBased(wrapper));
+        assertFalse(SecuredContentCacheSupport.isRoleBased(null));
+    }
+
+    @Test
+    public void testUserAndRoles() {
+        Authentication user = new UsernamePasswordAuthenticationToken(
+                "alice",
+                null,
+                Arrays.asList(new SimpleGrantedAuthority("ROLE_B"), new SimpleGrantedAuthority("ROLE_A")));
+        Set<String> roles = SecuredContentCacheSupport.getRoles(user);
+        assertEquals(Arrays.asList("ROLE_A", "ROLE_B"), Arrays.asList(roles.toArray()));
+        // no secured catalog to tell the access manager, the user name is part of the key
+        assertEquals("alice", SecuredContentCacheSupport.getUserName(user));
+        assertTrue(SecuredContentCacheSupport.getRoles(null).isEmpty());
+    }
+
+    @Test
+    public void testRulesChanged() {
+        DataAccessRuleDAO rules = createNiceMock(DataAccessRuleDAO.class);
+        expect(rules.getLastModified()).andReturn(1L).andReturn(1L).andReturn(2L);
+        replay(rules);
+        SecuredContentCacheSupport support = new SecuredContentCacheSupport(rules);
+        assertFalse(support.isRulesChanged());
+        assertFalse(support.isRulesChanged());
+        assertTrue(support.isRulesChanged());
+        assertFalse(new SecuredContentCacheSupport(null).isRulesChanged());
+    }
+}
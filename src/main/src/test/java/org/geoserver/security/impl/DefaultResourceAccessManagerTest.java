@@ -5,8 +5,11 @@
 package org.geoserver.security.impl;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
 import com.google.common.collect.Lists;
@@ -16,6 +19,7 @@
 import org.geoserver.catalog.LayerInfo;
 import org.geoserver.catalog.Predicates;
 import org.geoserver.catalog.ResourceInfo;
+import org.geoserver.catalog.StoreInfo;
 import org.geoserver.catalog.WorkspaceInfo;
 import org.geoserver.security.AccessMode;
 import org.geoserver.security.WorkspaceAccessLimits;
@@ -92,4 +96,46 @@ public void testSecurityFilterCache() {
         fil = defaultResourceAccessManager.getSecurityFilter(authentication, ResourceInfo.class);
         assertEquals(Predicates.acceptAll(), fil);
     }
+
+    @Test
+    public void testDecisionCache() {
+        WorkspaceInfo ws = mock(WorkspaceInfo.class);
+        Mockito.when(ws.getName()).thenReturn("ws");
+        StoreInfo store = mock(StoreInfo.class);
+        Mockito.when(store.getWorkspace()).thenReturn(ws);
+        ResourceInfo resource = mock(ResourceInfo.class);
+        Mockito.when(resource.getName()).thenReturn("layer1");
+        Mockito.when(resource.getStore()).thenReturn(store);
+
+        DataAccessRuleDAO dao = mock(DataAccessRuleDAO.class);
+        DataAccessRule rule = new DataAccessRule("ws", "layer1", AccessMode.READ, "MY_ROLE");
+        Mockito.when(dao.getRules()).thenReturn(Lists.newArrayList(rule));
+        DefaultResourceAccessManager manager = new DefaultResourceAccessManager(dao, mock(Catalog.class));
+
+        Authentication user1 = authentication("MY_ROLE");
+        Authentication user2 = authentication("MY_ROLE");
+        Authentication other = authentication("OTHER_ROLE");
+        assertTrue(manager.canAccess(user1, resource, AccessMode.READ, true));
+        assertTrue(manager.canAccess(user2, resource, AccessMode.READ, true));
+        assertFalse(manager.canAccess(other, resource, AccessMode.READ, true));
+        // users with the same roles share the decisions
+        AccessDecisionCache decisions = manager.decisions;
+        assertEquals(2, decisions.size());
+
+        // changing the rules drops the decisions taken so far
+        rule = new DataAccessRule("ws", "layer1", AccessMode.READ, "OTHER_ROLE");
+        Mockito.when(dao.getRules()).thenReturn(Lists.newArrayList(rule));
+        Mockito.when(dao.getLastModified()).thenReturn(System.currentTimeMillis());
+        assertFalse(manager.canAccess(user1, resource, AccessMode.READ, true));
+        assertTrue(manager.canAccess(other, resource, AccessMode.READ, true));
+        assertNotSame(decisions, manager.decisions);
+    }
+
+    private static Authentication authentication(String role) {
+        Authentication authentication = mock(Authentication.class);
+        Collection<? extends GrantedAuthority> grantedAuthorities = Collections.singletonList(new GeoServerRole(role));
+        Mockito.<Collection<? extends GrantedAuthority>>when(authentication.getAuthorities())
+                .thenReturn(grantedAuthorities);
+        return authentication;
+    }
 }
@@ -194,7 +194,7 @@ public void buildLayerGroupCaches() {
 
         layerGroupContainmentCache.onApplicationEvent(contextRefreshedEvent);
 
-        assertEquals(2, layerGroupContainmentCache.groupCache.size());
+        assertEquals(2, layerGroupContainmentCache.getGroupCount());
     }
 
     @Test
@@ -330,7 +330,7 @@ public void testRenameGroup() throws Exception {
         nature.setName("renamed");
         catalog.save(nature);
 
-        LayerGroupSummary summary = cc.groupCache.get(nature.getId());
+        LayerGroupSummary summary = cc.getGroupSummary(nature.getId());
         assertEquals("renamed", summary.getName());
         assertEquals(WS, summary.getWorkspace());
     }
@@ -342,7 +342,7 @@ public void testRenameWorkspace() throws Exception {
         try {
             catalog.save(ws);
 
-            LayerGroupSummary summary = cc.groupCache.get(nature.getId());
+            LayerGroupSummary summary = cc.getGroupSummary(nature.getId());
             assertEquals(NATURE_GROUP, summary.getName());
             assertEquals("renamed", summary.getWorkspace());
         } finally {
@@ -361,7 +361,7 @@ public void testChangeWorkspace() throws Exception {
             nature.setWorkspace(aws);
             catalog.save(nature);
 
-            LayerGroupSummary summary = cc.groupCache.get(nature.getId());
+            LayerGroupSummary summary = cc.getGroupSummary(nature.getId());
             assertEquals(NATURE_GROUP, summary.getName());
             assertEquals(ANOTHER_WS, summary.getWorkspace());
         } finally {
@@ -373,13 +373,41 @@ public void testChangeWorkspace() throws Exception {
 
     @Test
     public void testChangeGroupMode() throws Exception {
-        LayerGroupSummary summary = cc.groupCache.get(nature.getId());
+        LayerGroupSummary summary = cc.getGroupSummary(nature.getId());
         assertEquals(Mode.SINGLE, summary.getMode());
 
         nature.setMode(Mode.OPAQUE_CONTAINER);
         catalog.save(nature);
 
-        summary = cc.groupCache.get(nature.getId());
+        summary = cc.getGroupSummary(nature.getId());
         assertEquals(Mode.OPAQUE_CONTAINER, summary.getMode());
     }
+
+    @Test
+    public void testGraphReleasesUncontainedResources() throws Exception {
+        LayerGroupContainmentGraph graph = new LayerGroupContainmentGraph();
+        graph.addGroup(new LayerGroupSummary(container, graph));
+        graph.addGroup(new LayerGroupSummary(nature, graph));
+        graph.addEdge(container.getId(), nature.getId(), true);
+        graph.addEdge(nature.getId(), "resource", false);
+        // a group that is not registered cannot be linked
+        graph.addEdge(container.getId(), "missingGroup", true);
+
+        assertThat(graph.getContainers("resource"), contains(new LayerGroupSummary(container)));
+        assertThat(graph.getDirectContainers("resource"), contains(new LayerGroupSummary(nature)));
+        assertThat(graph.getContainers("missingGroup"), empty());
+
+        // removing the last container releases the resource
+        graph.removeEdge(nature.getId(), "resource");
+        assertThat(graph.getDirectContainers("resource"), empty());
+        graph.addEdge(nature.getId(), "resource", false);
+        assertThat(graph.getContainers("resource"), contains(new LayerGroupSummary(container)));
+
+        // removing a group unlinks it both ways
+        graph.removeGroup(nature.getId());
+        assertEquals(1, graph.getGroupCount());
+        assertNull(graph.getGroup(nature.getId()));
+        assertThat(graph.getContainers("resource"), empty());
+        assertThat(graph.getContainers(nature.getId()), empty());
+    }
 }
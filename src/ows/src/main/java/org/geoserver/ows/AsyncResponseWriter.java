@@ -0,0 +1,195 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.ows;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import org.geotools.util.logging.Logging;
+
+/**
+ * Writes complete responses to the client using the Servlet 3.1 non blocking I/O, so that the thread that computed the
+ * response is released right away, instead of being held until a slow client has received it all.
+ *
+ * <p>The {@link Dispatcher} uses it when asynchronous response writing is enabled: the response is first written into
+ * a {@link BufferedResponse}, and once complete, handed to the container, which calls back as the client is ready to
+ * receive more data. Responses larger than the buffer are streamed synchronously through the configured
+ * {@link ServiceStrategy} as usual.
+ *
+ * <p>Asynchronous processing needs the dispatcher servlet, and all the filters in front of it, to be declared as
+ * <code>async-supported</code> in the <code>web.xml</code> file, when that's not the case the response is written
+ * synchronously. The same goes for responses wrapped by a filter: filters post-process the response once the chain
+ * returns, e.g. the GZIP one finishes the compressed stream, which would happen before the container has written the
+ * buffered content.
+ */
+class AsyncResponseWriter {
+
+    static final Logger LOGGER = Logging.getLogger(AsyncResponseWriter.class);
+
+    /** The amount of data handed to the container in a single write */
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * Returns true if the response to the request can be written asynchronously, that is, asynchronous processing is
+     * supported and the response is not wrapped by a filter expecting it to be complete once the chain returns
+     */
+    static boolean canWrite(HttpServletRequest request, HttpServletResponse response) {
+        return request.isAsyncSupported()
+                && !request.isAsyncStarted()
+                && !response.isCommitted()
+                && !(response instanceof HttpServletResponseWrapper);
+    }
+
+    /**
+     * Starts asynchronous processing for the request, and sends the buffered response to the client as it becomes
+     * ready to receive it. The method returns immediately, the request is completed once the response is written.
+     */
+    static void write(HttpServletRequest request, HttpServletResponse response, BufferedResponse buffer)
+            throws IOException {
+        AsyncContext context = request.startAsync(request, response);
+        context.addListener(new CompletionListener());
+        ServletOutputStream output = response.getOutputStream();
+        output.setWriteListener(new BufferWriter(context, output, buffer.buffer, buffer.count));
+    }
+
+    /** Writes a buffer to the response output, as long as it's ready to accept data */
+    static class BufferWriter implements WriteListener {
+
+        final AsyncContext context;
+
+        final ServletOutputStream output;
+
+        final byte[] buffer;
+
+        final int count;
+
+        int offset;
+
+        BufferWriter(AsyncContext context, ServletOutputStream output, byte[] buffer, int count) {
+            this.context = context;
+            this.output = output;
+            this.buffer = buffer;
+            this.count = count;
+        }
+
+        @Override
+        public void onWritePossible() throws IOException {
+            while (output.isReady()) {
+                if (offset >= count) {
+                    context.complete();
+                    return;
+                }
+                int length = Math.min(CHUNK_SIZE, count - offset);
+                output.write(buffer, offset, length);
+                offset += length;
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            // most of the time the client went away
+            LOGGER.log(Level.FINE, "Failed to write the response asynchronously", t);
+            context.complete();
+        }
+    }
+
+    /** Completes the request if the container gives up on it, e.g. on timeout */
+    static class CompletionListener implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            // nothing to do
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            LOGGER.fine("Timed out writing the response asynchronously");
+            event.getAsyncContext().complete();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            LOGGER.log(Level.FINE, "Failed to write the response asynchronously", event.getThrowable());
+            event.getAsyncContext().complete();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // nothing to do
+        }
+    }
+
+    /** Opens the output used when the response does not fit in the buffer */
+    interface Destination {
+        OutputStream open() throws IOException;
+    }
+
+    /**
+     * Output stream keeping the response in memory, up to a limit. Past the limit the buffered content is moved to the
+     * destination, which receives the rest of the response as well.
+     */
+    static class BufferedResponse extends OutputStream {
+
+        final int limit;
+
+        final Destination destination;
+
+        byte[] buffer = new byte[8192];
+
+        int count;
+
+        OutputStream spilled;
+
+        BufferedResponse(int limit, Destination destination) {
+            this.limit = limit;
+            this.destination = destination;
+        }
+
+        /** Returns true if the response outgrew the buffer, and has been written to the destination */
+        boolean isSpilled() {
+            return spilled != null;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (spilled == null && count + len > limit) {
+                spilled = destination.open();
+                spilled.write(buffer, 0, count);
+                buffer = null;
+            }
+            if (spilled != null) {
+                spilled.write(b, off, len);
+                return;
+            }
+            if (count + len > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.min(limit, Math.max(buffer.length * 2, count + len)));
+            }
+            System.arraycopy(b, off, buffer, count, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (spilled != null) {
+                spilled.flush();
+            }
+        }
+    }
+}
@@ -141,9 +141,21 @@ public class Dispatcher extends AbstractController {
     /** The amount of bytes to be read to determine the proper xml reader in POST request */
     static int XML_LOOKAHEAD = 8192;
 
+    /**
+     * Factory sniffing the root element of XML requests. Looking up the factory implementation is costly, it's
+     * configured once, and creating readers out of a configured factory is thread safe.
+     */
+    private static final XMLInputFactory ROOT_ELEMENT_FACTORY = createRootElementFactory();
+
     /** list of callbacks */
     List<DispatcherCallback> callbacks = Collections.emptyList();
 
+    /** flag to control whether complete responses are written to the client asynchronously */
+    boolean asyncResponseWriting = false;
+
+    /** The largest response, in bytes, buffered in memory to be written asynchronously */
+    int asyncResponseBufferSize = 16 * 1024 * 1024;
+
     /** SOAP namespaces */
     public static final String SOAP_12_NS = "http://www.w3.org/2003/05/soap-envelope";
 
@@ -187,6 +199,33 @@ public boolean isCiteCompliant() {
         return citeCompliant;
     }
 
+    /**
+     * Sets the flag to control whether responses are written to the client asynchronously.
+     *
+     * <p>If set to <code>true</code>, responses up to {@link #setAsyncResponseBufferSize(int)} bytes are buffered, and
+     * once complete, handed to the servlet container for non blocking writing, releasing the request thread while a
+     * slow client receives the data. Larger responses, requests not supporting asynchronous processing, and responses
+     * wrapped by filters (e.g., GZIP compression) are written synchronously through the output strategy as usual.
+     *
+     * @param asyncResponseWriting <code>true</code> to enable asynchronous writing, <code>false</code> to disable it.
+     */
+    public void setAsyncResponseWriting(boolean asyncResponseWriting) {
+        this.asyncResponseWriting = asyncResponseWriting;
+    }
+
+    public boolean isAsyncResponseWriting() {
+        return asyncResponseWriting;
+    }
+
+    /** Sets the largest response, in bytes, buffered in memory to be written asynchronously */
+    public void setAsyncResponseBufferSize(int asyncResponseBufferSize) {
+        this.asyncResponseBufferSize = asyncResponseBufferSize;
+    }
+
+    public int getAsyncResponseBufferSize() {
+        return asyncResponseBufferSize;
+    }
+
     @Override
     protected void initApplicationContext(ApplicationContext context) {
         // load life cycle callbacks
@@ -205,6 +244,28 @@ protected void initApplicationContext(ApplicationContext context) {
                 logger.log(Level.SEVERE, "Invalid XML_LOOKAHEAD value, " + "will use " + XML_LOOKAHEAD + " instead");
             }
         }
+
+        // setup asynchronous response writing
+        String asyncWriting = GeoServerExtensions.getProperty("ASYNC_RESPONSE_WRITING", context);
+        if (asyncWriting != null) {
+            asyncResponseWriting = Boolean.parseBoolean(asyncWriting);
+        }
+        String asyncBufferSize = GeoServerExtensions.getProperty("ASYNC_RESPONSE_BUFFER_SIZE", context);
+        if (asyncBufferSize != null) {
+            int size = -1;
+            try {
+                size = Integer.parseInt(asyncBufferSize);
+            } catch (NumberFormatException e) {
+                // reported below
+            }
+            if (size > 0) {
+                asyncResponseBufferSize = size;
+            } else {
+                logger.log(
+                        Level.SEVERE,
+                        "Invalid ASYNC_RESPONSE_BUFFER_SIZE value, will use " + asyncResponseBufferSize + " instead");
+            }
+        }
     }
 
     protected void preprocessRequest(HttpServletRequest request) throws Exception {
@@ -863,18 +924,8 @@ else if (parameterType.isAssignableFrom(InputStream.class)) {
                     }
 
                     // make sure the versoin actually exists
-                    boolean found = false;
                     Version version = new Version(req.getVersion());
-
-                    for (Service service : RequestUtils.loadServices()) {
-                        if (version.equals(service.getVersion())) {
-                            found = true;
-
-                            break;
-                        }
-                    }
-
-                    if (!found) {
+                    if (!DispatcherLookupTables.get().hasVersion(version)) {
                         throw new ServiceException(
                                 "Invalid version: " + req.getVersion(), "InvalidParameterValue", "version");
                     }
@@ -1081,8 +1132,17 @@ void response(Object result, Request req, Operation opDescriptor) throws Throwab
 
             setHeaders(req, opDescriptor, result, response);
 
-            @SuppressWarnings("PMD.CloseResource") // managed by the output strategy
-            OutputStream output = outputStrategy.getDestination(req.getHttpResponse());
+            // when writing asynchronously, buffer the response, the output strategy is used only if it does not fit
+            AsyncResponseWriter.BufferedResponse buffered = null;
+            OutputStream output;
+            if (asyncResponseWriting && AsyncResponseWriter.canWrite(req.getHttpRequest(), req.getHttpResponse())) {
+                ServiceStrategy strategy = outputStrategy;
+                buffered = new AsyncResponseWriter.BufferedResponse(
+                        asyncResponseBufferSize, () -> strategy.getDestination(req.getHttpResponse()));
+                output = new DispatcherOutputStream(buffered);
+            } else {
+                output = outputStrategy.getDestination(req.getHttpResponse());
+            }
             boolean abortResponse = true;
             try {
                 if (req.isSOAP()) {
@@ -1103,6 +1163,12 @@ void response(Object result, Request req, Operation opDescriptor) throws Throwab
                     endSOAPEnvelope(output);
                 }
 
+                // the response is complete, let the container send it while this thread moves on
+                if (buffered != null && !buffered.isSpilled()) {
+                    AsyncResponseWriter.write(req.getHttpRequest(), req.getHttpResponse(), buffered);
+                    return;
+                }
+
                 // flush the output with detection of client shutting the door in our face
                 try {
                     outputStrategy.flush(req.getHttpResponse());
@@ -1201,7 +1267,6 @@ Response fireResponseDispatchedCallback(Request req, Operation op, Object result
 
     Service findService(String id, String ver, String namespace) throws ServiceException {
         Version version = (ver != null) ? new Version(ver) : null;
-        Collection<Service> services = RequestUtils.loadServices();
 
         // the id is actually the pathinfo, in case workspace specific services
         // are active we want to skip the workspace part in the path and go directly to the
@@ -1213,7 +1278,7 @@ Service findService(String id, String ver, String namespace) throws ServiceExcep
         // first just match on service,request
         List<Service> matches = new ArrayList<>();
 
-        for (Service sBean : services) {
+        for (Service sBean : DispatcherLookupTables.get().getServices(id)) {
             if (sBean.getId().equalsIgnoreCase(id)) {
                 matches.add(sBean);
             }
@@ -1295,8 +1360,11 @@ public static Collection<KvpRequestReader> loadKvpRequestReaders() {
     }
 
     public static KvpRequestReader findKvpRequestReader(Class<?> type) {
-        Collection<KvpRequestReader> kvpReaders = loadKvpRequestReaders();
+        DispatcherLookupTables tables = DispatcherLookupTables.get();
+        return tables.getKvpRequestReader(type, t -> findKvpRequestReader(tables.kvpReaders, t));
+    }
 
+    static KvpRequestReader findKvpRequestReader(Collection<KvpRequestReader> kvpReaders, Class<?> type) {
         List<KvpRequestReader> matches = new ArrayList<>();
 
         for (KvpRequestReader kvpReader : kvpReaders) {
@@ -1358,12 +1426,12 @@ static Collection<XmlRequestReader> loadXmlReaders() {
      * @return An {@link XmlRequestReader} capable of reading the request body
      */
     public static XmlRequestReader findXmlReader(String namespace, String element, String serviceId, String ver) {
-        Collection<XmlRequestReader> xmlReaders = loadXmlReaders();
+        DispatcherLookupTables tables = DispatcherLookupTables.get();
 
         // first just match on namespace, element
         List<XmlRequestReader> matches = new ArrayList<>();
 
-        for (XmlRequestReader xmlReader : xmlReaders) {
+        for (XmlRequestReader xmlReader : tables.getXmlReaders(namespace, element)) {
             QName xmlElement = xmlReader.getElement();
 
             if (xmlElement.getLocalPart().equalsIgnoreCase(element)) {
@@ -1380,7 +1448,7 @@ public static XmlRequestReader findXmlReader(String namespace, String element, S
                 String msg = "No namespace specified in request, searching for " + " xml reader by element name only";
                 logger.info(msg);
 
-                for (XmlRequestReader xmlReader : xmlReaders) {
+                for (XmlRequestReader xmlReader : tables.getXmlReadersByLocalName(element)) {
                     if (xmlReader.getElement().getLocalPart().equals(element)) {
                         matches.add(xmlReader);
                     }
@@ -1782,13 +1850,17 @@ private static XMLStreamReader createParserForRootElement(Request req)
             input.reset();
         }
         // create stream parser
+        XMLStreamReader parser = ROOT_ELEMENT_FACTORY.createXMLStreamReader(new CharArrayReader(buff));
+        return parser;
+    }
+
+    private static XMLInputFactory createRootElementFactory() {
         XMLInputFactory factory = XMLInputFactory.newFactory();
         // disable DTDs
         factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
         // disable external entities
         factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
-        XMLStreamReader parser = factory.createXMLStreamReader(new CharArrayReader(buff));
-        return parser;
+        return factory;
     }
 
     void exception(Throwable t, Service service, Request request) {
@@ -0,0 +1,131 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.ows;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import javax.xml.namespace.QName;
+import org.geoserver.ows.util.RequestUtils;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geoserver.platform.Service;
+import org.geotools.util.Version;
+
+/**
+ * Indexes of the {@link Service} descriptors and request readers used by the {@link Dispatcher}, so that the
+ * candidates for a request are found with a hash lookup, instead of scanning all the registered extensions.
+ *
+ * <p>The tables are immutable, and built out of the extensions registered when first used. They are rebuilt as soon as
+ * {@link GeoServerExtensions#getCacheGeneration()} changes, that is, after an application context refresh or when
+ * extensions are registered. The version and namespace based choice among the candidates sharing a key is left to the
+ * dispatcher, the candidate lists are short, and keying on client supplied versions would let the tables grow without
+ * bounds.
+ */
+final class DispatcherLookupTables {
+
+    private static volatile DispatcherLookupTables current;
+
+    /** The extensions generation the tables have been built against */
+    final int generation;
+
+    /** Services by upper case id */
+    final Map<String, List<Service>> servicesById;
+
+    /** The versions of all the services */
+    final Set<Version> versions;
+
+    final Collection<KvpRequestReader> kvpReaders;
+
+    /** The best KVP reader for each request type looked up so far, empty if there is none */
+    final Map<Class<?>, Optional<KvpRequestReader>> kvpReadersByType = new ConcurrentHashMap<>();
+
+    /** XML readers by lower case element namespace and local name */
+    final Map<String, List<XmlRequestReader>> xmlReadersByElement;
+
+    /** XML readers by local name */
+    final Map<String, List<XmlRequestReader>> xmlReadersByLocalName;
+
+    private DispatcherLookupTables(int generation) {
+        this.generation = generation;
+        Collection<Service> services = RequestUtils.loadServices();
+        Collection<XmlRequestReader> xmlReaders = Dispatcher.loadXmlReaders();
+        this.kvpReaders = Dispatcher.loadKvpRequestReaders();
+
+        Set<Version> versions = new HashSet<>();
+        for (Service service : services) {
+            versions.add(service.getVersion());
+        }
+        this.versions = Collections.unmodifiableSet(versions);
+        this.servicesById = index(services, s -> s.getId().toUpperCase(Locale.ROOT));
+        this.xmlReadersByElement = index(xmlReaders, r -> elementKey(r.getElement()));
+        this.xmlReadersByLocalName = index(xmlReaders, r -> r.getElement().getLocalPart());
+    }
+
+    /** Returns the tables for the extensions currently registered, building them if needed */
+    static DispatcherLookupTables get() {
+        // read the generation first, a change while building will trigger a new build on the next call
+        int generation = GeoServerExtensions.getCacheGeneration();
+        DispatcherLookupTables tables = current;
+        if (tables == null || tables.generation != generation) {
+            tables = new DispatcherLookupTables(generation);
+            current = tables;
+        }
+        return tables;
+    }
+
+    /** Returns the services with the given id, compared ignoring case */
+    List<Service> getServices(String id) {
+        return servicesById.getOrDefault(id.toUpperCase(Locale.ROOT), Collections.emptyList());
+    }
+
+    /** Returns true if at least one service has the given version */
+    boolean hasVersion(Version version) {
+        return versions.contains(version);
+    }
+
+    /** Returns the KVP reader for the given request type, computing it the first time */
+    KvpRequestReader getKvpRequestReader(Class<?> type, Function<Class<?>, KvpRequestReader> lookup) {
+        return kvpReadersByType.computeIfAbsent(type, t -> Optional.ofNullable(lookup.apply(t))).orElse(null);
+    }
+
+    /** Returns the XML readers of the given element, namespace and local name compared ignoring case */
+    List<XmlRequestReader> getXmlReaders(String namespace, String element) {
+        if (namespace == null || element == null) {
+            return Collections.emptyList();
+        }
+        return xmlReadersByElement.getOrDefault(elementKey(new QName(namespace, element)), Collections.emptyList());
+    }
+
+    /** Returns the XML readers whose element has the given local name, regardless of the namespace */
+    List<XmlRequestReader> getXmlReadersByLocalName(String element) {
+        if (element == null) {
+            return Collections.emptyList();
+        }
+        return xmlReadersByLocalName.getOrDefault(element, Collections.emptyList());
+    }
+
+    private static String elementKey(QName element) {
+        return ("{" + element.getNamespaceURI() + "}" + element.getLocalPart()).toLowerCase(Locale.ROOT);
+    }
+
+    /** Groups the objects by key, keeping the registration order within each group */
+    private static <T> Map<String, List<T>> index(Collection<T> objects, Function<T, String> key) {
+        Map<String, List<T>> index = new HashMap<>();
+        for (T object : objects) {
+            index.computeIfAbsent(key.apply(object), k -> new ArrayList<>(1)).add(object);
+        }
+        index.replaceAll((k, v) -> Collections.unmodifiableList(v));
+        return Collections.unmodifiableMap(index);
+    }
+}
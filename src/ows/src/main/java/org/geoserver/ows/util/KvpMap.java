@@ -26,6 +26,11 @@ public KvpMap() {
 
     public KvpMap(Map<K, V> other) {
         this();
+        if (other instanceof KvpMap) {
+            // keys are upper case already, copy them as is
+            super.putAll(other);
+            return;
+        }
         for (Entry<K, V> entry : other.entrySet()) {
             put(entry.getKey(), entry.getValue());
         }
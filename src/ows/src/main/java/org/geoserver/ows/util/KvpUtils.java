@@ -12,6 +12,7 @@
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -415,13 +416,25 @@ public static List<Throwable> parse(Map<String, Object> kvp) {
 
         purgeParsers(parsers, service, version, request);
 
+        // group the remaining parsers by key once, rather than scanning all of them for each key
+        Map<String, List<KvpParser>> parsersByKey = new HashMap<>();
+        for (KvpParser parser : parsers) {
+            if (parser.getKey() != null) {
+                parsersByKey.computeIfAbsent(parser.getKey().toUpperCase(), k -> new ArrayList<>(1)).add(parser);
+            }
+        }
+
         // parser the kvp's
         ArrayList<Throwable> errors = new ArrayList<>();
         for (Map.Entry<String, Object> entry : kvp.entrySet()) {
             String key = entry.getKey();
 
             // find the parser for this key value pair
-            KvpParser parser = findParser(key, service, request, version, parsers);
+            KvpParser parser = null;
+            List<KvpParser> candidates = parsersByKey.get(key.toUpperCase());
+            if (candidates != null) {
+                parser = findParser(key, service, request, version, candidates);
+            }
 
             // parse the value
             Object parsed = null;
@@ -153,6 +153,26 @@ public static Reader getCharsetAwareReader(InputStream istream, EncodingInfo enc
             }
         }
 
+        /*
+         * Most requests are UTF-8 without BOM: the XML declaration is plain
+         * ASCII then, sniff it straight from the bytes and create a single
+         * reader for the declared charset, instead of decoding the
+         * declaration with a reader that might be thrown away.
+         */
+        if (ENCODING.equals("UTF-8") && !hasBOM) {
+            String declEncoding = readXmlEncoding(stream::read);
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.fine("Charset detection phase 2. Charset in XML declaration " + "is `" + declEncoding + "`.");
+            }
+            stream.reset();
+            stream.setChunkedMode(true);
+            if ((null != declEncoding) && !declEncoding.equals(ENCODING) && !declEncoding.equals("ISO-10646-UCS-2")) {
+                encInfo.setEncoding(declEncoding);
+                return new InputStreamReader(stream, declEncoding);
+            }
+            return new InputStreamReader(stream, ENCODING);
+        }
+
         Reader reader = null;
 
         /*
@@ -426,6 +446,15 @@ public static EncodingInfo getEncodingName(byte[] b4, int count) {
      * @return The encoding specified in the xml header read from the supplied character stream.
      */
     protected static String getXmlEncoding(Reader reader) {
+        return readXmlEncoding(reader::read);
+    }
+
+    /** Source of the characters of the XML declaration, either a reader or, for ASCII compatible charsets, bytes */
+    private interface CharSource {
+        int read() throws IOException;
+    }
+
+    private static String readXmlEncoding(CharSource reader) {
         try {
             StringWriter sw = new StringWriter(MAX_XMLDECL_SIZE);
 
@@ -484,5 +513,5 @@ protected static String getXmlEncoding(Reader reader) {
 
             return null;
         }
-    } // END getXmlEncoding(Reader) : String
+    } // END readXmlEncoding(CharSource) : String
 } // END class XmlCharsetDetector
@@ -0,0 +1,136 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.ows;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponseWrapper;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class AsyncResponseWriterTest {
+
+    @Test
+    public void testCanWrite() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        request.setAsyncSupported(false);
+        assertFalse(AsyncResponseWriter.canWrite(request, response));
+
+        request.setAsyncSupported(true);
+        assertTrue(AsyncResponseWriter.canWrite(request, response));
+
+        response.setCommitted(true);
+        assertFalse(AsyncResponseWriter.canWrite(request, response));
+    }
+
+    @Test
+    public void testBuffered() throws Exception {
+        AsyncResponseWriter.BufferedResponse buffered = new AsyncResponseWriter.BufferedResponse(20000, () -> {
+            throw new AssertionError("Should not have been opened");
+        });
+        byte[] data = data(15000);
+        buffered.write(data, 0, 10000);
+        buffered.write(data, 10000, 5000);
+        assertFalse(buffered.isSpilled());
+        assertEquals(15000, buffered.count);
+        assertArrayEquals(data, Arrays.copyOf(buffered.buffer, buffered.count));
+    }
+
+    @Test
+    public void testSpilled() throws Exception {
+        ByteArrayOutputStream destination = new ByteArrayOutputStream();
+        AsyncResponseWriter.BufferedResponse buffered =
+                new AsyncResponseWriter.BufferedResponse(100, () -> destination);
+        byte[] data = data(150);
+        buffered.write(data, 0, 80);
+        assertFalse(buffered.isSpilled());
+        buffered.write(data, 80, 70);
+        assertTrue(buffered.isSpilled());
+        assertArrayEquals(data, destination.toByteArray());
+    }
+
+    @Test
+    public void testWrite() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAsyncSupported(true);
+        NonBlockingOutputStream output = new NonBlockingOutputStream();
+        HttpServletResponseWrapper response = new HttpServletResponseWrapper(new MockHttpServletResponse()) {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return output;
+            }
+        };
+
+        byte[] data = data(AsyncResponseWriter.CHUNK_SIZE * 2 + 10);
+        AsyncResponseWriter.BufferedResponse buffered =
+                new AsyncResponseWriter.BufferedResponse(data.length, ByteArrayOutputStream::new);
+        buffered.write(data);
+        AsyncResponseWriter.write(request, response, buffered);
+        assertTrue(request.isAsyncStarted());
+
+        // the client accepts one chunk at a time
+        output.listener.onWritePossible();
+        assertEquals(AsyncResponseWriter.CHUNK_SIZE, output.written.size());
+        assertTrue(request.isAsyncStarted());
+        output.ready = true;
+        output.listener.onWritePossible();
+        assertEquals(AsyncResponseWriter.CHUNK_SIZE * 2, output.written.size());
+        output.ready = true;
+        output.listener.onWritePossible();
+        output.ready = true;
+        output.listener.onWritePossible();
+        assertArrayEquals(data, output.written.toByteArray());
+        assertFalse(request.isAsyncStarted());
+    }
+
+    private static byte[] data(int size) {
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++) {
+            data[i] = (byte) i;
+        }
+        return data;
+    }
+
+    /** Output stream accepting a single write each time the client is ready */
+    static class NonBlockingOutputStream extends ServletOutputStream {
+
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+
+        WriteListener listener;
+
+        boolean ready = true;
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void write(int b) {
+            written.write(b);
+            ready = false;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            written.write(b, off, len);
+            ready = false;
+        }
+    }
+}
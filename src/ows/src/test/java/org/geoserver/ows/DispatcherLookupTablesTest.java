@@ -0,0 +1,71 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.ows;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URL;
+import org.geoserver.platform.Service;
+import org.geotools.util.Version;
+import org.junit.Test;
+import org.springframework.context.support.FileSystemXmlApplicationContext;
+
+public class DispatcherLookupTablesTest {
+
+    @Test
+    public void testLookups() throws Exception {
+        URL url = getClass().getResource("applicationContextNamespace.xml");
+        try (FileSystemXmlApplicationContext context = new FileSystemXmlApplicationContext(url.toString())) {
+            DispatcherLookupTables tables = DispatcherLookupTables.get();
+            assertSame(tables, DispatcherLookupTables.get());
+
+            assertEquals(2, tables.getServices("HeLLo").size());
+            assertTrue(tables.getServices("goodbye").isEmpty());
+            assertTrue(tables.hasVersion(new Version("2.0.0")));
+            assertFalse(tables.hasVersion(new Version("3.0.0")));
+
+            assertEquals(1, tables.getXmlReaders("http://HELLO.org/v2", "hello").size());
+            assertTrue(tables.getXmlReaders(null, "Hello").isEmpty());
+            assertEquals(2, tables.getXmlReadersByLocalName("Hello").size());
+            assertTrue(tables.getXmlReadersByLocalName("hello").isEmpty());
+
+            // same outcome as the full scans
+            Dispatcher dispatcher = (Dispatcher) context.getBean("dispatcher");
+            Service service = dispatcher.findService("hello", "2.0.0", null);
+            assertEquals(new Version("2.0.0"), service.getVersion());
+            service = dispatcher.findService("hello", null, "http://hello.org");
+            assertEquals(new Version("1.0.0"), service.getVersion());
+            assertNull(dispatcher.findService("goodbye", null, null));
+
+            XmlRequestReader reader = Dispatcher.findXmlReader("http://hello.org", "Hello", "hello", null);
+            assertEquals(new Version("1.0.0"), reader.getVersion());
+
+            KvpRequestReader kvpReader = Dispatcher.findKvpRequestReader(Message.class);
+            assertSame(context.getBean("messageKvpReader"), kvpReader);
+            assertSame(kvpReader, Dispatcher.findKvpRequestReader(Message.class));
+            assertNull(Dispatcher.findKvpRequestReader(String.class));
+        }
+    }
+
+    @Test
+    public void testRebuiltOnRefresh() throws Exception {
+        URL url = getClass().getResource("applicationContext.xml");
+        try (FileSystemXmlApplicationContext context = new FileSystemXmlApplicationContext(url.toString())) {
+            DispatcherLookupTables tables = DispatcherLookupTables.get();
+            Service service = tables.getServices("hello").get(0);
+
+            context.refresh();
+            DispatcherLookupTables refreshed = DispatcherLookupTables.get();
+            assertNotSame(tables, refreshed);
+            assertNotSame(service, refreshed.getServices("hello").get(0));
+            assertSame(context.getBean("helloWorldService"), refreshed.getServices("hello").get(0));
+        }
+    }
+}
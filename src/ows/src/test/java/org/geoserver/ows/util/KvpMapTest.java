@@ -6,6 +6,8 @@
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.HashMap;
+import java.util.Map;
 import org.junit.Test;
 
 public class KvpMapTest {
@@ -20,4 +22,18 @@ public void testCaseInsensitive() {
         assertEquals("bar", map.getOrDefault("foo", null));
         assertEquals("bar", map.getOrDefault("FOO", null));
     }
+
+    @Test
+    public void testCopy() {
+        Map<String, String> source = new HashMap<>();
+        source.put("foo", "bar");
+        KvpMap<String, String> map = new KvpMap<>(source);
+        assertEquals("bar", map.get("Foo"));
+
+        // copying a kvp map keeps it case insensitive
+        KvpMap<String, String> copy = new KvpMap<>(map);
+        assertEquals("bar", copy.get("foo"));
+        assertEquals("bar", copy.get("FOO"));
+        assertEquals(1, copy.size());
+    }
 }
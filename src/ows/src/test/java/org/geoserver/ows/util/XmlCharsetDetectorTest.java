@@ -0,0 +1,56 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.ows.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+public class XmlCharsetDetectorTest {
+
+    static final String BODY =
+            "<GetFeature service=\"WFS\"><Query typeName=\"\u00e0\u00e8\u00ec\u00f2\u00f9\"/></GetFeature>";
+
+    @Test
+    public void testUTF8WithoutDeclaration() throws Exception {
+        assertRead(BODY, StandardCharsets.UTF_8, "UTF-8");
+    }
+
+    @Test
+    public void testUTF8Declaration() throws Exception {
+        assertRead("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + BODY, StandardCharsets.UTF_8, "UTF-8");
+    }
+
+    @Test
+    public void testLatin1Declaration() throws Exception {
+        assertRead(
+                "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>" + BODY, StandardCharsets.ISO_8859_1, "ISO-8859-1");
+    }
+
+    @Test
+    public void testUTF16() throws Exception {
+        assertRead("\ufeff<?xml version=\"1.0\" encoding=\"UTF-16\"?>" + BODY, StandardCharsets.UTF_16BE, "UTF-16");
+    }
+
+    @Test
+    public void testEmpty() throws Exception {
+        assertRead("", StandardCharsets.UTF_8, "UTF-8");
+    }
+
+    private void assertRead(String document, Charset charset, String expectedEncoding) throws IOException {
+        EncodingInfo info = new EncodingInfo();
+        Reader reader =
+                XmlCharsetDetector.getCharsetAwareReader(new ByteArrayInputStream(document.getBytes(charset)), info);
+        String expected = document.startsWith("\ufeff") ? document.substring(1) : document;
+        assertEquals(expected, IOUtils.toString(reader));
+        assertEquals(expectedEncoding, info.getEncoding());
+    }
+}
@@ -12,6 +12,7 @@
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.servlet.ServletContext;
@@ -71,6 +72,9 @@ public class GeoServerExtensions implements ApplicationContextAware, Application
     /** SPI lookups are very expensive, we need to cache them */
     static SoftValueHashMap<Class<?>, List<?>> spiCache = new SoftValueHashMap<>(40);
 
+    /** Incremented every time the bean caches are dropped, see {@link #getCacheGeneration()} */
+    static final AtomicInteger cacheGeneration = new AtomicInteger();
+
     /**
      * Flag to identify use of spring context via {@link #setApplicationContext(ApplicationContext)} an enable
      * additional consistency checks for missing extensions.
@@ -105,6 +109,18 @@ public void setApplicationContext(ApplicationContext context) throws BeansExcept
         extensionsCache.clear();
         singletonBeanCache.clear();
         propertyCache.clear();
+        cacheGeneration.incrementAndGet();
+    }
+
+    /**
+     * Returns a counter that changes every time the extensions cached by this class are dropped, that is, when the
+     * application context is set or refreshed (or when extensions are registered by hand during testing).
+     *
+     * <p>Code building its own lookup structures out of extensions can record the value at build time, and rebuild them
+     * when it changes.
+     */
+    public static int getCacheGeneration() {
+        return cacheGeneration.get();
     }
 
     /**
@@ -381,6 +397,7 @@ public void onApplicationEvent(ApplicationEvent event) {
         if (event instanceof ContextRefreshedEvent) {
             extensionsCache.clear();
             singletonBeanCache.clear();
+            cacheGeneration.incrementAndGet();
         }
     }
 
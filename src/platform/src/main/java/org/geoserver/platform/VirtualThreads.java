@@ -0,0 +1,91 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.platform;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.geotools.util.logging.Logging;
+
+/**
+ * Access to the virtual threads of Java 21 and later, for the thread pools GeoServer manages itself.
+ *
+ * <p>Virtual threads are used when the {@link #VIRTUAL_THREADS} property is set to true and the runtime supports them,
+ * they are looked up by reflection as GeoServer still builds against Java 11. Tasks doing blocking I/O, such as JDBC,
+ * file or remote service access, then park instead of holding a platform thread, and concurrency has to be limited by
+ * other means than the pool size (e.g., the semaphores of the control-flow module).
+ *
+ * <p>The threads serving the requests belong to the servlet container, whose own configuration decides whether the
+ * dispatcher and the REST controllers run on virtual threads. Code running on them should not rely on platform thread
+ * identity: thread locals need to be cleaned up at the end of each request, and handed over to the worker threads
+ * through the <code>ThreadLocalTransfer</code> extensions of the main module.
+ */
+public class VirtualThreads {
+
+    static final Logger LOGGER = Logging.getLogger(VirtualThreads.class);
+
+    /** Property enabling the virtual threads, false by default */
+    public static final String VIRTUAL_THREADS = "GEOSERVER_VIRTUAL_THREADS";
+
+    private static final Method OF_VIRTUAL;
+
+    private static final Method NAME;
+
+    private static final Method FACTORY;
+
+    static {
+        Method ofVirtual = null;
+        Method name = null;
+        Method factory = null;
+        try {
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            name = builder.getMethod("name", String.class, long.class);
+            factory = builder.getMethod("factory");
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            // running on a Java version without virtual threads
+        }
+        OF_VIRTUAL = ofVirtual;
+        NAME = name;
+        FACTORY = factory;
+    }
+
+    private VirtualThreads() {}
+
+    /** Returns true if the runtime supports virtual threads */
+    public static boolean isAvailable() {
+        return OF_VIRTUAL != null;
+    }
+
+    /** Returns true if virtual threads are available and enabled with the {@link #VIRTUAL_THREADS} property */
+    public static boolean isEnabled() {
+        if (!Boolean.parseBoolean(GeoServerExtensions.getProperty(VIRTUAL_THREADS))) {
+            return false;
+        }
+        if (!isAvailable()) {
+            LOGGER.warning(VIRTUAL_THREADS + " is set, but virtual threads require Java 21 or later, ignoring it");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Returns a factory of virtual threads named after the prefix and a counter, or null if virtual threads are not
+     * available.
+     */
+    public static ThreadFactory factory(String prefix) {
+        if (!isAvailable()) {
+            return null;
+        }
+        try {
+            Object builder = NAME.invoke(OF_VIRTUAL.invoke(null), prefix, 0L);
+            return (ThreadFactory) FACTORY.invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            LOGGER.log(Level.WARNING, "Failed to create a virtual thread factory", e);
+            return null;
+        }
+    }
+}
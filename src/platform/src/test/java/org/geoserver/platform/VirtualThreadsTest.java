@@ -0,0 +1,52 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.platform;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.After;
+import org.junit.Test;
+
+public class VirtualThreadsTest {
+
+    @After
+    public void clearProperty() {
+        System.clearProperty(VirtualThreads.VIRTUAL_THREADS);
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        assertFalse(VirtualThreads.isEnabled());
+    }
+
+    @Test
+    public void testEnabled() {
+        System.setProperty(VirtualThreads.VIRTUAL_THREADS, "true");
+        assertEquals(VirtualThreads.isAvailable(), VirtualThreads.isEnabled());
+    }
+
+    @Test
+    public void testFactory() throws Exception {
+        ThreadFactory factory = VirtualThreads.factory("test-");
+        if (!VirtualThreads.isAvailable()) {
+            assertNull(factory);
+            return;
+        }
+        assertNotNull(factory);
+        AtomicBoolean ran = new AtomicBoolean();
+        Thread thread = factory.newThread(() -> ran.set(true));
+        assertEquals("test-0", thread.getName());
+        assertTrue(thread.isDaemon());
+        thread.start();
+        thread.join();
+        assertTrue(ran.get());
+    }
+}
@@ -0,0 +1,53 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.rest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.geoserver.catalog.Catalog;
+import org.geoserver.catalog.ResourceCacheStatistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/** Reports the hit, miss and eviction counts of the resource pool caches */
+@RestController
+@RequestMapping(
+        path = RestBaseController.ROOT_PATH + "/about/resource-pool",
+        produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE})
+public class ResourcePoolController extends RestBaseController {
+
+    private final Catalog catalog;
+
+    @Autowired
+    public ResourcePoolController(@Qualifier("catalog") Catalog catalog) {
+        this.catalog = catalog;
+    }
+
+    @GetMapping
+    public Map<String, List<Map<String, Object>>> cachesGet() {
+        List<Map<String, Object>> caches = new ArrayList<>();
+        for (ResourceCacheStatistics stats : catalog.getResourcePool().getCacheStatistics()) {
+            Map<String, Object> cache = new LinkedHashMap<>();
+            cache.put("name", stats.getName());
+            cache.put("size", stats.getSize());
+            cache.put("maximumSize", stats.getMaximumSize());
+            cache.put("hitCount", stats.getHitCount());
+            cache.put("missCount", stats.getMissCount());
+            cache.put("evictionCount", stats.getEvictionCount());
+            caches.add(cache);
+        }
+
+        Map<String, List<Map<String, Object>>> result = new HashMap<>();
+        result.put("caches", caches);
+        return result;
+    }
+}
@@ -12,10 +12,13 @@
 import java.io.Serializable;
 import java.net.URI;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -31,6 +34,7 @@
 import org.geoserver.catalog.LayerInfo;
 import org.geoserver.catalog.NamespaceInfo;
 import org.geoserver.catalog.ResourcePool;
+import org.geoserver.catalog.impl.CatalogBatch;
 import org.geoserver.platform.GeoServerExtensions;
 import org.geoserver.platform.GeoServerResourceLoader;
 import org.geoserver.platform.resource.Paths;
@@ -429,6 +433,11 @@ public void dataStorePut(
                 featureTypesByNativeName.put(ftInfo.getNativeName(), ftInfo);
             }
 
+            // configure all the feature types in one go, validating them up front and notifying the
+            // listeners (configuration persistence, caches) once
+            CatalogBatch batch = new CatalogBatch(catalog);
+            List<LayerInfo> layers = new ArrayList<>();
+            Set<String> batchNames = new HashSet<>();
             List<Name> featureTypeNames = source.getNames();
             for (int i = 0; i < featureTypeNames.size(); i++) {
 
@@ -458,7 +467,7 @@ public void dataStorePut(
                     // do a check for a type already named this name in the catalog, if it is
                     // already
                     // there try to rename it
-                    if (catalog.getFeatureTypeByName(namespace, ftinfo.getName()) != null) {
+                    if (isFeatureTypeNameTaken(namespace, ftinfo.getName(), batchNames)) {
                         LOGGER.warning(String.format(
                                 "Feature type %s already exists in namespace %s, " + "attempting to rename",
                                 ftinfo.getName(), namespace.getPrefix()));
@@ -467,34 +476,27 @@ public void dataStorePut(
                         do {
                             ftinfo.setName(originalName + x);
                             x++;
-                        } while (catalog.getFeatureTypeByName(namespace, ftinfo.getName()) != null);
+                        } while (isFeatureTypeNameTaken(namespace, ftinfo.getName(), batchNames));
                     }
-                    catalog.validate(ftinfo, true).throwIfInvalid();
-                    catalog.add(ftinfo);
+                    batchNames.add(ftinfo.getName());
+                    batch.add(ftinfo);
 
                     // add a layer for the feature type as well
                     LayerInfo layer = builder.buildLayer(ftinfo);
+                    batch.add(layer);
+                    layers.add(layer);
 
-                    boolean valid = true;
-                    try {
-                        if (!catalog.validate(layer, true).isValid()) {
-                            valid = false;
-                        }
-                    } catch (Exception e) {
-                        valid = false;
-                    }
-
-                    layer.setEnabled(valid);
-                    catalog.add(layer);
-
-                    LOGGER.info("Added feature type " + ftinfo.getName());
+                    LOGGER.info("Adding feature type " + ftinfo.getName());
 
                 } else {
-                    LOGGER.info("Updated feature type " + ftinfo.getName());
-                    catalog.validate(ftinfo, false).throwIfInvalid();
-                    catalog.save(ftinfo);
+                    LOGGER.info("Updating feature type " + ftinfo.getName());
+                    batch.save(ftinfo);
                 }
+            }
+            batch.commit();
+            disableInvalidLayers(layers);
 
+            if (!featureTypeNames.isEmpty()) {
                 response.setStatus(HttpStatus.CREATED.value());
             }
         } catch (Exception e) {
@@ -525,6 +527,30 @@ public void dataStorePut(
         }
     }
 
+    /** Returns true if the name is used by a feature type in the catalog, or by one about to be added */
+    private boolean isFeatureTypeNameTaken(NamespaceInfo namespace, String name, Set<String> batchNames) {
+        return batchNames.contains(name) || catalog.getFeatureTypeByName(namespace, name) != null;
+    }
+
+    /** Disables the new layers failing validation, which can be checked only once their resources are in */
+    private void disableInvalidLayers(List<LayerInfo> layers) {
+        for (LayerInfo layer : layers) {
+            boolean valid = true;
+            try {
+                if (!catalog.validate(layer, true).isValid()) {
+                    valid = false;
+                }
+            } catch (Exception e) {
+                valid = false;
+            }
+            if (!valid) {
+                LayerInfo saved = catalog.getLayer(layer.getId());
+                saved.setEnabled(false);
+                catalog.save(saved);
+            }
+        }
+    }
+
     /**
      * Does the file upload based on the specified method.
      *
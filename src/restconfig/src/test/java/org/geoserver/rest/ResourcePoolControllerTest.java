@@ -0,0 +1,41 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.rest;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import net.sf.json.JSON;
+import net.sf.json.JSONArray;
+import net.sf.json.JSONObject;
+import org.geoserver.catalog.FeatureTypeInfo;
+import org.geoserver.data.test.MockData;
+import org.geoserver.test.GeoServerSystemTestSupport;
+import org.junit.Test;
+
+public class ResourcePoolControllerTest extends GeoServerSystemTestSupport {
+
+    @Test
+    public void testGetAsJSON() throws Exception {
+        // force a feature type in the cache, and a hit on it
+        FeatureTypeInfo ft = getCatalog().getFeatureTypeByName(getLayerId(MockData.BUILDINGS));
+        ft.getFeatureType();
+        ft.getFeatureType();
+
+        JSON json = getAsJSON(RestBaseController.ROOT_PATH + "/about/resource-pool.json");
+        assertTrue(json instanceof JSONObject);
+        JSONArray caches = ((JSONObject) json).getJSONArray("caches");
+        JSONObject featureTypes = null;
+        for (Object cache : caches) {
+            if ("featureType".equals(((JSONObject) cache).get("name"))) {
+                featureTypes = (JSONObject) cache;
+            }
+        }
+        assertNotNull(featureTypes);
+        assertTrue(featureTypes.getLong("size") > 0);
+        assertTrue(featureTypes.getLong("hitCount") > 0);
+        assertTrue(featureTypes.getLong("maximumSize") >= featureTypes.getLong("size"));
+    }
+}
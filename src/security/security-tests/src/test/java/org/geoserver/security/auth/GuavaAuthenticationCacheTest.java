@@ -7,8 +7,12 @@
 
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.awaitility.Awaitility.await;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 
 import org.junit.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 
 /** Unit tests for Guava based AuthenticationCache implementation. */
 public class GuavaAuthenticationCacheTest extends BaseAuthenticationCacheTest {
@@ -26,4 +30,39 @@ public void testCleanUp() throws InterruptedException {
         putAuthenticationInCache();
         await().atMost(TIME_CLEANUP + 1, SECONDS).until(() -> ((GuavaAuthenticationCacheImpl) cache).isEmpty());
     }
+
+    @Test
+    public void testStatistics() {
+        GuavaAuthenticationCacheImpl guava = (GuavaAuthenticationCacheImpl) cache;
+        assertEquals(1.0, guava.getHitRatio(), 0d);
+
+        putAuthenticationInCache();
+        assertNotNull(cache.get(SAMPLE_FILTER, SAMPLE_CACHE_KEY));
+        assertNotNull(cache.get(SAMPLE_FILTER, SAMPLE_CACHE_KEY));
+        assertNotNull(cache.get(SAMPLE_FILTER, SAMPLE_CACHE_KEY));
+        assertNull(cache.get(SAMPLE_FILTER, OTHER_CACHE_KEY));
+
+        assertEquals(3, guava.getHitCount());
+        assertEquals(1, guava.getMissCount());
+        assertEquals(0, guava.getExpiredCount());
+        assertEquals(0.75, guava.getHitRatio(), 0d);
+    }
+
+    @Test
+    public void testEntryTimesOverrideDefaults() throws InterruptedException {
+        // a filter asking for longer times than the cache defaults gets them
+        cache.put(
+                SAMPLE_FILTER,
+                SAMPLE_CACHE_KEY,
+                new UsernamePasswordAuthenticationToken("user", "password"),
+                TIME_LIVE * 10,
+                TIME_LIVE * 10);
+        Thread.sleep((TIME_LIVE + 1) * 1000);
+        assertNotNull(cache.get(SAMPLE_FILTER, SAMPLE_CACHE_KEY));
+
+        // a short lived one expires on its own schedule
+        cache.put(SAMPLE_FILTER, OTHER_CACHE_KEY, new UsernamePasswordAuthenticationToken("user", "password"), 1, 1);
+        Thread.sleep(1500);
+        assertNull(cache.get(SAMPLE_FILTER, OTHER_CACHE_KEY));
+    }
 }
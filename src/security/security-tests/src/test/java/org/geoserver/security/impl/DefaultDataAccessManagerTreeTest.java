@@ -34,7 +34,7 @@ public void setupCatalog() {
     private SecureTreeNode buildTree(String propertyFile) throws Exception {
         Properties props = new Properties();
         props.load(getClass().getResourceAsStream(propertyFile));
-        return new DefaultResourceAccessManager(new MemoryDataAccessRuleDAO(catalog, props), catalog).root;
+        return new DefaultResourceAccessManager(new MemoryDataAccessRuleDAO(catalog, props), catalog).getRoot();
     }
 
     @Test
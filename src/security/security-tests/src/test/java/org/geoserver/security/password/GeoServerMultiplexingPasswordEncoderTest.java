@@ -4,6 +4,9 @@
  */
 package org.geoserver.security.password;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import org.geoserver.test.GeoServerMockTestSupport;
@@ -20,4 +23,48 @@ public void testEncode() {
             fail("Multiplexing encoder should be capabile of encoding");
         }
     }
+
+    @Test
+    public void testLookupByPrefix() {
+        GeoServerMultiplexingPasswordEncoder pwe = new GeoServerMultiplexingPasswordEncoder(getSecurityManager());
+        assertEquals(PasswordEncodingType.DIGEST, pwe.lookupEncoderForEncodedPassword("digest1:abc").getEncodingType());
+        assertEquals(PasswordEncodingType.PLAIN, pwe.lookupEncoderForEncodedPassword("plain:abc").getEncodingType());
+        try {
+            pwe.lookupEncoderForEncodedPassword("unknown:abc");
+            fail("No encoder should be found");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testVerificationCache() {
+        GeoServerMultiplexingPasswordEncoder pwe = new GeoServerMultiplexingPasswordEncoder(getSecurityManager());
+        String enc = getDigestPasswordEncoder().encodePassword("geoserver", null);
+
+        // failures are not remembered
+        assertFalse(pwe.isPasswordValid(enc, "wrong", null));
+        assertEquals(0, pwe.verified.size());
+
+        assertTrue(pwe.isPasswordValid(enc, "geoserver", null));
+        assertEquals(1, pwe.verified.size());
+        // same credentials, as a string or a char array
+        assertTrue(pwe.isPasswordValid(enc, "geoserver".toCharArray(), null));
+        assertEquals(1, pwe.verified.size());
+        assertFalse(pwe.isPasswordValid(enc, "wrong".toCharArray(), null));
+
+        // the cache key does not contain the password
+        String key = pwe.credentialsKey(pwe.lookupEncoderForEncodedPassword(enc), enc, "geoserver".toCharArray());
+        assertFalse(key.contains("geoserver"));
+        assertTrue(pwe.verified.asMap().containsKey(key));
+
+        // a different hash of the same password is verified again
+        String enc2 = getDigestPasswordEncoder().encodePassword("geoserver", null);
+        assertTrue(pwe.isPasswordValid(enc2, "geoserver", null));
+        assertEquals(2, pwe.verified.size());
+
+        // plain text comparisons are not cached
+        assertTrue(pwe.isPasswordValid("plain:geoserver", "geoserver", null));
+        assertEquals(2, pwe.verified.size());
+    }
 }
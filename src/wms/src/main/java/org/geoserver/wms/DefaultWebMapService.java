@@ -8,10 +8,12 @@
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import net.opengis.wfs.FeatureCollectionType;
 import org.geoserver.platform.GeoServerExtensions;
 import org.geoserver.platform.ServiceException;
+import org.geoserver.platform.VirtualThreads;
 import org.geoserver.sld.GetStyles;
 import org.geoserver.sld.GetStylesRequest;
 import org.geoserver.wms.capabilities.Capabilities_1_3_0_Transformer;
@@ -102,6 +104,9 @@ public class DefaultWebMapService implements WebMapService, ApplicationContextAw
     /** Use a global rendering pool, or use a new pool each time */
     private static Boolean USE_GLOBAL_RENDERING_POOL = null;
 
+    /** Max number of layer groups a single map is split into, for parallel rendering */
+    private static Integer PARALLEL_RENDERING_GROUPS = null;
+
     private GetCapabilities getCapabilities;
 
     private DescribeLayer describeLayer;
@@ -182,6 +187,14 @@ public void setApplicationContext(ApplicationContext context) throws BeansExcept
             if (usePool == null) USE_GLOBAL_RENDERING_POOL = true;
             else USE_GLOBAL_RENDERING_POOL = Boolean.valueOf(usePool);
         }
+
+        // parallel rendering of the layers of a single map
+        if (PARALLEL_RENDERING_GROUPS == null) {
+            String groups = GeoServerExtensions.getProperty("WMS_PARALLEL_RENDERING_GROUPS", context);
+            // default to 1, that is, no parallel rendering
+            if (groups == null) PARALLEL_RENDERING_GROUPS = 1;
+            else PARALLEL_RENDERING_GROUPS = Integer.valueOf(groups);
+        }
     }
 
     /**
@@ -200,6 +213,14 @@ public static int getMaxFilterRules() {
         return MAX_FILTER_RULES;
     }
 
+    /**
+     * Returns the max number of layer groups a map can be split into, to be rendered in parallel (defaults to 1, that
+     * is, parallel rendering disabled, unless the user sets the WMS_PARALLEL_RENDERING_GROUPS property)
+     */
+    public static int getParallelRenderingGroups() {
+        return PARALLEL_RENDERING_GROUPS != null ? PARALLEL_RENDERING_GROUPS : 1;
+    }
+
     /** If true (default) the direct raster rendering path is enabled */
     public static boolean isDirectRasterPathEnabled() {
         return !BYPASS_DIRECT;
@@ -330,7 +351,10 @@ public static ExecutorService getRenderingPool() {
         if (USE_GLOBAL_RENDERING_POOL && RENDERING_POOL == null) {
             synchronized (DefaultWebMapService.class) {
                 if (RENDERING_POOL == null) {
-                    RENDERING_POOL = new ThreadLocalTransferExecutor();
+                    ThreadFactory virtual = VirtualThreads.isEnabled() ? VirtualThreads.factory("rendering-") : null;
+                    RENDERING_POOL = virtual != null
+                            ? new ThreadLocalTransferExecutor(virtual)
+                            : new ThreadLocalTransferExecutor();
                 }
             }
         }
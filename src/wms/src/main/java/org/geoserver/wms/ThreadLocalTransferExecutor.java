@@ -4,58 +4,38 @@
  */
 package org.geoserver.wms;
 
-import java.util.concurrent.Callable;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
 import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import org.geoserver.threadlocals.ThreadLocalsTransfer;
 
 /**
  * An equivalent to {@link Executors#newCachedThreadPool()} that will also perform thread locals transfer using Spring
- * registered {@link org.geoserver.threadlocals.ThreadLocalTransfer} when starting a new task
+ * registered {@link org.geoserver.threadlocals.ThreadLocalTransfer} when starting a new task.
+ *
+ * <p>The transfer happens in {@link #execute(Runnable)}, so that it covers all the ways of submitting tasks, including
+ * {@link #invokeAll(java.util.Collection)}.
  */
 class ThreadLocalTransferExecutor extends ThreadPoolExecutor {
 
     public ThreadLocalTransferExecutor() {
-        super(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS, new SynchronousQueue<>());
+        this(Executors.defaultThreadFactory());
     }
 
-    @Override
-    public Future<?> submit(Runnable task) {
-        ThreadLocalsTransfer threadLocalTransfer = new ThreadLocalsTransfer();
-        return super.submit(() -> {
-            threadLocalTransfer.apply();
-            try {
-                task.run();
-            } finally {
-                threadLocalTransfer.cleanup();
-            }
-        });
-    }
-
-    @Override
-    public <T> Future<T> submit(Callable<T> task) {
-        ThreadLocalsTransfer threadLocalTransfer = new ThreadLocalsTransfer();
-        return super.submit(() -> {
-            threadLocalTransfer.apply();
-            try {
-                return task.call();
-            } finally {
-                threadLocalTransfer.cleanup();
-            }
-        });
+    /** Builds the executor with a custom thread factory, e.g. one creating virtual threads */
+    public ThreadLocalTransferExecutor(ThreadFactory threadFactory) {
+        super(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS, new SynchronousQueue<>(), threadFactory);
     }
 
     @Override
-    public <T> Future<T> submit(Runnable task, T result) {
+    public void execute(Runnable task) {
         ThreadLocalsTransfer threadLocalTransfer = new ThreadLocalsTransfer();
-        return super.submit(() -> {
+        super.execute(() -> {
             threadLocalTransfer.apply();
             try {
                 task.run();
-                return result;
             } finally {
                 threadLocalTransfer.cleanup();
             }
@@ -96,7 +96,7 @@ public WMSMapContent(WMSMapContent other, boolean copyLayers) {
         this.transparent = other.transparent;
         this.tileSize = other.tileSize;
         this.angle = other.angle;
-        this.callbacks = new ArrayList<>(other.callbacks);
+        this.callbacks = other.callbacks != null ? new ArrayList<>(other.callbacks) : null;
         this.buffer = other.buffer;
         this.icm = other.icm;
         this.request = other.request;
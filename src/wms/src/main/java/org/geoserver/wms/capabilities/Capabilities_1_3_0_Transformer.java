@@ -95,6 +95,7 @@
 import org.xml.sax.Attributes;
 import org.xml.sax.ContentHandler;
 import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.DefaultHandler;
 
 /**
  * Geotools xml framework based encoder for a Capabilities WMS 1.3.0 document.
@@ -204,6 +205,8 @@ private static class Capabilities_1_3_0_Translator extends TranslatorSupport {
 
         private LegendSample legendSample;
 
+        private LayerCapabilitiesEncoder layerEncoder;
+
         /** if true, forces always including a root Layer element * */
         private Boolean includeRootLayer;
 
@@ -229,7 +232,45 @@ public Capabilities_1_3_0_Translator(
             this.extCapsProviders = extCapsProviders;
             this.schemaBaseURL = schemaBaseURL;
             this.serviceInfo = wmsConfig.getServiceInfo();
-            this.dimensionHelper = new DimensionHelper(Mode.WMS13, wmsConfig) {
+            this.dimensionHelper = createDimensionHelper();
+            legendSample = GeoServerExtensions.bean(LegendSample.class);
+            layerEncoder = GeoServerExtensions.bean(LayerCapabilitiesEncoder.class);
+            this.skipping = ResourceErrorHandling.SKIP_MISCONFIGURED_LAYERS.equals(
+                    wmsConfig.getGeoServer().getGlobal().getResourceErrorHandling());
+
+            // register namespaces provided by extended capabilities
+            for (ExtendedCapabilitiesProvider cp : extCapsProviders) {
+                cp.registerNamespaces(getNamespaceSupport());
+            }
+            this.includeRootLayer = includeRootLayer;
+        }
+
+        /**
+         * Creates a translator sharing the configuration and collaborators already resolved by the parent, sending its
+         * output to the given handler
+         */
+        private Capabilities_1_3_0_Translator(ContentHandler handler, Capabilities_1_3_0_Translator parent) {
+            super(handler, null, null);
+            this.wmsConfig = parent.wmsConfig;
+            this.getMapFormats = parent.getMapFormats;
+            this.extCapsProviders = parent.extCapsProviders;
+            this.schemaBaseURL = parent.schemaBaseURL;
+            this.serviceInfo = parent.serviceInfo;
+            this.dimensionHelper = createDimensionHelper();
+            this.legendSample = parent.legendSample;
+            this.layerEncoder = parent.layerEncoder;
+            this.skipping = parent.skipping;
+            for (ExtendedCapabilitiesProvider cp : extCapsProviders) {
+                cp.registerNamespaces(getNamespaceSupport());
+            }
+            this.includeRootLayer = parent.includeRootLayer;
+            this.request = parent.request;
+            this.i18nRequested = parent.i18nRequested;
+            this.internationalContentHelper = parent.internationalContentHelper;
+        }
+
+        private DimensionHelper createDimensionHelper() {
+            return new DimensionHelper(Mode.WMS13, wmsConfig) {
 
                 @Override
                 protected void element(String element, String content, Attributes atts) {
@@ -241,15 +282,6 @@ protected void element(String element, String content) {
                     Capabilities_1_3_0_Translator.this.element(element, content);
                 }
             };
-            legendSample = GeoServerExtensions.bean(LegendSample.class);
-            this.skipping = ResourceErrorHandling.SKIP_MISCONFIGURED_LAYERS.equals(
-                    wmsConfig.getGeoServer().getGlobal().getResourceErrorHandling());
-
-            // register namespaces provided by extended capabilities
-            for (ExtendedCapabilitiesProvider cp : extCapsProviders) {
-                cp.registerNamespaces(getNamespaceSupport());
-            }
-            this.includeRootLayer = includeRootLayer;
         }
 
         private AttributesImpl attributes(String... kvp) {
@@ -985,6 +1017,7 @@ private void handleLayerTree(
             LayerTree nestedLayers = new LayerTree();
 
             // handle non nested layers
+            List<LayerInfo> flatLayers = new ArrayList<>();
             for (LayerInfo layer : layers) {
                 if (!includeLayer(layersAlreadyProcessed, layer)) {
                     continue;
@@ -995,8 +1028,9 @@ private void handleLayerTree(
                     continue;
                 }
 
-                doHandleLayer(layer, isRoot);
+                flatLayers.add(layer);
             }
+            doHandleLayers(flatLayers, isRoot);
 
             // handle nested layers
             handleLayerTree(nestedLayers, isRoot);
@@ -1009,13 +1043,9 @@ private void handleLayerTree(final LayerTree layerTree, boolean isRoot) {
 
             Collections.sort(data, (o1, o2) -> o1.getName().compareTo(o2.getName()));
 
-            for (LayerInfo layer : data) {
-                // no sense in exposing a geometryless layer through wms...
-                boolean wmsExposable = isExposable(layer);
-                if (wmsExposable) {
-                    doHandleLayer(layer, isRoot);
-                }
-            }
+            // no sense in exposing a geometryless layer through wms...
+            data.removeIf(layer -> !isExposable(layer));
+            doHandleLayers(data, isRoot);
 
             for (LayerTree childLayerTree : children) {
                 start("Layer");
@@ -1026,23 +1056,76 @@ private void handleLayerTree(final LayerTree layerTree, boolean isRoot) {
             }
         }
 
+        /**
+         * Encodes the layers in order, in parallel and/or out of the memoized sections if the
+         * {@link LayerCapabilitiesEncoder} is enabled
+         */
+        private void doHandleLayers(List<LayerInfo> layers, boolean isRoot) {
+            if (layerEncoder == null || !layerEncoder.isEnabled() || layers.isEmpty()) {
+                for (LayerInfo layer : layers) {
+                    doHandleLayer(layer, isRoot);
+                }
+                return;
+            }
+
+            String baseURL = buildURL(request.getBaseUrl(), null, null, URLType.SERVICE);
+            String[] languages = request.getAcceptLanguages();
+            String context = layerEncoder.getContext(isRoot, baseURL, languages != null ? List.of(languages) : null);
+            ContentHandler replayer = new DefaultHandler() {
+                @Override
+                public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                    start(qName != null && !qName.isEmpty() ? qName : localName, attributes);
+                }
+
+                @Override
+                public void endElement(String uri, String localName, String qName) {
+                    end(qName != null && !qName.isEmpty() ? qName : localName);
+                }
+
+                @Override
+                public void characters(char[] ch, int start, int length) {
+                    chars(new String(ch, start, length));
+                }
+            };
+            layerEncoder.encode(
+                    layers,
+                    context,
+                    (layer, handler) -> fork(handler).handleLayer(layer, isRoot),
+                    (layer, fragment, error) -> {
+                        if (error != null) {
+                            handleLayerError(layer, error);
+                        } else {
+                            fragment.replay(replayer);
+                        }
+                    });
+        }
+
+        /** Returns a translator sharing the state of this one, sending its output to the given handler */
+        private Capabilities_1_3_0_Translator fork(ContentHandler handler) {
+            return new Capabilities_1_3_0_Translator(handler, this);
+        }
+
         private void doHandleLayer(LayerInfo layer, boolean isRoot) {
             try {
                 mark();
                 handleLayer(layer, isRoot);
                 commit();
             } catch (Exception e) {
-                // abort processing if the user closed the connection
-                ClientStreamAbortedException.rethrowUncheked(e);
-                // report what layer we failed on to help the admin locate and fix it
+                reset();
+                handleLayerError(layer, e);
+            }
+        }
 
-                if (skipping) {
-                    LOGGER.log(Level.WARNING, "Error writing metadata; skipping layer: " + layer.getName(), e);
-                    reset();
-                } else {
-                    throw new ServiceException(
-                            "Error occurred trying to write out metadata for layer: " + layer.getName(), e);
-                }
+        private void handleLayerError(LayerInfo layer, Exception e) {
+            // abort processing if the user closed the connection
+            ClientStreamAbortedException.rethrowUncheked(e);
+            // report what layer we failed on to help the admin locate and fix it
+
+            if (skipping) {
+                LOGGER.log(Level.WARNING, "Error writing metadata; skipping layer: " + layer.getName(), e);
+            } else {
+                throw new ServiceException(
+                        "Error occurred trying to write out metadata for layer: " + layer.getName(), e);
             }
         }
 
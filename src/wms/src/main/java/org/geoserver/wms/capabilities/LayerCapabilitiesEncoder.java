@@ -0,0 +1,499 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wms.capabilities;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+import org.geoserver.catalog.CatalogException;
+import org.geoserver.catalog.CatalogInfo;
+import org.geoserver.catalog.DimensionInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.PublishedType;
+import org.geoserver.catalog.ResourceInfo;
+import org.geoserver.catalog.StoreInfo;
+import org.geoserver.catalog.StyleInfo;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.event.CatalogAddEvent;
+import org.geoserver.catalog.event.CatalogListener;
+import org.geoserver.catalog.event.CatalogModifyEvent;
+import org.geoserver.catalog.event.CatalogPostModifyEvent;
+import org.geoserver.catalog.event.CatalogRemoveEvent;
+import org.geoserver.config.ConfigurationListenerAdapter;
+import org.geoserver.config.GeoServer;
+import org.geoserver.config.GeoServerInfo;
+import org.geoserver.config.ServiceInfo;
+import org.geoserver.config.SettingsInfo;
+import org.geoserver.ows.LocalWorkspace;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geoserver.platform.ServiceException;
+import org.geoserver.security.SecuredContentCacheSupport;
+import org.geoserver.security.impl.DataAccessRuleDAO;
+import org.geoserver.threadlocals.ThreadLocalsTransfer;
+import org.geotools.util.logging.Logging;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * Encodes the layer sections of the WMS capabilities documents in parallel, and memoizes them.
+ *
+ * <p>Each layer section is recorded as a {@link Fragment} of SAX events, the fragments are computed on a bounded thread
+ * pool, and streamed out in the original order as soon as they are available. The number of fragments being computed
+ * for a single document is limited, so that a large catalog does not end up fully in memory.
+ *
+ * <p>Fragments can also be memoized. A fragment is invalidated by the catalog events of the layer, its resource,
+ * store, namespace, workspace and styles, so that one layer change does not force every layer to be recomputed, while
+ * the configuration changes invalidate all of them. Layers with dimensions enabled, or cascaded from remote services,
+ * are not memoized as their sections depend on data that is not tracked by catalog events. The memoization context
+ * includes the security roles, and the user name unless the access manager is known to decide on roles alone, and all
+ * fragments are discarded when the data access rules change.
+ *
+ * <p>Both are disabled by default, see the {@link #THREADS} and {@link #CACHE_SIZE} properties.
+ */
+public class LayerCapabilitiesEncoder extends ConfigurationListenerAdapter implements CatalogListener, DisposableBean {
+
+    static final Logger LOGGER = Logging.getLogger(LayerCapabilitiesEncoder.class);
+
+    /** Property setting the number of threads encoding the layer sections, 1 or less to encode them sequentially */
+    public static final String THREADS = "WMS_CAPABILITIES_THREADS";
+
+    /** Property setting the maximum number of memoized layer sections, 0 (the default) disables memoization */
+    public static final String CACHE_SIZE = "WMS_CAPABILITIES_LAYER_CACHE_SIZE";
+
+    /** Encodes the section of a layer into the handler */
+    public interface Encoder {
+        void encode(LayerInfo layer, ContentHandler handler) throws Exception;
+    }
+
+    /** Receives the layer sections, in order */
+    public interface Sink {
+        /**
+         * Receives a layer section
+         *
+         * @param layer the layer
+         * @param fragment the layer section, or null if the encoding failed
+         * @param error the encoding failure, or null if the encoding succeeded
+         */
+        void accept(LayerInfo layer, Fragment fragment, Exception error) throws Exception;
+    }
+
+    private final int threads;
+
+    private final ExecutorService executor;
+
+    private final Cache<Key, Fragment> cache;
+
+    /** Incremented on each invalidation, fragments encoded across one are not memoized */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /** Set when a global configuration change, other than the update sequence, needs to invalidate the fragments */
+    private volatile boolean globalChanged;
+
+    private SecuredContentCacheSupport security = new SecuredContentCacheSupport(null);
+
+    public LayerCapabilitiesEncoder(GeoServer geoServer) {
+        this(geoServer, getInt(THREADS, 1), getInt(CACHE_SIZE, 0));
+    }
+
+    public LayerCapabilitiesEncoder(GeoServer geoServer, int threads, int cacheSize) {
+        this.threads = threads;
+        if (threads > 1) {
+            AtomicInteger counter = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(threads, r -> {
+                Thread thread = new Thread(r, "CapabilitiesLayerEncoder-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.executor = null;
+        }
+        if (cacheSize > 0) {
+            this.cache = CacheBuilder.newBuilder().maximumSize(cacheSize).build();
+            geoServer.getCatalog().addListener(this);
+            geoServer.addListener(this);
+        } else {
+            this.cache = null;
+        }
+    }
+
+    /** Sets the data access rules, the memoized sections are discarded when they change */
+    public void setAccessRules(DataAccessRuleDAO accessRules) {
+        this.security = new SecuredContentCacheSupport(accessRules);
+    }
+
+    private static int getInt(String property, int defaultValue) {
+        String value = GeoServerExtensions.getProperty(property);
+        if (value != null) {
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid value for " + property + ": " + value + ", using " + defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+
+    /** Returns true if the layer sections are encoded in parallel, or memoized */
+    public boolean isEnabled() {
+        return executor != null || cache != null;
+    }
+
+    /**
+     * Returns a memoization context out of the given request dependent values, the virtual service and the security
+     * roles of the current request, along with the user name if the access manager might decide on it.
+     */
+    public String getContext(Object... values) {
+        StringBuilder sb = new StringBuilder();
+        for (Object value : values) {
+            sb.append(value).append('|');
+        }
+        WorkspaceInfo workspace = LocalWorkspace.get();
+        sb.append(workspace != null ? workspace.getName() : null).append('|');
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        sb.append(SecuredContentCacheSupport.getRoles(authentication)).append('|');
+        return sb.append(SecuredContentCacheSupport.getUserName(authentication)).toString();
+    }
+
+    /**
+     * Encodes the sections of the given layers, handing them to the sink in the same order as the layers.
+     *
+     * @param layers the layers
+     * @param context the memoization context, the sections of the same layer in the same context are the same
+     * @param encoder encodes a single layer section, possibly in another thread
+     * @param sink receives the layer sections, in the calling thread
+     */
+    public void encode(List<LayerInfo> layers, String context, Encoder encoder, Sink sink) {
+        if (cache != null && security.isRulesChanged()) {
+            // the memoized sections might list layers no longer accessible
+            invalidateAll();
+        }
+        ThreadLocalsTransfer transfer = executor != null ? new ThreadLocalsTransfer() : null;
+        int window = Math.max(1, threads * 2);
+        Deque<Pending> pending = new ArrayDeque<>();
+        int next = 0;
+        try {
+            while (next < layers.size() || !pending.isEmpty()) {
+                while (next < layers.size() && pending.size() < window) {
+                    LayerInfo layer = layers.get(next++);
+                    pending.add(new Pending(layer, submit(layer, context, encoder, transfer)));
+                }
+                Pending head = pending.poll();
+                Fragment fragment = null;
+                Exception error = null;
+                try {
+                    fragment = head.future.get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    error = (Exception) cause;
+                }
+                sink.accept(head.layer, fragment, error);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceException("Interrupted while encoding the capabilities layers", e);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServiceException(e);
+        } finally {
+            for (Pending p : pending) {
+                p.future.cancel(true);
+            }
+        }
+    }
+
+    private Future<Fragment> submit(LayerInfo layer, String context, Encoder encoder, ThreadLocalsTransfer transfer) {
+        Key key = cache != null && isMemoizable(layer) ? new Key(layer.getId(), context) : null;
+        if (key != null) {
+            Fragment fragment = cache.getIfPresent(key);
+            if (fragment != null) {
+                return CompletableFuture.completedFuture(fragment);
+            }
+        }
+
+        if (executor == null) {
+            CompletableFuture<Fragment> result = new CompletableFuture<>();
+            try {
+                result.complete(record(layer, key, encoder));
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+            }
+            return result;
+        }
+        return executor.submit(() -> {
+            transfer.apply();
+            try {
+                return record(layer, key, encoder);
+            } finally {
+                transfer.cleanup();
+            }
+        });
+    }
+
+    private Fragment record(LayerInfo layer, Key key, Encoder encoder) throws Exception {
+        long invalidation = invalidations.get();
+        Fragment fragment = new Fragment(key != null ? getDependencies(layer) : null);
+        encoder.encode(layer, fragment);
+        if (key != null && invalidation == invalidations.get()) {
+            cache.put(key, fragment);
+        }
+        return fragment;
+    }
+
+    /** Returns true if the layer section only depends on the configuration */
+    static boolean isMemoizable(LayerInfo layer) {
+        PublishedType type = layer.getType();
+        if (type != PublishedType.VECTOR && type != PublishedType.RASTER) {
+            return false;
+        }
+        ResourceInfo resource = layer.getResource();
+        if (resource == null || layer.getId() == null) {
+            return false;
+        }
+        return resource.getMetadata().values().stream()
+                .noneMatch(v -> v instanceof DimensionInfo && ((DimensionInfo) v).isEnabled());
+    }
+
+    /** Returns the identifiers of the catalog objects the layer section depends onto */
+    static Set<String> getDependencies(LayerInfo layer) {
+        Set<String> ids = new HashSet<>();
+        ids.add(layer.getId());
+        ResourceInfo resource = layer.getResource();
+        ids.add(resource.getId());
+        if (resource.getNamespace() != null) {
+            ids.add(resource.getNamespace().getId());
+        }
+        StoreInfo store = resource.getStore();
+        if (store != null) {
+            ids.add(store.getId());
+            if (store.getWorkspace() != null) {
+                ids.add(store.getWorkspace().getId());
+            }
+        }
+        if (layer.getDefaultStyle() != null) {
+            ids.add(layer.getDefaultStyle().getId());
+        }
+        for (StyleInfo style : layer.getStyles()) {
+            if (style != null) {
+                ids.add(style.getId());
+            }
+        }
+        ids.remove(null);
+        return ids;
+    }
+
+    /** Invalidates the memoized sections depending on the given catalog object */
+    void invalidate(Object source) {
+        if (cache == null || !(source instanceof CatalogInfo)) {
+            return;
+        }
+        String id = ((CatalogInfo) source).getId();
+        invalidations.incrementAndGet();
+        cache.asMap().values().removeIf(f -> f.dependencies.contains(id));
+    }
+
+    /** Invalidates all the memoized sections */
+    public void invalidateAll() {
+        if (cache != null) {
+            invalidations.incrementAndGet();
+            cache.invalidateAll();
+        }
+    }
+
+    /** Returns the number of memoized sections */
+    long size() {
+        return cache != null ? cache.size() : 0;
+    }
+
+    @Override
+    public void handleAddEvent(CatalogAddEvent event) throws CatalogException {
+        // a new object cannot be referenced by an existing layer
+    }
+
+    @Override
+    public void handleRemoveEvent(CatalogRemoveEvent event) throws CatalogException {
+        invalidate(event.getSource());
+    }
+
+    @Override
+    public void handleModifyEvent(CatalogModifyEvent event) throws CatalogException {
+        // we use the post event
+    }
+
+    @Override
+    public void handlePostModifyEvent(CatalogPostModifyEvent event) throws CatalogException {
+        invalidate(event.getSource());
+    }
+
+    @Override
+    public void reloaded() {
+        invalidateAll();
+    }
+
+    @Override
+    public void handleGlobalChange(
+            GeoServerInfo global, List<String> propertyNames, List<Object> oldValues, List<Object> newValues) {
+        // the update sequence is incremented on every change, and is not part of the layer sections
+        if (propertyNames.stream().anyMatch(p -> !"updateSequence".equalsIgnoreCase(p))) {
+            globalChanged = true;
+        }
+    }
+
+    @Override
+    public void handlePostGlobalChange(GeoServerInfo global) {
+        if (globalChanged) {
+            globalChanged = false;
+            invalidateAll();
+        }
+    }
+
+    @Override
+    public void handleSettingsAdded(SettingsInfo settings) {
+        invalidateAll();
+    }
+
+    @Override
+    public void handleSettingsPostModified(SettingsInfo settings) {
+        invalidateAll();
+    }
+
+    @Override
+    public void handleSettingsRemoved(SettingsInfo settings) {
+        invalidateAll();
+    }
+
+    @Override
+    public void handlePostServiceChange(ServiceInfo service) {
+        invalidateAll();
+    }
+
+    @Override
+    public void handleServiceRemove(ServiceInfo service) {
+        invalidateAll();
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /** A layer section being encoded */
+    private static class Pending {
+
+        final LayerInfo layer;
+
+        final Future<Fragment> future;
+
+        Pending(LayerInfo layer, Future<Fragment> future) {
+            this.layer = layer;
+            this.future = future;
+        }
+    }
+
+    /** Memoization key of a layer section */
+    private static class Key {
+
+        final String layerId;
+
+        final String context;
+
+        Key(String layerId, String context) {
+            this.layerId = layerId;
+            this.context = context;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return Objects.equals(layerId, key.layerId) && Objects.equals(context, key.context);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(layerId, context);
+        }
+    }
+
+    /**
+     * A recorded sequence of SAX element and text events, that can be replayed into another handler. Documents, prefix
+     * mappings and other events are not recorded, as a fragment is always replayed in the middle of a document.
+     */
+    public static class Fragment extends DefaultHandler {
+
+        private static final int START = 0;
+
+        private static final int END = 1;
+
+        private static final int CHARACTERS = 2;
+
+        final Set<String> dependencies;
+
+        private final List<Object[]> events = new ArrayList<>();
+
+        Fragment(Set<String> dependencies) {
+            this.dependencies = dependencies;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            events.add(new Object[] {START, uri, localName, qName, new AttributesImpl(attributes)});
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            events.add(new Object[] {END, uri, localName, qName});
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            events.add(new Object[] {CHARACTERS, new String(ch, start, length)});
+        }
+
+        /** Replays the recorded events into the handler */
+        public void replay(ContentHandler handler) throws SAXException {
+            for (Object[] event : events) {
+                switch ((Integer) event[0]) {
+                    case START:
+                        handler.startElement(
+                                (String) event[1], (String) event[2], (String) event[3], (Attributes) event[4]);
+                        break;
+                    case END:
+                        handler.endElement((String) event[1], (String) event[2], (String) event[3]);
+                        break;
+                    default:
+                        char[] text = ((String) event[1]).toCharArray();
+                        handler.characters(text, 0, text.length);
+                }
+            }
+        }
+    }
+}
@@ -229,6 +229,12 @@ protected GetMapOutputFormat createMapOutputFormat(
 
             private Graphics2D graphics;
 
+            @Override
+            public boolean isParallelRenderingSupported() {
+                // the listener checks what a single renderer painted on the image
+                return false;
+            }
+
             @Override
             protected RenderedImage prepareImage(int width, int height, IndexColorModel palette, boolean transparent) {
                 return image;
@@ -92,6 +92,7 @@ private static final class FeatureRenderSpyFormat extends RenderedImageMapOutput
         private FeatureRenderSpyFormat(WMS wms, Consumer<Feature> consumer) {
             super(wms);
             this.consumer = consumer;
+            setParallelRenderingSupported(false);
         }
 
         @Override
@@ -16,6 +16,7 @@
 import java.text.MessageFormat;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javax.imageio.ImageIO;
@@ -110,67 +111,52 @@ public MetatileMapOutputFormat(GetMapRequest request, RenderedImageMapOutputForm
     /** @see org.geoserver.wms.GetMapOutputFormat#produceMap(org.geoserver.wms.WMSMapContent) */
     @Override
     public WebMap produceMap(WMSMapContent mapContent) throws ServiceException, IOException {
-        // get the key that identifies the meta tile. The cache will make sure
-        // two threads asking
-        // for the same tile will get the same key, and thus will synchronize
-        // with each other
-        // (the first eventually builds the meta-tile, the second finds it ready
-        // to be used)
+        // get the key that identifies the meta tile. The cache makes sure only one of the threads
+        // asking for the same meta-tile builds it, while the others wait for it to be ready,
+        // without blocking the requests for other meta-tiles
         QuickTileCache.MetaTileKey key = tileCache.getMetaTileKey(request);
 
-        synchronized (key) {
-            RenderedImage tile = tileCache.getTile(key, request);
-            List<GridCoverage2D> renderedCoverages = null;
-
+        // the coverages rendered while building the meta-tile, to be cleaned up after the response
+        AtomicReference<List<GridCoverage2D>> renderedCoverages = new AtomicReference<>();
+        RenderedImage[] tiles = tileCache.getTiles(key, () -> {
+            // compute the meta-tile
             if (LOGGER.isLoggable(Level.FINER)) {
-                LOGGER.finer("Looked for meta tile "
+                LOGGER.finer("Building meta tile "
                         + key.metaTileCoords.x
                         + ", "
                         + key.metaTileCoords.y
-                        + "in cache: "
-                        + ((tile != null) ? "hit!" : "miss"));
+                        + " of size w="
+                        + key.getTileSize() * key.getMetaFactor()
+                        + ", h="
+                        + key.getTileSize() * key.getMetaFactor()
+                        + " with metatilign factor "
+                        + key.getMetaFactor());
             }
 
-            if (tile == null) {
-                // compute the meta-tile
-                if (LOGGER.isLoggable(Level.FINER)) {
-                    LOGGER.finer("Building meta tile "
-                            + key.metaTileCoords.x
-                            + ", "
-                            + key.metaTileCoords.y
-                            + " of size w="
-                            + key.getTileSize() * key.getMetaFactor()
-                            + ", h="
-                            + key.getTileSize() * key.getMetaFactor()
-                            + " with metatilign factor "
-                            + key.getMetaFactor());
-                }
-
-                // alter the map definition so that we build a meta-tile instead
-                // of just the tile
-                mapContent.getViewport().setBounds(key.getMetaTileEnvelope());
-                mapContent.setMapWidth(key.getTileSize() * key.getMetaFactor());
-                mapContent.setMapHeight(key.getTileSize() * key.getMetaFactor());
-                mapContent.setTileSize(key.getTileSize());
-
-                // adjust the bbox/width/height env vars that GetMap setup, since we
-                // are changing them under its feet
-                EnvFunction.setLocalValue("wms_bbox", mapContent.getViewport().getBounds());
-                EnvFunction.setLocalValue("wms_width", mapContent.getMapWidth());
-                EnvFunction.setLocalValue("wms_height", mapContent.getMapHeight());
-
-                RenderedImageMap metaTileMap = delegate.produceMap(mapContent);
-
-                RenderedImage metaTile = metaTileMap.getImage();
-                RenderedImage[] tiles = split(key, metaTile);
-                tileCache.storeTiles(key, tiles);
-                tile = tileCache.getTile(key, request, tiles);
-                renderedCoverages = metaTileMap.getRenderedCoverages();
-            }
-            RenderedImageMap tileMap = new RenderedImageMap(mapContent, tile, getMimeType());
-            tileMap.setRenderedCoverages(renderedCoverages);
-            return tileMap;
-        }
+            // alter the map definition so that we build a meta-tile instead
+            // of just the tile
+            mapContent.getViewport().setBounds(key.getMetaTileEnvelope());
+            mapContent.setMapWidth(key.getTileSize() * key.getMetaFactor());
+            mapContent.setMapHeight(key.getTileSize() * key.getMetaFactor());
+            mapContent.setTileSize(key.getTileSize());
+
+            // adjust the bbox/width/height env vars that GetMap setup, since we
+            // are changing them under its feet
+            EnvFunction.setLocalValue("wms_bbox", mapContent.getViewport().getBounds());
+            EnvFunction.setLocalValue("wms_width", mapContent.getMapWidth());
+            EnvFunction.setLocalValue("wms_height", mapContent.getMapHeight());
+
+            RenderedImageMap metaTileMap = delegate.produceMap(mapContent);
+            renderedCoverages.set(metaTileMap.getRenderedCoverages());
+
+            RenderedImage metaTile = metaTileMap.getImage();
+            return split(key, metaTile);
+        });
+
+        RenderedImage tile = tileCache.getTile(key, request, tiles);
+        RenderedImageMap tileMap = new RenderedImageMap(mapContent, tile, getMimeType());
+        tileMap.setRenderedCoverages(renderedCoverages.get());
+        return tileMap;
     }
 
     /** @see org.geoserver.wms.GetMapOutputFormat#getOutputFormatNames() */
@@ -0,0 +1,348 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wms.map;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import org.geoserver.wms.WMSMapContent;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.api.style.FeatureTypeStyle;
+import org.geotools.api.style.Rule;
+import org.geotools.api.style.Style;
+import org.geotools.api.style.Symbolizer;
+import org.geotools.api.style.TextSymbolizer;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.map.Layer;
+import org.geotools.map.StyleLayer;
+import org.geotools.renderer.RenderListener;
+import org.geotools.renderer.lite.StreamingRenderer;
+
+/**
+ * A {@link StreamingRenderer} splitting the map layers in groups, painting each group with its own renderer, in
+ * parallel, and compositing the results in z-order.
+ *
+ * <p>The bottom group is painted directly on the target graphics, the others in off-screen buffers, which are drawn on
+ * top of it once all groups are done. The groups are built so that the output matches the one of a single renderer:
+ *
+ * <ul>
+ *   <li>layers blending with the ones below them, or sorting features with them, share their group
+ *   <li>layers with labels, or acting as label obstacles, share the top group, so that labels are painted on top of the
+ *       whole map, and their conflicts are resolved across layers
+ * </ul>
+ *
+ * Stopping this renderer stops all the group renderers, and the listeners are notified of the events of all of them,
+ * one at a time, so that the timeout and error checks keep working as they do with a single renderer.
+ */
+public class ParallelLayerRenderer extends StreamingRenderer {
+
+    private static final String LABEL_OBSTACLE = "labelObstacle";
+
+    private static final String SOURCE_OVER = "source-over";
+
+    private final WMSMapContent mapContent;
+
+    private final List<List<Layer>> groups;
+
+    private final Supplier<StreamingRenderer> rendererFactory;
+
+    private final List<RenderListener> listeners = new CopyOnWriteArrayList<>();
+
+    private final List<StreamingRenderer> renderers = new CopyOnWriteArrayList<>();
+
+    private ExecutorService threadPool;
+
+    private volatile boolean stopped;
+
+    /**
+     * Builds a renderer painting the specified groups of layers in parallel
+     *
+     * @param mapContent the map content the layers are part of
+     * @param groups the layer groups, see {@link #getGroups(List, int)}
+     * @param rendererFactory builds the renderers of the single groups
+     */
+    public ParallelLayerRenderer(
+            WMSMapContent mapContent, List<List<Layer>> groups, Supplier<StreamingRenderer> rendererFactory) {
+        this.mapContent = mapContent;
+        this.groups = groups;
+        this.rendererFactory = rendererFactory;
+    }
+
+    /**
+     * Splits the layers in at most {@code maxGroups} groups of adjacent layers that can be rendered independently,
+     * returning a single group if the layers cannot be split.
+     */
+    public static List<List<Layer>> getGroups(List<Layer> layers, int maxGroups) {
+        // the layers up to base need the ones below them, the ones from top need to be labelled together
+        int base = -1;
+        int top = layers.size();
+        for (int i = 0; i < layers.size(); i++) {
+            Style style = layers.get(i) instanceof StyleLayer ? ((StyleLayer) layers.get(i)).getStyle() : null;
+            if (style == null) {
+                continue;
+            }
+            if (isBlending(style)) {
+                base = i;
+            }
+            if (top == layers.size() && isLabelling(style)) {
+                top = i;
+            }
+        }
+
+        // the units that cannot be split further
+        List<List<Layer>> units = new ArrayList<>();
+        if (top <= base) {
+            units.add(layers);
+        } else {
+            if (base >= 0) {
+                units.add(layers.subList(0, base + 1));
+            }
+            for (int i = base + 1; i < top; i++) {
+                units.add(layers.subList(i, i + 1));
+            }
+            if (top < layers.size()) {
+                units.add(layers.subList(top, layers.size()));
+            }
+        }
+
+        int count = Math.max(1, Math.min(maxGroups, units.size()));
+        List<List<Layer>> groups = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<Layer> group = new ArrayList<>();
+            for (List<Layer> unit : units.subList(i * units.size() / count, (i + 1) * units.size() / count)) {
+                group.addAll(unit);
+            }
+            groups.add(group);
+        }
+        return groups;
+    }
+
+    /** True if the style blends with the layers below, or sorts its features along with them */
+    static boolean isBlending(Style style) {
+        for (FeatureTypeStyle fts : style.featureTypeStyles()) {
+            Map<String, String> options = fts.getOptions();
+            String composite = options.get(FeatureTypeStyle.COMPOSITE);
+            if (composite != null && !composite.split(",")[0].trim().equalsIgnoreCase(SOURCE_OVER)) {
+                return true;
+            }
+            if (Boolean.parseBoolean(options.get(FeatureTypeStyle.COMPOSITE_BASE))
+                    || options.get(FeatureTypeStyle.SORT_BY_GROUP) != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** True if the style paints labels, or makes features act as label obstacles */
+    static boolean isLabelling(Style style) {
+        for (FeatureTypeStyle fts : style.featureTypeStyles()) {
+            for (Rule rule : fts.rules()) {
+                for (Symbolizer symbolizer : rule.symbolizers()) {
+                    if (symbolizer instanceof TextSymbolizer
+                            || Boolean.parseBoolean(symbolizer.getOptions().get(LABEL_OBSTACLE))) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the memory used to render the groups in parallel, that is, the back buffers of all the group renderers,
+     * which are used at the same time, and the off-screen buffers of all groups but the bottom one
+     */
+    public static long getMemoryUse(
+            WMSMapContent mapContent,
+            List<List<Layer>> groups,
+            Supplier<StreamingRenderer> rendererFactory,
+            int width,
+            int height) {
+        long memory = (groups.size() - 1) * 4L * width * height;
+        for (List<Layer> group : groups) {
+            WMSMapContent content = createContent(mapContent, group);
+            try {
+                StreamingRenderer renderer = rendererFactory.get();
+                renderer.setMapContent(content);
+                memory += renderer.getMaxBackBufferMemory(width, height);
+            } finally {
+                disposeContent(content);
+            }
+        }
+        return memory;
+    }
+
+    @Override
+    public void setThreadPool(ExecutorService threadPool) {
+        super.setThreadPool(threadPool);
+        this.threadPool = threadPool;
+    }
+
+    @Override
+    public void addRenderListener(RenderListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void removeRenderListener(RenderListener listener) {
+        listeners.remove(listener);
+    }
+
+    @Override
+    public void stopRendering() {
+        stopped = true;
+        super.stopRendering();
+        for (StreamingRenderer renderer : renderers) {
+            renderer.stopRendering();
+        }
+    }
+
+    @Override
+    public void paint(
+            Graphics2D graphics, Rectangle paintArea, ReferencedEnvelope mapArea, AffineTransform worldToScreen) {
+        RenderListener listener = new SynchronizedListener();
+        RenderingHints graphicsHints = graphics.getRenderingHints();
+        List<WMSMapContent> contents = new ArrayList<>();
+        List<Future<BufferedImage>> futures = new ArrayList<>();
+        try {
+            for (List<Layer> group : groups.subList(1, groups.size())) {
+                WMSMapContent content = createContent(mapContent, group);
+                contents.add(content);
+                StreamingRenderer renderer = buildRenderer(content, listener);
+                futures.add(threadPool.submit(() -> {
+                    BufferedImage image =
+                            new BufferedImage(paintArea.width, paintArea.height, BufferedImage.TYPE_INT_ARGB_PRE);
+                    Graphics2D g = image.createGraphics();
+                    try {
+                        g.setRenderingHints(graphicsHints);
+                        g.translate(-paintArea.x, -paintArea.y);
+                        renderer.paint(g, paintArea, mapArea, worldToScreen);
+                    } finally {
+                        g.dispose();
+                    }
+                    return image;
+                }));
+            }
+
+            // the bottom group goes straight to the target, while the others are rendering
+            WMSMapContent content = createContent(mapContent, groups.get(0));
+            contents.add(content);
+            buildRenderer(content, listener).paint(graphics, paintArea, mapArea, worldToScreen);
+
+            graphics.setComposite(AlphaComposite.SrcOver);
+            for (Future<BufferedImage> future : futures) {
+                BufferedImage image = future.get();
+                if (!stopped) {
+                    graphics.drawImage(image, paintArea.x, paintArea.y, null);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stopRendering();
+        } catch (ExecutionException e) {
+            stopRendering();
+            Throwable cause = e.getCause();
+            listener.errorOccurred(cause instanceof Exception ? (Exception) cause : e);
+        } finally {
+            for (Future<BufferedImage> future : futures) {
+                future.cancel(true);
+            }
+            for (WMSMapContent content : contents) {
+                disposeContent(content);
+            }
+            renderers.clear();
+        }
+    }
+
+    /** Builds a renderer for a single group, with the same configuration as this one */
+    private StreamingRenderer buildRenderer(WMSMapContent content, RenderListener listener) {
+        StreamingRenderer renderer = rendererFactory.get();
+        renderer.setThreadPool(threadPool);
+        renderer.setMapContent(content);
+        if (getJava2DHints() != null) {
+            renderer.setJava2DHints((RenderingHints) getJava2DHints().clone());
+        }
+        if (getRendererHints() != null) {
+            renderer.setRendererHints(new HashMap<>(getRendererHints()));
+        }
+        renderer.addRenderListener(listener);
+        renderers.add(renderer);
+        if (stopped) {
+            renderer.stopRendering();
+        }
+        return renderer;
+    }
+
+    /** Creates a map content holding only the layers of a group */
+    private static WMSMapContent createContent(WMSMapContent mapContent, List<Layer> group) {
+        WMSMapContent content = new WMSMapContent(mapContent, false);
+        content.layers().addAll(group);
+        return content;
+    }
+
+    /** Disposes the content of a group, without disposing its layers, which are still part of the map */
+    private static void disposeContent(WMSMapContent content) {
+        content.layers().removeAll(new ArrayList<>(content.layers()));
+        content.dispose();
+    }
+
+    /** Forwards the events of the group renderers to the listeners, one at a time */
+    private class SynchronizedListener implements RenderListener {
+
+        @Override
+        public synchronized void featureRenderer(SimpleFeature feature) {
+            for (RenderListener listener : listeners) {
+                listener.featureRenderer(feature);
+            }
+        }
+
+        @Override
+        public synchronized void errorOccurred(Exception e) {
+            for (RenderListener listener : listeners) {
+                listener.errorOccurred(e);
+            }
+        }
+
+        @Override
+        public synchronized void layerStart(Layer layer) {
+            for (RenderListener listener : listeners) {
+                listener.layerStart(layer);
+            }
+        }
+
+        @Override
+        public synchronized void layerEnd(Layer layer) {
+            for (RenderListener listener : listeners) {
+                listener.layerEnd(layer);
+            }
+        }
+
+        @Override
+        public synchronized void labellingStart() {
+            for (RenderListener listener : listeners) {
+                listener.labellingStart();
+            }
+        }
+
+        @Override
+        public synchronized void labellingEnd() {
+            for (RenderListener listener : listeners) {
+                listener.labellingEnd();
+            }
+        }
+    }
+}
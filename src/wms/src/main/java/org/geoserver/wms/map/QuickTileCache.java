@@ -5,25 +5,46 @@
  */
 package org.geoserver.wms.map;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import java.awt.Point;
 import java.awt.geom.Point2D;
 import java.awt.image.RenderedImage;
+import java.awt.image.SampleModel;
+import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
-import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.geoserver.catalog.CatalogException;
 import org.geoserver.catalog.ResourcePool;
+import org.geoserver.catalog.event.CatalogAddEvent;
+import org.geoserver.catalog.event.CatalogListener;
+import org.geoserver.catalog.event.CatalogModifyEvent;
+import org.geoserver.catalog.event.CatalogPostModifyEvent;
+import org.geoserver.catalog.event.CatalogRemoveEvent;
 import org.geoserver.config.ConfigurationListenerAdapter;
 import org.geoserver.config.GeoServer;
 import org.geoserver.config.GeoServerInfo;
 import org.geoserver.config.ServiceInfo;
 import org.geoserver.config.impl.GeoServerLifecycleHandler;
+import org.geoserver.platform.GeoServerExtensions;
 import org.geoserver.platform.ServiceException;
+import org.geoserver.security.SecuredContentCacheSupport;
+import org.geoserver.security.impl.DataAccessRuleDAO;
 import org.geoserver.wfs.TransactionEvent;
 import org.geoserver.wfs.TransactionListener;
 import org.geoserver.wfs.WFSException;
@@ -33,10 +54,43 @@
 import org.geotools.gml2.SrsSyntax;
 import org.geotools.referencing.CRS;
 import org.geotools.referencing.CRS.AxisOrder;
-import org.geotools.util.CanonicalSet;
+import org.geotools.util.logging.Logging;
 import org.locationtech.jts.geom.Envelope;
-
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Cache of the meta-tiles built for the WMS tiled requests, see {@link MetatileMapOutputFormat}.
+ *
+ * <p>The cache is concurrent: a meta-tile is built once, by the first request asking for it, while the other requests
+ * for the same meta-tile wait for it, without blocking the requests for other meta-tiles. Meta-tiles are evicted on a
+ * least recently used basis once the size of their images exceeds the {@link #MAX_SIZE} property, 64MB by default,
+ * and expire after the {@link #TTL} property, 60 seconds by default, to pick up the data changes made outside of WFS
+ * transactions.
+ *
+ * <p>The cache is cleared by catalog and configuration changes, WFS transactions and data access rules changes.
+ * Meta-tiles are keyed on the security roles of the request, and on the user name unless the access manager is known to
+ * decide on roles alone, so that the content filtered by the data security is not shared among users.
+ */
 public class QuickTileCache implements TransactionListener, GeoServerLifecycleHandler {
+
+    static final Logger LOGGER = Logging.getLogger(QuickTileCache.class);
+
+    /** Property setting the maximum size of the cached meta-tile images, in bytes */
+    public static final String MAX_SIZE = "WMS_METATILE_CACHE_MAX_SIZE";
+
+    static final long DEFAULT_MAX_SIZE = 64 * 1024 * 1024;
+
+    /** Property setting the time to live of the cached meta-tiles, in seconds, 0 or less to keep them until evicted */
+    public static final String TTL = "WMS_METATILE_CACHE_TTL";
+
+    static final long DEFAULT_TTL = 60;
+
+    /** Builds the tiles of a meta-tile */
+    public interface MetaTileBuilder {
+        RenderedImage[] build() throws IOException;
+    }
+
     /**
      * Set of parameters that we can ignore, since they do not define a map, are either unrelated, or define the tiling
      * instead
@@ -55,40 +109,135 @@ public class QuickTileCache implements TransactionListener, GeoServerLifecycleHa
         ignoredParameters.add("EXCEPTIONS");
     }
 
-    /** Canonicalizer used to return the same object when two threads ask for the same meta-tile */
-    private CanonicalSet<MetaTileKey> metaTileKeys = CanonicalSet.newInstance(MetaTileKey.class);
+    private final Cache<MetaTileKey, RenderedImage[]> tileCache;
+
+    /** The meta-tiles being built, the requests for the same meta-tile wait for them */
+    private final Map<MetaTileKey, CompletableFuture<RenderedImage[]>> building = new ConcurrentHashMap<>();
+
+    /** Incremented each time the cache is cleared, meta-tiles built across a clear are not cached */
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
 
-    private WeakHashMap<MetaTileKey, CacheElement> tileCache = new WeakHashMap<>();
+    private final LongAdder waits = new LongAdder();
+
+    private SecuredContentCacheSupport security = new SecuredContentCacheSupport(null);
 
     public QuickTileCache(GeoServer geoServer) {
+        this(getLong(MAX_SIZE, DEFAULT_MAX_SIZE), getLong(TTL, DEFAULT_TTL));
+        geoServer.getCatalog().addListener(new CatalogListener() {
+            @Override
+            public void handleAddEvent(CatalogAddEvent event) throws CatalogException {
+                clear();
+            }
+
+            @Override
+            public void handleRemoveEvent(CatalogRemoveEvent event) throws CatalogException {
+                clear();
+            }
+
+            @Override
+            public void handleModifyEvent(CatalogModifyEvent event) throws CatalogException {
+                // we use the post event
+            }
+
+            @Override
+            public void handlePostModifyEvent(CatalogPostModifyEvent event) throws CatalogException {
+                clear();
+            }
+
+            @Override
+            public void reloaded() {
+                clear();
+            }
+        });
         geoServer.addListener(new ConfigurationListenerAdapter() {
             @Override
             public void handleGlobalChange(
                     GeoServerInfo global, List<String> propertyNames, List<Object> oldValues, List<Object> newValues) {
-                tileCache.clear();
+                clear();
             }
 
             @Override
             public void handleServiceChange(
                     ServiceInfo service, List<String> propertyNames, List<Object> oldValues, List<Object> newValues) {
-                tileCache.clear();
+                clear();
             }
 
             @Override
             public void reloaded() {
-                tileCache.clear();
+                clear();
             }
         });
     }
 
     /** For testing only */
-    QuickTileCache() {}
+    QuickTileCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /** Builds a cache holding at most the specified size of images, in bytes */
+    QuickTileCache(long maxSize) {
+        this(maxSize, DEFAULT_TTL);
+    }
+
+    /** Builds a cache holding at most the specified size of images, in bytes, for the given time, in seconds */
+    QuickTileCache(long maxSize, long ttl) {
+        // a single segment, the weight limit is split among segments otherwise. Reads do not lock anyway,
+        // and writes happen once per meta-tile build
+        CacheBuilder<MetaTileKey, RenderedImage[]> builder = CacheBuilder.newBuilder()
+                .concurrencyLevel(1)
+                .maximumWeight(maxSize)
+                .weigher((MetaTileKey k, RenderedImage[] tiles) -> getSize(tiles));
+        if (ttl > 0) {
+            builder.expireAfterWrite(ttl, TimeUnit.SECONDS);
+        }
+        tileCache = builder.build();
+    }
+
+    /** Sets the data access rules, the cache is cleared when they change */
+    public void setAccessRules(DataAccessRuleDAO accessRules) {
+        this.security = new SecuredContentCacheSupport(accessRules);
+    }
+
+    private static long getLong(String property, long defaultValue) {
+        String value = GeoServerExtensions.getProperty(property);
+        if (value != null) {
+            try {
+                return Long.parseLong(value.trim());
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid value for " + property + ": " + value + ", using " + defaultValue);
+            }
+        }
+        return defaultValue;
+    }
+
+    /** Returns the size of the tiles images, in bytes */
+    static int getSize(RenderedImage[] tiles) {
+        long size = 0;
+        for (RenderedImage tile : tiles) {
+            if (tile != null) {
+                SampleModel sm = tile.getSampleModel();
+                long bits = 0;
+                for (int sampleSize : sm.getSampleSize()) {
+                    bits += sampleSize;
+                }
+                size += (long) tile.getWidth() * tile.getHeight() * bits / 8;
+            }
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
 
     /**
-     * Given a tiled request, builds a key that can be used to access the cache looking for a specific meta-tile, and
-     * also as a synchronization tool to avoid multiple requests to trigger parallel computation of the same meta-tile
+     * Given a tiled request, builds a key that can be used to access the cache looking for a specific meta-tile
      */
     public MetaTileKey getMetaTileKey(GetMapRequest request) {
+        if (security.isRulesChanged()) {
+            // the cached meta-tiles might show data no longer accessible
+            clear();
+        }
         String mapDefinition = buildMapDefinition(request.getRawKvp());
         ReferencedEnvelope bbox = new ReferencedEnvelope(request.getBbox(), request.getCrs());
         Point2D origin = request.getTilesOrigin();
@@ -102,16 +251,17 @@ public MetaTileKey getMetaTileKey(GetMapRequest request) {
                 throw new ServiceException("Failed to bring the bbox back in a EN order", e);
             }
         }
-        MapKey mapKey = new MapKey(mapDefinition, normalize(bbox.getWidth() / request.getWidth()), origin);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        MapKey mapKey = new MapKey(
+                mapDefinition,
+                normalize(bbox.getWidth() / request.getWidth()),
+                origin,
+                SecuredContentCacheSupport.getRoles(authentication),
+                SecuredContentCacheSupport.getUserName(authentication));
         Point tileCoords = getTileCoordinates(bbox, origin);
         Point metaTileCoords = getMetaTileCoordinates(tileCoords);
         ReferencedEnvelope metaTileEnvelope = getMetaTileEnvelope(bbox, tileCoords, metaTileCoords);
-        MetaTileKey key = new MetaTileKey(mapKey, metaTileCoords, metaTileEnvelope);
-
-        // since this will be used for thread synchronization, we have to make
-        // sure two thread asking for the same meta tile will get the same key
-        // object
-        return metaTileKeys.unique(key);
+        return new MetaTileKey(mapKey, metaTileCoords, metaTileEnvelope);
     }
 
     private ReferencedEnvelope getMetaTileEnvelope(ReferencedEnvelope bbox, Point tileCoords, Point metaTileCoords) {
@@ -209,11 +359,23 @@ static class MapKey {
 
         Point2D origin;
 
+        /** The security roles, the data security might filter the map content on them */
+        Set<String> roles;
+
+        /** The user name, or null if the roles alone determine the accessible content */
+        String user;
+
         public MapKey(String mapDefinition, double resolution, Point2D origin) {
+            this(mapDefinition, resolution, origin, Set.of(), null);
+        }
+
+        public MapKey(String mapDefinition, double resolution, Point2D origin, Set<String> roles, String user) {
             super();
             this.mapDefinition = mapDefinition;
             this.resolution = resolution;
             this.origin = origin;
+            this.roles = roles;
+            this.user = user;
         }
 
         @Override
@@ -223,6 +385,8 @@ public int hashCode() {
                     .append(resolution)
                     .append(resolution)
                     .append(origin)
+                    .append(roles)
+                    .append(user)
                     .toHashCode();
         }
 
@@ -238,6 +402,8 @@ public boolean equals(Object obj) {
                     .append(mapDefinition, other.mapDefinition)
                     .append(resolution, other.resolution)
                     .append(origin, other.origin)
+                    .append(roles, other.roles)
+                    .append(user, other.user)
                     .isEquals();
         }
 
@@ -250,7 +416,11 @@ public String toString() {
                     + "\norig:"
                     + origin.getX()
                     + ","
-                    + origin.getY();
+                    + origin.getY()
+                    + "\nroles:"
+                    + roles
+                    + "\nuser:"
+                    + user;
         }
     }
 
@@ -315,14 +485,68 @@ public String toString() {
     }
 
     /** Gathers a tile from the cache, if available */
-    public synchronized RenderedImage getTile(MetaTileKey key, GetMapRequest request) {
-        CacheElement ce = tileCache.get(key);
+    public RenderedImage getTile(MetaTileKey key, GetMapRequest request) {
+        RenderedImage[] tiles = tileCache.getIfPresent(key);
 
-        if (ce == null) {
+        if (tiles == null) {
             return null;
         }
 
-        return getTile(key, request, ce.tiles);
+        return getTile(key, request, tiles);
+    }
+
+    /**
+     * Returns the tiles of the meta-tile, building them if missing. If the same meta-tile is being built by another
+     * request, waits for it instead of building it again.
+     *
+     * @param key the meta-tile key
+     * @param builder builds the meta-tile in the calling thread, if needed
+     */
+    public RenderedImage[] getTiles(MetaTileKey key, MetaTileBuilder builder) throws IOException {
+        RenderedImage[] tiles = tileCache.getIfPresent(key);
+        if (tiles != null) {
+            hits.increment();
+            return tiles;
+        }
+
+        CompletableFuture<RenderedImage[]> future = new CompletableFuture<>();
+        CompletableFuture<RenderedImage[]> running = building.putIfAbsent(key, future);
+        if (running != null) {
+            waits.increment();
+            try {
+                return running.get();
+            } catch (ExecutionException e) {
+                // the other request failed, try building it here, the error might be specific to it
+                LOGGER.log(Level.FINE, "Failed to build meta tile in another request, retrying", e.getCause());
+                misses.increment();
+                return builder.build();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the meta tile");
+            }
+        }
+
+        try {
+            // the meta-tile might have been stored before the future got registered
+            tiles = tileCache.getIfPresent(key);
+            if (tiles != null) {
+                hits.increment();
+            } else {
+                misses.increment();
+                long buildGeneration = generation.get();
+                tiles = builder.build();
+                if (buildGeneration == generation.get()) {
+                    tileCache.put(key, tiles);
+                }
+            }
+            future.complete(tiles);
+            return tiles;
+        } catch (IOException | RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            building.remove(key, future);
+        }
     }
 
     /** */
@@ -337,17 +561,30 @@ public RenderedImage getTile(MetaTileKey key, GetMapRequest request, RenderedIma
         return tiles[tileCoord.x + (tileCoord.y * key.getMetaFactor())];
     }
 
-    /** Puts the specified tile array in the cache, and returns the tile the request was looking for */
-    public synchronized void storeTiles(MetaTileKey key, RenderedImage[] tiles) {
-        tileCache.put(key, new CacheElement(tiles));
+    /** Puts the specified tile array in the cache */
+    public void storeTiles(MetaTileKey key, RenderedImage[] tiles) {
+        tileCache.put(key, tiles);
     }
 
-    class CacheElement {
-        RenderedImage[] tiles;
+    /** Removes all the meta-tiles from the cache */
+    public void clear() {
+        generation.incrementAndGet();
+        tileCache.invalidateAll();
+    }
 
-        public CacheElement(RenderedImage[] tiles) {
-            this.tiles = tiles;
-        }
+    /** Returns the number of requests that found their meta-tile in the cache */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /** Returns the number of meta-tiles built */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /** Returns the number of requests that waited for their meta-tile to be built by another request */
+    public long getWaits() {
+        return waits.sum();
     }
 
     @Override
@@ -356,18 +593,18 @@ public void dataStoreChange(TransactionEvent event) throws WFSException {
         // contains a string with part of the map request where the layer
         // name is included, but we would have to parse it and consider
         // also that the namespace may be missing in the getmap request
-        tileCache.clear();
+        clear();
     }
 
     @Override
     public void onReset() {
         // data might have changed in the meantime
-        tileCache.clear();
+        clear();
     }
 
     @Override
     public void onDispose() {
-        tileCache.clear();
+        clear();
     }
 
     @Override
@@ -377,6 +614,6 @@ public void beforeReload() {
 
     @Override
     public void onReload() {
-        tileCache.clear();
+        clear();
     }
 }
@@ -129,6 +129,8 @@ private static byte[] getTable() {
 
     private boolean transparencySupported = true;
 
+    private boolean parallelRenderingSupported = true;
+
     /** The file extension (minus the .) */
     private String extension = null;
 
@@ -245,13 +247,17 @@ public RenderedImageMap produceMap(final WMSMapContent mapContent, final boolean
         // if so, throw a service exception
         long maxMemory = wms.getMaxRequestMemory() * KB;
         // ... base image memory
-        long memory = getDrawingSurfaceMemoryUse(paintArea.width, paintArea.height, palette, transparent);
+        final long surfaceMemory = getDrawingSurfaceMemoryUse(paintArea.width, paintArea.height, palette, transparent);
+        long memory = surfaceMemory;
         // .. use a fake streaming renderer to evaluate the extra back buffers used when rendering
         // multiple featureTypeStyles against the same layer
         StreamingRenderer testRenderer = buildRenderer();
         testRenderer.setMapContent(mapContent);
         memory += testRenderer.getMaxBackBufferMemory(paintArea.width, paintArea.height);
-        if (maxMemory > 0 && memory > maxMemory) {
+        // ... or the groups rendered in parallel, as long as their buffers fit in the allowed memory
+        final List<List<Layer>> renderingGroups =
+                emptyMap ? null : getRenderingGroups(mapContent, palette, paintArea, surfaceMemory, maxMemory);
+        if (renderingGroups == null && maxMemory > 0 && memory > maxMemory) {
             long kbUsed = memory / KB;
             long kbMax = maxMemory / KB;
             throw new ServiceException(
@@ -350,7 +356,9 @@ public RenderedImageMap produceMap(final WMSMapContent mapContent, final boolean
         graphic.setRenderingHints(hintsMap);
 
         RenderingHints hints = new RenderingHints(hintsMap);
-        StreamingRenderer renderer = buildRenderer();
+        StreamingRenderer renderer = renderingGroups != null
+                ? new ParallelLayerRenderer(mapContent, renderingGroups, this::buildRenderer)
+                : buildRenderer();
         renderer.setThreadPool(DefaultWebMapService.getRenderingPool());
         renderer.setMapContent(mapContent);
         // add the GeoServer MarkFactories provider settings
@@ -577,6 +585,43 @@ public void saveMap() {
         throw serviceException;
     }
 
+    /**
+     * Splits the map layers in groups to be rendered in parallel, reducing their number until the rendering buffers fit
+     * in the max request memory. Returns null if the map is to be rendered by a single renderer.
+     */
+    private List<List<Layer>> getRenderingGroups(
+            WMSMapContent mapContent,
+            IndexColorModel palette,
+            Rectangle paintArea,
+            long surfaceMemory,
+            long maxMemory) {
+        // the palette and custom label cache cannot be shared among renderers
+        int count = DefaultWebMapService.getParallelRenderingGroups();
+        if (count <= 1
+                || palette != null
+                || labelCache != null
+                || !isParallelRenderingSupported()
+                || DefaultWebMapService.getRenderingPool() == null
+                || "GETFEATUREINFO".equalsIgnoreCase(mapContent.getRequest().getRequest())) {
+            return null;
+        }
+
+        while (count > 1) {
+            List<List<Layer>> groups = ParallelLayerRenderer.getGroups(mapContent.layers(), count);
+            if (groups.size() <= 1) {
+                return null;
+            }
+            long memory = surfaceMemory
+                    + ParallelLayerRenderer.getMemoryUse(
+                            mapContent, groups, this::buildRenderer, paintArea.width, paintArea.height);
+            if (maxMemory <= 0 || memory <= maxMemory) {
+                return groups;
+            }
+            count = groups.size() - 1;
+        }
+        return null;
+    }
+
     /** Helper method to build a comma separated list of layer names in the map. * */
     private String buildMapLayerNameList(WMSMapContent mapContent) {
         List<MapLayerInfo> layers = mapContent.getRequest().getLayers();
@@ -667,6 +712,19 @@ public void setPaletteSupported(boolean supportsPalette) {
         this.palleteSupported = supportsPalette;
     }
 
+    /**
+     * Returns true if the layers of a map can be split in groups rendered in parallel, when enabled by the
+     * WMS_PARALLEL_RENDERING_GROUPS property. Subclasses customizing the renderer or the drawing surface should
+     * disable it (defaults to {@code true}).
+     */
+    public boolean isParallelRenderingSupported() {
+        return parallelRenderingSupported;
+    }
+
+    public void setParallelRenderingSupported(boolean parallelRenderingSupported) {
+        this.parallelRenderingSupported = parallelRenderingSupported;
+    }
+
     /**
      * When you override {@link #prepareImage(int, int, IndexColorModel, boolean)} remember to override this one as well
      */
@@ -9,6 +9,7 @@
 import it.geosolutions.imageio.plugins.png.PNGWriter;
 import java.awt.image.RenderedImage;
 import java.io.OutputStream;
+import org.geoserver.platform.GeoServerExtensions;
 import org.geoserver.platform.ServiceException;
 import org.geoserver.wms.WMSMapContent;
 import org.geotools.api.style.ColorMap;
@@ -28,6 +29,16 @@ public RenderedImage writePNG(
             RenderedImage image, OutputStream outStream, float quality, WMSMapContent mapContent) {
         // what kind of scaline filtering are we going to use?
         FilterType filterType = getFilterType(mapContent);
+        // large images are filtered and compressed in stripes, in parallel, if enabled
+        ParallelPNGEncoder encoder = GeoServerExtensions.bean(ParallelPNGEncoder.class);
+        if (encoder != null && encoder.canEncode(image)) {
+            try {
+                encoder.encode(image, outStream, quality, filterType);
+            } catch (Exception e) {
+                throw new ServiceException("Failed to encode the PNG", e);
+            }
+            return image;
+        }
         // Creation of a new PNGWriter object
         PNGWriter writer = new PNGWriter();
         // Check if a Scanline is supported by the writer
@@ -0,0 +1,725 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wms.map.png;
+
+import ar.com.hjg.pngj.FilterType;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.color.ColorSpace;
+import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.IndexColorModel;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+import java.awt.image.SampleModel;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import java.util.zip.Adler32;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import org.geoserver.platform.GeoServerExtensions;
+import org.geotools.util.logging.Logging;
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * Encodes large images in PNG splitting them in stripes of rows, which are filtered and compressed in parallel.
+ *
+ * <p>Each stripe is compressed as a raw deflate block sequence, flushed at byte boundaries, so that the compressed
+ * stripes can be concatenated in a single zlib stream. Each stripe is primed with the last 32KB of the previous one as
+ * the deflate dictionary, so the compression ratio is close to the one of a single deflater. The checksums of the
+ * stripes are combined into the one of the whole stream.
+ *
+ * <p>True color images using 256 colors at most are written as paletted ones, the palette being detected in a first
+ * pass, and the pixels turned into palette indexes as the stripes are read. The deflaters and the stripe buffers are
+ * pooled. Only a few stripes are encoded ahead of the one being written, and oversized buffers are not pooled, so the
+ * memory used is bounded by the number of threads and the stripe size, not by the image size.
+ *
+ * <p>Only 8 bit images are supported, see {@link #canEncode(RenderedImage)}, the others are left to the PNGJ based
+ * {@link PNGJWriter}. Disabled by default, see the {@link #THREADS} property.
+ */
+public class ParallelPNGEncoder implements DisposableBean {
+
+    static final Logger LOGGER = Logging.getLogger(ParallelPNGEncoder.class);
+
+    /** Property setting the number of threads encoding the image stripes, 1 or less disables parallel encoding */
+    public static final String THREADS = "WMS_PNG_ENCODER_THREADS";
+
+    /** Raw image data in a stripe, smaller images are left to the PNGJ encoder */
+    static final int DEFAULT_STRIPE_SIZE = 256 * 1024;
+
+    /** The deflate window, that is, the data of the previous stripe used as dictionary */
+    static final int WINDOW_SIZE = 32 * 1024;
+
+    static final byte[] SIGNATURE = {(byte) 137, 80, 78, 71, 13, 10, 26, 10};
+
+    static final int COLOR_GRAY = 0;
+
+    static final int COLOR_RGB = 2;
+
+    static final int COLOR_PALETTE = 3;
+
+    static final int COLOR_GRAY_ALPHA = 4;
+
+    static final int COLOR_RGBA = 6;
+
+    static final int FILTER_NONE = 0;
+
+    static final int FILTER_SUB = 1;
+
+    private final int threads;
+
+    private final int stripeSize;
+
+    private final ExecutorService executor;
+
+    private final BlockingQueue<Deflater> deflaters;
+
+    final BlockingQueue<Stripe> stripes;
+
+    public ParallelPNGEncoder() {
+        this(getThreads(), DEFAULT_STRIPE_SIZE);
+    }
+
+    public ParallelPNGEncoder(int threads, int stripeSize) {
+        this.threads = threads;
+        this.stripeSize = stripeSize;
+        if (threads > 1) {
+            AtomicInteger counter = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(threads, r -> {
+                Thread thread = new Thread(r, "PNGEncoder-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.executor = null;
+        }
+        this.deflaters = new ArrayBlockingQueue<>(Math.max(1, threads * 2));
+        this.stripes = new ArrayBlockingQueue<>(Math.max(1, threads * 4));
+    }
+
+    private static int getThreads() {
+        String value = GeoServerExtensions.getProperty(THREADS);
+        if (value != null) {
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid value for " + THREADS + ": " + value + ", using 1");
+            }
+        }
+        return 1;
+    }
+
+    /** True if parallel encoding is enabled, and the image is large enough and in a supported layout */
+    public boolean canEncode(RenderedImage image) {
+        if (executor == null) {
+            return false;
+        }
+        Layout layout = Layout.of(image);
+        return layout != null && (long) image.getWidth() * image.getHeight() * layout.channels >= 2L * stripeSize;
+    }
+
+    /**
+     * Encodes the image, which must be supported, see {@link #canEncode(RenderedImage)}
+     *
+     * @param image the image to encode
+     * @param out the destination stream
+     * @param quality the encoding quality, between 0 (max compression) and 1 (fastest)
+     * @param filterType the scanline filter, only {@link FilterType#FILTER_SUB} is used, {@link FilterType#FILTER_NONE}
+     *     otherwise
+     */
+    public void encode(RenderedImage image, OutputStream out, float quality, FilterType filterType)
+            throws IOException {
+        if (executor == null) {
+            throw new IllegalStateException("Parallel PNG encoding is disabled, see " + THREADS);
+        }
+        Layout layout = Layout.of(image);
+        if (layout == null) {
+            throw new IllegalArgumentException("Unsupported image layout " + image.getSampleModel());
+        }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int filter = filterType == FilterType.FILTER_SUB ? FILTER_SUB : FILTER_NONE;
+        Source source = new RasterSource(image, layout);
+
+        // high variation rasters are not going to fit in a palette, skip the search
+        if ((layout.colorType == COLOR_RGB || layout.colorType == COLOR_RGBA) && filter == FILTER_NONE) {
+            PaletteSource palette = PaletteSource.detect(source, layout, width, height);
+            if (palette != null) {
+                layout = palette.getLayout();
+                source = palette;
+            }
+        }
+
+        int level = Math.max(0, Math.min(9, Math.round(9 * (1f - quality))));
+        int strategy = filter == FILTER_NONE ? Deflater.DEFAULT_STRATEGY : Deflater.FILTERED;
+        int rowBytes = 1 + width * layout.channels;
+        int rows = Math.max(1, stripeSize / rowBytes);
+        int window = threads * 2;
+        Source stripeSource = source;
+
+        Deque<Future<Stripe>> pending = new ArrayDeque<>();
+        try {
+            out.write(SIGNATURE);
+            writeHeader(out, width, height, layout);
+            writeChunk(out, "IDAT", zlibHeader(level), 0, 2);
+            long adler = 1;
+            int next = 0;
+            while (next < height || !pending.isEmpty()) {
+                while (next < height && pending.size() < window) {
+                    int y0 = next;
+                    int stripeRows = Math.min(rows, height - next);
+                    pending.add(executor.submit(
+                            () -> encodeStripe(stripeSource, y0, stripeRows, filter, level, strategy)));
+                    next += stripeRows;
+                }
+                Stripe stripe = pending.poll().get();
+                try {
+                    adler = combineAdler32(adler, stripe.adler, stripe.rawLength);
+                    writeChunk(out, "IDAT", stripe.compressed, 0, stripe.compressedLength);
+                } finally {
+                    release(stripe);
+                }
+            }
+            byte[] trailer = {(byte) (adler >>> 24), (byte) (adler >>> 16), (byte) (adler >>> 8), (byte) adler};
+            writeChunk(out, "IDAT", trailer, 0, trailer.length);
+            writeChunk(out, "IEND", new byte[0], 0, 0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while encoding the PNG");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            throw new IOException("Failed to encode the PNG", cause);
+        } finally {
+            for (Future<Stripe> future : pending) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /** Filters and compresses a stripe of rows, the last one terminates the deflate stream */
+    private Stripe encodeStripe(Source source, int y0, int rows, int filter, int level, int strategy)
+            throws IOException {
+        Stripe stripe = acquire();
+        Deflater deflater = acquire(level, strategy);
+        try {
+            int rowBytes = 1 + source.getRowLength();
+            stripe.rawLength = filter(source, y0, rows, filter, stripe);
+
+            // prime the deflater with the tail of the previous stripe, the decoder will have it in its window
+            if (y0 > 0) {
+                int dictionaryRows = Math.min(y0, (WINDOW_SIZE + rowBytes - 1) / rowBytes);
+                int length = filter(source, y0 - dictionaryRows, dictionaryRows, filter, stripe.dictionary());
+                int size = Math.min(WINDOW_SIZE, length);
+                deflater.setDictionary(stripe.dictionary.raw, length - size, size);
+            }
+
+            Adler32 adler = new Adler32();
+            adler.update(stripe.raw, 0, stripe.rawLength);
+            stripe.adler = adler.getValue();
+
+            deflater.setInput(stripe.raw, 0, stripe.rawLength);
+            boolean last = y0 + rows == source.getHeight();
+            if (last) {
+                deflater.finish();
+            }
+            int length = 0;
+            while (true) {
+                if (length == stripe.compressed.length) {
+                    stripe.compressed = grow(stripe.compressed, length);
+                }
+                int available = stripe.compressed.length - length;
+                // sync flushing ends the stripe at a byte boundary, without terminating the stream
+                length += last
+                        ? deflater.deflate(stripe.compressed, length, available)
+                        : deflater.deflate(stripe.compressed, length, available, Deflater.SYNC_FLUSH);
+                // the first call after a level or strategy change might just apply it, without consuming input
+                boolean flushed = deflater.needsInput() && length < stripe.compressed.length;
+                if (last ? deflater.finished() : flushed) {
+                    break;
+                }
+            }
+            stripe.compressedLength = length;
+            return stripe;
+        } catch (RuntimeException | IOException e) {
+            release(stripe);
+            throw e;
+        } finally {
+            release(deflater);
+        }
+    }
+
+    /** Filters the rows into the stripe raw buffer, returns the filtered data length */
+    private static int filter(Source source, int y0, int rows, int filter, Stripe stripe) throws IOException {
+        int rowLength = source.getRowLength();
+        int length = rows * (1 + rowLength);
+        if (stripe.raw.length < length) {
+            stripe.raw = new byte[length];
+        }
+        if (stripe.row.length < rowLength) {
+            stripe.row = new byte[rowLength];
+        }
+        byte[] row = stripe.row;
+        byte[] raw = stripe.raw;
+        int bpp = source.getChannels();
+        RowReader reader = source.open(y0, rows);
+        for (int r = 0, offset = 0; r < rows; r++, offset += 1 + rowLength) {
+            reader.read(y0 + r, row);
+            raw[offset] = (byte) filter;
+            if (filter == FILTER_SUB) {
+                filterSub(row, raw, offset + 1, rowLength, bpp);
+            } else {
+                System.arraycopy(row, 0, raw, offset + 1, rowLength);
+            }
+        }
+        return length;
+    }
+
+    /** Each byte minus the corresponding one of the previous pixel, a loop the JIT can vectorize */
+    static void filterSub(byte[] row, byte[] target, int offset, int length, int bpp) {
+        System.arraycopy(row, 0, target, offset, bpp);
+        for (int i = bpp; i < length; i++) {
+            target[offset + i] = (byte) (row[i] - row[i - bpp]);
+        }
+    }
+
+    /** The zlib stream header, see RFC 1950 */
+    static byte[] zlibHeader(int level) {
+        int cmf = 0x78;
+        int flevel = level < 2 ? 0 : level < 6 ? 1 : level == 6 ? 2 : 3;
+        int flg = flevel << 6;
+        flg += 31 - ((cmf << 8) + flg) % 31;
+        return new byte[] {(byte) cmf, (byte) flg};
+    }
+
+    /** Combines the Adler-32 checksums of two consecutive blocks of data, as zlib adler32_combine does */
+    static long combineAdler32(long adler1, long adler2, long length2) {
+        final long base = 65521;
+        long remainder = length2 % base;
+        long sum1 = adler1 & 0xffff;
+        long sum2 = (remainder * sum1) % base;
+        sum1 += (adler2 & 0xffff) + base - 1;
+        sum2 += ((adler1 >>> 16) & 0xffff) + ((adler2 >>> 16) & 0xffff) + base - remainder;
+        if (sum1 >= base) sum1 -= base;
+        if (sum1 >= base) sum1 -= base;
+        if (sum2 >= (base << 1)) sum2 -= (base << 1);
+        if (sum2 >= base) sum2 -= base;
+        return (sum2 << 16) | sum1;
+    }
+
+    private static void writeHeader(OutputStream out, int width, int height, Layout layout) throws IOException {
+        byte[] ihdr = new byte[13];
+        putInt(ihdr, 0, width);
+        putInt(ihdr, 4, height);
+        ihdr[8] = 8;
+        ihdr[9] = (byte) layout.colorType;
+        writeChunk(out, "IHDR", ihdr, 0, ihdr.length);
+        if (layout.palette != null) {
+            writeChunk(out, "PLTE", layout.palette, 0, layout.palette.length);
+        }
+        if (layout.transparency != null) {
+            writeChunk(out, "tRNS", layout.transparency, 0, layout.transparency.length);
+        }
+    }
+
+    private static void writeChunk(OutputStream out, String type, byte[] data, int offset, int length)
+            throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        byte[] header = new byte[8];
+        putInt(header, 0, length);
+        System.arraycopy(typeBytes, 0, header, 4, 4);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data, offset, length);
+        byte[] trailer = new byte[4];
+        putInt(trailer, 0, (int) crc.getValue());
+        out.write(header);
+        out.write(data, offset, length);
+        out.write(trailer);
+    }
+
+    private static void putInt(byte[] target, int offset, int value) {
+        target[offset] = (byte) (value >>> 24);
+        target[offset + 1] = (byte) (value >>> 16);
+        target[offset + 2] = (byte) (value >>> 8);
+        target[offset + 3] = (byte) value;
+    }
+
+    private static byte[] grow(byte[] buffer, int length) {
+        byte[] grown = new byte[Math.max(1024, length * 2)];
+        System.arraycopy(buffer, 0, grown, 0, length);
+        return grown;
+    }
+
+    private Deflater acquire(int level, int strategy) {
+        Deflater deflater = deflaters.poll();
+        if (deflater == null) {
+            deflater = new Deflater(level, true);
+        }
+        deflater.setLevel(level);
+        deflater.setStrategy(strategy);
+        return deflater;
+    }
+
+    private void release(Deflater deflater) {
+        deflater.reset();
+        if (!deflaters.offer(deflater)) {
+            deflater.end();
+        }
+    }
+
+    private Stripe acquire() {
+        Stripe stripe = stripes.poll();
+        return stripe != null ? stripe : new Stripe();
+    }
+
+    /** Pools the stripe, unless its buffers grew past what a stripe of the configured size needs */
+    private void release(Stripe stripe) {
+        if (stripe.size() <= getMaxPooledSize()) {
+            stripes.offer(stripe);
+        }
+    }
+
+    /** The largest stripe worth pooling: raw and compressed data of a stripe, and the dictionary of the previous one */
+    long getMaxPooledSize() {
+        return 4L * stripeSize + 4L * WINDOW_SIZE;
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        Deflater deflater;
+        while ((deflater = deflaters.poll()) != null) {
+            deflater.end();
+        }
+    }
+
+    /** The reusable buffers of a stripe */
+    static class Stripe {
+
+        byte[] row = new byte[0];
+
+        byte[] raw = new byte[0];
+
+        byte[] compressed = new byte[0];
+
+        Stripe dictionary;
+
+        int rawLength;
+
+        int compressedLength;
+
+        long adler;
+
+        /** The size of the buffers held, in bytes */
+        long size() {
+            long size = (long) row.length + raw.length + compressed.length;
+            return dictionary != null ? size + dictionary.size() : size;
+        }
+
+        /** Buffers for the rows of the previous stripe used as dictionary */
+        Stripe dictionary() {
+            if (dictionary == null) {
+                dictionary = new Stripe();
+            }
+            return dictionary;
+        }
+    }
+
+    /** The PNG layout of an image */
+    static class Layout {
+
+        final int colorType;
+
+        final int channels;
+
+        final byte[] palette;
+
+        final byte[] transparency;
+
+        Layout(int colorType, int channels, byte[] palette, byte[] transparency) {
+            this.colorType = colorType;
+            this.channels = channels;
+            this.palette = palette;
+            this.transparency = transparency;
+        }
+
+        /** Returns the layout of the image, or null if the image is not byte interleaved, 8 bits per sample */
+        static Layout of(RenderedImage image) {
+            SampleModel sm = image.getSampleModel();
+            ColorModel cm = image.getColorModel();
+            if (!(sm instanceof ComponentSampleModel) || sm.getDataType() != DataBuffer.TYPE_BYTE || cm == null) {
+                return null;
+            }
+            for (int bank : ((ComponentSampleModel) sm).getBankIndices()) {
+                if (bank != 0) {
+                    return null;
+                }
+            }
+            int bands = sm.getNumBands();
+            if (cm instanceof IndexColorModel && bands == 1) {
+                return of((IndexColorModel) cm);
+            }
+            if (!(cm instanceof ComponentColorModel) || cm.isAlphaPremultiplied()) {
+                return null;
+            }
+            int colorSpace = cm.getColorSpace().getType();
+            boolean alpha = cm.hasAlpha();
+            if (colorSpace == ColorSpace.TYPE_GRAY && bands == (alpha ? 2 : 1)) {
+                return new Layout(alpha ? COLOR_GRAY_ALPHA : COLOR_GRAY, bands, null, null);
+            } else if (colorSpace == ColorSpace.TYPE_RGB && bands == (alpha ? 4 : 3)) {
+                return new Layout(alpha ? COLOR_RGBA : COLOR_RGB, bands, null, null);
+            }
+            return null;
+        }
+
+        private static Layout of(IndexColorModel icm) {
+            int size = icm.getMapSize();
+            byte[] palette = new byte[size * 3];
+            int translucent = 0;
+            for (int i = 0; i < size; i++) {
+                palette[i * 3] = (byte) icm.getRed(i);
+                palette[i * 3 + 1] = (byte) icm.getGreen(i);
+                palette[i * 3 + 2] = (byte) icm.getBlue(i);
+                if (icm.getAlpha(i) != 255) {
+                    translucent = i + 1;
+                }
+            }
+            byte[] transparency = null;
+            if (icm.getTransparency() != Transparency.OPAQUE && translucent > 0) {
+                transparency = new byte[translucent];
+                for (int i = 0; i < translucent; i++) {
+                    transparency[i] = (byte) icm.getAlpha(i);
+                }
+            }
+            return new Layout(COLOR_PALETTE, 1, palette, transparency);
+        }
+    }
+
+    /** Reads image rows as interleaved samples, in PNG order */
+    interface RowReader {
+        void read(int y, byte[] row);
+    }
+
+    /** Provides the image rows */
+    abstract static class Source {
+
+        final int width;
+
+        final int height;
+
+        final int channels;
+
+        Source(int width, int height, int channels) {
+            this.width = width;
+            this.height = height;
+            this.channels = channels;
+        }
+
+        int getHeight() {
+            return height;
+        }
+
+        int getChannels() {
+            return channels;
+        }
+
+        int getRowLength() {
+            return width * channels;
+        }
+
+        /** Returns a reader for the specified rows */
+        abstract RowReader open(int y0, int rows) throws IOException;
+    }
+
+    /** Reads the rows out of the image rasters */
+    static class RasterSource extends Source {
+
+        final RenderedImage image;
+
+        RasterSource(RenderedImage image, Layout layout) {
+            super(image.getWidth(), image.getHeight(), layout.channels);
+            this.image = image;
+        }
+
+        @Override
+        RowReader open(int y0, int rows) {
+            // buffered images are read in place, the others copy the stripe rows out
+            Raster raster = image instanceof BufferedImage
+                    ? ((BufferedImage) image).getRaster()
+                    : image.getData(new Rectangle(image.getMinX(), image.getMinY() + y0, width, rows));
+            ComponentSampleModel sm = (ComponentSampleModel) raster.getSampleModel();
+            byte[] data = ((DataBufferByte) raster.getDataBuffer()).getData();
+            int[] offsets = sm.getBandOffsets();
+            int pixelStride = sm.getPixelStride();
+            int scanlineStride = sm.getScanlineStride();
+            int base = raster.getDataBuffer().getOffset()
+                    + (image.getMinX() - raster.getSampleModelTranslateX()) * pixelStride;
+            int minY = image.getMinY() - raster.getSampleModelTranslateY();
+            boolean contiguous = pixelStride == channels && isIdentity(offsets);
+            return (y, row) -> {
+                int start = base + (minY + y) * scanlineStride;
+                if (contiguous) {
+                    System.arraycopy(data, start, row, 0, width * channels);
+                    return;
+                }
+                for (int c = 0; c < channels; c++) {
+                    for (int x = 0, s = start + offsets[c], d = c; x < width; x++, s += pixelStride, d += channels) {
+                        row[d] = data[s];
+                    }
+                }
+            };
+        }
+
+        private static boolean isIdentity(int[] offsets) {
+            for (int i = 0; i < offsets.length; i++) {
+                if (offsets[i] != i) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /** Reads the rows of a true color image as palette indexes */
+    static class PaletteSource extends Source {
+
+        final Source source;
+
+        /** Open addressing table, holding the colors and their index + 1, so that 0 marks an empty slot */
+        final int[] keys;
+
+        final int[] values;
+
+        final Layout layout;
+
+        PaletteSource(Source source, int[] keys, int[] values, Layout layout) {
+            super(source.width, source.height, 1);
+            this.source = source;
+            this.keys = keys;
+            this.values = values;
+            this.layout = layout;
+        }
+
+        Layout getLayout() {
+            return layout;
+        }
+
+        @Override
+        RowReader open(int y0, int rows) throws IOException {
+            RowReader reader = source.open(y0, rows);
+            byte[] pixels = new byte[source.getRowLength()];
+            int sourceChannels = source.getChannels();
+            return (y, row) -> {
+                reader.read(y, pixels);
+                int lastColor = 0;
+                int lastIndex = -1;
+                for (int x = 0, p = 0; x < width; x++, p += sourceChannels) {
+                    int color = color(pixels, p, sourceChannels);
+                    if (color != lastColor || lastIndex < 0) {
+                        lastColor = color;
+                        lastIndex = values[slot(keys, values, color)] - 1;
+                    }
+                    row[x] = (byte) lastIndex;
+                }
+            };
+        }
+
+        private static int color(byte[] row, int p, int channels) {
+            return (row[p] & 0xFF) << 24
+                    | (row[p + 1] & 0xFF) << 16
+                    | (row[p + 2] & 0xFF) << 8
+                    | (channels == 4 ? row[p + 3] & 0xFF : 0xFF);
+        }
+
+        /** Returns the slot of the color in the table, or the empty slot where it would go */
+        private static int slot(int[] keys, int[] values, int color) {
+            int slot = (color * 0x9E3779B9) >>> 22;
+            while (values[slot] != 0 && keys[slot] != color) {
+                slot = (slot + 1) & 1023;
+            }
+            return slot;
+        }
+
+        /**
+         * Collects the colors of the image, returns null as soon as the image turns out to use more than 256 colors.
+         * The pixels are turned into palette indexes later, as the stripes are read, so that no index image is kept in
+         * memory
+         */
+        static PaletteSource detect(Source source, Layout layout, int width, int height) throws IOException {
+            int channels = layout.channels;
+            byte[] row = new byte[width * channels];
+            int[] keys = new int[1024];
+            int[] values = new int[1024];
+            int[] colors = new int[256];
+            int count = 0;
+            int lastColor = 0;
+            boolean first = true;
+            int stripeRows = Math.max(1, DEFAULT_STRIPE_SIZE / Math.max(1, row.length));
+            for (int y0 = 0; y0 < height; y0 += stripeRows) {
+                int rows = Math.min(stripeRows, height - y0);
+                RowReader reader = source.open(y0, rows);
+                for (int y = y0; y < y0 + rows; y++) {
+                    reader.read(y, row);
+                    for (int x = 0, p = 0; x < width; x++, p += channels) {
+                        int color = color(row, p, channels);
+                        if (color != lastColor || first) {
+                            int slot = slot(keys, values, color);
+                            if (values[slot] == 0) {
+                                if (count == 256) {
+                                    return null;
+                                }
+                                keys[slot] = color;
+                                values[slot] = count + 1;
+                                colors[count++] = color;
+                            }
+                            lastColor = color;
+                            first = false;
+                        }
+                    }
+                }
+            }
+
+            byte[] palette = new byte[count * 3];
+            int translucent = 0;
+            for (int i = 0; i < count; i++) {
+                palette[i * 3] = (byte) (colors[i] >>> 24);
+                palette[i * 3 + 1] = (byte) (colors[i] >>> 16);
+                palette[i * 3 + 2] = (byte) (colors[i] >>> 8);
+                if ((colors[i] & 0xFF) != 0xFF) {
+                    translucent = i + 1;
+                }
+            }
+            byte[] transparency = null;
+            if (translucent > 0) {
+                transparency = new byte[translucent];
+                for (int i = 0; i < translucent; i++) {
+                    transparency[i] = (byte) colors[i];
+                }
+            }
+            return new PaletteSource(source, keys, values, new Layout(COLOR_PALETTE, 1, palette, transparency));
+        }
+    }
+}
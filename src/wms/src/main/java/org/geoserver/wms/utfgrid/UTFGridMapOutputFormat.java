@@ -81,6 +81,12 @@ public MapProducerCapabilities getCapabilities(String format) {
     @Override
     public WebMap produceMap(WMSMapContent mapContent) throws ServiceException, IOException {
         RenderedImageMapOutputFormat of = new RenderedImageMapOutputFormat(wms) {
+            @Override
+            public boolean isParallelRenderingSupported() {
+                // colors are feature ids, they cannot be composited
+                return false;
+            }
+
             @Override
             protected StreamingRenderer buildRenderer() {
                 // use a renderer that won't render raster or labels, not even by accident
@@ -0,0 +1,216 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wms.capabilities;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.geoserver.catalog.DimensionInfo;
+import org.geoserver.catalog.LayerInfo;
+import org.geoserver.catalog.PublishedType;
+import org.geoserver.catalog.ResourceInfo;
+import org.geoserver.catalog.event.impl.CatalogPostModifyEventImpl;
+import org.geoserver.catalog.impl.CatalogImpl;
+import org.geoserver.catalog.impl.DimensionInfoImpl;
+import org.geoserver.catalog.impl.FeatureTypeInfoImpl;
+import org.geoserver.catalog.impl.LayerInfoImpl;
+import org.geoserver.config.GeoServerDataDirectory;
+import org.geoserver.config.impl.GeoServerImpl;
+import org.geoserver.platform.GeoServerExtensionsHelper;
+import org.geoserver.security.AccessMode;
+import org.geoserver.security.impl.DataAccessRuleDAO;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.DefaultHandler;
+
+public class LayerCapabilitiesEncoderTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    GeoServerImpl geoServer;
+
+    LayerCapabilitiesEncoder encoder;
+
+    List<LayerInfo> layers = new ArrayList<>();
+
+    Map<String, AtomicInteger> encodings = new ConcurrentHashMap<>();
+
+    @Before
+    public void setUp() {
+        GeoServerExtensionsHelper.setIsSpringContext(false);
+        CatalogImpl catalog = new CatalogImpl();
+        geoServer = new GeoServerImpl();
+        geoServer.setCatalog(catalog);
+        for (int i = 0; i < 20; i++) {
+            FeatureTypeInfoImpl resource = new FeatureTypeInfoImpl(catalog, "resource" + i);
+            resource.setName("layer" + i);
+            LayerInfoImpl layer = new LayerInfoImpl();
+            layer.setId("layer" + i);
+            layer.setResource(resource);
+            layer.setType(PublishedType.VECTOR);
+            layers.add(layer);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        if (encoder != null) {
+            encoder.destroy();
+        }
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testParallelOrder() {
+        encoder = new LayerCapabilitiesEncoder(geoServer, 4, 0);
+        assertEquals(names(layers), encode());
+    }
+
+    @Test
+    public void testErrors() {
+        encoder = new LayerCapabilitiesEncoder(geoServer, 4, 0);
+        List<String> failed = new ArrayList<>();
+        List<String> encoded = new ArrayList<>();
+        encoder.encode(
+                layers,
+                "",
+                (layer, handler) -> {
+                    if (layer.getName().equals("layer5")) {
+                        throw new IllegalStateException("failed");
+                    }
+                    write(layer, handler);
+                },
+                (layer, fragment, error) -> {
+                    if (error != null) {
+                        assertNull(fragment);
+                        failed.add(layer.getName());
+                    } else {
+                        fragment.replay(collector(encoded));
+                    }
+                });
+        assertEquals(List.of("layer5"), failed);
+        assertEquals(19, encoded.size());
+        assertFalse(encoded.contains("layer5"));
+    }
+
+    @Test
+    public void testMemoization() {
+        encoder = new LayerCapabilitiesEncoder(geoServer, 1, 100);
+        assertEquals(names(layers), encode());
+        assertEquals(names(layers), encode());
+        assertEquals(20, encoder.size());
+        assertTrue(encodings.values().stream().allMatch(c -> c.get() == 1));
+
+        // changing a layer resource only invalidates that layer
+        CatalogPostModifyEventImpl event = new CatalogPostModifyEventImpl();
+        event.setSource(layers.get(3).getResource());
+        encoder.handlePostModifyEvent(event);
+        assertEquals(names(layers), encode());
+        assertEquals(2, encodings.get("layer3").get());
+        assertEquals(1, encodings.get("layer4").get());
+
+        // a different context is memoized separately
+        encoder.encode(layers, "other", this::write, (layer, fragment, error) -> {});
+        assertEquals(2, encodings.get("layer4").get());
+    }
+
+    @Test
+    public void testAccessRulesChange() throws Exception {
+        AtomicLong lastModified = new AtomicLong(1);
+        GeoServerDataDirectory dd = new GeoServerDataDirectory(tempFolder.getRoot());
+        DataAccessRuleDAO rules = new DataAccessRuleDAO(dd, geoServer.getCatalog()) {
+            @Override
+            public AccessMode getMode() {
+                return AccessMode.HIDE;
+            }
+
+            @Override
+            public long getLastModified() {
+                return lastModified.get();
+            }
+        };
+        encoder = new LayerCapabilitiesEncoder(geoServer, 1, 100);
+        encoder.setAccessRules(rules);
+        encode();
+        encode();
+        assertEquals(1, encodings.get("layer3").get());
+
+        // the rules changed, the layers accessible to the same roles might have changed too
+        lastModified.incrementAndGet();
+        encode();
+        assertEquals(2, encodings.get("layer3").get());
+    }
+
+    @Test
+    public void testContextUser() {
+        encoder = new LayerCapabilitiesEncoder(geoServer, 1, 100);
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("alice", null, "ROLE_A"));
+        String alice = encoder.getContext("a");
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("bob", null, "ROLE_A"));
+        String bob = encoder.getContext("a");
+        // same roles, but no default access manager to tell the user name does not matter
+        assertNotEquals(alice, bob);
+    }
+
+    @Test
+    public void testDimensionsNotMemoized() {
+        ResourceInfo resource = layers.get(0).getResource();
+        assertTrue(LayerCapabilitiesEncoder.isMemoizable(layers.get(0)));
+        DimensionInfo time = new DimensionInfoImpl();
+        time.setEnabled(true);
+        resource.getMetadata().put(ResourceInfo.TIME, time);
+        assertFalse(LayerCapabilitiesEncoder.isMemoizable(layers.get(0)));
+    }
+
+    private List<String> encode() {
+        List<String> encoded = new ArrayList<>();
+        encoder.encode(layers, "", this::write, (layer, fragment, error) -> fragment.replay(collector(encoded)));
+        return encoded;
+    }
+
+    private void write(LayerInfo layer, ContentHandler handler) throws Exception {
+        encodings.computeIfAbsent(layer.getName(), n -> new AtomicInteger()).incrementAndGet();
+        // make the later layers complete first
+        Thread.sleep(20 - layers.indexOf(layer));
+        handler.startElement("", "Layer", "Layer", new AttributesImpl());
+        char[] name = layer.getName().toCharArray();
+        handler.characters(name, 0, name.length);
+        handler.endElement("", "Layer", "Layer");
+    }
+
+    private static DefaultHandler collector(List<String> names) {
+        return new DefaultHandler() {
+            @Override
+            public void characters(char[] ch, int start, int length) {
+                names.add(new String(ch, start, length));
+            }
+        };
+    }
+
+    private static List<String> names(List<LayerInfo> layers) {
+        List<String> names = new ArrayList<>();
+        for (LayerInfo layer : layers) {
+            names.add(layer.getName());
+        }
+        return names;
+    }
+}
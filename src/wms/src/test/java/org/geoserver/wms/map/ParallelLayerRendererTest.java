@@ -0,0 +1,153 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wms.map;
+
+import static org.junit.Assert.assertEquals;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.geoserver.wms.WMSMapContent;
+import org.geotools.api.feature.simple.SimpleFeatureType;
+import org.geotools.api.style.FeatureTypeStyle;
+import org.geotools.api.style.Style;
+import org.geotools.data.DataUtilities;
+import org.geotools.data.collection.ListFeatureCollection;
+import org.geotools.feature.simple.SimpleFeatureBuilder;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.map.FeatureLayer;
+import org.geotools.map.Layer;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.geotools.renderer.lite.RendererUtilities;
+import org.geotools.renderer.lite.StreamingRenderer;
+import org.geotools.styling.StyleBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.locationtech.jts.io.WKTReader;
+
+public class ParallelLayerRendererTest {
+
+    static final ReferencedEnvelope BOUNDS = new ReferencedEnvelope(0, 10, 0, 10, DefaultGeographicCRS.WGS84);
+
+    static final Color[] COLORS = {Color.RED, Color.GREEN, Color.BLUE, Color.YELLOW};
+
+    StyleBuilder sb = new StyleBuilder();
+
+    SimpleFeatureType type;
+
+    WMSMapContent mapContent;
+
+    ExecutorService executor;
+
+    @Before
+    public void setUp() throws Exception {
+        type = DataUtilities.createType("square", "geom:Polygon,name:String");
+        mapContent = new WMSMapContent();
+        mapContent.getViewport().setBounds(BOUNDS);
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() {
+        mapContent.dispose();
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testGroups() throws Exception {
+        List<Layer> layers = layers(polygonStyle(0), polygonStyle(1), polygonStyle(2), polygonStyle(3));
+        assertEquals(
+                Arrays.asList(layers.subList(0, 2), layers.subList(2, 4)), ParallelLayerRenderer.getGroups(layers, 2));
+        assertEquals(4, ParallelLayerRenderer.getGroups(layers, 8).size());
+    }
+
+    @Test
+    public void testBlendingKeepsLayersBelow() throws Exception {
+        Style multiply = polygonStyle(2);
+        multiply.featureTypeStyles().get(0).getOptions().put(FeatureTypeStyle.COMPOSITE, "multiply");
+        List<Layer> layers = layers(polygonStyle(0), polygonStyle(1), multiply, polygonStyle(3));
+        assertEquals(
+                Arrays.asList(layers.subList(0, 3), layers.subList(3, 4)), ParallelLayerRenderer.getGroups(layers, 4));
+
+        // plain opacity does not depend on the layers below
+        multiply.featureTypeStyles().get(0).getOptions().put(FeatureTypeStyle.COMPOSITE, "source-over, 0.5");
+        assertEquals(4, ParallelLayerRenderer.getGroups(layers, 4).size());
+    }
+
+    @Test
+    public void testLabelsOnTop() throws Exception {
+        Style labels = polygonStyle(1);
+        labels.featureTypeStyles()
+                .get(0)
+                .rules()
+                .get(0)
+                .symbolizers()
+                .add(sb.createTextSymbolizer(Color.BLACK, sb.createFont("Serif", 10), "name"));
+        List<Layer> layers = layers(polygonStyle(0), labels, polygonStyle(2), polygonStyle(3));
+        assertEquals(
+                Arrays.asList(layers.subList(0, 1), layers.subList(1, 4)), ParallelLayerRenderer.getGroups(layers, 4));
+    }
+
+    @Test
+    public void testSameOutput() throws Exception {
+        List<Layer> layers = layers(polygonStyle(0), polygonStyle(1), polygonStyle(2), polygonStyle(3));
+        BufferedImage expected = paint(new StreamingRenderer());
+
+        List<List<Layer>> groups = ParallelLayerRenderer.getGroups(layers, 3);
+        BufferedImage actual = paint(new ParallelLayerRenderer(mapContent, groups, StreamingRenderer::new));
+
+        for (int x = 0; x < expected.getWidth(); x++) {
+            for (int y = 0; y < expected.getHeight(); y++) {
+                assertEquals("Pixel " + x + "," + y, expected.getRGB(x, y), actual.getRGB(x, y));
+            }
+        }
+    }
+
+    private BufferedImage paint(StreamingRenderer renderer) {
+        Rectangle paintArea = new Rectangle(0, 0, 100, 100);
+        BufferedImage image = new BufferedImage(paintArea.width, paintArea.height, BufferedImage.TYPE_4BYTE_ABGR);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.WHITE);
+        graphics.fill(paintArea);
+        RenderingHints hints = new RenderingHints(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_OFF);
+        graphics.setRenderingHints(hints);
+        renderer.setJava2DHints(hints);
+        renderer.setThreadPool(executor);
+        renderer.setMapContent(mapContent);
+        AffineTransform worldToScreen = RendererUtilities.worldToScreenTransform(BOUNDS, paintArea);
+        renderer.paint(graphics, paintArea, BOUNDS, worldToScreen);
+        graphics.dispose();
+        return image;
+    }
+
+    /** Builds overlapping squares, one per style, and adds them to the map */
+    private List<Layer> layers(Style... styles) throws Exception {
+        List<Layer> layers = new ArrayList<>();
+        WKTReader reader = new WKTReader();
+        for (int i = 0; i < styles.length; i++) {
+            String wkt = String.format(
+                    "POLYGON((%d %d, %d %d, %d %d, %d %d, %d %d))", i, i, i + 4, i, i + 4, i + 4, i, i + 4, i, i);
+            ListFeatureCollection features = new ListFeatureCollection(type);
+            features.add(SimpleFeatureBuilder.build(type, new Object[] {reader.read(wkt), "f" + i}, "f" + i));
+            Layer layer = new FeatureLayer(features, styles[i]);
+            mapContent.addLayer(layer);
+            layers.add(layer);
+        }
+        return layers;
+    }
+
+    private Style polygonStyle(int i) {
+        return sb.createStyle(sb.createPolygonSymbolizer(COLORS[i]));
+    }
+}
@@ -6,15 +6,43 @@
 package org.geoserver.wms.map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import java.awt.Point;
 import java.awt.geom.Point2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.RenderedImage;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.geoserver.catalog.WorkspaceInfo;
+import org.geoserver.catalog.impl.CatalogImpl;
+import org.geoserver.catalog.impl.WorkspaceInfoImpl;
+import org.geoserver.config.impl.GeoServerImpl;
+import org.geoserver.platform.GeoServerExtensionsHelper;
+import org.geoserver.wms.GetMapRequest;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.junit.After;
 import org.junit.Test;
 import org.locationtech.jts.geom.Envelope;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 
 public class QuickTileCacheTest {
     QuickTileCache cache = new QuickTileCache();
 
+    @After
+    public void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
     @Test
     public void testMetaCoordinates() {
         Point orig = new Point(0, 0);
@@ -65,4 +93,149 @@ public void testInnerTileOffsets() {
         assertEquals(new Point(0, 2), cache.getTileOffsetsInMeta(box1, meta));
         assertEquals(new Point(1, 2), cache.getTileOffsetsInMeta(box2, meta));
     }
+
+    @Test
+    public void testSingleFlight() throws Exception {
+        QuickTileCache.MetaTileKey key = key(0);
+        AtomicInteger builds = new AtomicInteger();
+        CountDownLatch building = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<RenderedImage[]> first = executor.submit(() -> cache.getTiles(key, () -> {
+                builds.incrementAndGet();
+                building.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return tiles();
+            }));
+            assertTrue(building.await(10, TimeUnit.SECONDS));
+            Future<RenderedImage[]> second = executor.submit(() -> cache.getTiles(key, () -> {
+                builds.incrementAndGet();
+                return tiles();
+            }));
+
+            // another meta-tile is not blocked by the one being built
+            cache.getTiles(key(1), this::tiles);
+
+            // wait for the second request to be queued on the first one
+            for (int i = 0; i < 100 && cache.getWaits() == 0; i++) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+            assertSame(first.get(10, TimeUnit.SECONDS), second.get(10, TimeUnit.SECONDS));
+            assertEquals(1, builds.get());
+            assertEquals(2, cache.getMisses());
+            assertEquals(1, cache.getWaits());
+
+            // now it's cached
+            cache.getTiles(key, this::tiles);
+            assertEquals(1, cache.getHits());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testEviction() throws Exception {
+        // room for a single meta-tile
+        RenderedImage[] tiles = tiles();
+        QuickTileCache cache = new QuickTileCache(QuickTileCache.getSize(tiles) + 1);
+        cache.getTiles(key(0), () -> tiles);
+        cache.getTiles(key(1), () -> tiles);
+        cache.getTiles(key(1), () -> tiles);
+        assertEquals(1, cache.getHits());
+        cache.getTiles(key(0), () -> tiles);
+        assertEquals(3, cache.getMisses());
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        cache.getTiles(key(0), this::tiles);
+        cache.clear();
+        cache.getTiles(key(0), this::tiles);
+        assertEquals(2, cache.getMisses());
+        assertEquals(0, cache.getHits());
+    }
+
+    @Test
+    public void testCatalogChangesClear() throws Exception {
+        GeoServerExtensionsHelper.setIsSpringContext(false);
+        CatalogImpl catalog = new CatalogImpl();
+        GeoServerImpl geoServer = new GeoServerImpl();
+        geoServer.setCatalog(catalog);
+        QuickTileCache cache = new QuickTileCache(geoServer);
+        cache.getTiles(key(0), this::tiles);
+        cache.getTiles(key(0), this::tiles);
+        assertEquals(1, cache.getHits());
+
+        WorkspaceInfo ws = new WorkspaceInfoImpl();
+        ws.setName("ws");
+        catalog.add(ws);
+        cache.getTiles(key(0), this::tiles);
+        assertEquals(2, cache.getMisses());
+
+        ws = catalog.getWorkspaceByName("ws");
+        ws.setName("ws2");
+        catalog.save(ws);
+        cache.getTiles(key(0), this::tiles);
+        assertEquals(3, cache.getMisses());
+
+        catalog.remove(catalog.getWorkspaceByName("ws2"));
+        cache.getTiles(key(0), this::tiles);
+        assertEquals(4, cache.getMisses());
+        assertEquals(1, cache.getHits());
+    }
+
+    @Test
+    public void testTimeToLive() throws Exception {
+        QuickTileCache cache = new QuickTileCache(QuickTileCache.DEFAULT_MAX_SIZE, 1);
+        cache.getTiles(key(0), this::tiles);
+        cache.getTiles(key(0), this::tiles);
+        assertEquals(1, cache.getHits());
+        Thread.sleep(1100);
+        cache.getTiles(key(0), this::tiles);
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void testUserIsolation() {
+        GetMapRequest request = new GetMapRequest();
+        request.setRawKvp(Map.of("LAYERS", "topp:states", "FORMAT", "image/png"));
+        request.setBbox(new Envelope(0, 10, 0, 10));
+        request.setCrs(DefaultGeographicCRS.WGS84);
+        request.setTilesOrigin(new Point2D.Double(0, 0));
+        request.setWidth(256);
+        request.setHeight(256);
+
+        QuickTileCache.MetaTileKey anonymous = cache.getMetaTileKey(request);
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("alice", null, "ROLE_A"));
+        QuickTileCache.MetaTileKey alice = cache.getMetaTileKey(request);
+        assertEquals(alice, cache.getMetaTileKey(request));
+        assertNotEquals(anonymous, alice);
+
+        // same roles, but no default access manager to tell the user name does not matter
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("bob", null, "ROLE_A"));
+        assertNotEquals(alice, cache.getMetaTileKey(request));
+
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken("alice", null, "ROLE_B"));
+        assertNotEquals(alice, cache.getMetaTileKey(request));
+    }
+
+    private QuickTileCache.MetaTileKey key(int x) {
+        QuickTileCache.MapKey mapKey = new QuickTileCache.MapKey("def", 1, new Point2D.Double(0, 0));
+        return new QuickTileCache.MetaTileKey(
+                mapKey, new Point(x, 0), new ReferencedEnvelope(x * 768, x * 768 + 768, 0, 768, null));
+    }
+
+    private RenderedImage[] tiles() {
+        RenderedImage[] tiles = new RenderedImage[9];
+        for (int i = 0; i < tiles.length; i++) {
+            tiles[i] = new BufferedImage(256, 256, BufferedImage.TYPE_INT_ARGB);
+        }
+        return tiles;
+    }
 }
@@ -0,0 +1,119 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wms.map.png;
+
+import ar.com.hjg.pngj.FilterType;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.output.NullOutputStream;
+import org.junit.Ignore;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the cost of encoding a large map in PNG with the PNGJ based {@link PNGJWriter} and with the
+ * {@link ParallelPNGEncoder}, for a vector like map, which gets palette detected, and a continuous raster one.
+ */
+@Ignore
+public class PNGEncoderBenchmarkTest {
+
+    /**
+     * Runs the JMH benchmark. This isn't a really test so it includes the @Ignore annotation; by integrating JMH with
+     * Junit it just provides us an easy way to run the benchmark (typically through the IDE).
+     */
+    @Test
+    public void runBenchmark() throws Exception {
+        Options options = new OptionsBuilder()
+                .include(PNGEncoderBenchmark.class.getSimpleName() + ".*")
+                .result("./target/png-encoder-benchmark.json")
+                .resultFormat(ResultFormatType.JSON)
+                .build();
+        new Runner(options).run();
+    }
+
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Fork(1)
+    @Warmup(iterations = 3, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    public static class PNGEncoderBenchmark {
+
+        @State(Scope.Benchmark)
+        public static class ImageState {
+
+            @Param({"vector", "raster"})
+            String map;
+
+            BufferedImage image;
+
+            ParallelPNGEncoder encoder;
+
+            @Setup
+            public void setup() {
+                image = new BufferedImage(2048, 2048, BufferedImage.TYPE_4BYTE_ABGR);
+                Random random = new Random(0);
+                if ("vector".equals(map)) {
+                    // a few antialiased lines on a transparent background, typical of vector maps
+                    Graphics2D graphics = image.createGraphics();
+                    graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                    graphics.setStroke(new BasicStroke(2));
+                    Color[] colors = {Color.RED, Color.BLUE, Color.DARK_GRAY};
+                    for (int i = 0; i < 500; i++) {
+                        graphics.setColor(colors[i % colors.length]);
+                        graphics.drawLine(
+                                random.nextInt(2048), random.nextInt(2048), random.nextInt(2048), random.nextInt(2048));
+                    }
+                    graphics.dispose();
+                } else {
+                    // a smooth gradient with some noise, as a DEM or imagery would be
+                    for (int y = 0; y < image.getHeight(); y++) {
+                        for (int x = 0; x < image.getWidth(); x++) {
+                            int value = ((x + y) / 16 + random.nextInt(4)) & 0xFF;
+                            image.setRGB(x, y, 0xFF000000 | value << 16 | (255 - value) << 8 | (x & 0xFF));
+                        }
+                    }
+                }
+                encoder = new ParallelPNGEncoder(Math.max(2, Runtime.getRuntime().availableProcessors()), 256 * 1024);
+            }
+
+            @TearDown
+            public void tearDown() {
+                encoder.destroy();
+            }
+        }
+
+        @Benchmark
+        public Object pngj(ImageState state) {
+            // without a map content the NONE filter is used, same as below
+            return new PNGJWriter().writePNG(state.image, NullOutputStream.INSTANCE, 0.75f, null);
+        }
+
+        @Benchmark
+        public Object parallel(ImageState state) throws Exception {
+            state.encoder.encode(state.image, NullOutputStream.INSTANCE, 0.75f, FilterType.FILTER_NONE);
+            return state.image;
+        }
+    }
+}
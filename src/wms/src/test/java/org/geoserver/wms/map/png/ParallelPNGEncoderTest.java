@@ -0,0 +1,175 @@
+/* (c) 2025 Open Source Geospatial Foundation - all rights reserved
+ * This code is licensed under the GPL 2.0 license, available at the root
+ * application directory.
+ */
+package org.geoserver.wms.map.png;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import ar.com.hjg.pngj.FilterType;
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+import java.util.zip.Adler32;
+import javax.imageio.ImageIO;
+import org.junit.After;
+import org.junit.Test;
+
+public class ParallelPNGEncoderTest {
+
+    ParallelPNGEncoder encoder = new ParallelPNGEncoder(4, 1024);
+
+    Random random = new Random(42);
+
+    @After
+    public void tearDown() {
+        encoder.destroy();
+    }
+
+    @Test
+    public void testCanEncode() {
+        BufferedImage image = new BufferedImage(300, 200, BufferedImage.TYPE_4BYTE_ABGR);
+        assertTrue(encoder.canEncode(image));
+        assertFalse(encoder.canEncode(new BufferedImage(10, 10, BufferedImage.TYPE_4BYTE_ABGR)));
+        assertFalse(encoder.canEncode(new BufferedImage(300, 200, BufferedImage.TYPE_INT_ARGB)));
+        assertFalse(encoder.canEncode(new BufferedImage(300, 200, BufferedImage.TYPE_USHORT_GRAY)));
+
+        // disabled with a single thread
+        ParallelPNGEncoder sequential = new ParallelPNGEncoder(1, 1024);
+        assertFalse(sequential.canEncode(image));
+        sequential.destroy();
+    }
+
+    @Test
+    public void testRGBA() throws Exception {
+        BufferedImage image = noise(new BufferedImage(300, 200, BufferedImage.TYPE_4BYTE_ABGR));
+        assertRoundTrip(image, 0.5f, FilterType.FILTER_NONE);
+        assertRoundTrip(image, 0.5f, FilterType.FILTER_SUB);
+    }
+
+    @Test
+    public void testRGB() throws Exception {
+        BufferedImage image = noise(new BufferedImage(300, 200, BufferedImage.TYPE_3BYTE_BGR));
+        assertRoundTrip(image, 0f, FilterType.FILTER_SUB);
+        assertRoundTrip(image, 1f, FilterType.FILTER_NONE);
+    }
+
+    @Test
+    public void testGray() throws Exception {
+        BufferedImage image = noise(new BufferedImage(600, 200, BufferedImage.TYPE_BYTE_GRAY));
+        assertRoundTrip(image, 0.5f, FilterType.FILTER_SUB);
+    }
+
+    @Test
+    public void testIndexed() throws Exception {
+        byte[] values = new byte[16];
+        byte[] alphas = new byte[16];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (byte) (i * 16);
+            alphas[i] = (byte) (i < 4 ? i * 64 : 255);
+        }
+        IndexColorModel icm = new IndexColorModel(8, 16, values, values, values, alphas);
+        BufferedImage image = new BufferedImage(600, 200, BufferedImage.TYPE_BYTE_INDEXED, icm);
+        byte[] data = new byte[image.getWidth()];
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < data.length; x++) {
+                data[x] = (byte) random.nextInt(16);
+            }
+            image.getRaster().setDataElements(0, y, data.length, 1, data);
+        }
+        assertRoundTrip(image, 0.5f, FilterType.FILTER_NONE);
+    }
+
+    @Test
+    public void testPaletteDetection() throws Exception {
+        // a few colors, some translucent, painted in runs as rendered maps are
+        int[] colors = {0x00000000, 0xFFFF0000, 0x8000FF00, 0xFF0000FF, 0xFFFFFFFF};
+        BufferedImage image = new BufferedImage(300, 200, BufferedImage.TYPE_4BYTE_ABGR);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                image.setRGB(x, y, colors[(x / 7 + y / 5) % colors.length]);
+            }
+        }
+        byte[] png = assertRoundTrip(image, 0.5f, FilterType.FILTER_NONE);
+        assertEquals(BufferedImage.TYPE_BYTE_INDEXED, read(png).getType());
+    }
+
+    @Test
+    public void testSubImage() throws Exception {
+        // child rasters have a sample model translation, and pixels outside of the image
+        BufferedImage image = noise(new BufferedImage(400, 300, BufferedImage.TYPE_4BYTE_ABGR));
+        assertRoundTrip(image.getSubimage(50, 70, 300, 200), 0.5f, FilterType.FILTER_SUB);
+    }
+
+    @Test
+    public void testPooledBuffersBounded() throws Exception {
+        assertRoundTrip(noise(new BufferedImage(300, 200, BufferedImage.TYPE_4BYTE_ABGR)), 0.5f, FilterType.FILTER_SUB);
+        assertFalse(encoder.stripes.isEmpty());
+        for (ParallelPNGEncoder.Stripe stripe : encoder.stripes) {
+            assertTrue(stripe.size() <= encoder.getMaxPooledSize());
+        }
+
+        // rows much larger than the stripe size, their buffers are not kept around
+        encoder.stripes.clear();
+        BufferedImage wide = noise(new BufferedImage(20000, 10, BufferedImage.TYPE_4BYTE_ABGR));
+        assertRoundTrip(wide, 0.5f, FilterType.FILTER_SUB);
+        assertTrue(encoder.stripes.isEmpty());
+    }
+
+    @Test
+    public void testCombineAdler32() {
+        byte[] data = new byte[100_000];
+        random.nextBytes(data);
+        Adler32 first = new Adler32();
+        first.update(data, 0, 30_000);
+        Adler32 second = new Adler32();
+        second.update(data, 30_000, 70_000);
+        Adler32 all = new Adler32();
+        all.update(data);
+        assertEquals(
+                all.getValue(), ParallelPNGEncoder.combineAdler32(first.getValue(), second.getValue(), 70_000));
+        assertEquals(first.getValue(), ParallelPNGEncoder.combineAdler32(1, first.getValue(), 30_000));
+    }
+
+    @Test
+    public void testZlibHeader() {
+        for (int level = 0; level <= 9; level++) {
+            byte[] header = ParallelPNGEncoder.zlibHeader(level);
+            assertEquals(0, (((header[0] & 0xFF) << 8) | (header[1] & 0xFF)) % 31);
+        }
+    }
+
+    /** Encodes the image, checks the decoded pixels match, and returns the encoded image */
+    private byte[] assertRoundTrip(BufferedImage image, float quality, FilterType filter) throws Exception {
+        assertTrue(encoder.canEncode(image));
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        encoder.encode(image, bos, quality, filter);
+        byte[] png = bos.toByteArray();
+        BufferedImage decoded = read(png);
+        assertEquals(image.getWidth(), decoded.getWidth());
+        assertEquals(image.getHeight(), decoded.getHeight());
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                assertEquals("Pixel " + x + "," + y, image.getRGB(x, y), decoded.getRGB(x, y));
+            }
+        }
+        return png;
+    }
+
+    private static BufferedImage read(byte[] png) throws Exception {
+        return ImageIO.read(new ByteArrayInputStream(png));
+    }
+
+    private BufferedImage noise(BufferedImage image) {
+        byte[] data = new byte[image.getRaster().getNumBands() * image.getWidth()];
+        for (int y = 0; y < image.getHeight(); y++) {
+            random.nextBytes(data);
+            image.getRaster().setDataElements(0, y, image.getWidth(), 1, data);
+        }
+        return image;
+    }
+}